@@ -25,6 +25,11 @@ android {
         manifestPlaceholders["MAPS_API_KEY"] = properties.getProperty("MAPS_API_KEY", "")
     }
 
+    androidResources {
+        // Keep the bundled recipe catalog uncompressed so it can be memory-mapped
+        noCompress += "bin"
+    }
+
     buildTypes {
         release {
             isMinifyEnabled = false
@@ -43,6 +48,17 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+
+    testOptions {
+        // Robolectric tests run against the merged manifest and resources
+        unitTests.isIncludeAndroidResources = true
+        unitTests.all {
+            // -PregenerateRecipeCatalog rewrites assets/default_recipes.bin from catalog/default_recipes.json
+            if (project.hasProperty("regenerateRecipeCatalog")) {
+                it.systemProperty("regenerateRecipeCatalog", "true")
+            }
+        }
+    }
 }
 
 dependencies {
@@ -75,6 +91,8 @@ dependencies {
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
     
     testImplementation(libs.junit)
+    testImplementation("com.google.code.gson:gson:2.10.1")  // Reads the recipe catalog source
+    testImplementation("org.robolectric:robolectric:4.14.1")  // Runs SqliteRecipeStore on the JVM
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -192,16 +192,11 @@ public class AddEditStoreActivity extends AppCompatActivity {
         StoreManager storeManager = StoreManager.getInstance(this);
         
         if (currentStore != null) {
-            // Update existing store
-            currentStore.setName(name);
-            currentStore.setAddress(address);
-            currentStore.setLatitude(latitude);
-            currentStore.setLongitude(longitude);
-            currentStore.setStoreType(storeType);
-            currentStore.setNotes(notes);
-            currentStore.setAvailableItems(new ArrayList<>(availableItems));
+            // Update existing store through a copy; the loaded one is shared by the store snapshot
+            Store updatedStore = new Store(currentStore.getId(), name, address, latitude, longitude,
+                    storeType, notes, new ArrayList<>(availableItems));
             
-            storeManager.updateStore(currentStore);
+            storeManager.updateStore(updatedStore);
             Toast.makeText(this, "Store updated", Toast.LENGTH_SHORT).show();
         } else {
             // Create new store
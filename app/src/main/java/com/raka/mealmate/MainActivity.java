@@ -30,16 +30,13 @@ import com.google.android.material.imageview.ShapeableImageView;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.raka.mealmate.adapters.FeaturedRecipeAdapter;
+import com.raka.mealmate.helpers.DefaultRecipeCatalog;
 import com.raka.mealmate.models.Recipe;
+import com.raka.mealmate.repositories.FirebaseRecipeRepository;
+import com.raka.mealmate.repositories.RecipeRepository;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
@@ -101,7 +98,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     
     // Add variables for recipe loading state
     private boolean isLoadingRecipes = false;
-    private DatabaseReference recipesRef;
+    private RecipeRepository.Registration featuredRecipesRegistration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -375,23 +372,18 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         if (isLoadingRecipes) return;
         isLoadingRecipes = true;
         
-        // Initialize Firebase reference
-        recipesRef = FirebaseDatabase.getInstance().getReference("premium_recipes");
-        
-        recipesRef.orderByChild("rating").limitToLast(10).addValueEventListener(new ValueEventListener() {
+        featuredRecipesRegistration = FirebaseRecipeRepository.getInstance().observeFeaturedRecipes(10,
+                new RecipeRepository.Callback<List<Recipe>>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
+            public void onSuccess(List<Recipe> featuredRecipes) {
+                // Already sorted by rating in descending order
                 List<Recipe> newRecipes = new ArrayList<>();
-                for (DataSnapshot recipeSnapshot : snapshot.getChildren()) {
-                    Recipe recipe = recipeSnapshot.getValue(Recipe.class);
-                    if (recipe != null && recipe.getRating() >= 4.5) {
+                for (Recipe recipe : featuredRecipes) {
+                    if (recipe.getRating() >= 4.5) {
                         newRecipes.add(recipe);
                     }
                 }
                 
-                // Sort by rating in descending order
-                Collections.sort(newRecipes, (r1, r2) -> Float.compare(r2.getRating(), r1.getRating()));
-                
                 // Update UI
                 recipeList.clear();
                 recipeList.addAll(newRecipes);
@@ -409,7 +401,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
             }
             
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onFailure(Exception error) {
                 isLoadingRecipes = false;
                 addSampleRecipes(); // Fallback to sample recipes
             }
@@ -481,6 +473,14 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         stopOrbitAnimation();
     }
     
+    @Override
+    protected void onDestroy() {
+        if (featuredRecipesRegistration != null) {
+            featuredRecipesRegistration.remove();
+        }
+        super.onDestroy();
+    }
+    
     @Override
     public boolean onNavigationItemSelected(@NonNull MenuItem item) {
         int id = item.getItemId();
@@ -628,54 +628,16 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     }
     
     private void addSampleRecipes() {
-        // Add high-rated premium recipe samples
-        recipeList.add(new Recipe(
-            "1",
-            "Truffle Mushroom Risotto",
-            "Dinner",
-            "45 minutes",
-            4.9f,
-            "https://images.unsplash.com/photo-1476124369491-e7addf5db371?auto=format&fit=crop&w=800&q=60"
-        ));
-        
-        recipeList.add(new Recipe(
-            "2",
-            "Seared Wagyu Steak",
-            "Dinner",
-            "35 minutes",
-            4.8f,
-            "https://images.unsplash.com/photo-1546964124-0cce460f38ef?auto=format&fit=crop&w=800&q=60"
-        ));
-        
-        recipeList.add(new Recipe(
-            "3",
-            "Lobster Thermidor",
-            "Dinner",
-            "50 minutes",
-            4.7f,
-            "https://images.unsplash.com/photo-1553247407-23251ce81f59?auto=format&fit=crop&w=800&q=60"
-        ));
-        
-        recipeList.add(new Recipe(
-            "4",
-            "Saffron Seafood Paella",
-            "Dinner",
-            "55 minutes",
-            4.8f,
-            "https://images.unsplash.com/photo-1534080564583-6be75777b70a?auto=format&fit=crop&w=800&q=60"
-        ));
-        
-        recipeList.add(new Recipe(
-            "5",
-            "Duck Confit",
-            "Dinner",
-            "3 hours",
-                4.9f,
-            "https://images.unsplash.com/photo-1580476262798-bddd9f4b7369?auto=format&fit=crop&w=800&q=60"
-        ));
-        
-        // Update adapter and start auto-scroll
-        recipeAdapter.notifyDataSetChanged();
-        startAutoScroll();
+        // Add high-rated premium recipe samples from the bundled catalog
+        DefaultRecipeCatalog.getInstance(this).loadFeaturedRecipes(sampleRecipes -> {
+            if (isDestroyed()) {
+                return;
+            }
+            recipeList.addAll(sampleRecipes);
+            
+            // Update adapter and start auto-scroll
+            recipeAdapter.notifyDataSetChanged();
+            startAutoScroll();
+        });
     }
 }
\ No newline at end of file
@@ -26,22 +26,37 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 import com.raka.mealmate.adapters.MealAdapter;
 import com.raka.mealmate.dialogs.MealPlanDialog;
+import com.raka.mealmate.helpers.DateWindow;
+import com.raka.mealmate.helpers.DayBucketCache;
+import com.raka.mealmate.helpers.MealPlanCodec;
 import com.raka.mealmate.helpers.NotificationHelper;
+import com.raka.mealmate.helpers.SubscriptionManager;
 import com.raka.mealmate.models.MealPlan;
 import com.raka.mealmate.models.Recipe;
+import com.raka.mealmate.repositories.MealPlanRepository;
+import com.raka.mealmate.repositories.PlanRecipeCache;
 
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class MealPlannerActivity extends AppCompatActivity implements MealAdapter.OnMealClickListener {
     private static final String TAG = "MealPlannerActivity";
+    private static final String RANGE_SLOT = "range";
+    // A month plus its neighbouring weeks, with room to go back and forth
+    private static final int MAX_CACHED_DAYS = 120;
 
     private RecyclerView rvBreakfastMeals;
     private RecyclerView rvLunchMeals;
@@ -51,6 +66,7 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
     private TextView tvNoLunch;
     private TextView tvNoDinner;
     private DatabaseReference mDatabase;
+    private MealPlanRepository mealPlanRepository;
     private String userId;
     private Calendar currentDate;
     private SimpleDateFormat weekFormat;
@@ -61,6 +77,12 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
     private MealAdapter lunchAdapter;
     private MealAdapter dinnerAdapter;
     private CalendarView calendarView;
+    private final SubscriptionManager subscriptions = new SubscriptionManager();
+    private final DayBucketCache<MealPlan> dayCache = new DayBucketCache<>(MAX_CACHED_DAYS);
+    private final Set<String> prefetching = new HashSet<>();
+    private boolean monthView;
+    private int rangeLoadCount;
+    private PlanRecipeCache planRecipes;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -69,6 +91,8 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
 
         // Initialize Firebase
         mDatabase = FirebaseDatabase.getInstance().getReference();
+        mealPlanRepository = new MealPlanRepository();
+        planRecipes = PlanRecipeCache.getInstance();
         userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
 
         Log.d(TAG, "Initializing MealPlannerActivity with userId: " + userId);
@@ -90,6 +114,11 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
 
         // Load meals for current date
         loadMealsForCurrentDate();
+
+        // Older plans embed a full recipe copy; rewrite them once to reference it
+        mealPlanRepository.migrateToNormalized(userId)
+                .addOnSuccessListener(migrated -> Log.d(TAG, "Normalized " + migrated + " meal plans"))
+                .addOnFailureListener(e -> Log.e(TAG, "Meal plan migration failed", e));
     }
 
     private void initializeViews() {
@@ -112,15 +141,23 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
         });
 
         findViewById(R.id.btnPreviousWeek).setOnClickListener(v -> {
-            navigateWeek(-7);
+            navigate(-1);
             calendarView.setDate(currentDate.getTimeInMillis());
         });
 
         findViewById(R.id.btnNextWeek).setOnClickListener(v -> {
-            navigateWeek(7);
+            navigate(1);
             calendarView.setDate(currentDate.getTimeInMillis());
         });
 
+        // Tapping the range title switches between the week and the month view
+        tvCurrentWeek.setOnClickListener(v -> {
+            monthView = !monthView;
+            Toast.makeText(this, monthView ? "Month view" : "Week view", Toast.LENGTH_SHORT).show();
+            updateWeekDisplay();
+            loadMealsForCurrentDate();
+        });
+
         FloatingActionButton fabAddMeal = findViewById(R.id.fabAddMeal);
         fabAddMeal.setOnClickListener(v -> {
             Intent intent = new Intent(this, RecipeBrowserActivity.class);
@@ -182,138 +219,181 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
     }
 
     private void updateWeekDisplay() {
-        Calendar endOfWeek = (Calendar) currentDate.clone();
-        endOfWeek.add(Calendar.DAY_OF_MONTH, 6);
+        DateWindow window = visibleWindow();
+        String rangeDisplay;
+        if (monthView) {
+            rangeDisplay = new SimpleDateFormat("MMMM yyyy", Locale.getDefault()).format(currentDate.getTime());
+        } else {
+            rangeDisplay = weekFormat.format(parseDateKey(window.getStartKey())) +
+                    new SimpleDateFormat("dd", Locale.getDefault()).format(parseDateKey(window.getEndKey()));
+        }
 
-        String weekDisplay = weekFormat.format(currentDate.getTime()) +
-                           new SimpleDateFormat("dd", Locale.getDefault()).format(endOfWeek.getTime());
-        tvCurrentWeek.setText(weekDisplay);
+        // Meal count once the range is in memory
+        int meals = dayCache.countItems(window);
+        if (meals >= 0) {
+            rangeDisplay += " · " + meals + (meals == 1 ? " meal" : " meals");
+        }
+        tvCurrentWeek.setText(rangeDisplay);
     }
 
-    private void navigateWeek(int days) {
-        currentDate.add(Calendar.DAY_OF_MONTH, days);
+    private void navigate(int direction) {
+        if (monthView) {
+            currentDate.add(Calendar.MONTH, direction);
+        } else {
+            currentDate.add(Calendar.DAY_OF_MONTH, 7 * direction);
+        }
         updateWeekDisplay();
         loadMealsForCurrentDate();
     }
 
+    private DateWindow visibleWindow() {
+        return monthView ? DateWindow.thisMonth(currentDate) : DateWindow.thisWeek(currentDate);
+    }
+
+    private Date parseDateKey(String dateKey) {
+        try {
+            return new SimpleDateFormat(DateWindow.DATE_KEY_PATTERN, Locale.getDefault()).parse(dateKey);
+        } catch (ParseException e) {
+            return currentDate.getTime();
+        }
+    }
+
+    /**
+     * Show the selected day, from memory if its range is already loaded, and
+     * keep one live key-range listener on the visible week or month
+     */
     private void loadMealsForCurrentDate() {
-        String dateKey = new SimpleDateFormat("yyyyMMdd", Locale.getDefault())
-                .format(currentDate.getTime());
+        DateWindow window = visibleWindow();
+        String dateKey = DateWindow.dateKey(currentDate);
+
+        List<MealPlan> cached = dayCache.get(dateKey);
+        showDay(cached != null ? cached : new ArrayList<>());
+
+        // Same range: the listener already attached keeps the buckets current
+        boolean swapped = subscriptions.set(RANGE_SLOT, window.toString(), () -> {
+            Log.d(TAG, "Listening to /mealPlans/" + userId + " for " + window);
+            Query rangeQuery = mealPlanRepository.windowQuery(userId, window);
+            ValueEventListener listener = new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+                    onRangeLoaded(window, dataSnapshot);
+                }
 
-        Log.d(TAG, "Loading meals for date: " + dateKey);
-        Log.d(TAG, "Current time millis: " + currentDate.getTimeInMillis());
-        Log.d(TAG, "Database path: /mealPlans/" + userId + "/" + dateKey);
-
-        DatabaseReference dateRef = mDatabase.child("mealPlans").child(userId).child(dateKey);
-
-        dateRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                Log.d(TAG, "Data snapshot received: " + dataSnapshot.toString());
-                Log.d(TAG, "Number of meals found: " + dataSnapshot.getChildrenCount());
-
-                breakfastMeals.clear();
-                lunchMeals.clear();
-                dinnerMeals.clear();
-
-                for (DataSnapshot mealSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        Log.d(TAG, "Processing meal snapshot: " + mealSnapshot.toString());
-
-                        MealPlan meal = mealSnapshot.getValue(MealPlan.class);
-                        if (meal != null) {
-                            meal.setId(mealSnapshot.getKey()); // Ensure ID is set
-                            Log.d(TAG, "Meal loaded - Name: " + meal.getRecipeName() +
-                                      ", Time: " + meal.getMealTime() +
-                                      ", ID: " + meal.getId() +
-                                      ", Date: " + meal.getDate());
-
-                            String mealTime = meal.getMealTime().toLowerCase();
-                            switch (mealTime) {
-                                case "breakfast":
-                                    breakfastMeals.add(meal);
-                                    Log.d(TAG, "Added to breakfast meals");
-                                    break;
-                                case "lunch":
-                                    lunchMeals.add(meal);
-                                    Log.d(TAG, "Added to lunch meals");
-                                    break;
-                                case "dinner":
-                                    dinnerMeals.add(meal);
-                                    Log.d(TAG, "Added to dinner meals");
-                                    break;
-                                default:
-                                    Log.w(TAG, "Unknown meal time: " + mealTime);
-                                    break;
-                            }
-                        } else {
-                            Log.w(TAG, "Null meal from snapshot: " + mealSnapshot.getKey());
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error processing meal snapshot", e);
-                        
-                        // Manual parsing as fallback
-                        try {
-                            String id = mealSnapshot.getKey();
-                            String recipeName = mealSnapshot.child("recipeName").getValue(String.class);
-                            String mealTime = mealSnapshot.child("mealTime").getValue(String.class);
-                            String imageUrl = mealSnapshot.child("imageUrl").getValue(String.class);
-                            
-                            // Handle dateTime properly
-                            Date dateTime;
-                            Object dateTimeObj = mealSnapshot.child("dateTime").getValue();
-                            if (dateTimeObj instanceof Long) {
-                                dateTime = new Date((Long) dateTimeObj);
-                            } else {
-                                dateTime = new Date(); // Default to current time
-                            }
-                            
-                            // Create meal plan manually
-                            MealPlan mealPlan = new MealPlan();
-                            mealPlan.setId(id);
-                            mealPlan.setRecipeName(recipeName);
-                            mealPlan.setMealTime(mealTime);
-                            mealPlan.setImageUrl(imageUrl);
-                            mealPlan.setDateTime(dateTime);
-                            
-                            if (mealTime != null) {
-                                switch (mealTime.toLowerCase()) {
-                                    case "breakfast":
-                                        breakfastMeals.add(mealPlan);
-                                        Log.d(TAG, "Added to breakfast meals (manual fallback)");
-                                        break;
-                                    case "lunch":
-                                        lunchMeals.add(mealPlan);
-                                        Log.d(TAG, "Added to lunch meals (manual fallback)");
-                                        break;
-                                    case "dinner":
-                                        dinnerMeals.add(mealPlan);
-                                        Log.d(TAG, "Added to dinner meals (manual fallback)");
-                                        break;
-                                }
-                            }
-                        } catch (Exception e2) {
-                            Log.e(TAG, "Failed manual fallback parsing", e2);
-                        }
-                    }
+                @Override
+                public void onCancelled(@NonNull DatabaseError databaseError) {
+                    Log.e(TAG, "Database error: " + databaseError.getMessage(), databaseError.toException());
+                    Toast.makeText(MealPlannerActivity.this,
+                                 "Failed to load meals: " + databaseError.getMessage(),
+                                 Toast.LENGTH_SHORT).show();
                 }
+            };
+            rangeQuery.addValueEventListener(listener);
+            return () -> rangeQuery.removeEventListener(listener);
+        });
+        if (swapped) {
+            Log.d(TAG, "Loading meals for " + window + " (active listeners: "
+                    + subscriptions.getActiveCount() + ", cache hits: " + dayCache.getHitCount()
+                    + ", misses: " + dayCache.getMissCount() + ")");
+            prefetch(window.weekBefore());
+            prefetch(window.weekAfter());
+        }
+    }
 
-                // Update UI
-                updateMealSection(breakfastMeals, breakfastAdapter, tvNoBreakfast, "breakfast");
-                updateMealSection(lunchMeals, lunchAdapter, tvNoLunch, "lunch");
-                updateMealSection(dinnerMeals, dinnerAdapter, tvNoDinner, "dinner");
+    private void onRangeLoaded(DateWindow window, DataSnapshot rangeSnapshot) {
+        Map<String, List<MealPlan>> byDay = readDays(rangeSnapshot);
+        int load = ++rangeLoadCount;
+        // Plans reference their recipe; show them once the recipes are resolved
+        planRecipes.resolve(userId, allMeals(byDay)).addOnCompleteListener(task -> {
+            // A newer snapshot of the range may have arrived meanwhile
+            if (load != rangeLoadCount || isDestroyed()) {
+                return;
             }
+            dayCache.putWindow(window, byDay);
+            Log.d(TAG, "Loaded " + byDay.size() + " planned days for " + window);
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.e(TAG, "Database error: " + databaseError.getMessage(), databaseError.toException());
-                Toast.makeText(MealPlannerActivity.this,
-                             "Failed to load meals: " + databaseError.getMessage(),
-                             Toast.LENGTH_SHORT).show();
+            String dateKey = DateWindow.dateKey(currentDate);
+            if (window.contains(dateKey)) {
+                showDay(dayCache.get(dateKey));
             }
+            updateWeekDisplay();
         });
     }
 
+    // Load a neighbouring week in the background so navigating there is instant
+    private void prefetch(DateWindow window) {
+        if (dayCache.containsWindow(window) || !prefetching.add(window.toString())) {
+            return;
+        }
+        mealPlanRepository.getMealPlansInWindow(userId, window)
+                .addOnCompleteListener(task -> {
+                    prefetching.remove(window.toString());
+                    // The live listener owns the visible range; never overwrite it with an older read
+                    if (!task.isSuccessful() || isDestroyed()) {
+                        return;
+                    }
+                    Map<String, List<MealPlan>> byDay = readDays(task.getResult());
+                    planRecipes.resolve(userId, allMeals(byDay)).addOnCompleteListener(resolved -> {
+                        if (!isDestroyed() && !window.overlaps(visibleWindow())) {
+                            dayCache.putWindow(window, byDay);
+                        }
+                    });
+                });
+    }
+
+    private static List<MealPlan> allMeals(Map<String, List<MealPlan>> byDay) {
+        List<MealPlan> meals = new ArrayList<>();
+        for (List<MealPlan> dayMeals : byDay.values()) {
+            meals.addAll(dayMeals);
+        }
+        return meals;
+    }
+
+    // Group the meals of a key-range snapshot by their yyyyMMdd day
+    private Map<String, List<MealPlan>> readDays(DataSnapshot rangeSnapshot) {
+        Map<String, List<MealPlan>> byDay = new HashMap<>();
+        for (DataSnapshot dateSnapshot : rangeSnapshot.getChildren()) {
+            List<MealPlan> meals = new ArrayList<>();
+            for (DataSnapshot mealSnapshot : dateSnapshot.getChildren()) {
+                MealPlan meal = MealPlanCodec.fromMap(mealSnapshot.getKey(), mealSnapshot.getValue());
+                if (meal != null) {
+                    meals.add(meal);
+                }
+            }
+            byDay.put(dateSnapshot.getKey(), meals);
+        }
+        return byDay;
+    }
+
+    // Split one day's meals into the three sections
+    private void showDay(List<MealPlan> meals) {
+        breakfastMeals.clear();
+        lunchMeals.clear();
+        dinnerMeals.clear();
+
+        for (MealPlan meal : meals) {
+            String mealTime = meal.getMealTime() != null ? meal.getMealTime().toLowerCase() : "";
+            switch (mealTime) {
+                case "breakfast":
+                    breakfastMeals.add(meal);
+                    break;
+                case "lunch":
+                    lunchMeals.add(meal);
+                    break;
+                case "dinner":
+                    dinnerMeals.add(meal);
+                    break;
+                default:
+                    Log.w(TAG, "Unknown meal time: " + mealTime);
+                    break;
+            }
+        }
+
+        // Update UI
+        updateMealSection(breakfastMeals, breakfastAdapter, tvNoBreakfast, "breakfast");
+        updateMealSection(lunchMeals, lunchAdapter, tvNoLunch, "lunch");
+        updateMealSection(dinnerMeals, dinnerAdapter, tvNoDinner, "dinner");
+    }
+
     private void updateMealSection(List<MealPlan> meals, MealAdapter adapter, TextView noMealsView, String section) {
         Log.d(TAG, section + " meals count: " + meals.size());
 
@@ -323,7 +403,7 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
         } else {
             noMealsView.setVisibility(View.GONE);
         }
-        adapter.notifyDataSetChanged();
+        adapter.submitMeals(meals);
     }
 
     public void addMealToDate(Recipe recipe, String mealTime) {
@@ -341,12 +421,8 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
         // Create new MealPlan
         MealPlan mealPlan = new MealPlan(userId, recipe, currentDate.getTime(), mealTime);
         
-        // Save to database
-        mDatabase.child("mealPlans")
-                .child(userId)
-                .child(dateKey)
-                .child(mealPlan.getId())
-                .setValue(mealPlan)
+        // Save through the repository so the shopping list picks up the ingredients
+        mealPlanRepository.addMealPlan(mealPlan)
                 .addOnSuccessListener(aVoid -> {
                     Toast.makeText(this, "Meal added to plan", Toast.LENGTH_SHORT).show();
                     loadMealsForCurrentDate();
@@ -363,128 +439,6 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
                 });
     }
 
-    private void refreshMealList(Calendar date) {
-        String dateKey = new SimpleDateFormat("yyyyMMdd", Locale.getDefault())
-                .format(date.getTime());
-
-        Log.d(TAG, "Refreshing meals for date: " + dateKey);
-
-        DatabaseReference dateRef = mDatabase.child("mealPlans").child(userId).child(dateKey);
-
-        dateRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                Log.d(TAG, "Data snapshot received: " + dataSnapshot.toString());
-                Log.d(TAG, "Number of meals found: " + dataSnapshot.getChildrenCount());
-
-                breakfastMeals.clear();
-                lunchMeals.clear();
-                dinnerMeals.clear();
-
-                for (DataSnapshot mealSnapshot : dataSnapshot.getChildren()) {
-                    try {
-                        Log.d(TAG, "Processing meal snapshot: " + mealSnapshot.toString());
-
-                        MealPlan meal = mealSnapshot.getValue(MealPlan.class);
-                        if (meal != null) {
-                            meal.setId(mealSnapshot.getKey()); // Ensure ID is set
-                            Log.d(TAG, "Meal loaded - Name: " + meal.getRecipeName() +
-                                      ", Time: " + meal.getMealTime() +
-                                      ", ID: " + meal.getId() +
-                                      ", Date: " + meal.getDate());
-
-                            String mealTime = meal.getMealTime().toLowerCase();
-                            switch (mealTime) {
-                                case "breakfast":
-                                    breakfastMeals.add(meal);
-                                    Log.d(TAG, "Added to breakfast meals");
-                                    break;
-                                case "lunch":
-                                    lunchMeals.add(meal);
-                                    Log.d(TAG, "Added to lunch meals");
-                                    break;
-                                case "dinner":
-                                    dinnerMeals.add(meal);
-                                    Log.d(TAG, "Added to dinner meals");
-                                    break;
-                                default:
-                                    Log.w(TAG, "Unknown meal time: " + mealTime);
-                                    break;
-                            }
-                        } else {
-                            Log.w(TAG, "Null meal from snapshot: " + mealSnapshot.getKey());
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error processing meal snapshot", e);
-                        
-                        // Manual parsing as fallback
-                        try {
-                            String id = mealSnapshot.getKey();
-                            String recipeName = mealSnapshot.child("recipeName").getValue(String.class);
-                            String mealTime = mealSnapshot.child("mealTime").getValue(String.class);
-                            String imageUrl = mealSnapshot.child("imageUrl").getValue(String.class);
-                            
-                            // Handle dateTime properly
-                            Date dateTime;
-                            Object dateTimeObj = mealSnapshot.child("dateTime").getValue();
-                            if (dateTimeObj instanceof Long) {
-                                dateTime = new Date((Long) dateTimeObj);
-                            } else {
-                                dateTime = new Date(); // Default to current time
-                            }
-                            
-                            // Create meal plan manually
-                            MealPlan mealPlan = new MealPlan();
-                            mealPlan.setId(id);
-                            mealPlan.setRecipeName(recipeName);
-                            mealPlan.setMealTime(mealTime);
-                            mealPlan.setImageUrl(imageUrl);
-                            mealPlan.setDateTime(dateTime);
-                            
-                            if (mealTime != null) {
-                                switch (mealTime.toLowerCase()) {
-                                    case "breakfast":
-                                        breakfastMeals.add(mealPlan);
-                                        Log.d(TAG, "Added to breakfast meals (manual fallback)");
-                                        break;
-                                    case "lunch":
-                                        lunchMeals.add(mealPlan);
-                                        Log.d(TAG, "Added to lunch meals (manual fallback)");
-                                        break;
-                                    case "dinner":
-                                        dinnerMeals.add(mealPlan);
-                                        Log.d(TAG, "Added to dinner meals (manual fallback)");
-                                        break;
-                                }
-                            }
-                        } catch (Exception e2) {
-                            Log.e(TAG, "Failed manual fallback parsing", e2);
-                        }
-                    }
-                }
-
-                // Update UI
-                updateMealSection(breakfastMeals, breakfastAdapter, tvNoBreakfast, "breakfast");
-                updateMealSection(lunchMeals, lunchAdapter, tvNoLunch, "lunch");
-                updateMealSection(dinnerMeals, dinnerAdapter, tvNoDinner, "dinner");
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.e(TAG, "Database error: " + databaseError.getMessage(), databaseError.toException());
-                Toast.makeText(MealPlannerActivity.this,
-                             "Failed to load meals: " + databaseError.getMessage(),
-                             Toast.LENGTH_SHORT).show();
-            }
-        });
-    }
-
-    private void refreshMealList(Date date) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        refreshMealList(cal);
-    }
-
     @Override
     public void onMealClick(MealPlan meal) {
         // Use the static method from RecipeDetailActivity to create the Intent
@@ -512,15 +466,16 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
 
     @Override
     public void onDeleteClick(MealPlan meal) {
-        // Handle delete click
-        String dateKey = new SimpleDateFormat("yyyyMMdd", Locale.getDefault())
-                .format(currentDate.getTime());
+        // Handle delete click; the repository also takes the meal off the shopping list
+        if (meal.getDate() == null) {
+            meal.setDate(new SimpleDateFormat("yyyyMMdd", Locale.getDefault())
+                    .format(currentDate.getTime()));
+        }
+        if (meal.getUserId() == null) {
+            meal.setUserId(userId);
+        }
 
-        mDatabase.child("mealPlans")
-                .child(userId)
-                .child(dateKey)
-                .child(meal.getId())
-                .removeValue()
+        mealPlanRepository.removeMealPlan(meal)
                 .addOnSuccessListener(aVoid -> {
                     Toast.makeText(this, "Meal removed from plan", Toast.LENGTH_SHORT).show();
                     
@@ -539,6 +494,7 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
     @Override
     protected void onStart() {
         super.onStart();
+        subscriptions.start();
         
         // For testing purposes - add a test notification button
         FloatingActionButton fabTest = findViewById(R.id.fabAddMeal);
@@ -564,9 +520,17 @@ public class MealPlannerActivity extends AppCompatActivity implements MealAdapte
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadMealsForCurrentDate(); // Reload meals when activity resumes
+    protected void onStop() {
+        // Detach while hidden; onStart attaches the same day again
+        subscriptions.stop();
+        super.onStop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        subscriptions.clear();
+        dayCache.clear();
+        super.onDestroy();
     }
 
     @Override
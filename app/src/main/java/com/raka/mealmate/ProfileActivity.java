@@ -1,6 +1,7 @@
 package com.raka.mealmate;
 
 import android.app.AlertDialog;
+import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -28,8 +29,13 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
+import com.raka.mealmate.helpers.DefaultRecipeCatalog;
 import com.raka.mealmate.helpers.StoreManager;
 import com.raka.mealmate.models.UserProfile;
+import com.raka.mealmate.repositories.CounterRepository;
+import com.raka.mealmate.repositories.FirebaseRecipeRepository;
+import com.raka.mealmate.repositories.MealPlanRepository;
+import com.raka.mealmate.repositories.RecipeRepository;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -38,8 +44,7 @@ public class ProfileActivity extends AppCompatActivity {
 
     private static final String TAG = "ProfileActivity";
     private static final String PROFILES_REF = "profiles";
-    private static final String RECIPES_REF = "recipes";
-    private static final String MEAL_PLANS_REF = "mealPlans";
+    private static final String COUNTER_CACHE_PREFS = "profile_counters";
 
     private ImageView profileImage;
     private TextView profileName, profileEmail;
@@ -52,6 +57,10 @@ public class ProfileActivity extends AppCompatActivity {
     private FirebaseAuth mAuth;
     private DatabaseReference mDatabase;
     private UserProfile currentProfile;
+    private SharedPreferences counterCache;
+    private RecipeRepository.Registration recipeCountRegistration;
+    private CounterRepository.Registration plannedMealsCountRegistration;
+    private CounterRepository.Registration storesCountRegistration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -67,6 +76,8 @@ public class ProfileActivity extends AppCompatActivity {
         // Initialize Firebase Auth and Database
         mAuth = FirebaseAuth.getInstance();
         mDatabase = FirebaseDatabase.getInstance().getReference();
+        // Last known counts, shown until the counters answer
+        counterCache = getSharedPreferences(COUNTER_CACHE_PREFS, MODE_PRIVATE);
 
         // Initialize views
         initializeViews();
@@ -127,6 +138,12 @@ public class ProfileActivity extends AppCompatActivity {
                     .into(profileImage);
         }
 
+        // Counts come from small counter nodes, never from the collections themselves
+        showCachedCounts(user.getUid());
+        loadRecipeCount(user.getUid());
+        loadPlannedMealsCount(user.getUid());
+        loadFavoriteStoresCount(user.getUid());
+
         // Load user profile from Firebase Realtime Database
         DatabaseReference profileRef = mDatabase.child(PROFILES_REF).child(user.getUid());
         profileRef.addValueEventListener(new ValueEventListener() {
@@ -135,10 +152,6 @@ public class ProfileActivity extends AppCompatActivity {
                 if (dataSnapshot.exists()) {
                     currentProfile = dataSnapshot.getValue(UserProfile.class);
                     updateUIWithProfile();
-                    // Now load actual recipe and meal plan counts
-                    loadRecipeCount(user.getUid());
-                    loadPlannedMealsCount(user.getUid());
-                    loadFavoriteStoresCount(); // Load stores directly from Firebase
                 } else {
                     // Create a new profile if one doesn't exist
                     createNewProfile(user);
@@ -151,9 +164,6 @@ public class ProfileActivity extends AppCompatActivity {
                 Toast.makeText(ProfileActivity.this, "Failed to load profile.", Toast.LENGTH_SHORT).show();
             }
         });
-
-        // Get store count
-        loadFavoriteStoresCount();
     }
 
     private void createNewProfile(FirebaseUser user) {
@@ -185,10 +195,7 @@ public class ProfileActivity extends AppCompatActivity {
             profileName.setText(currentProfile.getName());
         }
 
-        // Update dashboard stats
-        recipeCount.setText(String.valueOf(currentProfile.getTotalRecipes()));
-        plannedMealsCount.setText(String.valueOf(currentProfile.getPlannedMeals()));
-        storesCount.setText(String.valueOf(currentProfile.getFavoriteStores()));
+        // Update dashboard stats; the other counts are shown as the counters arrive
         completedListsCount.setText(String.valueOf(currentProfile.getCompletedShoppingLists()));
 
         // Update personal info
@@ -236,100 +243,86 @@ public class ProfileActivity extends AppCompatActivity {
         }
     }
 
+    private void showCachedCounts(String userId) {
+        recipeCount.setText(String.valueOf(counterCache.getLong(userId + "_" + CounterRepository.RECIPES, 0)));
+        plannedMealsCount.setText(String.valueOf(counterCache.getLong(userId + "_" + CounterRepository.MEAL_PLANS, 0)));
+        storesCount.setText(String.valueOf(counterCache.getLong(userId + "_" + CounterRepository.STORES, 0)));
+    }
+
+    // Show a count, remember it for the next launch and keep the profile object in sync
+    private void onCountLoaded(String userId, String counter, long count) {
+        counterCache.edit().putLong(userId + "_" + counter, count).apply();
+        if (CounterRepository.RECIPES.equals(counter)) {
+            recipeCount.setText(String.valueOf(count));
+            if (currentProfile != null) {
+                currentProfile.setTotalRecipes((int) count);
+            }
+        } else if (CounterRepository.MEAL_PLANS.equals(counter)) {
+            plannedMealsCount.setText(String.valueOf(count));
+            if (currentProfile != null) {
+                currentProfile.setPlannedMeals((int) count);
+            }
+        } else {
+            storesCount.setText(String.valueOf(count));
+            if (currentProfile != null) {
+                currentProfile.setFavoriteStores((int) count);
+            }
+        }
+    }
+
     private void loadRecipeCount(String userId) {
-        // Get all recipes from the database
-        DatabaseReference recipesRef = FirebaseDatabase.getInstance().getReference(RECIPES_REF);
-        recipesRef.addValueEventListener(new ValueEventListener() {
+        recipeCountRegistration = FirebaseRecipeRepository.getInstance().observeRecipeCount(new RecipeRepository.Callback<Integer>() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+            public void onSuccess(Integer databaseRecipesCount) {
                 // First get the count of default recipes (these are not in the database)
                 int defaultRecipesCount = getDefaultRecipesCount();
                 
-                // Then count the recipes in database
-                int databaseRecipesCount = (int) dataSnapshot.getChildrenCount();
-                
                 // Total count is the sum of both
                 int totalCount = defaultRecipesCount + databaseRecipesCount;
-                
-                // Update the UI with total count
-                recipeCount.setText(String.valueOf(totalCount));
-                
-                // Also update the profile object to keep it in sync
-                if (currentProfile != null) {
-                    currentProfile.setTotalRecipes(totalCount);
-                    mDatabase.child(PROFILES_REF).child(userId).child("totalRecipes").setValue(totalCount);
-                }
+                onCountLoaded(userId, CounterRepository.RECIPES, totalCount);
                 
                 Log.d(TAG, "Recipe count: " + totalCount + " (Default: " + defaultRecipesCount + ", Database: " + databaseRecipesCount + ")");
             }
             
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.w(TAG, "loadRecipeCount:onCancelled", databaseError.toException());
+            public void onFailure(Exception error) {
+                Log.w(TAG, "loadRecipeCount:onFailure", error);
             }
         });
     }
     
     // This method returns the count of default recipes used in RecipeBrowserActivity
     private int getDefaultRecipesCount() {
-        // There are 22 default recipes in the RecipeBrowserActivity as counted from the code:
-        // 1-22. Various recipes including Chicken Stir-Fry, Vegetable Quinoa Bowl, etc.
-        return 22;
+        // Read from the bundled catalog header, so it always matches the browser
+        return DefaultRecipeCatalog.getInstance(this).getDefaultRecipeCount();
     }
 
     private void loadPlannedMealsCount(String userId) {
-        // Get all planned meals for this user
-        DatabaseReference mealsRef = FirebaseDatabase.getInstance().getReference(MEAL_PLANS_REF).child(userId);
-        mealsRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                // Count the total number of meal plans across all dates
-                int totalMeals = 0;
-                for (DataSnapshot dateSnapshot : dataSnapshot.getChildren()) {
-                    totalMeals += (int) dateSnapshot.getChildrenCount();
-                }
-
-                // Update the UI
-                plannedMealsCount.setText(String.valueOf(totalMeals));
-
-                // Also update the profile object to keep it in sync
-                if (currentProfile != null) {
-                    currentProfile.setPlannedMeals(totalMeals);
-                    mDatabase.child(PROFILES_REF).child(userId).child("plannedMeals").setValue(totalMeals);
-                }
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.w(TAG, "loadPlannedMealsCount:onCancelled", databaseError.toException());
-            }
-        });
+        plannedMealsCountRegistration = new MealPlanRepository().observeMealPlanCount(userId,
+                new CounterRepository.CounterListener() {
+                    @Override
+                    public void onCount(long count) {
+                        onCountLoaded(userId, CounterRepository.MEAL_PLANS, count);
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        Log.w(TAG, "loadPlannedMealsCount:onError", error);
+                    }
+                });
     }
 
-    private void loadFavoriteStoresCount() {
-        DatabaseReference storesRef = FirebaseDatabase.getInstance().getReference("stores");
-        storesRef.addValueEventListener(new ValueEventListener() {
+    private void loadFavoriteStoresCount(String userId) {
+        storesCountRegistration = StoreManager.getInstance(this).observeStoreCount(new CounterRepository.CounterListener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                // Count all stores in the database
-                int count = (int) dataSnapshot.getChildrenCount();
-                
-                // Update UI with store count
-                storesCount.setText(String.valueOf(count));
-                
-                // Also update the profile object
-                if (currentProfile != null) {
-                    currentProfile.setFavoriteStores(count);
-                    String userId = mAuth.getCurrentUser().getUid();
-                    mDatabase.child(PROFILES_REF).child(userId).child("favoriteStores").setValue(count);
-                }
-                
+            public void onCount(long count) {
+                onCountLoaded(userId, CounterRepository.STORES, count);
                 Log.d(TAG, "Favorite stores count: " + count);
             }
-            
+
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                Log.w(TAG, "loadFavoriteStoresCount:onCancelled", databaseError.toException());
+            public void onError(Exception error) {
+                Log.w(TAG, "loadFavoriteStoresCount:onError", error);
             }
         });
     }
@@ -511,4 +504,18 @@ public class ProfileActivity extends AppCompatActivity {
         onBackPressed();
         return true;
     }
+
+    @Override
+    protected void onDestroy() {
+        if (recipeCountRegistration != null) {
+            recipeCountRegistration.remove();
+        }
+        if (plannedMealsCountRegistration != null) {
+            plannedMealsCountRegistration.remove();
+        }
+        if (storesCountRegistration != null) {
+            storesCountRegistration.remove();
+        }
+        super.onDestroy();
+    }
 }
@@ -6,6 +6,7 @@ import android.content.pm.PackageManager;
 import android.database.Cursor;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.provider.ContactsContract;
 import android.view.MenuItem;
 import android.view.View;
@@ -15,31 +16,46 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.core.util.Pair;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
+import com.google.android.material.datepicker.MaterialDatePicker;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.snackbar.Snackbar;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.raka.mealmate.adapters.ShoppingListAdapter;
+import com.raka.mealmate.helpers.DateWindow;
+import com.raka.mealmate.helpers.PriceCatalog;
+import com.raka.mealmate.helpers.ShoppingCostTracker;
+import com.raka.mealmate.helpers.ShoppingListMaterializer;
+import com.raka.mealmate.helpers.ShoppingListTable;
 import com.raka.mealmate.helpers.StoreManager;
 import com.raka.mealmate.helpers.SwipeToGestureCallback;
-import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.helpers.UnitNormalizer;
 import com.raka.mealmate.models.ShoppingItem;
-import com.raka.mealmate.models.MealPlan;
-import com.raka.mealmate.models.Recipe;
+import com.raka.mealmate.models.ShoppingItemState;
+import com.raka.mealmate.models.ShoppingListDay;
+import com.raka.mealmate.repositories.ShoppingListRepository;
+import com.raka.mealmate.repositories.SqlitePriceStore;
 import android.util.Log;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class ShoppingListActivity extends AppCompatActivity implements ShoppingListAdapter.OnItemActionListener {
+public class ShoppingListActivity extends AppCompatActivity
+        implements ShoppingListAdapter.OnItemActionListener, ShoppingListAdapter.OnSectionClickListener {
     private static final String TAG = "ShoppingListActivity";
     private static final int PICK_CONTACT_REQUEST = 1;
     private static final int PERMISSION_REQUEST_CODE = 123;
@@ -49,11 +65,19 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
     private FloatingActionButton fabSms;
     private FloatingActionButton fabViewMap;
     private ShoppingListAdapter adapter;
-    private List<ShoppingItem> shoppingItems;
-    private DatabaseReference mDatabase;
+    private ShoppingListRepository shoppingListRepository;
+    private ChipGroup windowChipGroup;
+    private Chip chipCustomRange;
+    private int selectedWindowChipId = R.id.chipThisWeek;
+    private int loadGeneration;
     private String userId;
-    private double totalPrice = 0.0;
     private TextView tvTotalPrice;
+    private final ShoppingCostTracker costTracker = new ShoppingCostTracker();
+    // Only touched on the aggregation executor
+    private final PriceCatalog priceCatalog = new PriceCatalog();
+    private boolean priceCatalogLoaded;
+    private SqlitePriceStore priceStore;
+    private final ExecutorService aggregationExecutor = Executors.newSingleThreadExecutor();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,7 +85,8 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         setContentView(R.layout.activity_shopping_list);
 
         // Initialize Firebase
-        mDatabase = FirebaseDatabase.getInstance().getReference();
+        shoppingListRepository = new ShoppingListRepository();
+        priceStore = SqlitePriceStore.getInstance(this);
         userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
 
         // Setup toolbar
@@ -73,8 +98,51 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         // Initialize views
         initializeViews();
 
-        // Load shopping list
-        loadShoppingList();
+        // Load shopping list for this week; other windows are picked with the chips
+        setupWindowChips();
+        loadShoppingList(DateWindow.thisWeek(Calendar.getInstance()));
+    }
+
+    private void setupWindowChips() {
+        windowChipGroup = findViewById(R.id.windowChipGroup);
+        chipCustomRange = findViewById(R.id.chipCustomRange);
+
+        windowChipGroup.setOnCheckedChangeListener((group, checkedId) -> {
+            if (checkedId == selectedWindowChipId) {
+                // Restored after a cancelled custom pick; that window is already shown
+                return;
+            }
+            if (checkedId == R.id.chipThisWeek) {
+                selectedWindowChipId = checkedId;
+                loadShoppingList(DateWindow.thisWeek(Calendar.getInstance()));
+            } else if (checkedId == R.id.chipNextSevenDays) {
+                selectedWindowChipId = checkedId;
+                loadShoppingList(DateWindow.nextDays(Calendar.getInstance(), 7));
+            }
+            // The custom chip opens the picker from its click listener
+        });
+        chipCustomRange.setOnClickListener(v -> showCustomRangePicker());
+    }
+
+    private void showCustomRangePicker() {
+        MaterialDatePicker<Pair<Long, Long>> picker = MaterialDatePicker.Builder
+                .dateRangePicker()
+                .setTitleText("Shopping list dates")
+                .build();
+        picker.addOnPositiveButtonClickListener(selection -> {
+            if (selection.first == null || selection.second == null) {
+                return;
+            }
+            selectedWindowChipId = R.id.chipCustomRange;
+            SimpleDateFormat labelFormat = new SimpleDateFormat("MMM d", Locale.getDefault());
+            labelFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+            chipCustomRange.setText(labelFormat.format(new Date(selection.first)) + " – "
+                    + labelFormat.format(new Date(selection.second)));
+            loadShoppingList(DateWindow.fromUtcMillis(selection.first, selection.second));
+        });
+        // Cancelling keeps the window that is already shown
+        picker.addOnDismissListener(dialog -> windowChipGroup.check(selectedWindowChipId));
+        picker.show(getSupportFragmentManager(), "shopping_window_picker");
     }
 
     private void initializeViews() {
@@ -85,9 +153,9 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         tvTotalPrice = findViewById(R.id.tvTotalPrice);
 
         // Initialize RecyclerView
-        shoppingItems = new ArrayList<>();
-        adapter = new ShoppingListAdapter(this, shoppingItems);
+        adapter = new ShoppingListAdapter(this, ShoppingListTable.empty());
         adapter.setOnItemActionListener(this);
+        adapter.setOnSectionClickListener(this);
         rvShoppingList.setLayoutManager(new LinearLayoutManager(this));
         rvShoppingList.setAdapter(adapter);
         
@@ -95,30 +163,20 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         SwipeToGestureCallback swipeCallback = new SwipeToGestureCallback(this, new SwipeToGestureCallback.SwipeActionListener() {
             @Override
             public void onSwipeDelete(int position) {
-                // Check if the item at this position is a ShoppingItem
-                if (position >= 0 && position < adapter.getItemCount() && 
-                    adapter.getItemViewType(position) == 1) { // 1 = TYPE_ITEM
-                    
-                    // Get the ShoppingItem from the adapter's items list
-                    Object item = adapter.getItemAt(position);
-                    if (item instanceof ShoppingItem) {
-                        onDeleteItem((ShoppingItem) item);
-                    }
+                // Headers can't be deleted, only item rows
+                ShoppingListTable table = adapter.getTable();
+                if (position >= 0 && position < table.rowCount() && !table.isHeader(position)) {
+                    onDeleteItem(table.itemAt(position));
                 }
             }
 
             @Override
             public void onSwipeToggleCheck(int position) {
-                // Check if the item at this position is a ShoppingItem
-                if (position >= 0 && position < adapter.getItemCount() && 
-                    adapter.getItemViewType(position) == 1) { // 1 = TYPE_ITEM
-                    
-                    // Get the ShoppingItem from the adapter's items list
-                    Object item = adapter.getItemAt(position);
-                    if (item instanceof ShoppingItem) {
-                        ShoppingItem shoppingItem = (ShoppingItem) item;
-                        onItemChecked(shoppingItem, !shoppingItem.isPurchased());
-                    }
+                ShoppingListTable table = adapter.getTable();
+                if (position >= 0 && position < table.rowCount() && !table.isHeader(position)) {
+                    int index = table.itemAt(position);
+                    // Rebinding the toggled row also brings the swiped view back
+                    onItemChecked(index, !table.isPurchased(index));
                 }
             }
         });
@@ -134,153 +192,144 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         fabViewMap.setOnClickListener(v -> viewStoresOnMap());
     }
 
-    private void loadShoppingList() {
-        mDatabase.child("mealPlans").child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                Map<String, Double> ingredientMap = new HashMap<>();
-                Map<String, String> ingredientDetails = new HashMap<>();
-                Random random = new Random(); // Initialize Random for generating prices
-
-                for (DataSnapshot dateSnapshot : dataSnapshot.getChildren()) {
-                    for (DataSnapshot mealSnapshot : dateSnapshot.getChildren()) {
-                        try {
-                            MealPlan mealPlan = mealSnapshot.getValue(MealPlan.class);
-                            if (mealPlan != null && mealPlan.getRecipe() != null) {
-                                Recipe recipe = mealPlan.getRecipe();
-                                if (recipe.getIngredients() != null) {
-                                    for (Ingredient ingredient : recipe.getIngredients()) {
-                                        String category = standardizeCategory(ingredient.getCategory());
-                                        String key = ingredient.getName().trim().toLowerCase();
-
-                                        // Store ingredient details
-                                        ingredientDetails.put(key, category + "|" + ingredient.getUnit());
-
-                                        // Add amounts
-                                        double amount;
-                                        try {
-                                            amount = ingredient.getAmount();
-                                        } catch (Exception e) {
-                                            try {
-                                                String amountStr = String.valueOf(ingredient.getAmount());
-                                                amount = Double.parseDouble(amountStr);
-                                            } catch (NumberFormatException ex) {
-                                                Log.e(TAG, "Error parsing amount for " + ingredient.getName() + ": " + ex.getMessage());
-                                                amount = 1.0;
-                                            }
-                                        }
-
-                                        double currentAmount = ingredientMap.getOrDefault(key, 0.0);
-                                        ingredientMap.put(key, currentAmount + amount);
+    private void loadShoppingList(DateWindow window) {
+        // Only the newest request may update the list when windows change quickly
+        int generation = ++loadGeneration;
+        long requestedAt = SystemClock.elapsedRealtime();
+
+        // The materialized days for the window and the saved item edits, read in parallel
+        Task<DataSnapshot> daysTask = shoppingListRepository.getDaysInWindow(userId, window);
+        Task<DataSnapshot> stateTask = shoppingListRepository.getState(userId);
+        Tasks.whenAllSuccess(daysTask, stateTask)
+                .addOnSuccessListener(results -> {
+                    DataSnapshot daysSnapshot = daysTask.getResult();
+                    DataSnapshot stateSnapshot = stateTask.getResult();
+                    if (!ShoppingListRepository.isMaterialized(stateSnapshot)) {
+                        // First open since the list became materialized
+                        shoppingListRepository.rebuild(userId)
+                                .addOnSuccessListener(aVoid -> {
+                                    if (generation == loadGeneration) {
+                                        loadShoppingList(window);
                                     }
-                                }
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error processing meal plan: " + e.getMessage());
-                        }
+                                })
+                                .addOnFailureListener(this::onShoppingListLoadFailed);
+                        return;
                     }
-                }
+                    long fetchMs = SystemClock.elapsedRealtime() - requestedAt;
+                    // Merge off the main thread; the snapshots are immutable
+                    aggregationExecutor.execute(() -> {
+                        ShoppingListTable table = mergeShoppingItems(daysSnapshot, stateSnapshot);
+                        Log.d(TAG, "Shopping list for " + window + ": " + daysSnapshot.getChildrenCount()
+                                + " days fetched in " + fetchMs + " ms, ready after "
+                                + (SystemClock.elapsedRealtime() - requestedAt) + " ms");
+                        runOnUiThread(() -> {
+                            if (generation == loadGeneration) {
+                                showShoppingItems(table);
+                            }
+                        });
+                    });
+                })
+                .addOnFailureListener(this::onShoppingListLoadFailed);
+    }
 
-                // Convert ingredient map to shopping items
-                shoppingItems.clear();
-                totalPrice = 0.0;
+    private void onShoppingListLoadFailed(Exception e) {
+        Log.e(TAG, "Error loading shopping list: " + e.getMessage());
+        Toast.makeText(ShoppingListActivity.this, "Error loading shopping list", Toast.LENGTH_SHORT).show();
+    }
 
-                for (Map.Entry<String, Double> entry : ingredientMap.entrySet()) {
-                    String key = entry.getKey();
-                    String details = ingredientDetails.get(key);
-                    if (details != null) {
-                        String[] parts = details.split("\\|");
-                        if (parts.length == 2) {
-                            try {
-                                String name = key.substring(0, 1).toUpperCase() + key.substring(1);
-                                ShoppingItem item = new ShoppingItem(name, entry.getValue(), parts[1], parts[0]);
-
-                                // Generate a random price between 10.0 and 500.0 Nrs
-                                double randomPrice = 10.0 + (500.0 - 10.0) * random.nextDouble();
-                                item.setPrice(randomPrice); // Set random price in Nrs
-                                totalPrice += item.getPrice();
-                                shoppingItems.add(item);
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error creating shopping item: " + e.getMessage());
-                            }
-                        }
-                    }
+    private ShoppingListTable mergeShoppingItems(DataSnapshot daysSnapshot, DataSnapshot stateSnapshot) {
+        List<ShoppingListDay> days = new ArrayList<>();
+        for (DataSnapshot daySnapshot : daysSnapshot.getChildren()) {
+            try {
+                ShoppingListDay day = daySnapshot.getValue(ShoppingListDay.class);
+                if (day != null) {
+                    days.add(day);
                 }
-
-                // Update UI
-                updateUI();
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading shopping list day " + daySnapshot.getKey() + ": " + e.getMessage());
             }
+        }
+        List<ShoppingItem> items = ShoppingListMaterializer.mergeDays(days,
+                ShoppingListRepository.readItemStates(stateSnapshot));
 
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                Log.e(TAG, "Error loading shopping list: " + databaseError.getMessage());
-                Toast.makeText(ShoppingListActivity.this, "Error loading shopping list", Toast.LENGTH_SHORT).show();
+        if (!priceCatalogLoaded) {
+            priceStore.loadInto(priceCatalog);
+            priceCatalogLoaded = true;
+        }
+        for (ShoppingItem item : items) {
+            // Saved prices win; everything else is priced the same way on every open.
+            // Merged items are not assigned to a store, so the store-independent price applies.
+            if (item.getPrice() <= 0) {
+                item.setPrice(priceCatalog.priceOf(item, PriceCatalog.ANY_STORE));
             }
-        });
+        }
+        // Only the columnar table outlives this call
+        return ShoppingListTable.from(items);
     }
 
-    private String standardizeCategory(String category) {
-        if (category == null || category.trim().isEmpty()) {
-            return "Other";
+    private void showShoppingItems(ShoppingListTable table) {
+        if (isDestroyed()) {
+            return;
         }
+        costTracker.reset(table);
 
-        category = category.toLowerCase().trim();
-        switch (category) {
-            case "vegetable":
-            case "vegetables":
-            case "veg":
-                return "Vegetables";
-            case "protein":
-            case "proteins":
-            case "meat":
-                return "Proteins";
-            case "grain":
-            case "grains":
-            case "carb":
-            case "carbs":
-                return "Grains";
-            case "dairy":
-            case "dairy products":
-                return "Dairy";
-            case "spice":
-            case "spices":
-            case "seasoning":
-            case "seasonings":
-                return "Spices & Seasonings";
-            default:
-                return category.substring(0, 1).toUpperCase() + category.substring(1);
-        }
+        // Update UI
+        updateUI(table);
     }
 
-    private void updateUI() {
-        if (shoppingItems.isEmpty()) {
+    private void updateUI(ShoppingListTable table) {
+        updateEmptyState(table.size());
+        // Also submitted when empty, so switching windows never shows stale rows
+        adapter.submitTable(table);
+
+        updateTotalPrice();
+    }
+
+    private void updateEmptyState(int itemCount) {
+        if (itemCount == 0) {
             tvEmptyList.setVisibility(View.VISIBLE);
             rvShoppingList.setVisibility(View.GONE);
         } else {
             tvEmptyList.setVisibility(View.GONE);
             rvShoppingList.setVisibility(View.VISIBLE);
-            adapter = new ShoppingListAdapter(this, shoppingItems);
-            adapter.setOnItemActionListener(this);
-            rvShoppingList.setAdapter(adapter);
         }
+    }
 
-        // Update total price with Nrs currency
-        tvTotalPrice.setText(String.format("Total: Nrs %.2f", totalPrice));
+    @Override
+    public void onSectionClicked(int section) {
+        // Jump straight to another category's header
+        String[] titles = (String[]) adapter.getSections();
+        new AlertDialog.Builder(this)
+                .setTitle("Jump to category")
+                .setItems(titles, (dialog, which) -> {
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) rvShoppingList.getLayoutManager();
+                    if (layoutManager != null && which < adapter.getTable().sectionCount()) {
+                        layoutManager.scrollToPositionWithOffset(adapter.getPositionForSection(which), 0);
+                    }
+                })
+                .show();
     }
 
     @Override
-    public void onEditItem(ShoppingItem item) {
+    public void onEditItem(int index) {
+        ShoppingListTable table = adapter.getTable();
+        String itemId = table.getId(index);
         View dialogView = getLayoutInflater().inflate(R.layout.dialog_edit_shopping_item, null);
         EditText etAmount = dialogView.findViewById(R.id.etAmount);
         EditText etPrice = dialogView.findViewById(R.id.etPrice);
 
-        etAmount.setText(String.valueOf(item.getAmount()));
-        etPrice.setText(String.format("%.2f", item.getPrice()));
+        etAmount.setText(String.valueOf(table.getAmount(index)));
+        etPrice.setText(String.format("%.2f", table.getPrice(index)));
 
         new AlertDialog.Builder(this)
-                .setTitle("Edit " + item.getName())
+                .setTitle("Edit " + table.getName(index))
                 .setView(dialogView)
                 .setPositiveButton("Save", (dialog, which) -> {
+                    // Looked up again: the list may have changed while the dialog was open
+                    ShoppingItem item = adapter.findItem(itemId);
+                    if (item == null) {
+                        return;
+                    }
                     try {
                         double newAmount = Double.parseDouble(etAmount.getText().toString());
                         double newPrice = Double.parseDouble(etPrice.getText().toString());
@@ -288,7 +337,11 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
                         item.setAmount(newAmount);
                         item.setPrice(newPrice);
 
+                        adapter.updateItem(item);
+                        costTracker.update(itemId, newPrice, item.isPurchased());
                         updateTotalPrice();
+                        saveItemState(item);
+                        rememberPrice(item);
                     } catch (NumberFormatException e) {
                         Toast.makeText(this, "Please enter valid numbers", Toast.LENGTH_SHORT).show();
                     }
@@ -298,40 +351,85 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
     }
 
     @Override
-    public void onDeleteItem(ShoppingItem item) {
+    public void onDeleteItem(int index) {
+        String itemId = adapter.getTable().getId(index);
         new AlertDialog.Builder(this)
                 .setTitle("Delete Item")
-                .setMessage("Are you sure you want to delete " + item.getName() + "?")
+                .setMessage("Are you sure you want to delete " + adapter.getTable().getName(index) + "?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    shoppingItems.remove(item);
-                    // Create new adapter with updated list
-                    adapter = new ShoppingListAdapter(this, shoppingItems);
-                    adapter.setOnItemActionListener(this);
-                    rvShoppingList.setAdapter(adapter);
+                    ShoppingItem removedItem = adapter.findItem(itemId);
+                    if (removedItem == null) {
+                        return;
+                    }
+                    // Only the item's row (and an emptied header) is removed; nothing is re-sorted
+                    adapter.removeItem(itemId);
+                    costTracker.remove(itemId);
                     updateTotalPrice();
+                    updateEmptyState(adapter.getListedItemCount());
 
-                    // Show empty state if no items left
-                    if (shoppingItems.isEmpty()) {
-                        tvEmptyList.setVisibility(View.VISIBLE);
-                        rvShoppingList.setVisibility(View.GONE);
-                    }
+                    int generation = loadGeneration;
+                    Snackbar.make(rvShoppingList, removedItem.getName() + " deleted", Snackbar.LENGTH_LONG)
+                            .setAction("Undo", v -> restoreItem(generation, removedItem))
+                            .show();
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
     }
 
+    private void restoreItem(int generation, ShoppingItem item) {
+        // Not into another window's list, and not twice
+        if (generation != loadGeneration || adapter.findItem(item.getId()) != null) {
+            return;
+        }
+        // Placed back in its section with a binary search
+        adapter.insertItem(item);
+        costTracker.update(item.getId(), item.getPrice(), item.isPurchased());
+        updateTotalPrice();
+        updateEmptyState(adapter.getListedItemCount());
+    }
+
     @Override
-    public void onItemChecked(ShoppingItem item, boolean isChecked) {
+    public void onItemChecked(int index, boolean isChecked) {
+        ShoppingItem item = adapter.findItem(adapter.getTable().getId(index));
+        if (item == null) {
+            return;
+        }
         item.setPurchased(isChecked);
-        // Here you would typically update the database
+        adapter.updateItem(item);
+        costTracker.update(item.getId(), item.getPrice(), isChecked);
+        updateTotalPrice();
+        shoppingListRepository.savePurchased(userId, item.getId(), isChecked)
+                .addOnFailureListener(e -> Log.e(TAG, "Error saving " + item.getName() + ": " + e.getMessage()));
+    }
+
+    private void saveItemState(ShoppingItem item) {
+        shoppingListRepository.saveItemState(userId, item.getId(),
+                        new ShoppingItemState(item.getPrice(), item.isPurchased()))
+                .addOnFailureListener(e -> Log.e(TAG, "Error saving " + item.getName() + ": " + e.getMessage()));
+    }
+
+    // Learn the edited price per base unit so the same item is priced alike next time
+    private void rememberPrice(ShoppingItem item) {
+        double baseAmount = UnitNormalizer.normalize(item.getUnit()).toBase(item.getAmount());
+        if (baseAmount <= 0) {
+            return;
+        }
+        String itemKey = item.getId();
+        double unitPrice = item.getPrice() / baseAmount;
+        aggregationExecutor.execute(() -> {
+            priceCatalog.putUnitPrice(PriceCatalog.ANY_STORE, itemKey, unitPrice);
+            priceStore.putUnitPrice(PriceCatalog.ANY_STORE, itemKey, unitPrice);
+        });
     }
 
     private void updateTotalPrice() {
-        totalPrice = 0.0;
-        for (ShoppingItem item : shoppingItems) {
-            totalPrice += item.getPrice();
+        // The tracker already holds the totals; nothing is rescanned here
+        if (costTracker.getRemaining() < costTracker.getTotal()) {
+            tvTotalPrice.setText(String.format("Total: Nrs %.2f (Nrs %.2f left)",
+                    costTracker.getTotal(), costTracker.getRemaining()));
+        } else {
+            tvTotalPrice.setText(String.format("Total: Nrs %.2f", costTracker.getTotal()));
         }
-        tvTotalPrice.setText(String.format("Total: Nrs %.2f", totalPrice));
     }
 
     private void shareBySms() {
@@ -411,30 +509,32 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
     private String formatShoppingListForSms() {
         StringBuilder sms = new StringBuilder("Shopping List:\n\n");
 
-        // Group items by category
-        Map<String, List<ShoppingItem>> categoryMap = new HashMap<>();
-        for (ShoppingItem item : shoppingItems) {
-            categoryMap.computeIfAbsent(item.getCategory(), k -> new ArrayList<>()).add(item);
-        }
-
-        // Build SMS text
-        for (Map.Entry<String, List<ShoppingItem>> entry : categoryMap.entrySet()) {
-            sms.append(entry.getKey()).append(":\n");
-            for (ShoppingItem item : entry.getValue()) {
-                sms.append("- ")
-                        .append(item.getName())
-                        .append(": ")
-                        .append(String.format("%.1f", item.getAmount()))
-                        .append(" ")
-                        .append(item.getUnit())
-                        .append(" (Nrs ")
-                        .append(String.format("%.2f", item.getPrice()))
-                        .append(")\n");
+        // The table's rows are already grouped by category
+        ShoppingListTable table = adapter.getLatestTable();
+        for (int row = 0; row < table.rowCount(); row++) {
+            if (table.isHeader(row)) {
+                if (row > 0) {
+                    sms.append("\n");
+                }
+                sms.append(table.headerAt(row)).append(":\n");
+                continue;
             }
+            int index = table.itemAt(row);
+            sms.append("- ")
+                    .append(table.getName(index))
+                    .append(": ")
+                    .append(String.format("%.1f", table.getAmount(index)))
+                    .append(" ")
+                    .append(table.getUnit(index))
+                    .append(" (Nrs ")
+                    .append(String.format("%.2f", table.getPrice(index)))
+                    .append(")\n");
+        }
+        if (table.rowCount() > 0) {
             sms.append("\n");
         }
 
-        sms.append("\nTotal: Nrs ").append(String.format("%.2f", totalPrice));
+        sms.append("\nTotal: Nrs ").append(String.format("%.2f", costTracker.getTotal()));
         sms.append("\n\nSent from MealMate");
 
         return sms.toString();
@@ -449,8 +549,9 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         
         // Check if we have any shopping items with store associations
         boolean hasStoreItems = false;
-        for (ShoppingItem item : shoppingItems) {
-            if (item.getStoreId() != null && !item.getStoreId().isEmpty()) {
+        ShoppingListTable table = adapter.getLatestTable();
+        for (int i = 0; i < table.indexCount(); i++) {
+            if (!table.isRemoved(i) && table.getStoreId(i) != null && !table.getStoreId(i).isEmpty()) {
                 hasStoreItems = true;
                 break;
             }
@@ -477,4 +578,10 @@ public class ShoppingListActivity extends AppCompatActivity implements ShoppingL
         }
         return super.onOptionsItemSelected(item);
     }
+
+    @Override
+    protected void onDestroy() {
+        aggregationExecutor.shutdownNow();
+        super.onDestroy();
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import android.hardware.SensorManager;
 import android.location.Location;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.Gravity;
 import android.view.View;
@@ -34,22 +35,25 @@ import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
-import com.google.android.gms.maps.model.BitmapDescriptorFactory;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
-import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.snackbar.Snackbar;
+import com.google.maps.android.clustering.ClusterManager;
+import com.google.maps.android.clustering.algo.NonHierarchicalViewBasedAlgorithm;
 import com.raka.mealmate.adapters.StoreCardAdapter;
 import com.raka.mealmate.adapters.StoreItemAdapter;
 import com.raka.mealmate.helpers.ShakeDetector;
+import com.raka.mealmate.helpers.StoreChangeTracker;
+import com.raka.mealmate.helpers.StoreClusterItem;
+import com.raka.mealmate.helpers.StoreClusterRenderer;
 import com.raka.mealmate.helpers.StoreManager;
+import com.raka.mealmate.helpers.StoreSnapshot;
 import com.raka.mealmate.models.Store;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +63,8 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
     private static final String TAG = "StoresMapActivity";
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1;
     private static final float DEFAULT_ZOOM = 15f;
+    // Stores are clustered and drawn for the visible area plus a quarter screen on each side
+    private static final float VIEWPORT_MARGIN = 1.5f;
     
     private GoogleMap mMap;
     private CardView storeInfoCard;
@@ -69,7 +75,11 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
     private FusedLocationProviderClient fusedLocationClient;
     private StoreManager storeManager;
     private Store selectedStore;
-    private Map<Marker, Store> markerStoreMap;
+    private ClusterManager<StoreClusterItem> clusterManager;
+    private Map<String, StoreClusterItem> clusterItemsByStoreId;
+    private final StoreChangeTracker storeChangeTracker = new StoreChangeTracker();
+    private boolean cameraFitted = false;
+    private long renderedStoreVersion = -1;
     
     // Shake detection
     private SensorManager mSensorManager;
@@ -135,7 +145,7 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
         
         // Initialize store manager
         storeManager = StoreManager.getInstance(this);
-        markerStoreMap = new HashMap<>();
+        clusterItemsByStoreId = new HashMap<>();
         
         // Initialize shake detection
         mSensorManager = (SensorManager) getSystemService(SENSOR_SERVICE);
@@ -265,6 +275,7 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
             mMap.getUiSettings().setMyLocationButtonEnabled(true);
             
             // Set up map listeners
+            setUpClusterManager();
             mMap.setOnMarkerClickListener(this);
             mMap.setOnMapLongClickListener(this);
             
@@ -280,20 +291,81 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
     }
     
     /**
-     * Updates the map with all stores from the StoreManager
+     * Clusters are computed on a background thread by the ClusterManager, and
+     * only for stores near the visible part of the map
+     */
+    private void setUpClusterManager() {
+        clusterManager = new ClusterManager<>(this, mMap);
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        clusterManager.setAlgorithm(new NonHierarchicalViewBasedAlgorithm<>(
+                (int) (metrics.widthPixels / metrics.density * VIEWPORT_MARGIN),
+                (int) (metrics.heightPixels / metrics.density * VIEWPORT_MARGIN)));
+        clusterManager.setRenderer(new StoreClusterRenderer(this, mMap, clusterManager));
+        clusterManager.setOnClusterItemClickListener(item -> onStoreMarkerClicked(item.getStore()));
+        clusterManager.setOnClusterClickListener(cluster -> {
+            // Zoom in until the cluster splits into its stores
+            mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(cluster.getPosition(),
+                    mMap.getCameraPosition().zoom + 2));
+            return true;
+        });
+        // Re-culls and re-clusters once the camera settles
+        mMap.setOnCameraIdleListener(clusterManager);
+
+        // Markers were cleared with the previous map, so every store is new again
+        storeChangeTracker.clear();
+        clusterItemsByStoreId.clear();
+        renderedStoreVersion = -1;
+    }
+
+    /**
+     * Applies the stores that were added, changed or removed since the last
+     * load to the cluster manager, then re-clusters
      */
     private void updateMap() {
-        if (mMap == null) {
+        if (mMap == null || clusterManager == null) {
             Log.e(TAG, "updateMap: Map is null");
             return;
         }
         
-        List<Store> stores = storeManager.getStoreList();
-        Log.d(TAG, "updateMap: Loading " + stores.size() + " stores");
+        StoreSnapshot snapshot = storeManager.getSnapshot();
+        if (snapshot.getVersion() == renderedStoreVersion) {
+            // Already showing these stores
+            return;
+        }
+        renderedStoreVersion = snapshot.getVersion();
+        List<Store> stores = snapshot.getStores();
         
-        // Clear existing markers and map
-        mMap.clear();
-        markerStoreMap.clear();
+        // Stores without coordinates stay off the map
+        List<Store> located = new ArrayList<>(stores.size());
+        for (Store store : stores) {
+            if (store.getLatitude() != 0 || store.getLongitude() != 0) {
+                located.add(store);
+            }
+        }
+        StoreChangeTracker.Changes changes = storeChangeTracker.update(located);
+        Log.d(TAG, "updateMap: " + stores.size() + " stores, " + changes.added.size() + " added, "
+                + changes.updated.size() + " changed, " + changes.removed.size() + " removed");
+        
+        for (String storeId : changes.removed) {
+            StoreClusterItem item = clusterItemsByStoreId.remove(storeId);
+            if (item != null) {
+                clusterManager.removeItem(item);
+            }
+        }
+        for (Store store : changes.updated) {
+            // Replaced rather than mutated, the algorithm indexes items by position
+            StoreClusterItem previous = clusterItemsByStoreId.get(store.getId());
+            if (previous != null) {
+                clusterManager.removeItem(previous);
+            }
+            addClusterItem(store);
+        }
+        for (Store store : changes.added) {
+            addClusterItem(store);
+        }
+        if (!changes.isEmpty()) {
+            clusterManager.cluster();
+        }
         
         if (stores.isEmpty()) {
             Log.d(TAG, "updateMap: No stores available, showing message");
@@ -303,63 +375,25 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
             return;
         }
         
-        // Add markers for all stores
-        LatLngBounds.Builder boundsBuilder = new LatLngBounds.Builder();
-        boolean hasValidCoordinates = false;
-        
-        for (Store store : stores) {
-            LatLng storeLocation = new LatLng(store.getLatitude(), store.getLongitude());
-            
-            // Skip invalid coordinates
-            if (store.getLatitude() == 0 && store.getLongitude() == 0) {
-                Log.d(TAG, "updateMap: Skipping store with invalid coordinates: " + store.getName());
-                continue;
-            }
-            
-            hasValidCoordinates = true;
-            boundsBuilder.include(storeLocation);
-            
-            MarkerOptions markerOptions = new MarkerOptions()
-                    .position(storeLocation)
-                    .title(store.getName())
-                    .snippet(store.getAddress());
-            
-            // Use different colors based on store type or highlight status
-            if (highlightShoppingStores && hasShoppingItemsForStore(store.getId())) {
-                // Highlight stores with shopping items in magenta
-                markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_MAGENTA));
-                markerOptions.zIndex(2.0f); // Make these markers appear on top
-                markerOptions.title("🛒 " + store.getName()); // Add shopping cart emoji
-            } else if ("Supermarket".equals(store.getStoreType())) {
-                markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED));
-            } else if ("Convenience Store".equals(store.getStoreType())) {
-                markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_ORANGE));
-            } else if ("Farmers Market".equals(store.getStoreType())) {
-                markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN));
-            } else {
-                markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_BLUE));
-            }
-            
-            Marker marker = mMap.addMarker(markerOptions);
-            if (marker != null) {
-                markerStoreMap.put(marker, store);
-            }
+        // Fit the camera to the stores once; later loads keep the user's view
+        if (cameraFitted) {
+            return;
         }
-        
-        // Move camera to show all markers
-        if (hasValidCoordinates) {
+        cameraFitted = true;
+        if (!located.isEmpty()) {
             try {
                 Log.d(TAG, "updateMap: Moving camera to show all stores");
-                LatLngBounds bounds = boundsBuilder.build();
-                mMap.animateCamera(CameraUpdateFactory.newLatLngBounds(bounds, 100));
+                LatLngBounds.Builder boundsBuilder = new LatLngBounds.Builder();
+                for (Store store : located) {
+                    boundsBuilder.include(new LatLng(store.getLatitude(), store.getLongitude()));
+                }
+                mMap.animateCamera(CameraUpdateFactory.newLatLngBounds(boundsBuilder.build(), 100));
             } catch (Exception e) {
                 Log.e(TAG, "updateMap: Error animating camera", e);
                 // If bounds calculation fails, just zoom to the first store
-                if (!stores.isEmpty()) {
-                    Store firstStore = stores.get(0);
-                    LatLng firstLocation = new LatLng(firstStore.getLatitude(), firstStore.getLongitude());
-                    mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(firstLocation, DEFAULT_ZOOM));
-                }
+                Store firstStore = located.get(0);
+                LatLng firstLocation = new LatLng(firstStore.getLatitude(), firstStore.getLongitude());
+                mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(firstLocation, DEFAULT_ZOOM));
             }
         } else {
             // If no valid coordinates, use default location (e.g., city center)
@@ -369,6 +403,13 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
         }
     }
     
+    private void addClusterItem(Store store) {
+        StoreClusterItem item = new StoreClusterItem(store,
+                highlightShoppingStores && hasShoppingItemsForStore(store.getId()));
+        clusterItemsByStoreId.put(store.getId(), item);
+        clusterManager.addItem(item);
+    }
+    
     /**
      * Sorts stores by distance from current location when user shakes the device
      */
@@ -396,23 +437,9 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
     private void performDistanceSort() {
         if (mLastLocation == null) return;
         
-        // Get list of stores
-        List<Store> stores = new ArrayList<>(storeManager.getStoreList());
-        
-        // Sort by distance
-        Collections.sort(stores, (store1, store2) -> {
-            float[] results1 = new float[1];
-            Location.distanceBetween(
-                    mLastLocation.getLatitude(), mLastLocation.getLongitude(),
-                    store1.getLatitude(), store1.getLongitude(), results1);
-            
-            float[] results2 = new float[1];
-            Location.distanceBetween(
-                    mLastLocation.getLatitude(), mLastLocation.getLongitude(),
-                    store2.getLatitude(), store2.getLongitude(), results2);
-            
-            return Float.compare(results1[0], results2[0]);
-        });
+        // The closest store straight from the spatial index; nothing is sorted
+        List<Store> stores = storeManager.getSpatialIndex()
+                .nearest(mLastLocation.getLatitude(), mLastLocation.getLongitude(), 1);
         
         // Show first store (closest)
         if (!stores.isEmpty()) {
@@ -420,18 +447,8 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
             LatLng storeLocation = new LatLng(closest.getLatitude(), closest.getLongitude());
             mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(storeLocation, DEFAULT_ZOOM));
             
-            // Find marker for this store and click it
-            for (Map.Entry<Marker, Store> entry : markerStoreMap.entrySet()) {
-                if (entry.getValue().getId().equals(closest.getId())) {
-                    entry.getKey().showInfoWindow();
-                    selectedStore = closest;
-                    storeName.setText(selectedStore.getName());
-                    storeAddress.setText(selectedStore.getAddress());
-                    storeType.setText(selectedStore.getStoreType());
-                    storeInfoCard.setVisibility(View.VISIBLE);
-                    break;
-                }
-            }
+            // Its marker may still be inside a cluster, so show the details directly
+            showStoreDetails(closest);
             
             Snackbar.make(findViewById(R.id.map), 
                     "Showing closest store: " + closest.getName(), 
@@ -484,7 +501,11 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
     
     @Override
     public boolean onMarkerClick(@NonNull Marker marker) {
-        Store store = markerStoreMap.get(marker);
+        // Store and cluster markers belong to the cluster manager
+        return clusterManager != null && clusterManager.onMarkerClick(marker);
+    }
+    
+    private boolean onStoreMarkerClicked(Store store) {
         if (store != null) {
             // If we're picking a location, return this location
             if (isPickingLocation) {
@@ -499,24 +520,28 @@ public class StoresMapActivity extends AppCompatActivity implements OnMapReadyCa
             }
             
             // Otherwise, show store details
-            selectedStore = store;
-            storeName.setText(store.getName());
-            storeAddress.setText(store.getAddress());
-            storeType.setText(store.getStoreType());
-            
-            // Show shopping items if this store has any
-            if (highlightShoppingStores && hasShoppingItemsForStore(store.getId())) {
-                btnViewItems.setText("View Shopping Items");
-            } else {
-                btnViewItems.setText("View Items");
-            }
-            
-            storeInfoCard.setVisibility(View.VISIBLE);
+            showStoreDetails(store);
             return true;
         }
         return false;
     }
     
+    private void showStoreDetails(Store store) {
+        selectedStore = store;
+        storeName.setText(store.getName());
+        storeAddress.setText(store.getAddress());
+        storeType.setText(store.getStoreType());
+        
+        // Show shopping items if this store has any
+        if (highlightShoppingStores && hasShoppingItemsForStore(store.getId())) {
+            btnViewItems.setText("View Shopping Items");
+        } else {
+            btnViewItems.setText("View Items");
+        }
+        
+        storeInfoCard.setVisibility(View.VISIBLE);
+    }
+    
     @Override
     public void onMapLongClick(@NonNull LatLng latLng) {
         if (isPickingLocation) {
@@ -7,18 +7,40 @@ import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.raka.mealmate.R;
 import com.raka.mealmate.models.MealPlan;
 import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 public class MealAdapter extends RecyclerView.Adapter<MealAdapter.MealViewHolder> {
     private static final String TAG = "MealAdapter";
-    private List<MealPlan> meals;
+    static final DiffUtil.ItemCallback<MealPlan> DIFF_CALLBACK = new DiffUtil.ItemCallback<MealPlan>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull MealPlan oldItem, @NonNull MealPlan newItem) {
+            // Meals without an ID are only the same meal as themselves
+            if (oldItem.getId() == null || newItem.getId() == null) {
+                return oldItem == newItem;
+            }
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull MealPlan oldItem, @NonNull MealPlan newItem) {
+            return Objects.equals(oldItem.getRecipeName(), newItem.getRecipeName())
+                    && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && oldItem.getTimeInMillis() == newItem.getTimeInMillis();
+        }
+    };
+
+    private final AsyncListDiffer<MealPlan> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final StableIds stableIds = new StableIds();
     private OnMealClickListener listener;
 
     public interface OnMealClickListener {
@@ -27,8 +49,25 @@ public class MealAdapter extends RecyclerView.Adapter<MealAdapter.MealViewHolder
     }
 
     public MealAdapter(List<MealPlan> meals, OnMealClickListener listener) {
-        this.meals = meals;
         this.listener = listener;
+        setHasStableIds(true);
+        submitMeals(meals);
+    }
+
+    /**
+     * Diff the new meals against the current ones in the background and only
+     * rebind the meals that actually changed
+     */
+    public void submitMeals(List<MealPlan> meals) {
+        // Copy so the activity can keep reusing its section lists
+        differ.submitList(meals != null ? new ArrayList<>(meals) : null,
+                () -> stableIds.retain(differ.getCurrentList(), MealPlan::getId));
+    }
+
+    @Override
+    public long getItemId(int position) {
+        MealPlan meal = differ.getCurrentList().get(position);
+        return stableIds.idFor(meal.getId(), meal);
     }
 
     @NonNull
@@ -41,13 +80,13 @@ public class MealAdapter extends RecyclerView.Adapter<MealAdapter.MealViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull MealViewHolder holder, int position) {
-        MealPlan meal = meals.get(position);
+        MealPlan meal = differ.getCurrentList().get(position);
         holder.bind(meal);
     }
 
     @Override
     public int getItemCount() {
-        return meals.size();
+        return differ.getCurrentList().size();
     }
 
     class MealViewHolder extends RecyclerView.ViewHolder {
@@ -66,14 +105,14 @@ public class MealAdapter extends RecyclerView.Adapter<MealAdapter.MealViewHolder
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onMealClick(meals.get(position));
+                    listener.onMealClick(differ.getCurrentList().get(position));
                 }
             });
 
             deleteButton.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onDeleteClick(meals.get(position));
+                    listener.onDeleteClick(differ.getCurrentList().get(position));
                 }
             });
         }
@@ -1,5 +1,7 @@
 package com.raka.mealmate.adapters;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -7,6 +9,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -15,12 +18,45 @@ import com.google.android.material.card.MaterialCardView;
 import com.raka.mealmate.R;
 import com.raka.mealmate.models.Recipe;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeViewHolder> {
 
-    private List<Recipe> recipes;
+    static final DiffUtil.ItemCallback<Recipe> DIFF_CALLBACK = new DiffUtil.ItemCallback<Recipe>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Recipe oldItem, @NonNull Recipe newItem) {
+            return Objects.equals(identityKey(oldItem), identityKey(newItem));
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Recipe oldItem, @NonNull Recipe newItem) {
+            // Only the fields shown on the card matter for rebinding
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDuration(), newItem.getDuration())
+                    && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && oldItem.getRating() == newItem.getRating();
+        }
+    };
+
+    // Full result lists are diffed off the main thread, one at a time
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+    // Position marker for an ID that more than one shown recipe uses
+    private static final int AMBIGUOUS = -1;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final StableIds stableIds = new StableIds();
     private final OnRecipeClickListener listener;
+    private List<Recipe> recipes = new ArrayList<>();
+    // Position of each shown recipe by ID, so a single change is patched without a scan
+    private final Map<String, Integer> positions = new HashMap<>();
+    private int submitGeneration;
+    private boolean diffPending;
 
     public interface OnRecipeClickListener {
         void onRecipeClick(Recipe recipe);
@@ -28,13 +64,155 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
     }
 
     public RecipeAdapter(List<Recipe> recipes, OnRecipeClickListener listener) {
-        this.recipes = recipes;
         this.listener = listener;
+        setHasStableIds(true);
+        updateRecipes(recipes);
     }
 
+    /**
+     * Diff the new list against the current one in the background and only
+     * rebind the recipes that actually changed
+     */
     public void updateRecipes(List<Recipe> newRecipes) {
-        this.recipes = newRecipes;
-        notifyDataSetChanged();
+        // Copy so later changes to the caller's list can't race with the diff
+        List<Recipe> newList = newRecipes != null ? new ArrayList<>(newRecipes) : new ArrayList<>();
+        List<Recipe> oldList = recipes;
+        int generation = ++submitGeneration;
+        if (oldList.isEmpty() || newList.isEmpty()) {
+            commit(newList);
+            notifyDataSetChanged();
+            return;
+        }
+        diffPending = true;
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() {
+                    return oldList.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return newList.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                    return DIFF_CALLBACK.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                    return DIFF_CALLBACK.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                }
+            });
+            mainHandler.post(() -> {
+                // A newer list is already on its way
+                if (generation != submitGeneration) {
+                    return;
+                }
+                commit(newList);
+                result.dispatchUpdatesTo(this);
+            });
+        });
+    }
+
+    /**
+     * Patch one changed or added recipe in place: rebind its row, insert it
+     * at the end, or drop it when it no longer matches the filter. A shown
+     * recipe keeps its position. Returns false when the change can't be
+     * patched, while a full list is still being diffed or when the ID is not
+     * unique, so the caller should filter again instead.
+     */
+    public boolean applyChange(Recipe recipe, boolean matches) {
+        if (diffPending || recipe.getId() == null) {
+            return false;
+        }
+        Integer position = positions.get(recipe.getId());
+        if (position == null) {
+            if (matches) {
+                positions.put(recipe.getId(), recipes.size());
+                recipes.add(recipe);
+                notifyItemInserted(recipes.size() - 1);
+            }
+            return true;
+        }
+        if (position == AMBIGUOUS) {
+            return false;
+        }
+        if (!matches) {
+            removeAt(position);
+            return true;
+        }
+        Recipe previous = recipes.set(position, recipe);
+        if (!identityKey(previous).equals(identityKey(recipe))) {
+            // A new identity means a new stable ID, so the row is replaced rather than rebound
+            notifyItemRemoved(position);
+            notifyItemInserted(position);
+        } else if (!DIFF_CALLBACK.areContentsTheSame(previous, recipe)) {
+            notifyItemChanged(position);
+        }
+        return true;
+    }
+
+    /**
+     * Drop a removed recipe's row, if shown. Returns false when it can't be
+     * patched, as for applyChange.
+     */
+    public boolean applyRemoval(String recipeId) {
+        if (diffPending) {
+            return false;
+        }
+        Integer position = positions.get(recipeId);
+        if (position == null) {
+            return true;
+        }
+        if (position == AMBIGUOUS) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Whether the recipe is shown, or can't be told apart from one that is
+     */
+    public boolean isShown(String recipeId) {
+        return positions.containsKey(recipeId);
+    }
+
+    private void commit(List<Recipe> newList) {
+        recipes = newList;
+        diffPending = false;
+        reindex();
+        stableIds.retain(recipes, RecipeAdapter::identityKey);
+    }
+
+    private void removeAt(int position) {
+        recipes.remove(position);
+        reindex();
+        notifyItemRemoved(position);
+    }
+
+    // Rows after a removal shift up, so their positions are rebuilt
+    private void reindex() {
+        positions.clear();
+        for (int i = 0; i < recipes.size(); i++) {
+            String id = recipes.get(i).getId();
+            if (id != null) {
+                positions.put(id, positions.containsKey(id) ? AMBIGUOUS : i);
+            }
+        }
+    }
+
+    // Older recipes share time-based IDs, so the title keeps their identity distinct
+    static String identityKey(Recipe recipe) {
+        return recipe.getId() + "|" + recipe.getTitle();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.idFor(identityKey(recipes.get(position)));
     }
 
     @NonNull
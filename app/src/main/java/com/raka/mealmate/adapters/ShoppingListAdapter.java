@@ -1,72 +1,317 @@
 package com.raka.mealmate.adapters;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.CheckBox;
 import android.widget.ImageButton;
+import android.widget.SectionIndexer;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.raka.mealmate.R;
+import com.raka.mealmate.helpers.ShoppingListTable;
 import com.raka.mealmate.models.ShoppingItem;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-public class ShoppingListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+/**
+ * Binds category headers and items straight from a ShoppingListTable, so no
+ * row objects are created per item. New tables are diffed against the shown
+ * one in the background and only changed rows are rebound; single items are
+ * added and removed in place, touching only their own category section.
+ * Categories are exposed as sections for jumping between them.
+ *
+ * A table is edited in place once it is shown. While a new table is being
+ * diffed, neither table may change, so edits made meanwhile are queued and
+ * replayed by item id onto the new table when it is swapped in.
+ */
+public class ShoppingListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+        implements SectionIndexer {
     private static final int TYPE_HEADER = 0;
     private static final int TYPE_ITEM = 1;
-    
+
+    // Shared by all instances; diffs are short and rare
+    private static final ExecutorService DIFF_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private final Context context;
-    private final List<Object> items; // Can be either String (header) or ShoppingItem
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final StableIds headerIds = new StableIds();
+    private final StableIds itemIds = new StableIds();
+    // The table bound to the rows, and the one being diffed, if any
+    private ShoppingListTable table;
+    private ShoppingListTable pending;
+    // Edits made while a diff runs, in order
+    private final List<Edit> queuedEdits = new ArrayList<>();
+    private int queuedCountDelta;
+    private int submitGeneration;
     private OnItemActionListener listener;
+    private OnSectionClickListener sectionClickListener;
 
+    // Callbacks carry the item's index in getTable()
     public interface OnItemActionListener {
-        void onEditItem(ShoppingItem item);
-        void onDeleteItem(ShoppingItem item);
-        void onItemChecked(ShoppingItem item, boolean isChecked);
+        void onEditItem(int index);
+        void onDeleteItem(int index);
+        void onItemChecked(int index, boolean isChecked);
+    }
+
+    // Interface for category header click callbacks
+    public interface OnSectionClickListener {
+        void onSectionClicked(int section);
+    }
+
+    // One queued edit: the item to update or insert, or the id to remove
+    private static final class Edit {
+        final ShoppingItem item;
+        final String removedId;
+
+        Edit(ShoppingItem item, String removedId) {
+            this.item = item;
+            this.removedId = removedId;
+        }
+
+        String id() {
+            return item != null ? item.getId() : removedId;
+        }
     }
 
-    public ShoppingListAdapter(Context context, List<ShoppingItem> shoppingItems) {
+    public ShoppingListAdapter(Context context, ShoppingListTable table) {
         this.context = context;
-        this.items = new ArrayList<>();
-        
-        // Group items by category
-        Map<String, List<ShoppingItem>> categoryMap = new TreeMap<>();
-        for (ShoppingItem item : shoppingItems) {
-            String category = item.getCategory();
-            if (!categoryMap.containsKey(category)) {
-                categoryMap.put(category, new ArrayList<>());
+        this.table = table;
+        setHasStableIds(true);
+    }
+
+    /**
+     * The table currently shown; item indices from callbacks refer to it.
+     * Read-only: change items with updateItem, removeItem and insertItem.
+     */
+    public ShoppingListTable getTable() {
+        return table;
+    }
+
+    /**
+     * The newest table, shown or still being diffed, without edits that are
+     * still queued behind the diff. Read-only.
+     */
+    public ShoppingListTable getLatestTable() {
+        return pending != null ? pending : table;
+    }
+
+    /**
+     * Number of listed items, counting queued edits
+     */
+    public int getListedItemCount() {
+        return getLatestTable().size() + queuedCountDelta;
+    }
+
+    /**
+     * A copy of the item with this id in the newest table, queued edits
+     * included, or null if it is not listed
+     */
+    public ShoppingItem findItem(String itemId) {
+        for (int i = queuedEdits.size() - 1; i >= 0; i--) {
+            Edit edit = queuedEdits.get(i);
+            if (edit.id().equals(itemId)) {
+                return edit.item != null ? copyOf(edit.item) : null;
+            }
+        }
+        ShoppingListTable latest = getLatestTable();
+        int index = latest.indexOf(itemId);
+        return index >= 0 ? latest.toShoppingItem(index) : null;
+    }
+
+    /**
+     * Diff the new table against the shown one off the main thread, then swap
+     * it in, dispatch only the row changes and replay the edits queued
+     * meanwhile. The table must not be edited by the caller after it was submitted.
+     */
+    public void submitTable(ShoppingListTable newTable) {
+        int generation = ++submitGeneration;
+        pending = newTable;
+        // Neither table changes while the diff runs
+        ShoppingListTable oldTable = table;
+        DIFF_EXECUTOR.execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new TableDiffCallback(oldTable, newTable));
+            mainHandler.post(() -> {
+                if (generation != submitGeneration) {
+                    // A newer table is already on its way
+                    return;
+                }
+                table = newTable;
+                pending = null;
+                result.dispatchUpdatesTo(this);
+                replayQueuedEdits();
+            });
+        });
+    }
+
+    /**
+     * Set the listed item's amount, price and purchased flag from the given
+     * one, matched by id. Returns false if it is not listed.
+     */
+    public boolean updateItem(ShoppingItem item) {
+        if (findItem(item.getId()) == null) {
+            return false;
+        }
+        if (isDiffPending()) {
+            queue(new Edit(copyOf(item), null), 0);
+        } else {
+            applyUpdate(item);
+        }
+        return true;
+    }
+
+    /**
+     * Remove one item, animating out its row and its category header if the
+     * section is now empty. Returns false if it is not listed.
+     */
+    public boolean removeItem(String itemId) {
+        if (findItem(itemId) == null) {
+            return false;
+        }
+        if (isDiffPending()) {
+            queue(new Edit(null, itemId), -1);
+        } else {
+            applyRemove(itemId);
+        }
+        return true;
+    }
+
+    /**
+     * Add one item in its sorted place, unless an item with its id is listed
+     */
+    public void insertItem(ShoppingItem item) {
+        if (findItem(item.getId()) != null) {
+            return;
+        }
+        if (isDiffPending()) {
+            queue(new Edit(copyOf(item), null), 1);
+        } else {
+            applyInsert(item);
+        }
+    }
+
+    private boolean isDiffPending() {
+        return pending != null;
+    }
+
+    private void queue(Edit edit, int countDelta) {
+        queuedEdits.add(edit);
+        queuedCountDelta += countDelta;
+    }
+
+    // Edits are matched by id, so they apply to whatever the new table lists
+    private void replayQueuedEdits() {
+        List<Edit> edits = new ArrayList<>(queuedEdits);
+        queuedEdits.clear();
+        queuedCountDelta = 0;
+        for (Edit edit : edits) {
+            if (edit.item == null) {
+                applyRemove(edit.removedId);
+            } else if (table.indexOf(edit.item.getId()) >= 0) {
+                applyUpdate(edit.item);
+            } else {
+                applyInsert(edit.item);
             }
-            categoryMap.get(category).add(item);
         }
-        
-        // Sort items within each category and create final list
-        for (Map.Entry<String, List<ShoppingItem>> entry : categoryMap.entrySet()) {
-            // Add category header
-            items.add(entry.getKey());
-            
-            // Sort items by name
-            List<ShoppingItem> categoryItems = entry.getValue();
-            Collections.sort(categoryItems, (a, b) -> a.getName().compareToIgnoreCase(b.getName()));
-            
-            // Add sorted items
-            items.addAll(categoryItems);
+    }
+
+    private void applyUpdate(ShoppingItem item) {
+        int index = table.indexOf(item.getId());
+        if (index < 0) {
+            return;
+        }
+        table.setAmount(index, item.getAmount());
+        table.setPrice(index, item.getPrice());
+        table.setPurchased(index, item.isPurchased());
+        notifyItemChanged(table.rowOf(index));
+    }
+
+    private void applyRemove(String itemId) {
+        int index = table.indexOf(itemId);
+        if (index < 0) {
+            return;
+        }
+        int row = table.rowOf(index);
+        boolean lastInSection = table.sectionSize(table.sectionForRow(row)) == 1;
+        table.removeItem(index);
+        if (lastInSection) {
+            notifyItemRangeRemoved(row - 1, 2);
+        } else {
+            notifyItemRemoved(row);
         }
     }
 
+    private void applyInsert(ShoppingItem item) {
+        int sectionsBefore = table.sectionCount();
+        int row = table.rowOf(table.insertItem(item));
+        if (table.sectionCount() > sectionsBefore) {
+            notifyItemRangeInserted(row - 1, 2);
+        } else {
+            notifyItemInserted(row);
+        }
+    }
+
+    private static ShoppingItem copyOf(ShoppingItem item) {
+        ShoppingItem copy = new ShoppingItem(item.getName(), item.getAmount(), item.getUnit(), item.getCategory(),
+                item.getStoreId());
+        copy.setId(item.getId());
+        copy.setPrice(item.getPrice());
+        copy.setPurchased(item.isPurchased());
+        return copy;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (table.isHeader(position)) {
+            return -headerIds.idFor(table.headerAt(position));
+        }
+        return itemIds.idFor(table.getId(table.itemAt(position)));
+    }
+
     public void setOnItemActionListener(OnItemActionListener listener) {
         this.listener = listener;
     }
 
+    public void setOnSectionClickListener(OnSectionClickListener sectionClickListener) {
+        this.sectionClickListener = sectionClickListener;
+    }
+
+    @Override
+    public Object[] getSections() {
+        String[] titles = new String[table.sectionCount()];
+        for (int s = 0; s < titles.length; s++) {
+            titles[s] = table.sectionTitle(s);
+        }
+        return titles;
+    }
+
+    @Override
+    public int getPositionForSection(int sectionIndex) {
+        if (table.sectionCount() == 0) {
+            return 0;
+        }
+        int section = Math.max(0, Math.min(sectionIndex, table.sectionCount() - 1));
+        return table.sectionStartRow(section);
+    }
+
+    @Override
+    public int getSectionForPosition(int position) {
+        if (table.sectionCount() == 0) {
+            return 0;
+        }
+        return table.sectionForRow(Math.max(0, Math.min(position, table.rowCount() - 1)));
+    }
+
     @Override
     public int getItemViewType(int position) {
-        return items.get(position) instanceof String ? TYPE_HEADER : TYPE_ITEM;
+        return table.isHeader(position) ? TYPE_HEADER : TYPE_ITEM;
     }
 
     @NonNull
@@ -84,27 +329,62 @@ public class ShoppingListAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         if (holder instanceof HeaderViewHolder) {
-            ((HeaderViewHolder) holder).bind((String) items.get(position));
+            ((HeaderViewHolder) holder).bind(table.headerAt(position));
         } else if (holder instanceof ItemViewHolder) {
-            ((ItemViewHolder) holder).bind((ShoppingItem) items.get(position));
+            ((ItemViewHolder) holder).bind(table.itemAt(position));
         }
     }
 
     @Override
     public int getItemCount() {
-        return items.size();
+        return table.rowCount();
     }
-    
-    /**
-     * Returns the item at the specified position in the data set
-     * @param position Position to get item from
-     * @return The object at the specified position
-     */
-    public Object getItemAt(int position) {
-        if (position >= 0 && position < items.size()) {
-            return items.get(position);
+
+    static class TableDiffCallback extends DiffUtil.Callback {
+        private final ShoppingListTable oldTable;
+        private final ShoppingListTable newTable;
+
+        TableDiffCallback(ShoppingListTable oldTable, ShoppingListTable newTable) {
+            this.oldTable = oldTable;
+            this.newTable = newTable;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldTable.rowCount();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newTable.rowCount();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            boolean oldHeader = oldTable.isHeader(oldPosition);
+            if (oldHeader != newTable.isHeader(newPosition)) {
+                return false;
+            }
+            if (oldHeader) {
+                return oldTable.headerAt(oldPosition).equals(newTable.headerAt(newPosition));
+            }
+            return oldTable.getId(oldTable.itemAt(oldPosition))
+                    .equals(newTable.getId(newTable.itemAt(newPosition)));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            if (oldTable.isHeader(oldPosition)) {
+                return true;
+            }
+            int oldIndex = oldTable.itemAt(oldPosition);
+            int newIndex = newTable.itemAt(newPosition);
+            return oldTable.getName(oldIndex).equals(newTable.getName(newIndex))
+                    && oldTable.getUnit(oldIndex).equals(newTable.getUnit(newIndex))
+                    && oldTable.getAmount(oldIndex) == newTable.getAmount(newIndex)
+                    && oldTable.getPrice(oldIndex) == newTable.getPrice(newIndex)
+                    && oldTable.isPurchased(oldIndex) == newTable.isPurchased(newIndex);
         }
-        return null;
     }
 
     class HeaderViewHolder extends RecyclerView.ViewHolder {
@@ -113,6 +393,12 @@ public class ShoppingListAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
         HeaderViewHolder(View itemView) {
             super(itemView);
             tvCategoryHeader = itemView.findViewById(R.id.tvCategoryHeader);
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (sectionClickListener != null && position != RecyclerView.NO_POSITION) {
+                    sectionClickListener.onSectionClicked(table.sectionForRow(position));
+                }
+            });
         }
 
         void bind(String category) {
@@ -127,6 +413,7 @@ public class ShoppingListAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
         CheckBox cbPurchased;
         ImageButton btnEdit;
         ImageButton btnDelete;
+        private boolean binding;
 
         ItemViewHolder(View itemView) {
             super(itemView);
@@ -136,20 +423,43 @@ public class ShoppingListAdapter extends RecyclerView.Adapter<RecyclerView.ViewH
             cbPurchased = itemView.findViewById(R.id.cbPurchased);
             btnEdit = itemView.findViewById(R.id.btnEdit);
             btnDelete = itemView.findViewById(R.id.btnDelete);
+
+            // Set once; the item is looked up from the holder's position on click
+            btnEdit.setOnClickListener(v -> {
+                int index = boundIndex();
+                if (listener != null && index >= 0) {
+                    listener.onEditItem(index);
+                }
+            });
+            btnDelete.setOnClickListener(v -> {
+                int index = boundIndex();
+                if (listener != null && index >= 0) {
+                    listener.onDeleteItem(index);
+                }
+            });
+            cbPurchased.setOnCheckedChangeListener((buttonView, isChecked) -> {
+                int index = boundIndex();
+                if (!binding && listener != null && index >= 0) {
+                    listener.onItemChecked(index, isChecked);
+                }
+            });
+        }
+
+        void bind(int index) {
+            binding = true;
+            tvItemName.setText(table.getName(index));
+            tvAmount.setText(String.format("%.1f %s", table.getAmount(index), table.getUnit(index)));
+            tvPrice.setText(String.format("Nrs%.2f", table.getPrice(index)));
+            cbPurchased.setChecked(table.isPurchased(index));
+            binding = false;
         }
 
-        void bind(ShoppingItem item) {
-            tvItemName.setText(item.getName());
-            tvAmount.setText(String.format("%.1f %s", item.getAmount(), item.getUnit()));
-            tvPrice.setText(String.format("Nrs%.2f", item.getPrice()));
-            cbPurchased.setChecked(item.isPurchased());
-            
-            if (listener != null) {
-                btnEdit.setOnClickListener(v -> listener.onEditItem(item));
-                btnDelete.setOnClickListener(v -> listener.onDeleteItem(item));
-                cbPurchased.setOnCheckedChangeListener((buttonView, isChecked) -> 
-                    listener.onItemChecked(item, isChecked));
+        private int boundIndex() {
+            int position = getAdapterPosition();
+            if (position == RecyclerView.NO_POSITION || table.isHeader(position)) {
+                return -1;
             }
+            return table.itemAt(position);
         }
     }
 }
@@ -0,0 +1,75 @@
+package com.raka.mealmate.adapters;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out stable RecyclerView item IDs for string keys, so the same
+ * recipe, meal or item keeps its ID across list updates. Items without a
+ * key get an ID of their own object instead of sharing one.
+ */
+class StableIds {
+    private Map<String, Long> ids = new HashMap<>();
+    private Map<Object, Long> unkeyedIds = new IdentityHashMap<>();
+    private long nextId = 1;
+
+    // Interface for reading an item's key, null if it has none
+    interface KeyOf<T> {
+        String keyOf(T item);
+    }
+
+    long idFor(String key) {
+        Long id = ids.get(key);
+        if (id == null) {
+            id = nextId++;
+            ids.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * The key's ID, or one for the object itself when the key is null
+     */
+    long idFor(String key, Object item) {
+        if (key != null) {
+            return idFor(key);
+        }
+        Long id = unkeyedIds.get(item);
+        if (id == null) {
+            id = nextId++;
+            unkeyedIds.put(item, id);
+        }
+        return id;
+    }
+
+    /**
+     * Forget the IDs of items that are no longer listed. IDs are never
+     * reused, so a returning item simply gets a new one.
+     */
+    <T> void retain(List<T> items, KeyOf<T> keyOf) {
+        Map<String, Long> keptIds = new HashMap<>();
+        Map<Object, Long> keptUnkeyed = new IdentityHashMap<>();
+        for (T item : items) {
+            String key = keyOf.keyOf(item);
+            if (key != null) {
+                Long id = ids.get(key);
+                if (id != null) {
+                    keptIds.put(key, id);
+                }
+            } else {
+                Long id = unkeyedIds.get(item);
+                if (id != null) {
+                    keptUnkeyed.put(item, id);
+                }
+            }
+        }
+        ids = keptIds;
+        unkeyedIds = keptUnkeyed;
+    }
+
+    int size() {
+        return ids.size() + unkeyedIds.size();
+    }
+}
@@ -16,6 +16,7 @@ import com.raka.mealmate.R;
 import com.raka.mealmate.helpers.StoreManager;
 import com.raka.mealmate.models.Store;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class StoreCardAdapter extends RecyclerView.Adapter<StoreCardAdapter.ViewHolder> {
@@ -26,7 +27,8 @@ public class StoreCardAdapter extends RecyclerView.Adapter<StoreCardAdapter.View
 
     public StoreCardAdapter(Context context, List<Store> stores) {
         this.context = context;
-        this.stores = stores;
+        // Own copy: the given list may be a read-only snapshot
+        this.stores = new ArrayList<>(stores);
         this.storeManager = StoreManager.getInstance(context);
     }
 
@@ -16,12 +16,11 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import com.bumptech.glide.Glide;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
 import com.raka.mealmate.R;
 import com.raka.mealmate.helpers.NotificationHelper;
 import com.raka.mealmate.models.MealPlan;
 import com.raka.mealmate.models.Recipe;
+import com.raka.mealmate.repositories.MealPlanRepository;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -37,7 +36,7 @@ public class MealPlanDialog extends Dialog {
     private Calendar selectedDate;
     private ImageView recipePreviewImage;
     private TextView recipePreviewTitle;
-    private DatabaseReference mDatabase;
+    private MealPlanRepository mealPlanRepository;
     private String userId;
 
     public interface OnMealPlanSelectedListener {
@@ -49,7 +48,7 @@ public class MealPlanDialog extends Dialog {
         this.recipe = recipe;
         this.listener = listener;
         this.selectedDate = Calendar.getInstance();
-        this.mDatabase = FirebaseDatabase.getInstance().getReference();
+        this.mealPlanRepository = new MealPlanRepository();
         this.userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
     }
 
@@ -112,36 +111,28 @@ public class MealPlanDialog extends Dialog {
             Log.d(TAG, "Meal Time: " + mealTime);
             Log.d(TAG, "Recipe Name: " + recipe.getTitle());
             
-            String mealId = mDatabase.child("mealPlans").child(userId).child(dateKey).push().getKey();
-            if (mealId != null) {
-                mealPlan.setId(mealId);
-                
-                Log.d(TAG, "Saving meal plan - Name: " + mealPlan.getRecipeName() + 
-                          ", Time: " + mealPlan.getMealTime() +
-                          ", Date: " + dateKey +
-                          ", ID: " + mealId);
-
-                mDatabase.child("mealPlans")
-                        .child(userId)
-                        .child(dateKey)
-                        .child(mealId)
-                        .setValue(mealPlan)
-                        .addOnSuccessListener(aVoid -> {
-                            Log.d(TAG, "Meal plan saved successfully");
-                            
-                            // Schedule notification for this new meal plan
-                            NotificationHelper.scheduleMealPrepReminder(getContext(), mealPlan);
-                            
-                            if (listener != null) {
-                                listener.onMealPlanSelected(recipe, selectedDate.getTime(), mealTime);
-                            }
-                            dismiss();
-                        })
-                        .addOnFailureListener(e -> {
-                            Log.e(TAG, "Error saving meal plan", e);
-                            Toast.makeText(getContext(), "Failed to add meal to plan", Toast.LENGTH_SHORT).show();
-                        });
-            }
+            Log.d(TAG, "Saving meal plan - Name: " + mealPlan.getRecipeName() + 
+                      ", Time: " + mealPlan.getMealTime() +
+                      ", Date: " + dateKey +
+                      ", ID: " + mealPlan.getId());
+
+            // Through the repository so the shopping list picks up the ingredients
+            mealPlanRepository.addMealPlan(mealPlan)
+                    .addOnSuccessListener(aVoid -> {
+                        Log.d(TAG, "Meal plan saved successfully");
+                        
+                        // Schedule notification for this new meal plan
+                        NotificationHelper.scheduleMealPrepReminder(getContext(), mealPlan);
+                        
+                        if (listener != null) {
+                            listener.onMealPlanSelected(recipe, selectedDate.getTime(), mealTime);
+                        }
+                        dismiss();
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Error saving meal plan", e);
+                        Toast.makeText(getContext(), "Failed to add meal to plan", Toast.LENGTH_SHORT).show();
+                    });
         });
 
         cancelButton.setOnClickListener(v -> dismiss());
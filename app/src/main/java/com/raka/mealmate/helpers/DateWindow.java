@@ -0,0 +1,178 @@
+package com.raka.mealmate.helpers;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * An inclusive range of days expressed as yyyyMMdd keys, the same keys meal
+ * plans are stored under. Because the keys sort chronologically, a window maps
+ * directly onto a startAt/endAt key-range query.
+ */
+public final class DateWindow {
+    public static final String DATE_KEY_PATTERN = "yyyyMMdd";
+
+    private final String startKey;
+    private final String endKey;
+
+    public DateWindow(String startKey, String endKey) {
+        if (startKey.compareTo(endKey) > 0) {
+            throw new IllegalArgumentException("Window starts after it ends: " + startKey + " > " + endKey);
+        }
+        this.startKey = startKey;
+        this.endKey = endKey;
+    }
+
+    /**
+     * The calendar week containing the given day, starting on the locale's first day of the week
+     */
+    public static DateWindow thisWeek(Calendar today) {
+        Calendar start = startOfDay(today);
+        int offset = (start.get(Calendar.DAY_OF_WEEK) - start.getFirstDayOfWeek() + 7) % 7;
+        start.add(Calendar.DAY_OF_YEAR, -offset);
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DAY_OF_YEAR, 6);
+        return new DateWindow(dateKey(start), dateKey(end));
+    }
+
+    /**
+     * The calendar month containing the given day
+     */
+    public static DateWindow thisMonth(Calendar today) {
+        Calendar start = startOfDay(today);
+        start.set(Calendar.DAY_OF_MONTH, 1);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.DAY_OF_MONTH, start.getActualMaximum(Calendar.DAY_OF_MONTH));
+        return new DateWindow(dateKey(start), dateKey(end));
+    }
+
+    /**
+     * The given day and the days after it, e.g. nextDays(today, 7) for the coming week
+     */
+    public static DateWindow nextDays(Calendar today, int days) {
+        Calendar start = startOfDay(today);
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DAY_OF_YEAR, Math.max(days, 1) - 1);
+        return new DateWindow(dateKey(start), dateKey(end));
+    }
+
+    /**
+     * A window picked as UTC midnights, as date range pickers return them
+     */
+    public static DateWindow fromUtcMillis(long startUtcMillis, long endUtcMillis) {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_KEY_PATTERN, Locale.getDefault());
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return new DateWindow(format.format(new Date(startUtcMillis)), format.format(new Date(endUtcMillis)));
+    }
+
+    public static String dateKey(Calendar day) {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_KEY_PATTERN, Locale.getDefault());
+        format.setTimeZone(day.getTimeZone());
+        return format.format(day.getTime());
+    }
+
+    public String getStartKey() {
+        return startKey;
+    }
+
+    public String getEndKey() {
+        return endKey;
+    }
+
+    public boolean contains(String dateKey) {
+        return dateKey.compareTo(startKey) >= 0 && dateKey.compareTo(endKey) <= 0;
+    }
+
+    public boolean overlaps(DateWindow other) {
+        return startKey.compareTo(other.endKey) <= 0 && other.startKey.compareTo(endKey) <= 0;
+    }
+
+    /**
+     * Every day key in the window, in order
+     */
+    public List<String> getDayKeys() {
+        SimpleDateFormat format = utcKeyFormat();
+        Calendar day = utcDay(format, startKey);
+        List<String> keys = new ArrayList<>();
+        String key = startKey;
+        while (key.compareTo(endKey) <= 0) {
+            keys.add(key);
+            day.add(Calendar.DAY_OF_YEAR, 1);
+            key = format.format(day.getTime());
+        }
+        return keys;
+    }
+
+    /**
+     * The seven days right before the window
+     */
+    public DateWindow weekBefore() {
+        SimpleDateFormat format = utcKeyFormat();
+        Calendar day = utcDay(format, startKey);
+        day.add(Calendar.DAY_OF_YEAR, -1);
+        String end = format.format(day.getTime());
+        day.add(Calendar.DAY_OF_YEAR, -6);
+        return new DateWindow(format.format(day.getTime()), end);
+    }
+
+    /**
+     * The seven days right after the window
+     */
+    public DateWindow weekAfter() {
+        SimpleDateFormat format = utcKeyFormat();
+        Calendar day = utcDay(format, endKey);
+        day.add(Calendar.DAY_OF_YEAR, 1);
+        String start = format.format(day.getTime());
+        day.add(Calendar.DAY_OF_YEAR, 6);
+        return new DateWindow(start, format.format(day.getTime()));
+    }
+
+    // Day arithmetic on keys is done in UTC, where every day has 24 hours
+    private static SimpleDateFormat utcKeyFormat() {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_KEY_PATTERN, Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format;
+    }
+
+    private static Calendar utcDay(SimpleDateFormat format, String dateKey) {
+        Calendar day = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        try {
+            day.setTime(format.parse(dateKey));
+        } catch (ParseException e) {
+            throw new IllegalStateException("Not a date key: " + dateKey, e);
+        }
+        return day;
+    }
+
+    private static Calendar startOfDay(Calendar day) {
+        Calendar start = (Calendar) day.clone();
+        start.set(Calendar.HOUR_OF_DAY, 0);
+        start.set(Calendar.MINUTE, 0);
+        start.set(Calendar.SECOND, 0);
+        start.set(Calendar.MILLISECOND, 0);
+        return start;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DateWindow)) return false;
+        DateWindow other = (DateWindow) o;
+        return startKey.equals(other.startKey) && endKey.equals(other.endKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * startKey.hashCode() + endKey.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return startKey + ".." + endKey;
+    }
+}
@@ -0,0 +1,102 @@
+package com.raka.mealmate.helpers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of per-day buckets keyed by yyyyMMdd. A window
+ * loaded in one range query is stored day by day, with an empty bucket for
+ * days that have nothing, so any day inside a loaded window is answered
+ * from memory. Used from the main thread only.
+ */
+public class DayBucketCache<T> {
+    private final int maxDays;
+    private final LinkedHashMap<String, List<T>> days;
+    private int hits;
+    private int misses;
+
+    public DayBucketCache(int maxDays) {
+        this.maxDays = maxDays;
+        this.days = new LinkedHashMap<String, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<T>> eldest) {
+                return size() > DayBucketCache.this.maxDays;
+            }
+        };
+    }
+
+    /**
+     * Store every day of the window; days missing from byDay get an empty bucket
+     */
+    public void putWindow(DateWindow window, Map<String, List<T>> byDay) {
+        for (String dateKey : window.getDayKeys()) {
+            List<T> items = byDay.get(dateKey);
+            days.put(dateKey, items != null && !items.isEmpty()
+                    ? Collections.unmodifiableList(new ArrayList<>(items))
+                    : Collections.emptyList());
+        }
+    }
+
+    /**
+     * The day's items, empty if it has none, or null if the day is not cached
+     */
+    public List<T> get(String dateKey) {
+        List<T> items = days.get(dateKey);
+        if (items != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return items;
+    }
+
+    /**
+     * Whether every day of the window is cached; does not count as a use
+     */
+    public boolean containsWindow(DateWindow window) {
+        for (String dateKey : window.getDayKeys()) {
+            if (!days.containsKey(dateKey)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Total items in the window, or -1 if some day is not cached; not counted as hits
+     */
+    public int countItems(DateWindow window) {
+        int count = 0;
+        for (String dateKey : window.getDayKeys()) {
+            List<T> items = days.get(dateKey);
+            if (items == null) {
+                return -1;
+            }
+            count += items.size();
+        }
+        return count;
+    }
+
+    public void invalidate(String dateKey) {
+        days.remove(dateKey);
+    }
+
+    public void clear() {
+        days.clear();
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    public int getHitCount() {
+        return hits;
+    }
+
+    public int getMissCount() {
+        return misses;
+    }
+}
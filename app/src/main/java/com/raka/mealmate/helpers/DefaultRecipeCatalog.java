@@ -0,0 +1,150 @@
+package com.raka.mealmate.helpers;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared access to the recipes bundled with the app: the browser's default
+ * recipes and the featured samples on the home screen. The catalog is a
+ * compact binary asset that is memory-mapped on first use and decoded on a
+ * background thread; counting recipes only reads its header.
+ */
+public class DefaultRecipeCatalog {
+    private static final String TAG = "DefaultRecipeCatalog";
+    private static final String ASSET_NAME = "default_recipes.bin";
+
+    private static DefaultRecipeCatalog instance;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private RecipeCatalogFormat.Reader reader;
+    private List<Recipe> defaultRecipes;
+    private List<Recipe> featuredRecipes;
+
+    // Interface for catalog load callbacks, delivered on the main thread
+    public interface CatalogLoadListener {
+        void onRecipesLoaded(List<Recipe> recipes);
+    }
+
+    public static synchronized DefaultRecipeCatalog getInstance(Context context) {
+        if (instance == null) {
+            instance = new DefaultRecipeCatalog(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private DefaultRecipeCatalog(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Number of default recipes, read from the catalog header without decoding any recipe
+     */
+    public synchronized int getDefaultRecipeCount() {
+        RecipeCatalogFormat.Reader catalog = openReader();
+        return catalog != null ? catalog.getDefaultCount() : 0;
+    }
+
+    /**
+     * Decode the default recipes in the background and deliver them on the main thread
+     */
+    public void loadDefaultRecipes(CatalogLoadListener listener) {
+        executor.execute(() -> {
+            List<Recipe> recipes = getDefaultRecipes();
+            mainHandler.post(() -> listener.onRecipesLoaded(recipes));
+        });
+    }
+
+    /**
+     * Decode the featured sample recipes in the background and deliver them on the main thread
+     */
+    public void loadFeaturedRecipes(CatalogLoadListener listener) {
+        executor.execute(() -> {
+            List<Recipe> recipes = getFeaturedRecipes();
+            mainHandler.post(() -> listener.onRecipesLoaded(recipes));
+        });
+    }
+
+    /**
+     * Start decoding the default recipes ahead of time so a later load is instant
+     */
+    public void prefetch() {
+        executor.execute(this::getDefaultRecipes);
+    }
+
+    /**
+     * Blocking access to the default recipes. Call off the main thread.
+     */
+    public synchronized List<Recipe> getDefaultRecipes() {
+        if (defaultRecipes == null) {
+            RecipeCatalogFormat.Reader catalog = openReader();
+            defaultRecipes = catalog != null
+                    ? Collections.unmodifiableList(catalog.readDefaultRecipes())
+                    : Collections.<Recipe>emptyList();
+        }
+        return new ArrayList<>(defaultRecipes);
+    }
+
+    /**
+     * Blocking access to the featured sample recipes. Call off the main thread.
+     */
+    public synchronized List<Recipe> getFeaturedRecipes() {
+        if (featuredRecipes == null) {
+            RecipeCatalogFormat.Reader catalog = openReader();
+            featuredRecipes = catalog != null
+                    ? Collections.unmodifiableList(catalog.readFeaturedRecipes())
+                    : Collections.<Recipe>emptyList();
+        }
+        return new ArrayList<>(featuredRecipes);
+    }
+
+    private RecipeCatalogFormat.Reader openReader() {
+        if (reader == null) {
+            try {
+                reader = new RecipeCatalogFormat.Reader(mapAsset());
+            } catch (IOException e) {
+                Log.e(TAG, "Error opening recipe catalog", e);
+            }
+        }
+        return reader;
+    }
+
+    private ByteBuffer mapAsset() throws IOException {
+        // The asset is stored uncompressed (see noCompress in build.gradle.kts) so it can be mapped
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(ASSET_NAME);
+             FileInputStream stream = descriptor.createInputStream()) {
+            return stream.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                    descriptor.getStartOffset(), descriptor.getLength());
+        } catch (IOException e) {
+            Log.w(TAG, "Could not map recipe catalog, reading it instead", e);
+        }
+
+        try (InputStream input = context.getAssets().open(ASSET_NAME)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+}
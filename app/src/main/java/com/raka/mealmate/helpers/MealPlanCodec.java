@@ -0,0 +1,109 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the plain value tree of a meal plan node onto a MealPlan without
+ * reflection, for the planner, the shopping list backfill and the boot
+ * receiver alike. The embedded recipe goes through RecipeCodec.
+ *
+ * dateTime comes in two shapes: a Long of epoch millis in older plans, and
+ * the bean form the SDK writes for java.util.Date, a map whose "time" entry
+ * holds the millis. The reflective mapper passed that map to the model's
+ * setDateTime(Object), which ignored it and left the meal at the current time.
+ *
+ * Meal plans are stored normalized: the recipe is referenced by recipeId and
+ * recipeVersion and resolved through PlanRecipeCache. Older plans embed the
+ * whole recipe; fromMap still reads it and takes the id from it.
+ */
+public final class MealPlanCodec {
+
+    private MealPlanCodec() {
+    }
+
+    /**
+     * The meal plan stored under id, or null if value is not a meal plan node
+     */
+    public static MealPlan fromMap(String id, Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        MealPlan mealPlan = new MealPlan();
+        mealPlan.setId(id != null ? id : RecipeCodec.string(map.get("id")));
+        mealPlan.setRecipeName(RecipeCodec.string(map.get("recipeName")));
+        mealPlan.setImageUrl(RecipeCodec.string(map.get("imageUrl")));
+        mealPlan.setCookingTime(RecipeCodec.string(map.get("cookingTime")));
+        mealPlan.setMealTime(RecipeCodec.string(map.get("mealTime")));
+        mealPlan.setDate(RecipeCodec.string(map.get("date")));
+        mealPlan.setUserId(RecipeCodec.string(map.get("userId")));
+        mealPlan.setTimestamp(RecipeCodec.longNumber(map.get("timestamp"), mealPlan.getTimestamp()));
+
+        // Without a readable dateTime the model keeps its default of now
+        Date dateTime = parseDateTime(map.get("dateTime"));
+        if (dateTime != null) {
+            mealPlan.setDateTime(dateTime);
+        }
+
+        mealPlan.setRecipeId(RecipeCodec.string(map.get("recipeId")));
+        mealPlan.setRecipeVersion(RecipeCodec.longNumber(map.get("recipeVersion"), 0));
+        Object recipeValue = map.get("recipe");
+        if (recipeValue != null) {
+            Recipe recipe = RecipeCodec.fromMap(null, recipeValue);
+            mealPlan.setRecipe(recipe);
+            if (mealPlan.getRecipeId() == null && recipe != null) {
+                mealPlan.setRecipeId(recipe.getId());
+            }
+        }
+        return mealPlan;
+    }
+
+    /**
+     * Whether the node still embeds a full recipe copy
+     */
+    public static boolean isEmbedded(Object value) {
+        return value instanceof Map && ((Map<?, ?>) value).get("recipe") != null;
+    }
+
+    /**
+     * The normalized node: the meal's own fields, the recipe reference and
+     * its name for lists and reminders, but no recipe copy
+     */
+    public static Map<String, Object> toMap(MealPlan mealPlan) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", mealPlan.getId());
+        map.put("userId", mealPlan.getUserId());
+        map.put("date", mealPlan.getDate());
+        map.put("mealTime", mealPlan.getMealTime());
+        map.put("dateTime", mealPlan.getTimeInMillis());
+        map.put("timestamp", mealPlan.getTimestamp());
+        map.put("recipeId", mealPlan.getRecipeId());
+        map.put("recipeVersion", mealPlan.getRecipeVersion());
+        map.put("recipeName", mealPlan.getRecipeName());
+        return map;
+    }
+
+    /**
+     * A dateTime in either stored form, or null if it has neither
+     */
+    public static Date parseDateTime(Object value) {
+        if (value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        if (value instanceof Map) {
+            Object time = ((Map<?, ?>) value).get("time");
+            if (time instanceof Number) {
+                return new Date(((Number) time).longValue());
+            }
+        }
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.ShoppingItem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Deterministic prices for shopping items, in Nrs per base unit (g, ml,
+ * piece or one of an unknown unit).
+ *
+ * A price is looked up in order: the store's own price for the item key, the
+ * store-independent price, and finally an estimate from the item's category.
+ * Store ids and item keys are interned to ints and prices live in one array
+ * per store, so pricing a list against many stores only resolves each item
+ * once. Not thread-safe.
+ */
+public class PriceCatalog {
+
+    public static final String ANY_STORE = "";
+
+    private static final int ANY_STORE_ID = 0;
+    private static final double[] DEFAULT_ESTIMATE = {0.25, 0.2, 30, 10};
+    private static final Map<String, double[]> ESTIMATES_BY_CATEGORY = new HashMap<>();
+
+    static {
+        // Nrs per g, per ml, per piece and per other unit
+        ESTIMATES_BY_CATEGORY.put("vegetables", new double[]{0.12, 0.12, 15, 5});
+        ESTIMATES_BY_CATEGORY.put("fruits", new double[]{0.2, 0.2, 20, 5});
+        ESTIMATES_BY_CATEGORY.put("proteins", new double[]{0.65, 0.4, 25, 20});
+        ESTIMATES_BY_CATEGORY.put("grains", new double[]{0.14, 0.14, 20, 10});
+        ESTIMATES_BY_CATEGORY.put("pasta", new double[]{0.3, 0.3, 25, 10});
+        ESTIMATES_BY_CATEGORY.put("dairy", new double[]{0.16, 0.12, 30, 10});
+        ESTIMATES_BY_CATEGORY.put("spices & seasonings", new double[]{0.9, 0.9, 5, 5});
+        ESTIMATES_BY_CATEGORY.put("herbs", new double[]{0.8, 0.8, 10, 2});
+        ESTIMATES_BY_CATEGORY.put("condiments", new double[]{0.4, 0.35, 40, 10});
+    }
+
+    private final Map<String, Integer> storeIds = new HashMap<>();
+    private final Map<String, Integer> itemIds = new HashMap<>();
+    private double[][] unitPrices = new double[4][];
+
+    public PriceCatalog() {
+        internStore(ANY_STORE);
+    }
+
+    public void putUnitPrice(String storeId, String itemKey, double pricePerBaseUnit) {
+        int store = internStore(storeId);
+        int item = internItem(itemKey);
+        double[] prices = unitPrices[store];
+        if (item >= prices.length) {
+            int oldLength = prices.length;
+            prices = Arrays.copyOf(prices, Math.max(item + 1, oldLength * 2));
+            Arrays.fill(prices, oldLength, prices.length, Double.NaN);
+            unitPrices[store] = prices;
+        }
+        prices[item] = pricePerBaseUnit;
+    }
+
+    public int size() {
+        return itemIds.size();
+    }
+
+    /**
+     * Price of the item at the store, rounded to paisa. A null store means any store.
+     */
+    public double priceOf(ShoppingItem item, String storeId) {
+        Integer store = storeIds.get(storeId != null ? storeId : ANY_STORE);
+        UnitNormalizer.Unit unit = UnitNormalizer.normalize(item.getUnit());
+        return roundToPaisa(unit.toBase(item.getAmount())
+                * unitPrice(store != null ? store : ANY_STORE_ID, itemIdOf(item), unit.getDimension(), item.getCategory()));
+    }
+
+    /**
+     * The total for the same list at each store, in the order given, to
+     * compare stores. Each item is resolved once, not once per store. Not
+     * shown in the UI yet; the store comparison screen is a follow-up.
+     */
+    public double[] totalsForStores(ShoppingListTable table, List<String> storeIdList) {
+        int count = table.indexCount();
+        double[] baseAmounts = new double[count];
+        int[] itemIdsByIndex = new int[count];
+        double[] estimates = new double[count];
+        for (int i = 0; i < count; i++) {
+            if (table.isRemoved(i)) {
+                continue;
+            }
+            UnitNormalizer.Unit unit = UnitNormalizer.normalize(table.getUnit(i));
+            baseAmounts[i] = unit.toBase(table.getAmount(i));
+            String key = table.getId(i) != null
+                    ? table.getId(i) : ShoppingListMaterializer.itemKey(table.getName(i), table.getUnit(i));
+            Integer id = itemIds.get(key);
+            itemIdsByIndex[i] = id != null ? id : -1;
+            estimates[i] = estimate(table.getCategory(i), unit.getDimension());
+        }
+
+        double[] anyStorePrices = unitPrices[ANY_STORE_ID];
+        double[] totals = new double[storeIdList.size()];
+        for (int s = 0; s < totals.length; s++) {
+            Integer store = storeIds.get(storeIdList.get(s) != null ? storeIdList.get(s) : ANY_STORE);
+            double[] storePrices = store != null ? unitPrices[store] : null;
+            double total = 0;
+            for (int i = 0; i < count; i++) {
+                if (table.isRemoved(i)) {
+                    continue;
+                }
+                double price = priceAt(storePrices, itemIdsByIndex[i]);
+                if (Double.isNaN(price)) {
+                    price = priceAt(anyStorePrices, itemIdsByIndex[i]);
+                }
+                total += roundToPaisa(baseAmounts[i] * (Double.isNaN(price) ? estimates[i] : price));
+            }
+            totals[s] = roundToPaisa(total);
+        }
+        return totals;
+    }
+
+    private double unitPrice(int store, int item, int dimension, String category) {
+        double price = priceAt(unitPrices[store], item);
+        if (!Double.isNaN(price)) {
+            return price;
+        }
+        price = priceAt(unitPrices[ANY_STORE_ID], item);
+        return Double.isNaN(price) ? estimate(category, dimension) : price;
+    }
+
+    private static double priceAt(double[] prices, int item) {
+        return prices != null && item >= 0 && item < prices.length ? prices[item] : Double.NaN;
+    }
+
+    private static double estimate(String category, int dimension) {
+        double[] estimates = category != null
+                ? ESTIMATES_BY_CATEGORY.get(category.trim().toLowerCase(Locale.ROOT)) : null;
+        if (estimates == null) {
+            estimates = DEFAULT_ESTIMATE;
+        }
+        return estimates[Math.min(dimension, UnitNormalizer.OTHER)];
+    }
+
+    private int itemIdOf(ShoppingItem item) {
+        String key = item.getId() != null
+                ? item.getId() : ShoppingListMaterializer.itemKey(item.getName(), item.getUnit());
+        Integer id = itemIds.get(key);
+        return id != null ? id : -1;
+    }
+
+    private int internStore(String storeId) {
+        Integer id = storeIds.get(storeId);
+        if (id == null) {
+            id = storeIds.size();
+            storeIds.put(storeId, id);
+            if (id == unitPrices.length) {
+                unitPrices = Arrays.copyOf(unitPrices, id * 2);
+            }
+            unitPrices[id] = new double[0];
+        }
+        return id;
+    }
+
+    private int internItem(String itemKey) {
+        Integer id = itemIds.get(itemKey);
+        if (id == null) {
+            id = itemIds.size();
+            itemIds.put(itemKey, id);
+        }
+        return id;
+    }
+
+    private static double roundToPaisa(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
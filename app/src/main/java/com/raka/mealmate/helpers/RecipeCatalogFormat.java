@@ -0,0 +1,247 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for the bundled recipe catalog (assets/default_recipes.bin).
+ *
+ * <pre>
+ * header   magic "MMRC", u16 version, u16 defaultCount, u16 featuredCount,
+ *          u16 stringCount, u32 stringTableOffset
+ * offsets  u32 per recipe (defaults first, then featured)
+ * records  u16 id, u16 title, u16 imageUrl, u16 duration, u16 category, f32 rating,
+ *          u8 ingredientCount x (u16 name, f64 amount, u16 unit, u16 category),
+ *          u8 instructionCount x u16 instruction
+ * strings  u32 offset per string, then u16 length + UTF-8 bytes each
+ * </pre>
+ *
+ * All u16 fields in records are indexes into the shared string table, so
+ * repeated units and categories are stored once. Records can be decoded one
+ * at a time, and the header alone answers the recipe counts. Version 1 stored
+ * amounts as f32 and is still readable.
+ *
+ * The asset is generated from catalog/default_recipes.json by
+ * RecipeCatalogSourceTest; edit the JSON, never the binary.
+ */
+public final class RecipeCatalogFormat {
+
+    public static final int MAGIC = 0x4D4D5243; // "MMRC"
+    public static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int VERSION_FLOAT_AMOUNTS = 1;
+
+    private RecipeCatalogFormat() {
+    }
+
+    /**
+     * Read-only view over an encoded catalog. Strings are decoded on first use.
+     */
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final int defaultCount;
+        private final int featuredCount;
+        private final int stringTableOffset;
+        private final boolean floatAmounts;
+        private final String[] strings;
+
+        public Reader(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer.duplicate();
+            if (this.buffer.remaining() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a recipe catalog");
+            }
+            int version = this.buffer.getShort(4) & 0xFFFF;
+            if (version != VERSION && version != VERSION_FLOAT_AMOUNTS) {
+                throw new IOException("Unsupported recipe catalog version " + version);
+            }
+            floatAmounts = version == VERSION_FLOAT_AMOUNTS;
+            defaultCount = this.buffer.getShort(6) & 0xFFFF;
+            featuredCount = this.buffer.getShort(8) & 0xFFFF;
+            strings = new String[this.buffer.getShort(10) & 0xFFFF];
+            stringTableOffset = this.buffer.getInt(12);
+        }
+
+        public int getDefaultCount() {
+            return defaultCount;
+        }
+
+        public int getFeaturedCount() {
+            return featuredCount;
+        }
+
+        public List<Recipe> readDefaultRecipes() {
+            return readRange(0, defaultCount);
+        }
+
+        public List<Recipe> readFeaturedRecipes() {
+            return readRange(defaultCount, featuredCount);
+        }
+
+        private List<Recipe> readRange(int start, int count) {
+            List<Recipe> recipes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                recipes.add(readRecipe(start + i));
+            }
+            return recipes;
+        }
+
+        /**
+         * Decode a single recipe by its position in the catalog
+         */
+        public synchronized Recipe readRecipe(int index) {
+            int position = buffer.getInt(HEADER_SIZE + index * 4);
+            String id = string(buffer.getShort(position));
+            String title = string(buffer.getShort(position + 2));
+            String imageUrl = string(buffer.getShort(position + 4));
+            String duration = string(buffer.getShort(position + 6));
+            String category = string(buffer.getShort(position + 8));
+            float rating = buffer.getFloat(position + 10);
+            position += 14;
+
+            int ingredientCount = buffer.get(position++) & 0xFF;
+            List<Ingredient> ingredients = new ArrayList<>(ingredientCount);
+            int amountSize = floatAmounts ? 4 : 8;
+            for (int i = 0; i < ingredientCount; i++) {
+                double amount = floatAmounts ? buffer.getFloat(position + 2) : buffer.getDouble(position + 2);
+                ingredients.add(new Ingredient(
+                        string(buffer.getShort(position)),
+                        amount,
+                        string(buffer.getShort(position + 2 + amountSize)),
+                        string(buffer.getShort(position + 4 + amountSize))));
+                position += 6 + amountSize;
+            }
+
+            int instructionCount = buffer.get(position++) & 0xFF;
+            List<String> instructions = new ArrayList<>(instructionCount);
+            for (int i = 0; i < instructionCount; i++) {
+                instructions.add(string(buffer.getShort(position)));
+                position += 2;
+            }
+
+            return new Recipe(id, title, imageUrl, duration, rating, ingredients, instructions, category);
+        }
+
+        private String string(short rawIndex) {
+            int index = rawIndex & 0xFFFF;
+            String value = strings[index];
+            if (value == null) {
+                int position = buffer.getInt(stringTableOffset + index * 4);
+                int length = buffer.getShort(position) & 0xFFFF;
+                byte[] bytes = new byte[length];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(position + 2);
+                slice.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                strings[index] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Encode a catalog. RecipeCatalogSourceTest uses this to regenerate
+     * assets/default_recipes.bin from catalog/default_recipes.json.
+     */
+    public static byte[] encode(List<Recipe> defaultRecipes, List<Recipe> featuredRecipes) throws IOException {
+        List<Recipe> all = new ArrayList<>(defaultRecipes);
+        all.addAll(featuredRecipes);
+
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        int recordsStart = HEADER_SIZE + all.size() * 4;
+        int[] offsets = new int[all.size()];
+
+        for (int i = 0; i < all.size(); i++) {
+            Recipe recipe = all.get(i);
+            offsets[i] = recordsStart + records.size();
+            records.writeShort(intern(recipe.getId(), stringIndexes, strings));
+            records.writeShort(intern(recipe.getTitle(), stringIndexes, strings));
+            records.writeShort(intern(recipe.getImageUrl(), stringIndexes, strings));
+            records.writeShort(intern(recipe.getDuration(), stringIndexes, strings));
+            records.writeShort(intern(recipe.getCategory(), stringIndexes, strings));
+            records.writeFloat(recipe.getRating());
+
+            List<Ingredient> ingredients = recipe.getIngredients() != null
+                    ? recipe.getIngredients() : Collections.<Ingredient>emptyList();
+            records.writeByte(checkByte(ingredients.size()));
+            for (Ingredient ingredient : ingredients) {
+                records.writeShort(intern(ingredient.getName(), stringIndexes, strings));
+                records.writeDouble(ingredient.getAmount());
+                records.writeShort(intern(ingredient.getUnit(), stringIndexes, strings));
+                records.writeShort(intern(ingredient.getCategory(), stringIndexes, strings));
+            }
+
+            List<String> instructions = recipe.getInstructions() != null
+                    ? recipe.getInstructions() : Collections.<String>emptyList();
+            records.writeByte(checkByte(instructions.size()));
+            for (String instruction : instructions) {
+                records.writeShort(intern(instruction, stringIndexes, strings));
+            }
+        }
+        records.flush();
+
+        int stringTableOffset = recordsStart + records.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(defaultRecipes.size());
+        data.writeShort(featuredRecipes.size());
+        data.writeShort(strings.size());
+        data.writeInt(stringTableOffset);
+        for (int offset : offsets) {
+            data.writeInt(offset);
+        }
+        recordBytes.writeTo(data);
+
+        // String offsets, then the strings themselves
+        List<byte[]> encoded = new ArrayList<>(strings.size());
+        int stringPosition = stringTableOffset + strings.size() * 4;
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            data.writeInt(stringPosition);
+            stringPosition += 2 + bytes.length;
+        }
+        for (byte[] bytes : encoded) {
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+        data.flush();
+        return out.toByteArray();
+    }
+
+    private static int intern(String value, Map<String, Integer> indexes, List<String> strings) {
+        String key = value != null ? value : "";
+        Integer index = indexes.get(key);
+        if (index == null) {
+            index = strings.size();
+            if (index > 0xFFFF) {
+                throw new IllegalArgumentException("Too many strings for the catalog format");
+            }
+            strings.add(key);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    private static int checkByte(int count) {
+        if (count > 0xFF) {
+            throw new IllegalArgumentException("At most 255 entries per list: " + count);
+        }
+        return count;
+    }
+}
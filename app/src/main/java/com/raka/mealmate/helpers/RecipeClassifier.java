@@ -0,0 +1,205 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Computes the browse categories a recipe belongs to as a bitmask, once per
+ * recipe, so chip filtering becomes a single bit check. The keyword rules are
+ * kept in one table so search and chip filtering always agree.
+ */
+public final class RecipeClassifier {
+
+    public static final int NONE = 0;
+    public static final int BREAKFAST = 1;
+    public static final int LUNCH = 1 << 1;
+    public static final int DINNER = 1 << 2;
+    public static final int VEGETARIAN = 1 << 3;
+    public static final int QUICK = 1 << 4;
+    public static final int DESSERT = 1 << 5;
+
+    // Marks a recipe as classified, so recipes matching no category aren't recomputed
+    public static final int CLASSIFIED = 1 << 30;
+
+    private static final int QUICK_MEAL_MAX_MINUTES = 20;
+    private static final String PROTEIN_CATEGORY = "Protein";
+    private static final String SWEETS_CATEGORY = "Sweets";
+
+    private static final String[] MEAT_KEYWORDS = {
+            "chicken", "beef", "fish", "salmon", "bacon", "ham", "shrimp", "prawn"
+    };
+
+    /**
+     * Chip label, category flag and the title keywords that put a recipe in it
+     */
+    private static final Rule[] RULES = {
+            new Rule("Breakfast", BREAKFAST,
+                    "smoothie", "chai", "breakfast", "toast", "dosa", "tea", "eggs", "shakshuka"),
+            new Rule("Lunch", LUNCH,
+                    "salad", "bowl", "sandwich", "momo", "dal", "curry", "pad thai", "pizza"),
+            new Rule("Dinner", DINNER,
+                    "curry", "stir-fry", "risotto", "biryani", "carbonara", "aloo", "pizza", "soup"),
+            new Rule("Vegetarian", VEGETARIAN,
+                    "vegetable", "mushroom", "dal", "momo", "aloo", "quinoa", "tofu", "salad"),
+            new Rule("Quick Meals", QUICK),
+            new Rule("Desserts", DESSERT,
+                    "brownie", "cake", "sweet")
+    };
+
+    private RecipeClassifier() {
+    }
+
+    /**
+     * Get the category flag for a filter chip label, or NONE for "All"/unknown labels
+     */
+    public static int flagForLabel(String label) {
+        for (Rule rule : RULES) {
+            if (rule.label.equals(label)) {
+                return rule.flag;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Check whether a recipe belongs to the given category, classifying it first if needed
+     */
+    public static boolean matches(Recipe recipe, int flag) {
+        if (flag == NONE) {
+            return true;
+        }
+        int flags = recipe.getCategoryFlags();
+        if ((flags & CLASSIFIED) == 0) {
+            flags = classifyAndStore(recipe);
+        }
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * Compute the category flags for a recipe and store them on the model
+     */
+    public static int classifyAndStore(Recipe recipe) {
+        int flags = classify(recipe);
+        recipe.setCategoryFlags(flags);
+        return flags;
+    }
+
+    public static void classifyAll(List<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            classifyAndStore(recipe);
+        }
+    }
+
+    public static int classify(Recipe recipe) {
+        String title = recipe.getTitle() != null ? recipe.getTitle().toLowerCase(Locale.ROOT) : "";
+        int flags = CLASSIFIED;
+
+        for (Rule rule : RULES) {
+            if (rule.matchesTitle(title)) {
+                flags |= rule.flag;
+            }
+        }
+
+        // Vegetarian additionally requires that no protein ingredient is meat
+        boolean hasMeat = false;
+        boolean hasSweets = false;
+        List<Ingredient> ingredients = recipe.getIngredients();
+        if (ingredients != null) {
+            for (Ingredient ingredient : ingredients) {
+                if (ingredient == null || ingredient.getCategory() == null) {
+                    continue;
+                }
+                if (PROTEIN_CATEGORY.equals(ingredient.getCategory()) && ingredient.getName() != null
+                        && containsAny(ingredient.getName().toLowerCase(Locale.ROOT), MEAT_KEYWORDS)) {
+                    hasMeat = true;
+                } else if (SWEETS_CATEGORY.equals(ingredient.getCategory())) {
+                    hasSweets = true;
+                }
+            }
+        }
+        if (hasMeat) {
+            flags &= ~VEGETARIAN;
+        }
+        if (hasSweets) {
+            flags |= DESSERT;
+        }
+
+        int minutes = parseMinutes(recipe.getDuration());
+        if (minutes >= 0 && minutes <= QUICK_MEAL_MAX_MINUTES) {
+            flags |= QUICK;
+        }
+        return flags;
+    }
+
+    /**
+     * Read the total minutes out of a duration like "25 mins" or "1 hr 20 min",
+     * or -1 if there is no number in it. A number followed by an h-word counts
+     * as hours; any other number as minutes.
+     */
+    static int parseMinutes(String duration) {
+        if (duration == null) {
+            return -1;
+        }
+        String text = duration.toLowerCase(Locale.ROOT);
+        double total = 0;
+        boolean found = false;
+        int i = 0;
+        while (i < text.length()) {
+            if (!isDigit(text, i)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (isDigit(text, i)) {
+                i++;
+            }
+            // A fraction such as the 1.5 in "1.5 hrs"
+            if (i < text.length() && text.charAt(i) == '.' && isDigit(text, i + 1)) {
+                i++;
+                while (isDigit(text, i)) {
+                    i++;
+                }
+            }
+            double value = Double.parseDouble(text.substring(start, i));
+            while (i < text.length() && text.charAt(i) == ' ') {
+                i++;
+            }
+            boolean hours = i < text.length() && text.charAt(i) == 'h';
+            total += hours ? value * 60 : value;
+            found = true;
+        }
+        return found ? (int) Math.round(total) : -1;
+    }
+
+    private static boolean isDigit(String text, int index) {
+        return index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9';
+    }
+
+    private static boolean containsAny(String text, String[] keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Rule {
+        final String label;
+        final int flag;
+        final String[] titleKeywords;
+
+        Rule(String label, int flag, String... titleKeywords) {
+            this.label = label;
+            this.flag = flag;
+            this.titleKeywords = titleKeywords;
+        }
+
+        boolean matchesTitle(String lowerTitle) {
+            return containsAny(lowerTitle, titleKeywords);
+        }
+    }
+}
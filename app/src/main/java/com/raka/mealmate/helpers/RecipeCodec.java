@@ -0,0 +1,214 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps the plain value tree of a recipe node, as returned by
+ * DataSnapshot.getValue(), onto a Recipe without reflection. Missing or
+ * mistyped fields keep the model's defaults instead of failing the recipe.
+ *
+ * Lists may arrive as a List, possibly with null holes, or as a Map keyed by
+ * index when the database could not treat them as an array; both are read.
+ *
+ * toMap writes the same stored fields back, and version gives a content
+ * hash that changes whenever any stored field does.
+ */
+public final class RecipeCodec {
+
+    private RecipeCodec() {
+    }
+
+    /**
+     * The recipe stored under id, or null if value is not a recipe node
+     */
+    public static Recipe fromMap(String id, Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        Recipe recipe = new Recipe();
+        recipe.setId(id != null ? id : string(map.get("id")));
+        recipe.setTitle(string(map.get("title")));
+        recipe.setImageUrl(string(map.get("imageUrl")));
+        recipe.setDuration(string(map.get("duration")));
+        recipe.setRating((float) number(map.get("rating"), 0));
+        recipe.setCategory(string(map.get("category")));
+
+        List<Object> ingredientValues = list(map.get("ingredients"));
+        List<Ingredient> ingredients = new ArrayList<>(ingredientValues.size());
+        for (Object ingredientValue : ingredientValues) {
+            Ingredient ingredient = ingredientFromMap(ingredientValue);
+            if (ingredient != null) {
+                ingredients.add(ingredient);
+            }
+        }
+        recipe.setIngredients(ingredients);
+
+        List<Object> instructionValues = list(map.get("instructions"));
+        List<String> instructions = new ArrayList<>(instructionValues.size());
+        for (Object instruction : instructionValues) {
+            if (instruction instanceof String) {
+                instructions.add((String) instruction);
+            }
+        }
+        recipe.setInstructions(instructions);
+        return recipe;
+    }
+
+    /**
+     * The stored fields of the recipe as a value tree for setValue/updateChildren
+     */
+    public static Map<String, Object> toMap(Recipe recipe) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", recipe.getId());
+        map.put("title", recipe.getTitle());
+        map.put("imageUrl", recipe.getImageUrl());
+        map.put("duration", recipe.getDuration());
+        map.put("rating", (double) recipe.getRating());
+        map.put("category", recipe.getCategory());
+        List<Object> ingredients = new ArrayList<>();
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                Map<String, Object> ingredientMap = new HashMap<>();
+                ingredientMap.put("name", ingredient.getName());
+                ingredientMap.put("amount", ingredient.getAmount());
+                ingredientMap.put("unit", ingredient.getUnit());
+                ingredientMap.put("category", ingredient.getCategory());
+                ingredients.add(ingredientMap);
+            }
+        }
+        map.put("ingredients", ingredients);
+        map.put("instructions", recipe.getInstructions() != null
+                ? new ArrayList<Object>(recipe.getInstructions()) : new ArrayList<>());
+        return map;
+    }
+
+    /**
+     * FNV-1a hash of every stored field except the id, so an edited recipe
+     * gets a new version and identical copies share one. Cut to 53 bits, as
+     * the database keeps numbers as doubles.
+     */
+    public static long version(Recipe recipe) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, recipe.getTitle());
+        hash = mix(hash, recipe.getImageUrl());
+        hash = mix(hash, recipe.getDuration());
+        hash = mix(hash, String.valueOf(recipe.getRating()));
+        hash = mix(hash, recipe.getCategory());
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                hash = mix(hash, ingredient.getName());
+                hash = mix(hash, String.valueOf(ingredient.getAmount()));
+                hash = mix(hash, ingredient.getUnit());
+                hash = mix(hash, ingredient.getCategory());
+            }
+        }
+        if (recipe.getInstructions() != null) {
+            for (String instruction : recipe.getInstructions()) {
+                hash = mix(hash, instruction);
+            }
+        }
+        return hash & ((1L << 53) - 1);
+    }
+
+    private static long mix(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        // Field separator, so "ab"+"c" and "a"+"bc" differ
+        hash ^= 0x1f;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+
+    public static Ingredient ingredientFromMap(Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        return new Ingredient(
+                string(map.get("name")),
+                number(map.get("amount"), 0),
+                string(map.get("unit")),
+                string(map.get("category")));
+    }
+
+    static String string(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        // Numbers typed into text fields come back as Long or Double
+        return value instanceof Number || value instanceof Boolean ? String.valueOf(value) : null;
+    }
+
+    static double number(Object value, double fallback) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return fallback;
+            }
+        }
+        return fallback;
+    }
+
+    static long longNumber(Object value, long fallback) {
+        return value instanceof Number ? ((Number) value).longValue() : fallback;
+    }
+
+    // The non-null elements of a list node, in index order
+    static List<Object> list(Object value) {
+        List<Object> items = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            TreeMap<Integer, Object> byIndex = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                int index = indexOf(entry.getKey());
+                if (index < 0) {
+                    // Not a list after all; take the values as they come
+                    byIndex = null;
+                    break;
+                }
+                byIndex.put(index, entry.getValue());
+            }
+            Collection<?> ordered = byIndex != null ? byIndex.values() : map.values();
+            for (Object item : ordered) {
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+        }
+        return items;
+    }
+
+    private static int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt((String) key);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
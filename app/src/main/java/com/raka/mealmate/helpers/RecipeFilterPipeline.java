@@ -0,0 +1,214 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs recipe search and category filtering off the UI thread. Input is
+ * debounced, superseded queries are cancelled, and only the result of the
+ * latest query is published. Also tracks keystroke-to-frame latency.
+ */
+public class RecipeFilterPipeline {
+
+    public static final long DEFAULT_DEBOUNCE_MS = 150;
+
+    // Performs the actual filtering on the background executor
+    public interface RecipeFilter {
+        List<Recipe> filter(String query, int categoryFlag);
+    }
+
+    // Receives the latest results on the delivery executor (the main thread in the app)
+    public interface ResultListener {
+        void onResults(List<Recipe> results, long generation);
+    }
+
+    // Runs delayed work in the background; tests substitute a manually advanced one
+    interface Scheduler {
+        Future<?> schedule(Runnable task, long delayMs);
+        void shutdown();
+    }
+
+    // Source of monotonic time in nanoseconds
+    interface Clock {
+        long nanoTime();
+    }
+
+    private final Scheduler scheduler;
+    private final Clock clock;
+    private final Executor deliveryExecutor;
+    private final RecipeFilter filter;
+    private final ResultListener listener;
+    private final long debounceMs;
+    private final LatencyStats latencyStats = new LatencyStats();
+
+    // Guarded by this
+    private long latestGeneration;
+    private long deliveredGeneration;
+    private long latestSubmitNanos;
+    private Future<?> pendingQuery;
+
+    public RecipeFilterPipeline(ScheduledExecutorService backgroundExecutor, Executor deliveryExecutor,
+                                long debounceMs, RecipeFilter filter, ResultListener listener) {
+        this(new Scheduler() {
+            @Override
+            public Future<?> schedule(Runnable task, long delayMs) {
+                return backgroundExecutor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void shutdown() {
+                backgroundExecutor.shutdownNow();
+            }
+        }, System::nanoTime, deliveryExecutor, debounceMs, filter, listener);
+    }
+
+    RecipeFilterPipeline(Scheduler scheduler, Clock clock, Executor deliveryExecutor,
+                         long debounceMs, RecipeFilter filter, ResultListener listener) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.deliveryExecutor = deliveryExecutor;
+        this.debounceMs = debounceMs;
+        this.filter = filter;
+        this.listener = listener;
+    }
+
+    /**
+     * Queue a query after the debounce delay, replacing any query not yet published
+     */
+    public void submit(String query, int categoryFlag) {
+        schedule(query, categoryFlag, debounceMs);
+    }
+
+    /**
+     * Queue a query without debouncing, e.g. for chip taps
+     */
+    public void submitNow(String query, int categoryFlag) {
+        schedule(query, categoryFlag, 0);
+    }
+
+    private synchronized void schedule(String query, int categoryFlag, long delayMs) {
+        final long generation = ++latestGeneration;
+        latestSubmitNanos = clock.nanoTime();
+        if (pendingQuery != null) {
+            pendingQuery.cancel(false);
+        }
+        pendingQuery = scheduler.schedule(() -> run(query, categoryFlag, generation), delayMs);
+    }
+
+    private void run(String query, int categoryFlag, long generation) {
+        if (!isLatest(generation)) {
+            return;
+        }
+        List<Recipe> results = filter.filter(query, categoryFlag);
+        if (!isLatest(generation)) {
+            return;
+        }
+        deliveryExecutor.execute(() -> {
+            // A newer query may have been submitted while this one was in flight
+            if (markDelivered(generation)) {
+                listener.onResults(results, generation);
+            }
+        });
+    }
+
+    /**
+     * Report that the results for a generation reached the screen. Records the
+     * latency from the keystroke that produced it.
+     *
+     * @return the recorded latency in milliseconds, or -1 if the generation is stale
+     */
+    public double onFrameRendered(long generation) {
+        long submitNanos;
+        synchronized (this) {
+            if (generation != latestGeneration) {
+                return -1;
+            }
+            submitNanos = latestSubmitNanos;
+        }
+        double latencyMs = (clock.nanoTime() - submitNanos) / 1_000_000.0;
+        latencyStats.record(latencyMs);
+        return latencyMs;
+    }
+
+    public synchronized boolean isLatest(long generation) {
+        return generation == latestGeneration;
+    }
+
+    private synchronized boolean markDelivered(long generation) {
+        if (generation != latestGeneration) {
+            return false;
+        }
+        deliveredGeneration = generation;
+        return true;
+    }
+
+    /**
+     * Whether a submitted query has not reached the listener yet. Its results
+     * will replace whatever is shown when they arrive.
+     */
+    public synchronized boolean hasPendingResults() {
+        return deliveredGeneration != latestGeneration;
+    }
+
+    public LatencyStats getLatencyStats() {
+        return latencyStats;
+    }
+
+    /**
+     * Cancel pending work and stop the background executor
+     */
+    public synchronized void shutdown() {
+        latestGeneration++;
+        if (pendingQuery != null) {
+            pendingQuery.cancel(false);
+        }
+        scheduler.shutdown();
+    }
+
+    /**
+     * Keystroke-to-frame latency samples
+     */
+    public static class LatencyStats {
+        private int count;
+        private double lastMs;
+        private double maxMs;
+        private double totalMs;
+
+        synchronized void record(double latencyMs) {
+            count++;
+            lastMs = latencyMs;
+            totalMs += latencyMs;
+            if (latencyMs > maxMs) {
+                maxMs = latencyMs;
+            }
+        }
+
+        public synchronized int getCount() {
+            return count;
+        }
+
+        public synchronized double getLastMs() {
+            return lastMs;
+        }
+
+        public synchronized double getMaxMs() {
+            return maxMs;
+        }
+
+        public synchronized double getAverageMs() {
+            return count == 0 ? 0 : totalMs / count;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format(Locale.US, "count=%d last=%.1fms avg=%.1fms max=%.1fms",
+                    count, lastMs, getAverageMs(), maxMs);
+        }
+    }
+}
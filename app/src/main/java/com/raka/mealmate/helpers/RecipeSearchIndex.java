@@ -0,0 +1,418 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Token and prefix index over recipe titles, categories and ingredient names.
+ * Built once from the loaded recipe list and kept up to date with put/remove,
+ * so searching never has to scan every recipe.
+ */
+public class RecipeSearchIndex {
+
+    // Field flags stored per posting
+    private static final int FIELD_TITLE = 1;
+    private static final int FIELD_CATEGORY = 1 << 1;
+    private static final int FIELD_INGREDIENT = 1 << 2;
+
+    // Ranking weights: a title hit beats a category hit beats an ingredient hit
+    private static final float WEIGHT_TITLE = 3f;
+    private static final float WEIGHT_CATEGORY = 2f;
+    private static final float WEIGHT_INGREDIENT = 1f;
+    private static final float PREFIX_PENALTY = 0.6f;
+
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+    private final List<Recipe> docs = new ArrayList<>();
+    private final Map<String, Integer> docIdsByRecipeId = new HashMap<>();
+    private int liveCount;
+
+    // Per-query scratch space, reused across searches and cleared after each one
+    private float[] totalScores = new float[0];
+    private float[] termScores = new float[0];
+    private int[] matchedTerms = new int[0];
+    private int[] touched = new int[0];
+    private int touchedCount;
+
+    /**
+     * Replace the index contents with the given recipes
+     */
+    public synchronized void rebuild(List<Recipe> recipes) {
+        postings.clear();
+        docs.clear();
+        docIdsByRecipeId.clear();
+        liveCount = 0;
+        for (Recipe recipe : recipes) {
+            addInternal(recipe);
+        }
+    }
+
+    /**
+     * Add a recipe, replacing any indexed recipe with the same ID
+     */
+    public synchronized void put(Recipe recipe) {
+        if (recipe == null) {
+            return;
+        }
+        if (recipe.getId() != null) {
+            removeInternal(recipe.getId());
+        }
+        addInternal(recipe);
+        // An edit leaves the previous version behind as a tombstone
+        compactIfSparse();
+    }
+
+    /**
+     * Remove the recipe with the given ID from the index
+     */
+    public synchronized void remove(String recipeId) {
+        removeInternal(recipeId);
+        compactIfSparse();
+    }
+
+    /**
+     * Whether search(query) would return the recipe: every word of the query
+     * prefixes a word of its title, category or an ingredient name. Checks one
+     * recipe without touching the index.
+     */
+    public static boolean matches(Recipe recipe, String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return true;
+        }
+        Map<String, Integer> tokens = new HashMap<>();
+        collectTokens(recipe.getTitle(), FIELD_TITLE, tokens);
+        collectTokens(recipe.getCategory(), FIELD_CATEGORY, tokens);
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                if (ingredient != null) {
+                    collectTokens(ingredient.getName(), FIELD_INGREDIENT, tokens);
+                }
+            }
+        }
+        for (String term : terms) {
+            boolean matched = false;
+            for (String token : tokens.keySet()) {
+                if (token.startsWith(term)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    // Indexed slots, live or tombstoned
+    synchronized int slotCount() {
+        return docs.size();
+    }
+
+    // Drop tombstones once they outnumber live entries
+    private void compactIfSparse() {
+        if (docs.size() > 32 && liveCount < docs.size() / 2) {
+            List<Recipe> live = new ArrayList<>(liveCount);
+            for (Recipe recipe : docs) {
+                if (recipe != null) {
+                    live.add(recipe);
+                }
+            }
+            rebuild(live);
+        }
+    }
+
+    /**
+     * Search recipes matching every word of the query. The last word (and any
+     * other word) also matches as a prefix, so results update while typing.
+     * Results are ranked by where the words matched, then by rating.
+     */
+    public List<Recipe> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    public synchronized List<Recipe> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            List<Recipe> all = new ArrayList<>(Math.min(limit, liveCount));
+            for (Recipe recipe : docs) {
+                if (recipe != null && all.size() < limit) {
+                    all.add(recipe);
+                }
+            }
+            return all;
+        }
+
+        ensureScratchCapacity();
+        int candidateCount = 0;
+        for (int t = 0; t < terms.size(); t++) {
+            candidateCount = scoreTerm(terms.get(t), t);
+            if (candidateCount == 0) {
+                break;
+            }
+        }
+
+        int[] candidates = new int[candidateCount];
+        int found = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            if (matchedTerms[doc] == terms.size()) {
+                candidates[found++] = doc;
+            }
+        }
+
+        int resultSize = Math.min(limit, candidateCount);
+        int[] ranked = topRanked(candidates, resultSize);
+
+        // Reset scratch state for the next query, including documents that
+        // matched some terms but not all of them
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            matchedTerms[doc] = 0;
+            totalScores[doc] = 0;
+        }
+        touchedCount = 0;
+
+        List<Recipe> results = new ArrayList<>(resultSize);
+        for (int doc : ranked) {
+            results.add(docs.get(doc));
+        }
+        return results;
+    }
+
+    /**
+     * Scores one query term against the postings of every token it prefixes.
+     * Only documents that matched all previous terms keep accumulating score.
+     * Returns the number of documents matching terms 0..termIndex.
+     */
+    private int scoreTerm(String term, int termIndex) {
+        int termTouchedStart = touchedCount;
+        int[] termDocs = new int[16];
+        int termDocCount = 0;
+
+        SortedMap<String, Posting> matches = postings.subMap(term, term + Character.MAX_VALUE);
+        for (Map.Entry<String, Posting> entry : matches.entrySet()) {
+            float factor = entry.getKey().length() == term.length() ? 1f : PREFIX_PENALTY;
+            Posting posting = entry.getValue();
+            for (int i = 0; i < posting.size; i++) {
+                int doc = posting.docs[i];
+                if (matchedTerms[doc] != termIndex || docs.get(doc) == null) {
+                    continue;
+                }
+                float score = fieldScore(posting.fields[i]) * factor;
+                if (termScores[doc] == 0) {
+                    if (termDocCount == termDocs.length) {
+                        termDocs = Arrays.copyOf(termDocs, termDocCount * 2);
+                    }
+                    termDocs[termDocCount++] = doc;
+                    if (termIndex == 0) {
+                        touched[touchedCount++] = doc;
+                    }
+                }
+                if (score > termScores[doc]) {
+                    termScores[doc] = score;
+                }
+            }
+        }
+
+        for (int i = 0; i < termDocCount; i++) {
+            int doc = termDocs[i];
+            totalScores[doc] += termScores[doc];
+            termScores[doc] = 0;
+            matchedTerms[doc] = termIndex + 1;
+        }
+        return termIndex == 0 ? touchedCount - termTouchedStart : termDocCount;
+    }
+
+    /**
+     * Selects the best {@code count} candidates with a bounded heap instead of
+     * sorting every match, then orders them best first.
+     */
+    private int[] topRanked(int[] candidates, int count) {
+        int[] heap = new int[count];
+        int heapSize = 0;
+        for (int doc : candidates) {
+            if (heapSize < count) {
+                heap[heapSize] = doc;
+                siftUp(heap, heapSize++);
+            } else if (count > 0 && rankBefore(doc, heap[0])) {
+                heap[0] = doc;
+                siftDown(heap, heapSize);
+            }
+        }
+        // Pop worst-first into the tail to produce best-first order
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
+        return ranked;
+    }
+
+    // The heap root is the worst-ranked candidate kept so far
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!rankBefore(heap[parent], heap[index])) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int worst = index;
+            int left = index * 2 + 1;
+            int right = left + 1;
+            if (left < size && rankBefore(heap[worst], heap[left])) {
+                worst = left;
+            }
+            if (right < size && rankBefore(heap[worst], heap[right])) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, worst, index);
+            index = worst;
+        }
+    }
+
+    private boolean rankBefore(int a, int b) {
+        if (totalScores[a] != totalScores[b]) {
+            return totalScores[a] > totalScores[b];
+        }
+        float ratingA = docs.get(a).getRating();
+        float ratingB = docs.get(b).getRating();
+        if (ratingA != ratingB) {
+            return ratingA > ratingB;
+        }
+        return a < b;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    private void ensureScratchCapacity() {
+        if (totalScores.length < docs.size()) {
+            int capacity = Math.max(docs.size(), totalScores.length * 2);
+            totalScores = new float[capacity];
+            termScores = new float[capacity];
+            matchedTerms = new int[capacity];
+            touched = new int[capacity];
+        }
+    }
+
+    private static float fieldScore(int fields) {
+        if ((fields & FIELD_TITLE) != 0) {
+            return WEIGHT_TITLE;
+        }
+        if ((fields & FIELD_CATEGORY) != 0) {
+            return WEIGHT_CATEGORY;
+        }
+        return (fields & FIELD_INGREDIENT) != 0 ? WEIGHT_INGREDIENT : 0f;
+    }
+
+    private void addInternal(Recipe recipe) {
+        int doc = docs.size();
+        docs.add(recipe);
+        liveCount++;
+        if (recipe.getId() != null) {
+            docIdsByRecipeId.put(recipe.getId(), doc);
+        }
+
+        Map<String, Integer> fieldsByToken = new HashMap<>();
+        collectTokens(recipe.getTitle(), FIELD_TITLE, fieldsByToken);
+        collectTokens(recipe.getCategory(), FIELD_CATEGORY, fieldsByToken);
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                if (ingredient != null) {
+                    collectTokens(ingredient.getName(), FIELD_INGREDIENT, fieldsByToken);
+                }
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : fieldsByToken.entrySet()) {
+            Posting posting = postings.get(entry.getKey());
+            if (posting == null) {
+                posting = new Posting();
+                postings.put(entry.getKey(), posting);
+            }
+            posting.add(doc, entry.getValue());
+        }
+    }
+
+    private void removeInternal(String recipeId) {
+        if (recipeId == null) {
+            return;
+        }
+        Integer doc = docIdsByRecipeId.remove(recipeId);
+        if (doc != null && docs.get(doc) != null) {
+            // Postings are left in place and skipped at query time
+            docs.set(doc, null);
+            liveCount--;
+        }
+    }
+
+    private static void collectTokens(String text, int field, Map<String, Integer> out) {
+        for (String token : tokenize(text)) {
+            Integer existing = out.get(token);
+            out.put(token, existing == null ? field : existing | field);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static class Posting {
+        int[] docs = new int[4];
+        int[] fields = new int[4];
+        int size;
+
+        void add(int doc, int field) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = field;
+            size++;
+        }
+    }
+}
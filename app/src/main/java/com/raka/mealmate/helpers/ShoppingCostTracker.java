@@ -0,0 +1,72 @@
+package com.raka.mealmate.helpers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running total and remaining (not yet purchased) cost of a shopping list.
+ * Each item's last counted price and state is remembered by item id, so an
+ * edit, check or removal adjusts the totals in constant time instead of
+ * rescanning the list. Amounts are kept in whole paisa so repeated updates
+ * never drift.
+ */
+public class ShoppingCostTracker {
+
+    private final Map<String, long[]> counted = new HashMap<>();
+    private long totalPaisa;
+    private long remainingPaisa;
+
+    public void reset(ShoppingListTable table) {
+        counted.clear();
+        totalPaisa = 0;
+        remainingPaisa = 0;
+        for (int i = 0; i < table.indexCount(); i++) {
+            if (table.isRemoved(i)) {
+                continue;
+            }
+            update(table.getId(i), table.getPrice(i), table.isPurchased(i));
+        }
+    }
+
+    public void update(String itemId, double price, boolean purchased) {
+        long[] previous = counted.get(itemId);
+        if (previous != null) {
+            subtract(previous);
+        } else {
+            previous = new long[2];
+            counted.put(itemId, previous);
+        }
+        previous[0] = Math.round(price * 100);
+        previous[1] = purchased ? 1 : 0;
+        add(previous);
+    }
+
+    public void remove(String itemId) {
+        long[] previous = counted.remove(itemId);
+        if (previous != null) {
+            subtract(previous);
+        }
+    }
+
+    public double getTotal() {
+        return totalPaisa / 100.0;
+    }
+
+    public double getRemaining() {
+        return remainingPaisa / 100.0;
+    }
+
+    private void add(long[] entry) {
+        totalPaisa += entry[0];
+        if (entry[1] == 0) {
+            remainingPaisa += entry[0];
+        }
+    }
+
+    private void subtract(long[] entry) {
+        totalPaisa -= entry[0];
+        if (entry[1] == 0) {
+            remainingPaisa -= entry[0];
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+import com.raka.mealmate.models.ShoppingItem;
+import com.raka.mealmate.models.ShoppingItemState;
+import com.raka.mealmate.models.ShoppingListDay;
+import com.raka.mealmate.models.ShoppingListEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Applies meal plan deltas to materialized shopping list days.
+ *
+ * Adding a meal plan records what it contributed in the day's ledger; removing
+ * it subtracts exactly that, even if the recipe changed in between. Both steps
+ * check the ledger first, so replaying either one is a no-op.
+ */
+public final class ShoppingListMaterializer {
+
+    private static final double EPSILON = 1e-9;
+
+    private ShoppingListMaterializer() {
+    }
+
+    /**
+     * Stable key for an ingredient in one unit dimension, safe to use as a
+     * Firebase key, e.g. "olive-oil_ml" or "garlic_clove"
+     */
+    public static String itemKey(String name, String rawUnit) {
+        return slug(name) + "_" + slug(baseUnit(UnitNormalizer.normalize(rawUnit)).getLabel());
+    }
+
+    /**
+     * One spelling per shopping list section, e.g. "veg" and "vegetable" both
+     * become "Vegetables"
+     */
+    public static String standardizeCategory(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return "Other";
+        }
+
+        category = category.toLowerCase().trim();
+        switch (category) {
+            case "vegetable":
+            case "vegetables":
+            case "veg":
+                return "Vegetables";
+            case "protein":
+            case "proteins":
+            case "meat":
+                return "Proteins";
+            case "grain":
+            case "grains":
+            case "carb":
+            case "carbs":
+                return "Grains";
+            case "dairy":
+            case "dairy products":
+                return "Dairy";
+            case "spice":
+            case "spices":
+            case "seasoning":
+            case "seasonings":
+                return "Spices & Seasonings";
+            default:
+                return category.substring(0, 1).toUpperCase() + category.substring(1);
+        }
+    }
+
+    /**
+     * Adds the recipe's ingredients to the day. Returns false when the meal
+     * plan was already applied.
+     */
+    public static boolean applyMealAdded(ShoppingListDay day, String mealPlanId, Recipe recipe) {
+        if (day.getApplied().containsKey(mealPlanId)) {
+            return false;
+        }
+
+        Map<String, Double> contributions = new HashMap<>();
+        if (recipe != null && recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                if (ingredient == null || ingredient.getName() == null || ingredient.getName().trim().isEmpty()) {
+                    continue;
+                }
+                UnitNormalizer.Unit unit = UnitNormalizer.normalize(ingredient.getUnit());
+                String key = itemKey(ingredient.getName(), ingredient.getUnit());
+                double baseAmount = unit.toBase(ingredient.getAmount());
+
+                ShoppingListEntry entry = day.getItems().get(key);
+                if (entry == null) {
+                    entry = new ShoppingListEntry(displayName(ingredient.getName()), null,
+                            baseUnit(unit).getLabel());
+                    day.getItems().put(key, entry);
+                }
+                if (!contributions.containsKey(key)) {
+                    entry.setMeals(entry.getMeals() + 1);
+                }
+                entry.setAmount(entry.getAmount() + baseAmount);
+                // The most recent category wins
+                entry.setCategory(standardizeCategory(ingredient.getCategory()));
+
+                Double previous = contributions.get(key);
+                contributions.put(key, (previous != null ? previous : 0) + baseAmount);
+            }
+        }
+        day.getApplied().put(mealPlanId, contributions);
+        return true;
+    }
+
+    /**
+     * Subtracts what the meal plan contributed when it was added. Returns false
+     * when the meal plan was never applied or was already removed.
+     */
+    public static boolean applyMealRemoved(ShoppingListDay day, String mealPlanId) {
+        Map<String, Double> contributions = day.getApplied().remove(mealPlanId);
+        if (contributions == null) {
+            return false;
+        }
+        for (Map.Entry<String, Double> contribution : contributions.entrySet()) {
+            ShoppingListEntry entry = day.getItems().get(contribution.getKey());
+            if (entry == null) {
+                continue;
+            }
+            int meals = entry.getMeals() - 1;
+            if (meals <= 0) {
+                day.getItems().remove(contribution.getKey());
+            } else {
+                entry.setMeals(meals);
+                double amount = entry.getAmount() - contribution.getValue();
+                entry.setAmount(Math.abs(amount) < EPSILON ? 0 : amount);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies a meal that was written over its slot: whatever an earlier meal
+     * with the same id contributed is taken back first. Returns false when
+     * nothing changed.
+     */
+    public static boolean applyMealReplaced(ShoppingListDay day, String mealPlanId, Recipe recipe) {
+        boolean removed = applyMealRemoved(day, mealPlanId);
+        return applyMealAdded(day, mealPlanId, recipe) || removed;
+    }
+
+    /**
+     * Sums the days into shopping items and applies the user's saved edits.
+     * Item ids are the item keys.
+     */
+    public static List<ShoppingItem> mergeDays(Iterable<ShoppingListDay> days,
+                                               Map<String, ShoppingItemState> states) {
+        Map<String, ShoppingListEntry> totals = new LinkedHashMap<>();
+        for (ShoppingListDay day : days) {
+            for (Map.Entry<String, ShoppingListEntry> item : day.getItems().entrySet()) {
+                ShoppingListEntry entry = item.getValue();
+                ShoppingListEntry total = totals.get(item.getKey());
+                if (total == null) {
+                    total = new ShoppingListEntry(entry.getName(), entry.getCategory(), entry.getUnit());
+                    totals.put(item.getKey(), total);
+                }
+                total.setAmount(total.getAmount() + entry.getAmount());
+                total.setMeals(total.getMeals() + entry.getMeals());
+            }
+        }
+
+        List<ShoppingItem> items = new ArrayList<>(totals.size());
+        for (Map.Entry<String, ShoppingListEntry> total : totals.entrySet()) {
+            ShoppingListEntry entry = total.getValue();
+            UnitNormalizer.Unit unit = UnitNormalizer.normalize(entry.getUnit());
+            boolean scalable = unit.getDimension() == UnitNormalizer.MASS
+                    || unit.getDimension() == UnitNormalizer.VOLUME;
+            UnitNormalizer.Unit display = scalable
+                    ? UnitNormalizer.displayUnit(unit.getDimension(), entry.getAmount()) : unit;
+
+            ShoppingItem item = new ShoppingItem(entry.getName(), display.fromBase(entry.getAmount()),
+                    display.getLabel(), entry.getCategory());
+            item.setId(total.getKey());
+            ShoppingItemState state = states != null ? states.get(total.getKey()) : null;
+            if (state != null) {
+                item.setPrice(state.getPrice());
+                item.setPurchased(state.isPurchased());
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static UnitNormalizer.Unit baseUnit(UnitNormalizer.Unit unit) {
+        if (unit.getDimension() == UnitNormalizer.OTHER) {
+            return unit;
+        }
+        return UnitNormalizer.displayUnit(unit.getDimension(), 0);
+    }
+
+    private static String displayName(String rawName) {
+        String key = rawName.trim().toLowerCase(Locale.ROOT);
+        return key.substring(0, 1).toUpperCase(Locale.ROOT) + key.substring(1);
+    }
+
+    private static String slug(String value) {
+        String lower = value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+        StringBuilder slug = new StringBuilder(lower.length());
+        boolean pendingDash = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingDash && slug.length() > 0) {
+                    slug.append('-');
+                }
+                slug.append(c);
+                pendingDash = false;
+            } else {
+                pendingDash = true;
+            }
+        }
+        return slug.length() > 0 ? slug.toString() : "item";
+    }
+}
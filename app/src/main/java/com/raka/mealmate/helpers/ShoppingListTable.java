@@ -0,0 +1,567 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.ShoppingItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar shopping list: one primitive or String array per field instead of
+ * one ShoppingItem object per item. Categories and units are interned to int
+ * ids, and the display order (category headers, each followed by its items
+ * sorted by name) is kept in a row index, so an adapter can bind a row
+ * straight from the columns.
+ *
+ * The rows are grouped into sections, one per non-empty category. The full
+ * sort happens once in from(); after that an added item is placed with a
+ * binary search inside its own section and a removed one only closes its gap,
+ * so an edit never re-sorts the list. Removed items keep their index (it is
+ * never reused), so indices held by callers stay valid. Items are found by
+ * id through a hash index. Not thread-safe; a table must not be edited while
+ * another thread reads it, e.g. while an adapter diffs it.
+ */
+public final class ShoppingListTable {
+
+    private static final String DEFAULT_CATEGORY = "Other";
+
+    // Columns, indexed by item; removed items leave a hole
+    private int indexCount;
+    private int size;
+    private String[] ids;
+    private String[] names;
+    private String[] storeIds;
+    private double[] amounts;
+    private double[] prices;
+    private int[] categoryIds;
+    private int[] unitIds;
+    private boolean[] purchased;
+    private boolean[] removed;
+    private final Map<String, Integer> indexById;
+
+    // Interned values shared by every item
+    private final List<String> categories;
+    private final Map<String, Integer> categoryIdsByName;
+    private final List<String> units;
+    private final Map<String, Integer> unitIdsByLabel;
+
+    // Display order: rows[row] is an item index, or ~categoryId for a header
+    private int[] rows;
+    private int rowCount;
+
+    // Section index: sections in category name order, each starting at its header row
+    private int sectionCount;
+    private int[] sectionCategory;
+    private int[] sectionStart;
+    private int[] sectionSize;
+    private int[] sectionOfCategory;
+
+    private ShoppingListTable(int capacity) {
+        ids = new String[capacity];
+        names = new String[capacity];
+        storeIds = new String[capacity];
+        amounts = new double[capacity];
+        prices = new double[capacity];
+        categoryIds = new int[capacity];
+        unitIds = new int[capacity];
+        purchased = new boolean[capacity];
+        removed = new boolean[capacity];
+        indexById = new HashMap<>(capacity * 2);
+        categories = new ArrayList<>();
+        categoryIdsByName = new HashMap<>();
+        units = new ArrayList<>();
+        unitIdsByLabel = new HashMap<>();
+    }
+
+    private ShoppingListTable(ShoppingListTable source) {
+        indexCount = source.indexCount;
+        size = source.size;
+        ids = Arrays.copyOf(source.ids, source.ids.length);
+        names = Arrays.copyOf(source.names, source.names.length);
+        storeIds = Arrays.copyOf(source.storeIds, source.storeIds.length);
+        amounts = Arrays.copyOf(source.amounts, source.amounts.length);
+        prices = Arrays.copyOf(source.prices, source.prices.length);
+        categoryIds = Arrays.copyOf(source.categoryIds, source.categoryIds.length);
+        unitIds = Arrays.copyOf(source.unitIds, source.unitIds.length);
+        purchased = Arrays.copyOf(source.purchased, source.purchased.length);
+        removed = Arrays.copyOf(source.removed, source.removed.length);
+        indexById = new HashMap<>(source.indexById);
+        categories = new ArrayList<>(source.categories);
+        categoryIdsByName = new HashMap<>(source.categoryIdsByName);
+        units = new ArrayList<>(source.units);
+        unitIdsByLabel = new HashMap<>(source.unitIdsByLabel);
+        rows = Arrays.copyOf(source.rows, source.rowCount);
+        rowCount = source.rowCount;
+        sectionCount = source.sectionCount;
+        sectionCategory = Arrays.copyOf(source.sectionCategory, source.sectionCount);
+        sectionStart = Arrays.copyOf(source.sectionStart, source.sectionCount);
+        sectionSize = Arrays.copyOf(source.sectionSize, source.sectionCount);
+        sectionOfCategory = Arrays.copyOf(source.sectionOfCategory, source.sectionOfCategory.length);
+    }
+
+    public static ShoppingListTable empty() {
+        return from(new ArrayList<>());
+    }
+
+    public static ShoppingListTable from(List<ShoppingItem> items) {
+        ShoppingListTable table = new ShoppingListTable(items.size());
+        for (ShoppingItem item : items) {
+            table.append(item);
+        }
+        table.buildRows();
+        return table;
+    }
+
+    /**
+     * An independent copy with the same item indices. Edits to either table,
+     * including amount, price and purchased, are not seen by the other.
+     */
+    public ShoppingListTable copy() {
+        return new ShoppingListTable(this);
+    }
+
+    /**
+     * Add an item in its sorted place, creating its category's section if
+     * needed. Returns the new item's index.
+     */
+    public int insertItem(ShoppingItem item) {
+        int index = append(item);
+        int category = categoryIds[index];
+        int section = category < sectionOfCategory.length ? sectionOfCategory[category] : -1;
+        if (section < 0) {
+            section = insertSection(category);
+        }
+        int from = sectionStart[section] + 1;
+        int row = upperBound(from, from + sectionSize[section], names[index]);
+        insertRow(row, index);
+        sectionSize[section]++;
+        shiftSections(section + 1, 1);
+        size++;
+        return index;
+    }
+
+    /**
+     * Remove an item's row, and its category header if it was the last item
+     * in that section
+     */
+    public void removeItem(int index) {
+        if (removed[index]) {
+            return;
+        }
+        int section = sectionOfCategory[categoryIds[index]];
+        removeRow(rowOf(index));
+        sectionSize[section]--;
+        shiftSections(section + 1, -1);
+        if (sectionSize[section] == 0) {
+            removeSection(section);
+        }
+        removed[index] = true;
+        if (Integer.valueOf(index).equals(indexById.get(ids[index]))) {
+            indexById.remove(ids[index]);
+        }
+        size--;
+    }
+
+    // Items
+
+    /**
+     * Number of live items
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Item indices run from 0 up to this, skipping removed ones
+     */
+    public int indexCount() {
+        return indexCount;
+    }
+
+    public boolean isRemoved(int index) {
+        return removed[index];
+    }
+
+    /**
+     * Index of the live item with this id, or -1
+     */
+    public int indexOf(String id) {
+        Integer index = indexById.get(id);
+        return index != null ? index : -1;
+    }
+
+    public String getId(int index) {
+        return ids[index];
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public String getStoreId(int index) {
+        return storeIds[index];
+    }
+
+    public double getAmount(int index) {
+        return amounts[index];
+    }
+
+    public void setAmount(int index, double amount) {
+        amounts[index] = amount;
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public void setPrice(int index, double price) {
+        prices[index] = price;
+    }
+
+    public boolean isPurchased(int index) {
+        return purchased[index];
+    }
+
+    public void setPurchased(int index, boolean isPurchased) {
+        purchased[index] = isPurchased;
+    }
+
+    public String getUnit(int index) {
+        return units.get(unitIds[index]);
+    }
+
+    public String getCategory(int index) {
+        return categories.get(categoryIds[index]);
+    }
+
+    /**
+     * A standalone copy of one item, for code that still works with ShoppingItem
+     */
+    public ShoppingItem toShoppingItem(int index) {
+        ShoppingItem item = new ShoppingItem(names[index], amounts[index], getUnit(index), getCategory(index),
+                storeIds[index]);
+        item.setId(ids[index]);
+        item.setPrice(prices[index]);
+        item.setPurchased(purchased[index]);
+        return item;
+    }
+
+    // Rows: category headers and items in display order
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public boolean isHeader(int row) {
+        return rows[row] < 0;
+    }
+
+    public String headerAt(int row) {
+        return categories.get(~rows[row]);
+    }
+
+    public int itemAt(int row) {
+        return rows[row];
+    }
+
+    /**
+     * The item's row, found by a binary search inside its section; -1 once removed
+     */
+    public int rowOf(int index) {
+        if (removed[index]) {
+            return -1;
+        }
+        int section = sectionOfCategory[categoryIds[index]];
+        int from = sectionStart[section] + 1;
+        int to = from + sectionSize[section];
+        for (int row = lowerBound(from, to, names[index]); row < to; row++) {
+            if (rows[row] == index) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    // Sections: one per non-empty category, for jumping between categories
+
+    public int sectionCount() {
+        return sectionCount;
+    }
+
+    public String sectionTitle(int section) {
+        return categories.get(sectionCategory[section]);
+    }
+
+    /**
+     * The row of the section's header
+     */
+    public int sectionStartRow(int section) {
+        return sectionStart[section];
+    }
+
+    public int sectionSize(int section) {
+        return sectionSize[section];
+    }
+
+    public int sectionForRow(int row) {
+        int low = 0;
+        int high = sectionCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (sectionStart[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int append(ShoppingItem item) {
+        if (indexCount == ids.length) {
+            growColumns(Math.max(8, indexCount * 2));
+        }
+        int index = indexCount++;
+        String name = item.getName() != null ? item.getName() : "";
+        String unit = item.getUnit() != null ? item.getUnit() : "";
+        String category = item.getCategory() != null ? item.getCategory() : DEFAULT_CATEGORY;
+        ids[index] = item.getId() != null ? item.getId() : ShoppingListMaterializer.itemKey(name, unit);
+        names[index] = name;
+        storeIds[index] = item.getStoreId();
+        amounts[index] = item.getAmount();
+        prices[index] = item.getPrice();
+        purchased[index] = item.isPurchased();
+        removed[index] = false;
+        indexById.put(ids[index], index);
+        categoryIds[index] = intern(category, categoryIdsByName, categories);
+        unitIds[index] = intern(unit, unitIdsByLabel, units);
+        return index;
+    }
+
+    private void growColumns(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        storeIds = Arrays.copyOf(storeIds, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        unitIds = Arrays.copyOf(unitIds, capacity);
+        purchased = Arrays.copyOf(purchased, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+    }
+
+    // One full sort, only when the table is built
+    private void buildRows() {
+        int categoryCount = categories.size();
+        int[] countByCategory = new int[categoryCount];
+        for (int i = 0; i < indexCount; i++) {
+            countByCategory[categoryIds[i]]++;
+        }
+
+        int[] categoryOrder = new int[categoryCount];
+        for (int c = 0; c < categoryCount; c++) {
+            categoryOrder[c] = c;
+        }
+        sortCategories(categoryOrder);
+
+        sectionCategory = new int[categoryCount];
+        sectionStart = new int[categoryCount];
+        sectionSize = new int[categoryCount];
+        sectionOfCategory = new int[categoryCount];
+        int used = 0;
+        for (int c : categoryOrder) {
+            sectionOfCategory[c] = -1;
+            if (countByCategory[c] > 0) {
+                sectionOfCategory[c] = sectionCount;
+                sectionCategory[sectionCount] = c;
+                sectionStart[sectionCount] = used;
+                sectionCount++;
+                used += countByCategory[c] + 1;
+            }
+        }
+
+        rows = new int[used];
+        rowCount = used;
+        int[] fill = new int[sectionCount];
+        for (int s = 0; s < sectionCount; s++) {
+            rows[sectionStart[s]] = ~sectionCategory[s];
+        }
+        for (int i = 0; i < indexCount; i++) {
+            int s = sectionOfCategory[categoryIds[i]];
+            rows[sectionStart[s] + 1 + fill[s]++] = i;
+        }
+
+        int[] scratch = new int[rows.length];
+        for (int s = 0; s < sectionCount; s++) {
+            sectionSize[s] = fill[s];
+            if (fill[s] > 1) {
+                sortByName(rows, sectionStart[s] + 1, sectionStart[s] + 1 + fill[s], scratch);
+            }
+        }
+        size = indexCount;
+    }
+
+    private int insertSection(int category) {
+        // Binary search for the section's place among the category names
+        String title = categories.get(category);
+        int low = 0;
+        int high = sectionCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (categories.get(sectionCategory[mid]).compareTo(title) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int section = low;
+        int headerRow = section < sectionCount ? sectionStart[section] : rowCount;
+
+        if (sectionCount == sectionCategory.length) {
+            int capacity = Math.max(4, sectionCount * 2);
+            sectionCategory = Arrays.copyOf(sectionCategory, capacity);
+            sectionStart = Arrays.copyOf(sectionStart, capacity);
+            sectionSize = Arrays.copyOf(sectionSize, capacity);
+        }
+        int moved = sectionCount - section;
+        System.arraycopy(sectionCategory, section, sectionCategory, section + 1, moved);
+        System.arraycopy(sectionStart, section, sectionStart, section + 1, moved);
+        System.arraycopy(sectionSize, section, sectionSize, section + 1, moved);
+        sectionCategory[section] = category;
+        sectionStart[section] = headerRow;
+        sectionSize[section] = 0;
+        sectionCount++;
+
+        if (category >= sectionOfCategory.length) {
+            int oldLength = sectionOfCategory.length;
+            sectionOfCategory = Arrays.copyOf(sectionOfCategory, Math.max(category + 1, oldLength * 2));
+            Arrays.fill(sectionOfCategory, oldLength, sectionOfCategory.length, -1);
+        }
+        reindexSections(section);
+
+        insertRow(headerRow, ~category);
+        shiftSections(section + 1, 1);
+        return section;
+    }
+
+    private void removeSection(int section) {
+        removeRow(sectionStart[section]);
+        sectionOfCategory[sectionCategory[section]] = -1;
+        int moved = sectionCount - section - 1;
+        System.arraycopy(sectionCategory, section + 1, sectionCategory, section, moved);
+        System.arraycopy(sectionStart, section + 1, sectionStart, section, moved);
+        System.arraycopy(sectionSize, section + 1, sectionSize, section, moved);
+        sectionCount--;
+        reindexSections(section);
+        shiftSections(section, -1);
+    }
+
+    private void reindexSections(int from) {
+        for (int s = from; s < sectionCount; s++) {
+            sectionOfCategory[sectionCategory[s]] = s;
+        }
+    }
+
+    private void shiftSections(int from, int delta) {
+        for (int s = from; s < sectionCount; s++) {
+            sectionStart[s] += delta;
+        }
+    }
+
+    private void insertRow(int row, int value) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(8, rowCount * 2));
+        }
+        System.arraycopy(rows, row, rows, row + 1, rowCount - row);
+        rows[row] = value;
+        rowCount++;
+    }
+
+    private void removeRow(int row) {
+        System.arraycopy(rows, row + 1, rows, row, rowCount - row - 1);
+        rowCount--;
+    }
+
+    // First row in [from, to) whose name is not before the given one
+    private int lowerBound(int from, int to, String name) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (names[rows[mid]].compareToIgnoreCase(name) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    // First row in [from, to) whose name comes after the given one
+    private int upperBound(int from, int to, String name) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (names[rows[mid]].compareToIgnoreCase(name) <= 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private void sortCategories(int[] order) {
+        // Few categories; insertion sort keeps this allocation-free
+        for (int i = 1; i < order.length; i++) {
+            int value = order[i];
+            int j = i - 1;
+            while (j >= 0 && categories.get(order[j]).compareTo(categories.get(value)) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = value;
+        }
+    }
+
+    // Stable merge sort of item indices by name, case-insensitively
+    private void sortByName(int[] a, int from, int to, int[] scratch) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int value = a[i];
+                int j = i - 1;
+                while (j >= from && names[a[j]].compareToIgnoreCase(names[value]) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortByName(a, from, mid, scratch);
+        sortByName(a, mid, to, scratch);
+        if (names[a[mid - 1]].compareToIgnoreCase(names[a[mid]]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, from, scratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int k = from; k < to; k++) {
+            if (right >= to || (left < mid && names[scratch[left]].compareToIgnoreCase(names[scratch[right]]) <= 0)) {
+                a[k] = scratch[left++];
+            } else {
+                a[k] = scratch[right++];
+            }
+        }
+    }
+
+    private static int intern(String value, Map<String, Integer> idsByValue, List<String> values) {
+        Integer id = idsByValue.get(value);
+        if (id == null) {
+            id = values.size();
+            idsByValue.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,71 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Remembers the last store list it saw and reports what changed in the next
+ * one, keyed by store id, so the map can add, move and remove only those
+ * markers instead of clearing and re-adding every store.
+ */
+public class StoreChangeTracker {
+
+    private final Map<String, Store> known = new HashMap<>();
+
+    // Result of one comparison
+    public static class Changes {
+        public final List<Store> added = new ArrayList<>();
+        public final List<Store> updated = new ArrayList<>();
+        public final List<String> removed = new ArrayList<>();
+
+        public boolean isEmpty() {
+            return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    public Changes update(List<Store> stores) {
+        Changes changes = new Changes();
+        Set<String> seen = new HashSet<>();
+        for (Store store : stores) {
+            String id = store.getId();
+            if (id == null || !seen.add(id)) {
+                continue;
+            }
+            Store previous = known.put(id, store);
+            if (previous == null) {
+                changes.added.add(store);
+            } else if (!looksSame(previous, store)) {
+                changes.updated.add(store);
+            }
+        }
+        if (seen.size() < known.size()) {
+            for (String id : new ArrayList<>(known.keySet())) {
+                if (!seen.contains(id)) {
+                    known.remove(id);
+                    changes.removed.add(id);
+                }
+            }
+        }
+        return changes;
+    }
+
+    public void clear() {
+        known.clear();
+    }
+
+    // Only the fields a marker shows
+    private static boolean looksSame(Store a, Store b) {
+        return a.getLatitude() == b.getLatitude()
+                && a.getLongitude() == b.getLongitude()
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getAddress(), b.getAddress())
+                && Objects.equals(a.getStoreType(), b.getStoreType());
+    }
+}
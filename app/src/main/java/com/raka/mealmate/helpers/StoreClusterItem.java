@@ -0,0 +1,59 @@
+package com.raka.mealmate.helpers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.maps.model.LatLng;
+import com.google.maps.android.clustering.ClusterItem;
+import com.raka.mealmate.models.Store;
+
+/**
+ * A store as seen by the map's ClusterManager
+ */
+public class StoreClusterItem implements ClusterItem {
+    private final Store store;
+    private final LatLng position;
+    private final boolean highlighted;
+
+    public StoreClusterItem(Store store, boolean highlighted) {
+        this.store = store;
+        this.position = new LatLng(store.getLatitude(), store.getLongitude());
+        this.highlighted = highlighted;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    /**
+     * Whether the store has items on the user's shopping list
+     */
+    public boolean isHighlighted() {
+        return highlighted;
+    }
+
+    @NonNull
+    @Override
+    public LatLng getPosition() {
+        return position;
+    }
+
+    @Nullable
+    @Override
+    public String getTitle() {
+        return highlighted ? "🛒 " + store.getName() : store.getName();
+    }
+
+    @Nullable
+    @Override
+    public String getSnippet() {
+        return store.getAddress();
+    }
+
+    @Nullable
+    @Override
+    public Float getZIndex() {
+        // Highlighted stores are drawn on top
+        return highlighted ? 2.0f : 0f;
+    }
+}
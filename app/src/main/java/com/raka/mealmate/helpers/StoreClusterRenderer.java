@@ -0,0 +1,52 @@
+package com.raka.mealmate.helpers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import com.google.android.gms.maps.model.Marker;
+import com.google.android.gms.maps.model.MarkerOptions;
+import com.google.maps.android.clustering.ClusterManager;
+import com.google.maps.android.clustering.view.DefaultClusterRenderer;
+
+/**
+ * Colors single store markers by store type, with stores on the shopping
+ * list in magenta. The base renderer diffs the rendered markers against the
+ * new clusters and only adds, moves or removes the markers that changed.
+ */
+public class StoreClusterRenderer extends DefaultClusterRenderer<StoreClusterItem> {
+
+    public StoreClusterRenderer(Context context, GoogleMap map, ClusterManager<StoreClusterItem> clusterManager) {
+        super(context, map, clusterManager);
+    }
+
+    @Override
+    protected void onBeforeClusterItemRendered(@NonNull StoreClusterItem item, @NonNull MarkerOptions markerOptions) {
+        super.onBeforeClusterItemRendered(item, markerOptions);
+        markerOptions.icon(iconFor(item));
+    }
+
+    @Override
+    protected void onClusterItemUpdated(@NonNull StoreClusterItem item, @NonNull Marker marker) {
+        super.onClusterItemUpdated(item, marker);
+        marker.setIcon(iconFor(item));
+    }
+
+    private static BitmapDescriptor iconFor(StoreClusterItem item) {
+        if (item.isHighlighted()) {
+            return BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_MAGENTA);
+        }
+        String storeType = item.getStore().getStoreType();
+        if ("Supermarket".equals(storeType)) {
+            return BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED);
+        } else if ("Convenience Store".equals(storeType)) {
+            return BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_ORANGE);
+        } else if ("Farmers Market".equals(storeType)) {
+            return BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN);
+        }
+        return BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_BLUE);
+    }
+}
@@ -1,27 +1,37 @@
 package com.raka.mealmate.helpers;
 
-import androidx.annotation.NonNull;
-
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.raka.mealmate.models.Store;
+import com.raka.mealmate.repositories.CounterRepository;
+import com.raka.mealmate.repositories.FirebaseStoreRepository;
+import com.raka.mealmate.repositories.SqliteStoreCache;
+import com.raka.mealmate.repositories.StoreSyncEngine;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.widget.Toast;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 /**
  * Helper class for managing grocery store operations.
+ *
+ * Loaded stores are published as an immutable StoreSnapshot, replaced as a
+ * whole on every sync, so lookups are O(1) and readers never copy the list.
+ * The snapshots come from one StoreSyncEngine subscription for the whole app.
  */
 public class StoreManager {
+    private static final String TAG = "StoreManager";
     private static final String STORES_REF = "stores";
     private final DatabaseReference storesRef;
-    private List<Store> storeList = new ArrayList<>();
+    private final StoreSyncEngine syncEngine;
+    private final CounterRepository counters;
+    private volatile StoreSnapshot snapshot = StoreSnapshot.EMPTY;
+    private boolean sampleStoresRequested;
     private StoreLoadListener listener;
     private Context context;
 
@@ -38,6 +48,35 @@ public class StoreManager {
     private StoreManager(Context context) {
         this.context = context;
         storesRef = FirebaseDatabase.getInstance().getReference(STORES_REF);
+        counters = CounterRepository.getInstance();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        syncEngine = new StoreSyncEngine(new FirebaseStoreRepository(), SqliteStoreCache.getInstance(context),
+                Executors.newSingleThreadExecutor(), mainHandler::post);
+        syncEngine.setStoreSyncListener(new StoreSyncEngine.StoreSyncListener() {
+            @Override
+            public void onStoresChanged(StoreSnapshot published) {
+                snapshot = published;
+                Log.d(TAG, "Stores v" + published.getVersion() + ": " + published.size() + " stores ("
+                        + syncEngine.getMetrics() + ")");
+
+                // Add sample stores if none exist (for demonstration purposes)
+                if (syncEngine.isInitialLoadComplete() && published.size() == 0 && !sampleStoresRequested) {
+                    sampleStoresRequested = true;
+                    createSampleStores();
+                }
+
+                if (listener != null) {
+                    listener.onStoresLoaded(published.getStores());
+                }
+            }
+
+            @Override
+            public void onSyncError(Exception error) {
+                if (listener != null) {
+                    listener.onStoreLoadError(error);
+                }
+            }
+        });
     }
 
     // Interface for store load callbacks
@@ -54,44 +93,20 @@ public class StoreManager {
     }
 
     /**
-     * Load all stores from the database
+     * Load all stores from the database. The first call starts the sync;
+     * later calls hand the current stores to the listener again.
      */
     public void loadStores() {
-        storesRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                storeList.clear();
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    try {
-                        Store store = snapshot.getValue(Store.class);
-                        if (store != null) {
-                            store.setId(snapshot.getKey());
-                            storeList.add(store);
-                        }
-                    } catch (Exception e) {
-                        if (listener != null) {
-                            listener.onStoreLoadError(e);
-                        }
-                    }
-                }
-                
-                // Add sample stores if none exist (for demonstration purposes)
-                if (storeList.isEmpty()) {
-                    createSampleStores();
-                }
-                
-                if (listener != null) {
-                    listener.onStoresLoaded(storeList);
-                }
-            }
+        if (!syncEngine.start() && snapshot.getVersion() > 0 && listener != null) {
+            listener.onStoresLoaded(snapshot.getStores());
+        }
+    }
 
-            @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                if (listener != null) {
-                    listener.onStoreLoadError(databaseError.toException());
-                }
-            }
-        });
+    /**
+     * Counters and timings of the store sync
+     */
+    public StoreSyncEngine.Metrics getSyncMetrics() {
+        return syncEngine.getMetrics();
     }
     
     /**
@@ -127,24 +142,16 @@ public class StoreManager {
         store3.setNotes("Fresh local produce and organic goods");
         
         // Save the sample stores to Firebase
-        DatabaseReference storeRef1 = storesRef.child(store1.getId());
-        storeRef1.setValue(store1);
-        
-        DatabaseReference storeRef2 = storesRef.child(store2.getId());
-        storeRef2.setValue(store2);
-        
-        DatabaseReference storeRef3 = storesRef.child(store3.getId());
-        storeRef3.setValue(store3);
+        saveStore(store1);
+        saveStore(store2);
+        saveStore(store3);
         
-        // Notify listeners
+        // Notify listeners; the new stores arrive through the running sync
         Toast.makeText(context, "Sample stores created successfully", Toast.LENGTH_SHORT).show();
-        
-        // Reload stores to update the list
-        loadStores();
     }
 
     /**
-     * Save a store to the database
+     * Save a store to the database; new stores are added to the store counter
      */
     public void saveStore(Store store) {
         if (store.getId() == null || store.getId().isEmpty()) {
@@ -153,7 +160,7 @@ public class StoreManager {
             store.setId(storeId);
         }
         
-        storesRef.child(store.getId()).setValue(store);
+        counters.setCounted(storesRef.child(store.getId()), store, counters.globalCounter(CounterRepository.STORES));
     }
 
     /**
@@ -161,7 +168,7 @@ public class StoreManager {
      */
     public void updateStore(Store store) {
         if (store.getId() != null && !store.getId().isEmpty()) {
-            storesRef.child(store.getId()).setValue(store);
+            counters.setCounted(storesRef.child(store.getId()), store, counters.globalCounter(CounterRepository.STORES));
         }
     }
 
@@ -170,26 +177,49 @@ public class StoreManager {
      */
     public void deleteStore(Store store) {
         if (store.getId() != null && !store.getId().isEmpty()) {
-            storesRef.child(store.getId()).removeValue();
+            counters.removeCounted(storesRef.child(store.getId()), counters.globalCounter(CounterRepository.STORES));
         }
     }
 
+    /**
+     * Observe the number of stores without downloading them
+     */
+    public CounterRepository.Registration observeStoreCount(CounterRepository.CounterListener listener) {
+        return counters.observe(counters.globalCounter(CounterRepository.STORES), storesRef, 1, listener);
+    }
+
     /**
      * Get a store by its ID
      */
     public Store getStoreById(String storeId) {
-        for (Store store : storeList) {
-            if (store.getId().equals(storeId)) {
-                return store;
-            }
-        }
-        return null;
+        return snapshot.getStoreById(storeId);
     }
-    
+
+    /**
+     * Get the stores of one type, e.g. "Supermarket"
+     */
+    public List<Store> getStoresOfType(String storeType) {
+        return snapshot.getStoresOfType(storeType);
+    }
+
+    /**
+     * Spatial index over the loaded stores, for nearest and radius queries
+     */
+    public StoreSpatialIndex getSpatialIndex() {
+        return snapshot.getSpatialIndex();
+    }
+
+    /**
+     * The latest published stores and indexes; compare getVersion() to skip repeated work
+     */
+    public StoreSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
-     * Get the current list of stores
+     * Get the current list of stores, unmodifiable and not copied
      */
     public List<Store> getStoreList() {
-        return new ArrayList<>(storeList);
+        return snapshot.getStores();
     }
 }
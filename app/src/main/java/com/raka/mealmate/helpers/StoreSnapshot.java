@@ -0,0 +1,94 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One immutable, versioned view of all stores with its indexes: by id, by
+ * store type and by location. StoreManager publishes a new snapshot on every
+ * sync, so readers can hold on to one without copying and compare versions
+ * to skip work they already did.
+ *
+ * The Store objects are shared with every reader and must be treated as
+ * read-only; edits go through a copy saved via StoreManager.
+ */
+public final class StoreSnapshot {
+
+    public static final StoreSnapshot EMPTY = new StoreSnapshot(0, new ArrayList<>());
+
+    private final long version;
+    private final List<Store> stores;
+    private final Map<String, Store> storesById;
+    private final Map<String, List<Store>> storesByType;
+    private final StoreSpatialIndex spatialIndex;
+
+    private StoreSnapshot(long version, List<Store> storeList) {
+        this.version = version;
+        this.stores = Collections.unmodifiableList(storeList);
+        this.storesById = new HashMap<>(storeList.size() * 2);
+        Map<String, List<Store>> byType = new HashMap<>();
+        for (Store store : storeList) {
+            if (store.getId() != null) {
+                storesById.put(store.getId(), store);
+            }
+            String type = store.getStoreType() != null ? store.getStoreType() : "";
+            List<Store> ofType = byType.get(type);
+            if (ofType == null) {
+                ofType = new ArrayList<>();
+                byType.put(type, ofType);
+            }
+            ofType.add(store);
+        }
+        for (Map.Entry<String, List<Store>> entry : byType.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.storesByType = byType;
+        this.spatialIndex = StoreSpatialIndex.build(storeList);
+    }
+
+    /**
+     * Takes ownership of the list; it must not be changed afterwards
+     */
+    public static StoreSnapshot of(long version, List<Store> stores) {
+        return new StoreSnapshot(version, stores);
+    }
+
+    /**
+     * Increases with every published snapshot; 0 before the first sync
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * All stores, unmodifiable and not copied
+     */
+    public List<Store> getStores() {
+        return stores;
+    }
+
+    public int size() {
+        return stores.size();
+    }
+
+    public Store getStoreById(String storeId) {
+        return storeId != null ? storesById.get(storeId) : null;
+    }
+
+    /**
+     * Stores of one type, e.g. "Supermarket"; empty when there are none
+     */
+    public List<Store> getStoresOfType(String storeType) {
+        List<Store> ofType = storesByType.get(storeType != null ? storeType : "");
+        return ofType != null ? ofType : Collections.emptyList();
+    }
+
+    public StoreSpatialIndex getSpatialIndex() {
+        return spatialIndex;
+    }
+}
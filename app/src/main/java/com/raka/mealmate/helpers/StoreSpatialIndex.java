@@ -0,0 +1,335 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable k-d tree over store locations for nearest-k and within-radius
+ * queries in logarithmic time.
+ *
+ * Each location is stored as a point on the unit sphere (x, y, z), so the
+ * straight-line distance between points grows with the great-circle distance
+ * and the tree needs no special cases at the poles or the date line. Queries
+ * compare squared chord lengths and only convert to meters for the results.
+ * Stores without coordinates (0, 0) are left out, as they are on the map.
+ */
+public final class StoreSpatialIndex {
+
+    public static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    private static final int LEAF_SIZE = 8;
+
+    // Tree order: the node for [lo, hi) sits at mid, split on splitAxis[mid]
+    private final Store[] stores;
+    private final double[][] axes;
+    private final byte[] splitAxis;
+
+    private StoreSpatialIndex(Store[] stores, double[][] axes, byte[] splitAxis) {
+        this.stores = stores;
+        this.axes = axes;
+        this.splitAxis = splitAxis;
+    }
+
+    public static StoreSpatialIndex build(List<Store> storeList) {
+        List<Store> located = new ArrayList<>(storeList.size());
+        for (Store store : storeList) {
+            if (store != null && (store.getLatitude() != 0 || store.getLongitude() != 0)) {
+                located.add(store);
+            }
+        }
+        int count = located.size();
+        Store[] stores = located.toArray(new Store[0]);
+        double[][] axes = new double[3][count];
+        double[] point = new double[3];
+        for (int i = 0; i < count; i++) {
+            toUnitVector(stores[i].getLatitude(), stores[i].getLongitude(), point);
+            axes[0][i] = point[0];
+            axes[1][i] = point[1];
+            axes[2][i] = point[2];
+        }
+        StoreSpatialIndex index = new StoreSpatialIndex(stores, axes, new byte[count]);
+        index.buildNode(0, count);
+        return index;
+    }
+
+    public int size() {
+        return stores.length;
+    }
+
+    /**
+     * Up to k stores closest to the location, closest first
+     */
+    public List<Store> nearest(double latitude, double longitude, int k) {
+        int limit = Math.min(k, stores.length);
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        double[] query = new double[3];
+        toUnitVector(latitude, longitude, query);
+        NearestHeap heap = new NearestHeap(limit);
+        searchNearest(0, stores.length, query, heap);
+        return heap.toSortedStores(stores);
+    }
+
+    /**
+     * Stores within the radius of the location, closest first
+     */
+    public List<Store> withinRadius(double latitude, double longitude, double radiusMeters) {
+        List<Store> result = new ArrayList<>();
+        if (stores.length == 0 || radiusMeters < 0) {
+            return result;
+        }
+        double[] query = new double[3];
+        toUnitVector(latitude, longitude, query);
+        double angle = Math.min(Math.PI, radiusMeters / EARTH_RADIUS_METERS);
+        double chord = 2 * Math.sin(angle / 2);
+        List<double[]> hits = new ArrayList<>();
+        searchRadius(0, stores.length, query, chord * chord, hits);
+        Collections.sort(hits, (a, b) -> Double.compare(a[0], b[0]));
+        for (double[] hit : hits) {
+            result.add(stores[(int) hit[1]]);
+        }
+        return result;
+    }
+
+    /**
+     * Great-circle distance in meters
+     */
+    public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double[] a = new double[3];
+        double[] b = new double[3];
+        toUnitVector(latitude1, longitude1, a);
+        toUnitVector(latitude2, longitude2, b);
+        return chordToMeters(Math.sqrt(squaredDistance(a, b[0], b[1], b[2])));
+    }
+
+    private void buildNode(int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        // Split on the axis with the widest spread, which suits a city-sized cluster
+        int axis = widestAxis(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axes[axis]);
+        splitAxis[mid] = (byte) axis;
+        buildNode(lo, mid);
+        buildNode(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double[] values = axes[axis];
+            double min = values[lo];
+            double max = values[lo];
+            for (int i = lo + 1; i < hi; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    // Quickselect: afterwards values[k] is in its sorted place within [left, right]
+    private void select(int left, int right, int k, double[] values) {
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        Store store = stores[i];
+        stores[i] = stores[j];
+        stores[j] = store;
+        for (double[] values : axes) {
+            double value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    private void searchNearest(int lo, int hi, double[] query, NearestHeap heap) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                heap.offer(squaredDistance(query, i), i);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = splitAxis[mid];
+        double diff = query[axis] - axes[axis][mid];
+        heap.offer(squaredDistance(query, mid), mid);
+        if (diff < 0) {
+            searchNearest(lo, mid, query, heap);
+            if (diff * diff < heap.worst()) {
+                searchNearest(mid + 1, hi, query, heap);
+            }
+        } else {
+            searchNearest(mid + 1, hi, query, heap);
+            if (diff * diff < heap.worst()) {
+                searchNearest(lo, mid, query, heap);
+            }
+        }
+    }
+
+    private void searchRadius(int lo, int hi, double[] query, double maxSquared, List<double[]> hits) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                double distance = squaredDistance(query, i);
+                if (distance <= maxSquared) {
+                    hits.add(new double[]{distance, i});
+                }
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = splitAxis[mid];
+        double diff = query[axis] - axes[axis][mid];
+        double distance = squaredDistance(query, mid);
+        if (distance <= maxSquared) {
+            hits.add(new double[]{distance, mid});
+        }
+        if (diff < 0 || diff * diff <= maxSquared) {
+            searchRadius(lo, mid, query, maxSquared, hits);
+        }
+        if (diff >= 0 || diff * diff <= maxSquared) {
+            searchRadius(mid + 1, hi, query, maxSquared, hits);
+        }
+    }
+
+    private double squaredDistance(double[] query, int i) {
+        return squaredDistance(query, axes[0][i], axes[1][i], axes[2][i]);
+    }
+
+    private static double squaredDistance(double[] a, double x, double y, double z) {
+        double dx = a[0] - x;
+        double dy = a[1] - y;
+        double dz = a[2] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] out) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        out[0] = cosLat * Math.cos(lon);
+        out[1] = cosLat * Math.sin(lon);
+        out[2] = Math.sin(lat);
+    }
+
+    private static double chordToMeters(double chord) {
+        return 2 * Math.asin(Math.min(1, chord / 2)) * EARTH_RADIUS_METERS;
+    }
+
+    // Bounded max-heap of the k closest points seen so far
+    private static final class NearestHeap {
+        private final double[] distances;
+        private final int[] positions;
+        private int count;
+
+        NearestHeap(int capacity) {
+            distances = new double[capacity];
+            positions = new int[capacity];
+        }
+
+        double worst() {
+            return count < distances.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(double distance, int position) {
+            if (count < distances.length) {
+                int i = count++;
+                distances[i] = distance;
+                positions[i] = position;
+                siftUp(i);
+            } else if (distance < distances[0]) {
+                distances[0] = distance;
+                positions[0] = position;
+                siftDown(0);
+            }
+        }
+
+        List<Store> toSortedStores(Store[] stores) {
+            Store[] sorted = new Store[count];
+            // Popping the max repeatedly fills the result from the back
+            while (count > 0) {
+                sorted[count - 1] = stores[positions[0]];
+                count--;
+                distances[0] = distances[count];
+                positions[0] = positions[count];
+                siftDown(0);
+            }
+            List<Store> result = new ArrayList<>(sorted.length);
+            Collections.addAll(result, sorted);
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int largest = i;
+                if (left < count && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+                if (left + 1 < count && distances[left + 1] > distances[largest]) {
+                    largest = left + 1;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            double distance = distances[i];
+            distances[i] = distances[j];
+            distances[j] = distance;
+            int position = positions[i];
+            positions[i] = positions[j];
+            positions[j] = position;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.raka.mealmate.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns a screen's live database listeners. Each listener lives in a named
+ * slot under a key, e.g. slot "day" with key "20240315"; setting the slot to
+ * a new key removes the old listener first, and setting the same key again
+ * keeps the one already attached. Listeners are only attached while the
+ * manager is started, so an activity calls start() from onStart(), stop()
+ * from onStop() and clear() from onDestroy().
+ */
+public class SubscriptionManager {
+
+    // Interface for attaching one listener; the returned handle detaches it
+    public interface Source {
+        Subscription subscribe();
+    }
+
+    // Handle for a live subscription
+    public interface Subscription {
+        void remove();
+    }
+
+    private static class Slot {
+        final String key;
+        final Source source;
+        Subscription subscription;
+
+        Slot(String key, Source source) {
+            this.key = key;
+            this.source = source;
+        }
+    }
+
+    private final Map<String, Slot> slots = new LinkedHashMap<>();
+    private boolean started;
+    private int activeCount;
+
+    /**
+     * Point the slot at a key. Returns false if the slot already had this key,
+     * in which case the existing listener is kept and source is not used.
+     */
+    public boolean set(String slot, String key, Source source) {
+        Slot current = slots.get(slot);
+        if (current != null && current.key.equals(key)) {
+            return false;
+        }
+        if (current != null) {
+            detach(current);
+        }
+        Slot next = new Slot(key, source);
+        slots.put(slot, next);
+        if (started) {
+            attach(next);
+        }
+        return true;
+    }
+
+    /**
+     * Remove the slot's listener and forget it
+     */
+    public void remove(String slot) {
+        Slot current = slots.remove(slot);
+        if (current != null) {
+            detach(current);
+        }
+    }
+
+    /**
+     * The key the slot currently points at, or null
+     */
+    public String getKey(String slot) {
+        Slot current = slots.get(slot);
+        return current != null ? current.key : null;
+    }
+
+    /**
+     * Attach every slot's listener
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (Slot slot : slots.values()) {
+            attach(slot);
+        }
+    }
+
+    /**
+     * Detach every listener but keep the slots, so start() brings them back
+     */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        for (Slot slot : slots.values()) {
+            detach(slot);
+        }
+    }
+
+    /**
+     * Detach every listener and forget all slots
+     */
+    public void clear() {
+        stop();
+        slots.clear();
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Number of listeners attached right now, for debugging and tests
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    private void attach(Slot slot) {
+        if (slot.subscription == null) {
+            slot.subscription = slot.source.subscribe();
+            activeCount++;
+        }
+    }
+
+    private void detach(Slot slot) {
+        if (slot.subscription != null) {
+            slot.subscription.remove();
+            slot.subscription = null;
+            activeCount--;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.raka.mealmate.helpers;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps free-text ingredient units onto canonical base quantities: grams for
+ * mass, millilitres for volume and pieces for counts. Units it does not know
+ * ("clove", "pinch") stay in their own dimension under a singular label.
+ */
+public final class UnitNormalizer {
+
+    public static final int MASS = 0;
+    public static final int VOLUME = 1;
+    public static final int COUNT = 2;
+    public static final int OTHER = 3;
+
+    /**
+     * A recognised unit: its dimension and how many base units one of it holds
+     */
+    public static final class Unit {
+        private final String label;
+        private final int dimension;
+        private final double toBase;
+
+        Unit(String label, int dimension, double toBase) {
+            this.label = label;
+            this.dimension = dimension;
+            this.toBase = toBase;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getDimension() {
+            return dimension;
+        }
+
+        public double toBase(double amount) {
+            return amount * toBase;
+        }
+
+        public double fromBase(double baseAmount) {
+            return baseAmount / toBase;
+        }
+    }
+
+    private static final Unit GRAM = new Unit("g", MASS, 1);
+    private static final Unit KILOGRAM = new Unit("kg", MASS, 1000);
+    private static final Unit MILLILITRE = new Unit("ml", VOLUME, 1);
+    private static final Unit LITRE = new Unit("l", VOLUME, 1000);
+    private static final Unit PIECE = new Unit("pieces", COUNT, 1);
+
+    private static final Map<String, Unit> KNOWN_UNITS = new HashMap<>();
+    private static final Map<String, Unit> CACHE = new ConcurrentHashMap<>();
+
+    static {
+        register(GRAM, "g", "gr", "gram", "grams", "gramme", "grammes");
+        register(KILOGRAM, "kg", "kgs", "kilo", "kilos", "kilogram", "kilograms");
+        register(new Unit("mg", MASS, 0.001), "mg", "milligram", "milligrams");
+        register(new Unit("oz", MASS, 28.3495), "oz", "ounce", "ounces");
+        register(new Unit("lb", MASS, 453.592), "lb", "lbs", "pound", "pounds");
+
+        register(MILLILITRE, "ml", "millilitre", "millilitres", "milliliter", "milliliters");
+        register(LITRE, "l", "ltr", "litre", "litres", "liter", "liters");
+        register(new Unit("tsp", VOLUME, 5), "tsp", "teaspoon", "teaspoons");
+        register(new Unit("tbsp", VOLUME, 15), "tbsp", "tablespoon", "tablespoons");
+        register(new Unit("cup", VOLUME, 240), "cup", "cups");
+        register(new Unit("fl oz", VOLUME, 29.5735), "fl oz", "fluid ounce", "fluid ounces");
+
+        register(PIECE, "", "piece", "pieces", "pc", "pcs", "whole", "item", "items", "unit", "units");
+        // Size words are counts of whole items ("2 large eggs")
+        register(new Unit("large", COUNT, 1), "large");
+        register(new Unit("medium", COUNT, 1), "medium");
+        register(new Unit("small", COUNT, 1), "small");
+    }
+
+    private UnitNormalizer() {
+    }
+
+    private static void register(Unit unit, String... aliases) {
+        for (String alias : aliases) {
+            KNOWN_UNITS.put(alias, unit);
+        }
+    }
+
+    /**
+     * Resolve a unit as written in a recipe. Never returns null.
+     */
+    public static Unit normalize(String rawUnit) {
+        String key = rawUnit != null ? rawUnit : "";
+        Unit unit = CACHE.get(key);
+        if (unit == null) {
+            unit = resolve(key.trim().toLowerCase(Locale.ROOT));
+            CACHE.put(key, unit);
+        }
+        return unit;
+    }
+
+    /**
+     * The base unit of a dimension, scaled up for large totals (1200 g reads as 1.2 kg)
+     */
+    public static Unit displayUnit(int dimension, double baseAmount) {
+        switch (dimension) {
+            case MASS:
+                return baseAmount >= 1000 ? KILOGRAM : GRAM;
+            case VOLUME:
+                return baseAmount >= 1000 ? LITRE : MILLILITRE;
+            default:
+                return PIECE;
+        }
+    }
+
+    private static Unit resolve(String unit) {
+        if (unit.endsWith(".")) {
+            unit = unit.substring(0, unit.length() - 1);
+        }
+        Unit known = KNOWN_UNITS.get(unit);
+        return known != null ? known : new Unit(singular(unit), OTHER, 1);
+    }
+
+    private static String singular(String unit) {
+        if (unit.equals("leaves")) {
+            return "leaf";
+        }
+        if (unit.endsWith("ches") || unit.endsWith("shes")) {
+            return unit.substring(0, unit.length() - 2);
+        }
+        if (unit.length() > 2 && unit.endsWith("s") && !unit.endsWith("ss")) {
+            return unit.substring(0, unit.length() - 1);
+        }
+        return unit;
+    }
+}
@@ -15,7 +15,9 @@ public class MealPlan implements Serializable {
     private String mealTime;
     private String date;      // format: yyyyMMdd
     private String userId;
-    private Recipe recipe;
+    private Recipe recipe;     // Resolved from recipeId; not stored in the meal plan node
+    private String recipeId;
+    private long recipeVersion;
     private Date dateTime;  // This will store the actual Date object
     private long timestamp;
 
@@ -41,6 +43,7 @@ public class MealPlan implements Serializable {
     public MealPlan(String userId, Recipe recipe, Date dateTime, String mealTime) {
         this.userId = userId;
         this.recipe = recipe;
+        this.recipeId = recipe.getId();
         this.dateTime = dateTime;  // Store the actual Date object
         this.mealTime = mealTime;
         this.timestamp = System.currentTimeMillis();
@@ -70,6 +73,10 @@ public class MealPlan implements Serializable {
     }
 
     public String getImageUrl() {
+        // Normalized plans carry no copy; the resolved recipe has it
+        if (imageUrl == null && recipe != null) {
+            return recipe.getImageUrl();
+        }
         return imageUrl;
     }
 
@@ -78,6 +85,9 @@ public class MealPlan implements Serializable {
     }
 
     public String getCookingTime() {
+        if (cookingTime == null && recipe != null) {
+            return recipe.getDuration();
+        }
         return cookingTime;
     }
 
@@ -117,6 +127,25 @@ public class MealPlan implements Serializable {
         this.recipe = recipe;
     }
 
+    public String getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(String recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    /**
+     * Content version of the recipe when it was planned, see RecipeCodec.version
+     */
+    public long getRecipeVersion() {
+        return recipeVersion;
+    }
+
+    public void setRecipeVersion(long recipeVersion) {
+        this.recipeVersion = recipeVersion;
+    }
+
     public Date getDateTime() {
         return dateTime;
     }
@@ -1,5 +1,7 @@
 package com.raka.mealmate.models;
 
+import com.google.firebase.database.Exclude;
+
 import java.io.Serializable;
 import java.util.List;
 import java.util.ArrayList;
@@ -13,6 +15,7 @@ public class Recipe implements Serializable {
     private List<Ingredient> ingredients;
     private List<String> instructions;
     private String category;
+    private int categoryFlags;  // Derived by RecipeClassifier, not stored in Firebase
 
     public Recipe() {
         // Required empty constructor for Firebase
@@ -95,6 +98,7 @@ public class Recipe implements Serializable {
 
     public void setTitle(String title) {
         this.title = title;
+        this.categoryFlags = 0;
     }
 
     public String getImageUrl() {
@@ -111,6 +115,7 @@ public class Recipe implements Serializable {
 
     public void setDuration(String duration) {
         this.duration = duration;
+        this.categoryFlags = 0;
     }
 
     public float getRating() {
@@ -127,6 +132,7 @@ public class Recipe implements Serializable {
 
     public void setIngredients(List<Ingredient> ingredients) {
         this.ingredients = ingredients != null ? ingredients : new ArrayList<>();
+        this.categoryFlags = 0;
     }
 
     public List<String> getInstructions() {
@@ -144,4 +150,14 @@ public class Recipe implements Serializable {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    @Exclude
+    public int getCategoryFlags() {
+        return categoryFlags;
+    }
+
+    @Exclude
+    public void setCategoryFlags(int categoryFlags) {
+        this.categoryFlags = categoryFlags;
+    }
 }
\ No newline at end of file
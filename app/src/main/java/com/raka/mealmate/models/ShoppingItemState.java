@@ -0,0 +1,35 @@
+package com.raka.mealmate.models;
+
+/**
+ * What the user changed on a shopping list item: its price and whether it was
+ * bought. Stored per item key so the edits survive the list being reopened.
+ */
+public class ShoppingItemState {
+    private double price;
+    private boolean purchased;
+
+    // Required empty constructor for Firebase
+    public ShoppingItemState() {
+    }
+
+    public ShoppingItemState(double price, boolean purchased) {
+        this.price = price;
+        this.purchased = purchased;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public boolean isPurchased() {
+        return purchased;
+    }
+
+    public void setPurchased(boolean purchased) {
+        this.purchased = purchased;
+    }
+}
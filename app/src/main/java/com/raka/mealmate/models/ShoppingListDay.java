@@ -0,0 +1,42 @@
+package com.raka.mealmate.models;
+
+import com.google.firebase.database.Exclude;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The materialized shopping list for one day: ingredient totals keyed by item
+ * key, plus a ledger of the meal plans already applied and exactly what each
+ * one contributed, so adds and removes can be replayed safely.
+ */
+public class ShoppingListDay {
+    private Map<String, ShoppingListEntry> items = new HashMap<>();
+    private Map<String, Map<String, Double>> applied = new HashMap<>();
+
+    // Required empty constructor for Firebase
+    public ShoppingListDay() {
+    }
+
+    public Map<String, ShoppingListEntry> getItems() {
+        return items;
+    }
+
+    public void setItems(Map<String, ShoppingListEntry> items) {
+        this.items = items != null ? items : new HashMap<>();
+    }
+
+    // Meal plan id -> (item key -> base amount contributed)
+    public Map<String, Map<String, Double>> getApplied() {
+        return applied;
+    }
+
+    public void setApplied(Map<String, Map<String, Double>> applied) {
+        this.applied = applied != null ? applied : new HashMap<>();
+    }
+
+    @Exclude
+    public boolean isEmpty() {
+        return items.isEmpty() && applied.isEmpty();
+    }
+}
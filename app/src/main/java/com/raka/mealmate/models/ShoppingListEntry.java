@@ -0,0 +1,64 @@
+package com.raka.mealmate.models;
+
+/**
+ * One ingredient total inside a materialized shopping list day. The amount is
+ * in the unit's base quantity (g, ml, pieces or the unit's own label).
+ */
+public class ShoppingListEntry {
+    private String name;
+    private String category;
+    private String unit;
+    private double amount;
+    private int meals;
+
+    // Required empty constructor for Firebase
+    public ShoppingListEntry() {
+    }
+
+    public ShoppingListEntry(String name, String category, String unit) {
+        this.name = name;
+        this.category = category;
+        this.unit = unit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    // Number of applied meal plans contributing to this entry
+    public int getMeals() {
+        return meals;
+    }
+
+    public void setMeals(int meals) {
+        this.meals = meals;
+    }
+}
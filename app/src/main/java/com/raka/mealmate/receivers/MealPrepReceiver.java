@@ -11,6 +11,7 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ValueEventListener;
+import com.raka.mealmate.helpers.MealPlanCodec;
 import com.raka.mealmate.helpers.NotificationHelper;
 import com.raka.mealmate.models.MealPlan;
 
@@ -89,7 +90,7 @@ MealPrepReceiver extends BroadcastReceiver {
                 if (dataSnapshot.exists()) {
                     Log.d(TAG, "Found meal plans for today, rescheduling...");
                     for (DataSnapshot mealSnapshot : dataSnapshot.getChildren()) {
-                        MealPlan mealPlan = mealSnapshot.getValue(MealPlan.class);
+                        MealPlan mealPlan = MealPlanCodec.fromMap(mealSnapshot.getKey(), mealSnapshot.getValue());
                         if (mealPlan != null) {
                             NotificationHelper.scheduleMealPrepReminder(context, mealPlan);
                             Log.d(TAG, "Rescheduled notification for: " + mealPlan.getRecipeName());
@@ -0,0 +1,247 @@
+package com.raka.mealmate.repositories;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Aggregate counters kept next to the data they count, so screens read one
+ * integer instead of downloading the whole collection:
+ *
+ * counters/global/recipes          - recipes in the database
+ * counters/global/stores           - stores
+ * counters/users/{uid}/mealPlans   - the user's planned meals
+ *
+ * Each counter node holds {count, backfilled}. A counted write runs as a
+ * transaction on the item, which decides whether it creates, replaces or
+ * removes the item; only a committed creation or removal then applies
+ * ServerValue.increment to the count, so concurrent writers never count the
+ * same item twice. Increments may reach a counter before it was ever
+ * counted; until the first observer has counted the items from scratch and
+ * set backfilled, the count is not trusted.
+ */
+public class CounterRepository {
+    private static final String TAG = "CounterRepository";
+    private static final String COUNTERS_NODE = "counters";
+    private static final String COUNT = "count";
+    private static final String BACKFILLED = "backfilled";
+
+    public static final String RECIPES = "recipes";
+    public static final String STORES = "stores";
+    public static final String MEAL_PLANS = "mealPlans";
+
+    // Root-relative path of the recipe counter, for multi-path updates
+    public static final String RECIPES_COUNTER_PATH = COUNTERS_NODE + "/global/" + RECIPES;
+
+    private static CounterRepository instance;
+
+    private final DatabaseReference rootRef;
+
+    public static synchronized CounterRepository getInstance() {
+        if (instance == null) {
+            instance = new CounterRepository(FirebaseDatabase.getInstance().getReference());
+        }
+        return instance;
+    }
+
+    public CounterRepository(DatabaseReference rootRef) {
+        this.rootRef = rootRef;
+    }
+
+    // Interface for counter value callbacks
+    public interface CounterListener {
+        void onCount(long count);
+        void onError(Exception error);
+    }
+
+    // Handle for a live subscription
+    public interface Registration {
+        void remove();
+    }
+
+    public DatabaseReference globalCounter(String name) {
+        return rootRef.child(COUNTERS_NODE).child("global").child(name);
+    }
+
+    public DatabaseReference userCounter(String userId, String name) {
+        return rootRef.child(COUNTERS_NODE).child("users").child(userId).child(name);
+    }
+
+    /**
+     * Write the item and count it if it did not exist yet. The task's result
+     * tells whether the item was created.
+     */
+    public Task<Boolean> setCounted(DatabaseReference itemRef, Object value, DatabaseReference counterRef) {
+        return writeCounted(itemRef, value, counterRef, false);
+    }
+
+    /**
+     * Create the item and count it, leaving an existing item untouched. The
+     * task's result tells whether the item was created.
+     */
+    public Task<Boolean> addCounted(DatabaseReference itemRef, Object value, DatabaseReference counterRef) {
+        return writeCounted(itemRef, value, counterRef, true);
+    }
+
+    /**
+     * Remove the item and uncount it if it existed. The task's result tells
+     * whether there was anything to remove.
+     */
+    public Task<Boolean> removeCounted(DatabaseReference itemRef, DatabaseReference counterRef) {
+        return writeCounted(itemRef, null, counterRef, false);
+    }
+
+    /**
+     * Observe one counter. Until it has been counted, sourceRef is downloaded
+     * once and its items counted; depth 1 counts children, depth 2 counts
+     * grandchildren, e.g. meal plans grouped by date.
+     */
+    public Registration observe(DatabaseReference counterRef, DatabaseReference sourceRef, int depth,
+                                CounterListener listener) {
+        ValueEventListener valueListener = new ValueEventListener() {
+            private boolean backfillStarted;
+
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (isBackfilled(snapshot)) {
+                    // A counter that is reset later is counted again
+                    backfillStarted = false;
+                    Long count = snapshot.child(COUNT).getValue(Long.class);
+                    listener.onCount(count != null ? Math.max(0, count) : 0);
+                } else if (!backfillStarted) {
+                    backfillStarted = true;
+                    backfill(counterRef, sourceRef, depth);
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+        counterRef.addValueEventListener(valueListener);
+        return () -> counterRef.removeEventListener(valueListener);
+    }
+
+    private Task<Boolean> writeCounted(DatabaseReference itemRef, Object value, DatabaseReference counterRef,
+                                       boolean keepExisting) {
+        TaskCompletionSource<Long> taskCompletionSource = new TaskCompletionSource<>();
+        // Transactions may run several times; the last run is the one committed
+        boolean[] existed = new boolean[1];
+        itemRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                existed[0] = currentData.getValue() != null;
+                if (!writes(existed[0], keepExisting)) {
+                    return Transaction.abort();
+                }
+                currentData.setValue(value);
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    taskCompletionSource.setException(error.toException());
+                } else {
+                    // An aborted write left an existing item in place
+                    taskCompletionSource.setResult(committed ? countChange(existed[0], value == null) : 0L);
+                }
+            }
+        });
+        return taskCompletionSource.getTask().onSuccessTask(delta -> {
+            if (delta == 0) {
+                return Tasks.forResult(false);
+            }
+            // The item is written either way; a failed increment is only logged
+            return counterRef.child(COUNT).setValue(ServerValue.increment(delta))
+                    .continueWith(increment -> {
+                        if (!increment.isSuccessful()) {
+                            Log.e(TAG, "Counter update failed for " + counterRef.getKey(), increment.getException());
+                        }
+                        return true;
+                    });
+        });
+    }
+
+    /**
+     * Whether a counted write goes ahead: an existing item is only kept by addCounted
+     */
+    static boolean writes(boolean existed, boolean keepExisting) {
+        return !existed || !keepExisting;
+    }
+
+    /**
+     * How a counted write changes the count: 1 when it creates the item, -1
+     * when it removes it, 0 when it replaces it or removes nothing
+     */
+    static long countChange(boolean existed, boolean removing) {
+        if (removing) {
+            return existed ? -1 : 0;
+        }
+        return existed ? 0 : 1;
+    }
+
+    private void backfill(DatabaseReference counterRef, DatabaseReference sourceRef, int depth) {
+        Log.d(TAG, "Backfilling counter " + counterRef.getKey());
+        sourceRef.get().addOnCompleteListener(task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                Log.e(TAG, "Counter backfill failed for " + counterRef.getKey(), task.getException());
+                return;
+            }
+            long count = countItems(task.getResult(), depth);
+            // Only set it if nobody else backfilled in the meantime. Increments
+            // that arrived before the source was read are part of the count and
+            // are replaced; a write that lands between that read and this commit
+            // is missed until the counter is reset and counted again.
+            counterRef.runTransaction(new Transaction.Handler() {
+                @NonNull
+                @Override
+                public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                    if (!Boolean.TRUE.equals(currentData.child(BACKFILLED).getValue(Boolean.class))) {
+                        Map<String, Object> counter = new HashMap<>();
+                        counter.put(COUNT, count);
+                        counter.put(BACKFILLED, true);
+                        currentData.setValue(counter);
+                    }
+                    return Transaction.success(currentData);
+                }
+
+                @Override
+                public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                    if (error != null) {
+                        Log.e(TAG, "Counter backfill failed for " + counterRef.getKey() + ": " + error.getMessage());
+                    }
+                }
+            });
+        });
+    }
+
+    private static boolean isBackfilled(DataSnapshot counter) {
+        return Boolean.TRUE.equals(counter.child(BACKFILLED).getValue(Boolean.class));
+    }
+
+    private static long countItems(DataSnapshot snapshot, int depth) {
+        if (depth <= 1) {
+            return snapshot.getChildrenCount();
+        }
+        long count = 0;
+        for (DataSnapshot child : snapshot.getChildren()) {
+            count += countItems(child, depth - 1);
+        }
+        return count;
+    }
+}
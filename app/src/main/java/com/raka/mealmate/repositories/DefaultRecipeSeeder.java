@@ -0,0 +1,111 @@
+package com.raka.mealmate.repositories;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the bundled default recipes to the recipe repository once per catalog
+ * version. Defaults use deterministic keys derived from their titles, so
+ * seeding is idempotent and the node never grows with duplicate copies.
+ */
+public class DefaultRecipeSeeder {
+    private static final String TAG = "DefaultRecipeSeeder";
+
+    // Bump when the bundled default recipes change
+    public static final int SEED_VERSION = 1;
+    public static final String KEY_PREFIX = "default_";
+
+    private static final String PREFS_NAME = "recipe_seed";
+    private static final String PREF_SEED_VERSION = "seed_version";
+
+    private final RecipeRepository recipeRepository;
+    private final SharedPreferences prefs;
+
+    public DefaultRecipeSeeder(Context context, RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Deterministic database key for a default recipe, e.g. "default_chicken_stir_fry"
+     */
+    public static String keyFor(String title) {
+        StringBuilder key = new StringBuilder(KEY_PREFIX);
+        boolean lastWasSeparator = true;
+        for (char c : title.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+                lastWasSeparator = false;
+            } else if (!lastWasSeparator) {
+                key.append('_');
+                lastWasSeparator = true;
+            }
+        }
+        int end = key.length();
+        while (end > KEY_PREFIX.length() && key.charAt(end - 1) == '_') {
+            end--;
+        }
+        return key.substring(0, end);
+    }
+
+    public static boolean isDefaultKey(String recipeId) {
+        return recipeId != null && recipeId.startsWith(KEY_PREFIX);
+    }
+
+    /**
+     * Seed the defaults unless this device or the database already has the current version.
+     * The local flag means the check costs nothing after the first successful run.
+     */
+    public void seedIfNeeded(List<Recipe> defaultRecipes) {
+        if (prefs.getInt(PREF_SEED_VERSION, 0) >= SEED_VERSION) {
+            return;
+        }
+
+        recipeRepository.getDefaultSeedVersion(new RecipeRepository.Callback<Integer>() {
+            @Override
+            public void onSuccess(Integer remoteVersion) {
+                if (remoteVersion >= SEED_VERSION) {
+                    markSeeded();
+                    return;
+                }
+                writeDefaults(defaultRecipes);
+            }
+
+            @Override
+            public void onFailure(Exception error) {
+                Log.e(TAG, "Could not read seed version", error);
+            }
+        });
+    }
+
+    private void writeDefaults(List<Recipe> defaultRecipes) {
+        for (Recipe recipe : defaultRecipes) {
+            if (!isDefaultKey(recipe.getId())) {
+                recipe.setId(keyFor(recipe.getTitle()));
+            }
+        }
+
+        recipeRepository.seedDefaultRecipes(defaultRecipes, SEED_VERSION, new RecipeRepository.Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                Log.d(TAG, "Seeded " + defaultRecipes.size() + " default recipes (v" + SEED_VERSION + ")");
+                markSeeded();
+            }
+
+            @Override
+            public void onFailure(Exception error) {
+                Log.e(TAG, "Failed to seed default recipes", error);
+            }
+        });
+    }
+
+    private void markSeeded() {
+        prefs.edit().putInt(PREF_SEED_VERSION, SEED_VERSION).apply();
+    }
+}
@@ -0,0 +1,211 @@
+package com.raka.mealmate.repositories;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.raka.mealmate.helpers.RecipeCodec;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecipeRepository backed by the Firebase Realtime Database. Callbacks are
+ * delivered on the main thread by the Firebase SDK.
+ */
+public class FirebaseRecipeRepository implements RecipeRepository {
+    private static final String TAG = "FirebaseRecipeRepository";
+    private static final String RECIPES_NODE = "recipes";
+    private static final String FEATURED_NODE = "premium_recipes";
+    private static final String META_NODE = "recipesMeta";
+    private static final String SEED_VERSION_NODE = "defaultSeedVersion";
+
+    private static FirebaseRecipeRepository instance;
+
+    private final DatabaseReference rootRef;
+    private final DatabaseReference recipesRef;
+    private final CounterRepository counters;
+
+    public static synchronized FirebaseRecipeRepository getInstance() {
+        if (instance == null) {
+            instance = new FirebaseRecipeRepository(FirebaseDatabase.getInstance().getReference());
+        }
+        return instance;
+    }
+
+    public FirebaseRecipeRepository(DatabaseReference rootRef) {
+        this.rootRef = rootRef;
+        this.recipesRef = rootRef.child(RECIPES_NODE);
+        this.counters = new CounterRepository(rootRef);
+    }
+
+    @Override
+    public Registration addRecipeEventListener(RecipeEventListener listener) {
+        ChildEventListener childListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                Recipe recipe = parse(snapshot);
+                if (recipe != null) {
+                    listener.onRecipeAdded(recipe);
+                }
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                Recipe recipe = parse(snapshot);
+                if (recipe != null) {
+                    listener.onRecipeChanged(recipe);
+                }
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                listener.onRecipeRemoved(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Order is not part of the event stream
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Recipe listener cancelled: " + error.getMessage());
+                listener.onError(error.toException());
+            }
+        };
+        recipesRef.addChildEventListener(childListener);
+
+        // A value event fires after the child events for the same data, which
+        // marks the end of the initial load. It is served from the local cache.
+        ValueEventListener initialLoadListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                listener.onInitialLoadComplete();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+        recipesRef.addListenerForSingleValueEvent(initialLoadListener);
+
+        return () -> {
+            recipesRef.removeEventListener(childListener);
+            recipesRef.removeEventListener(initialLoadListener);
+        };
+    }
+
+    @Override
+    public Registration observeFeaturedRecipes(int limit, Callback<List<Recipe>> callback) {
+        Query query = rootRef.child(FEATURED_NODE).orderByChild("rating").limitToLast(limit);
+        ValueEventListener valueListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                List<Recipe> recipes = new ArrayList<>();
+                for (DataSnapshot recipeSnapshot : snapshot.getChildren()) {
+                    Recipe recipe = parse(recipeSnapshot);
+                    if (recipe != null) {
+                        recipes.add(recipe);
+                    }
+                }
+                // Firebase returns ascending order; callers want the best first
+                Collections.sort(recipes, (r1, r2) -> Float.compare(r2.getRating(), r1.getRating()));
+                callback.onSuccess(recipes);
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                callback.onFailure(error.toException());
+            }
+        };
+        query.addValueEventListener(valueListener);
+        return () -> query.removeEventListener(valueListener);
+    }
+
+    @Override
+    public Registration observeRecipeCount(Callback<Integer> callback) {
+        // Reads the maintained counter instead of downloading every recipe
+        CounterRepository.Registration registration = counters.observe(
+                counters.globalCounter(CounterRepository.RECIPES), recipesRef, 1,
+                new CounterRepository.CounterListener() {
+                    @Override
+                    public void onCount(long count) {
+                        callback.onSuccess((int) count);
+                    }
+
+                    @Override
+                    public void onError(Exception error) {
+                        callback.onFailure(error);
+                    }
+                });
+        return registration::remove;
+    }
+
+    @Override
+    public void saveRecipe(Recipe recipe, Callback<Void> callback) {
+        if (recipe.getId() == null) {
+            recipe.setId(recipesRef.push().getKey());
+        }
+        counters.setCounted(recipesRef.child(recipe.getId()), recipe, counters.globalCounter(CounterRepository.RECIPES))
+                .addOnSuccessListener(created -> callback.onSuccess(null))
+                .addOnFailureListener(callback::onFailure);
+    }
+
+    @Override
+    public void deleteRecipe(String recipeId, Callback<Void> callback) {
+        counters.removeCounted(recipesRef.child(recipeId), counters.globalCounter(CounterRepository.RECIPES))
+                .addOnSuccessListener(removed -> callback.onSuccess(null))
+                .addOnFailureListener(callback::onFailure);
+    }
+
+    @Override
+    public void getDefaultSeedVersion(Callback<Integer> callback) {
+        rootRef.child(META_NODE).child(SEED_VERSION_NODE).get().addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                callback.onFailure(task.getException());
+                return;
+            }
+            Integer version = task.getResult() != null ? task.getResult().getValue(Integer.class) : null;
+            callback.onSuccess(version != null ? version : 0);
+        });
+    }
+
+    @Override
+    public void seedDefaultRecipes(List<Recipe> defaultRecipes, int version, Callback<Void> callback) {
+        // One atomic multi-path update: every default plus the version marker
+        Map<String, Object> updates = new HashMap<>();
+        for (Recipe recipe : defaultRecipes) {
+            updates.put(RECIPES_NODE + "/" + recipe.getId(), recipe);
+        }
+        updates.put(META_NODE + "/" + SEED_VERSION_NODE, version);
+        // Some defaults may be new; drop the counter so it is counted again
+        updates.put(CounterRepository.RECIPES_COUNTER_PATH, null);
+
+        rootRef.updateChildren(updates)
+                .addOnSuccessListener(aVoid -> callback.onSuccess(null))
+                .addOnFailureListener(callback::onFailure);
+    }
+
+    private Recipe parse(DataSnapshot snapshot) {
+        // Mapped by hand; unreadable fields fall back to defaults instead of throwing
+        Recipe recipe = RecipeCodec.fromMap(snapshot.getKey(), snapshot.getValue());
+        if (recipe == null) {
+            Log.e(TAG, "Skipping malformed recipe " + snapshot.getKey());
+        }
+        return recipe;
+    }
+}
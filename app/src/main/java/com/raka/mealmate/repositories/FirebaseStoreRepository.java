@@ -0,0 +1,104 @@
+package com.raka.mealmate.repositories;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.raka.mealmate.models.Store;
+
+/**
+ * StoreRepository backed by the Firebase Realtime Database. Callbacks are
+ * delivered on the main thread by the Firebase SDK.
+ */
+public class FirebaseStoreRepository implements StoreRepository {
+    private static final String TAG = "FirebaseStoreRepository";
+    private static final String STORES_NODE = "stores";
+
+    private final DatabaseReference storesRef;
+
+    public FirebaseStoreRepository() {
+        this(FirebaseDatabase.getInstance().getReference());
+    }
+
+    public FirebaseStoreRepository(DatabaseReference rootRef) {
+        this.storesRef = rootRef.child(STORES_NODE);
+    }
+
+    @Override
+    public Registration addStoreEventListener(StoreEventListener listener) {
+        ChildEventListener childListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                Store store = parse(snapshot);
+                if (store != null) {
+                    listener.onStoreAdded(store);
+                }
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                Store store = parse(snapshot);
+                if (store != null) {
+                    listener.onStoreChanged(store);
+                }
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                listener.onStoreRemoved(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Order is not part of the event stream
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                Log.e(TAG, "Store listener cancelled: " + error.getMessage());
+                listener.onError(error.toException());
+            }
+        };
+        storesRef.addChildEventListener(childListener);
+
+        // A value event fires after the child events for the same data, which
+        // marks the end of the initial load
+        ValueEventListener initialLoadListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                listener.onInitialLoadComplete();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        };
+        storesRef.addListenerForSingleValueEvent(initialLoadListener);
+
+        return () -> {
+            storesRef.removeEventListener(childListener);
+            storesRef.removeEventListener(initialLoadListener);
+        };
+    }
+
+    private static Store parse(DataSnapshot snapshot) {
+        try {
+            Store store = snapshot.getValue(Store.class);
+            if (store != null) {
+                store.setId(snapshot.getKey());
+            }
+            return store;
+        } catch (Exception e) {
+            Log.e(TAG, "Skipping unreadable store " + snapshot.getKey(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * RecipeRepository held entirely in memory. Used for JVM tests and
+ * benchmarks of the filtering, aggregation and sync paths at large scale
+ * without a live backend. Callbacks run on the delivery executor, which is
+ * the calling thread by default.
+ */
+public class InMemoryRecipeRepository implements RecipeRepository {
+
+    private final Object lock = new Object();
+    private final Executor deliveryExecutor;
+    private final Map<String, Recipe> recipesById = new LinkedHashMap<>();
+    private final List<Recipe> featuredRecipes = new ArrayList<>();
+    private final List<RecipeEventListener> eventListeners = new CopyOnWriteArrayList<>();
+    private final List<Callback<Integer>> countObservers = new CopyOnWriteArrayList<>();
+    private final List<FeaturedObserver> featuredObservers = new CopyOnWriteArrayList<>();
+    private int seedVersion;
+    private long nextId;
+
+    private static final class FeaturedObserver {
+        final int limit;
+        final Callback<List<Recipe>> callback;
+
+        FeaturedObserver(int limit, Callback<List<Recipe>> callback) {
+            this.limit = limit;
+            this.callback = callback;
+        }
+    }
+
+    public InMemoryRecipeRepository() {
+        this(Runnable::run);
+    }
+
+    public InMemoryRecipeRepository(Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    @Override
+    public Registration addRecipeEventListener(RecipeEventListener listener) {
+        List<Recipe> existing;
+        synchronized (lock) {
+            existing = new ArrayList<>(recipesById.values());
+            eventListeners.add(listener);
+        }
+        deliveryExecutor.execute(() -> {
+            for (Recipe recipe : existing) {
+                listener.onRecipeAdded(recipe);
+            }
+            listener.onInitialLoadComplete();
+        });
+        return () -> eventListeners.remove(listener);
+    }
+
+    @Override
+    public Registration observeFeaturedRecipes(int limit, Callback<List<Recipe>> callback) {
+        FeaturedObserver observer = new FeaturedObserver(limit, callback);
+        featuredObservers.add(observer);
+        List<Recipe> featured = topFeatured(limit);
+        deliveryExecutor.execute(() -> callback.onSuccess(featured));
+        return () -> featuredObservers.remove(observer);
+    }
+
+    @Override
+    public Registration observeRecipeCount(Callback<Integer> callback) {
+        countObservers.add(callback);
+        int count = getRecipeCount();
+        deliveryExecutor.execute(() -> callback.onSuccess(count));
+        return () -> countObservers.remove(callback);
+    }
+
+    @Override
+    public void saveRecipe(Recipe recipe, Callback<Void> callback) {
+        putRecipe(recipe);
+        deliveryExecutor.execute(() -> callback.onSuccess(null));
+    }
+
+    @Override
+    public void deleteRecipe(String recipeId, Callback<Void> callback) {
+        boolean removed;
+        int count;
+        synchronized (lock) {
+            removed = recipesById.remove(recipeId) != null;
+            count = recipesById.size();
+        }
+        if (removed) {
+            deliveryExecutor.execute(() -> {
+                for (RecipeEventListener listener : eventListeners) {
+                    listener.onRecipeRemoved(recipeId);
+                }
+            });
+            notifyCount(count);
+        }
+        deliveryExecutor.execute(() -> callback.onSuccess(null));
+    }
+
+    @Override
+    public void getDefaultSeedVersion(Callback<Integer> callback) {
+        int version;
+        synchronized (lock) {
+            version = seedVersion;
+        }
+        deliveryExecutor.execute(() -> callback.onSuccess(version));
+    }
+
+    @Override
+    public void seedDefaultRecipes(List<Recipe> defaultRecipes, int version, Callback<Void> callback) {
+        putRecipes(defaultRecipes);
+        synchronized (lock) {
+            seedVersion = version;
+        }
+        deliveryExecutor.execute(() -> callback.onSuccess(null));
+    }
+
+    /**
+     * Insert or replace a recipe, notifying listeners as a remote write would
+     */
+    public void putRecipe(Recipe recipe) {
+        putRecipes(Collections.singletonList(recipe));
+    }
+
+    /**
+     * Bulk insert for loading large data sets; listeners see one event per recipe
+     */
+    public void putRecipes(Collection<Recipe> recipes) {
+        List<Recipe> added = new ArrayList<>();
+        List<Recipe> changed = new ArrayList<>();
+        int count;
+        synchronized (lock) {
+            for (Recipe recipe : recipes) {
+                if (recipe.getId() == null) {
+                    recipe.setId("recipe_" + (nextId++));
+                }
+                if (recipesById.put(recipe.getId(), recipe) == null) {
+                    added.add(recipe);
+                } else {
+                    changed.add(recipe);
+                }
+            }
+            count = recipesById.size();
+        }
+        if (!eventListeners.isEmpty()) {
+            deliveryExecutor.execute(() -> {
+                for (RecipeEventListener listener : eventListeners) {
+                    for (Recipe recipe : added) {
+                        listener.onRecipeAdded(recipe);
+                    }
+                    for (Recipe recipe : changed) {
+                        listener.onRecipeChanged(recipe);
+                    }
+                }
+            });
+        }
+        if (!added.isEmpty()) {
+            notifyCount(count);
+        }
+    }
+
+    public void setFeaturedRecipes(List<Recipe> recipes) {
+        synchronized (lock) {
+            featuredRecipes.clear();
+            featuredRecipes.addAll(recipes);
+        }
+        for (FeaturedObserver observer : featuredObservers) {
+            List<Recipe> featured = topFeatured(observer.limit);
+            deliveryExecutor.execute(() -> observer.callback.onSuccess(featured));
+        }
+    }
+
+    public Recipe getRecipe(String recipeId) {
+        synchronized (lock) {
+            return recipesById.get(recipeId);
+        }
+    }
+
+    public int getRecipeCount() {
+        synchronized (lock) {
+            return recipesById.size();
+        }
+    }
+
+    private List<Recipe> topFeatured(int limit) {
+        List<Recipe> sorted;
+        synchronized (lock) {
+            sorted = new ArrayList<>(featuredRecipes);
+        }
+        Collections.sort(sorted, (r1, r2) -> Float.compare(r2.getRating(), r1.getRating()));
+        return new ArrayList<>(sorted.subList(0, Math.min(limit, sorted.size())));
+    }
+
+    private void notifyCount(int count) {
+        for (Callback<Integer> observer : countObservers) {
+            deliveryExecutor.execute(() -> observer.onSuccess(count));
+        }
+    }
+}
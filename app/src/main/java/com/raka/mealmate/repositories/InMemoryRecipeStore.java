@@ -0,0 +1,164 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * RecipeStore kept in memory with the same indexes and RecipeRow encoding as
+ * SqliteRecipeStore, so the repository layer can be tested on the JVM.
+ */
+public class InMemoryRecipeStore implements RecipeStore {
+
+    // Rows are stored encoded, so callers get fresh copies just like from a database
+    private static final class Row {
+        final String id;
+        final String titleKey;
+        final String category;
+        final float rating;
+        final byte[] body;
+
+        Row(RecipeRow row) {
+            this.id = row.id;
+            this.titleKey = row.title.toLowerCase(Locale.ROOT);
+            this.category = row.category;
+            this.rating = row.rating;
+            this.body = row.body;
+        }
+    }
+
+    private static final Comparator<Row> BY_TITLE = (a, b) -> {
+        int result = a.titleKey.compareTo(b.titleKey);
+        return result != 0 ? result : a.id.compareTo(b.id);
+    };
+
+    private static final Comparator<Row> BY_RATING = (a, b) -> {
+        int result = Float.compare(b.rating, a.rating);
+        return result != 0 ? result : BY_TITLE.compare(a, b);
+    };
+
+    private final Map<String, Row> rowsById = new HashMap<>();
+    private final TreeSet<Row> titleIndex = new TreeSet<>(BY_TITLE);
+    private final TreeSet<Row> ratingIndex = new TreeSet<>(BY_RATING);
+    private final Map<String, TreeSet<Row>> categoryIndex = new TreeMap<>();
+
+    @Override
+    public synchronized List<Recipe> getAll() {
+        return decode(titleIndex, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized List<Recipe> getByCategory(String category) {
+        TreeSet<Row> rows = categoryIndex.get(category);
+        return rows != null ? decode(rows, Integer.MAX_VALUE) : new ArrayList<>();
+    }
+
+    @Override
+    public synchronized List<Recipe> getTopRated(int limit) {
+        return decode(ratingIndex, limit);
+    }
+
+    @Override
+    public synchronized Recipe get(String recipeId) {
+        Row row = rowsById.get(recipeId);
+        return row != null ? decode(row) : null;
+    }
+
+    @Override
+    public synchronized int count() {
+        return rowsById.size();
+    }
+
+    @Override
+    public synchronized void upsert(Recipe recipe) {
+        RecipeRow recipeRow = RecipeRow.of(recipe);
+        if (recipeRow == null) {
+            return;
+        }
+        Row row = new Row(recipeRow);
+        removeRow(row.id);
+        rowsById.put(row.id, row);
+        titleIndex.add(row);
+        ratingIndex.add(row);
+        TreeSet<Row> categoryRows = categoryIndex.get(row.category);
+        if (categoryRows == null) {
+            categoryRows = new TreeSet<>(BY_TITLE);
+            categoryIndex.put(row.category, categoryRows);
+        }
+        categoryRows.add(row);
+    }
+
+    @Override
+    public synchronized void upsertAll(Collection<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            upsert(recipe);
+        }
+    }
+
+    @Override
+    public synchronized void delete(String recipeId) {
+        removeRow(recipeId);
+    }
+
+    @Override
+    public synchronized void replaceAll(Collection<Recipe> recipes) {
+        Set<String> keep = new HashSet<>();
+        for (Recipe recipe : recipes) {
+            if (recipe.getId() != null) {
+                keep.add(recipe.getId());
+            }
+        }
+        for (String recipeId : new ArrayList<>(rowsById.keySet())) {
+            if (!keep.contains(recipeId)) {
+                removeRow(recipeId);
+            }
+        }
+        upsertAll(recipes);
+    }
+
+    private void removeRow(String recipeId) {
+        Row old = rowsById.remove(recipeId);
+        if (old == null) {
+            return;
+        }
+        titleIndex.remove(old);
+        ratingIndex.remove(old);
+        TreeSet<Row> categoryRows = categoryIndex.get(old.category);
+        if (categoryRows != null) {
+            categoryRows.remove(old);
+            if (categoryRows.isEmpty()) {
+                categoryIndex.remove(old.category);
+            }
+        }
+    }
+
+    private static List<Recipe> decode(Collection<Row> rows, int limit) {
+        List<Recipe> recipes = new ArrayList<>(Math.min(rows.size(), limit));
+        for (Row row : rows) {
+            if (recipes.size() >= limit) {
+                break;
+            }
+            recipes.add(decode(row));
+        }
+        return recipes;
+    }
+
+    private static Recipe decode(Row row) {
+        try {
+            return RecipeRow.decode(row.body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not decode recipe " + row.id, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Store;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StoreCache kept in memory, so the sync engine can be tested on the JVM.
+ * Stores are copied in and out just like rows of a database.
+ */
+public class InMemoryStoreCache implements StoreCache {
+
+    private final Map<String, Store> rows = new LinkedHashMap<>();
+
+    @Override
+    public synchronized List<Store> getAll() {
+        List<Store> stores = new ArrayList<>(rows.size());
+        for (Store row : rows.values()) {
+            stores.add(copy(row));
+        }
+        return stores;
+    }
+
+    @Override
+    public synchronized void upsert(Store store) {
+        if (store.getId() != null) {
+            rows.put(store.getId(), copy(store));
+        }
+    }
+
+    @Override
+    public synchronized void delete(String storeId) {
+        rows.remove(storeId);
+    }
+
+    @Override
+    public synchronized void replaceAll(Collection<Store> stores) {
+        rows.clear();
+        for (Store store : stores) {
+            upsert(store);
+        }
+    }
+
+    private static Store copy(Store store) {
+        return new Store(store.getId(), store.getName(), store.getAddress(), store.getLatitude(),
+                store.getLongitude(), store.getStoreType(), store.getNotes(),
+                new ArrayList<>(store.getAvailableItems()));
+    }
+}
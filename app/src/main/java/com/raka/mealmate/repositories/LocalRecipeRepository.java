@@ -0,0 +1,64 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.RecipeClassifier;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Offline-first access to recipes. Reads come straight from the local
+ * RecipeStore so the browser has content before Firebase answers; the sync
+ * engine's results are written back through reconcile(), save() and remove().
+ * All store access runs on one background executor, so writes and reads
+ * are applied in the order they were issued.
+ */
+public class LocalRecipeRepository {
+
+    private final RecipeStore store;
+    private final Executor ioExecutor;
+    private final Executor deliveryExecutor;
+
+    // Interface for cached recipe callbacks, delivered on the delivery executor
+    public interface CachedRecipesListener {
+        void onCachedRecipesLoaded(List<Recipe> recipes, long elapsedMs);
+    }
+
+    public LocalRecipeRepository(RecipeStore store, Executor ioExecutor, Executor deliveryExecutor) {
+        this.store = store;
+        this.ioExecutor = ioExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Read every stored recipe, classified and ready to display. The elapsed
+     * time covers the whole read, from this call until delivery.
+     */
+    public void loadCached(CachedRecipesListener listener) {
+        long startNanos = System.nanoTime();
+        ioExecutor.execute(() -> {
+            List<Recipe> recipes = store.getAll();
+            RecipeClassifier.classifyAll(recipes);
+            deliveryExecutor.execute(() -> listener.onCachedRecipesLoaded(recipes,
+                    (System.nanoTime() - startNanos) / 1_000_000L));
+        });
+    }
+
+    /**
+     * Replace the stored recipes with a complete remote snapshot
+     */
+    public void reconcile(Collection<Recipe> remoteRecipes) {
+        List<Recipe> snapshot = new ArrayList<>(remoteRecipes);
+        ioExecutor.execute(() -> store.replaceAll(snapshot));
+    }
+
+    public void save(Recipe recipe) {
+        ioExecutor.execute(() -> store.upsert(recipe));
+    }
+
+    public void remove(String recipeId) {
+        ioExecutor.execute(() -> store.delete(recipeId));
+    }
+}
@@ -0,0 +1,86 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.RecipeCodec;
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.Recipe;
+
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Several meal plans prepared for writing: each plan normalized and keyed by
+ * its slot, grouped by day with a later plan for the same slot replacing an
+ * earlier one, plus a multi-path update of the recipe versions not stored yet.
+ */
+final class MealPlanBatch {
+
+    // Interface for telling whether a recipe version is already stored
+    interface StoredRecipes {
+        boolean contains(String recipeId, long version);
+    }
+
+    final Map<String, Object> recipeUpdates = new HashMap<>();
+    final Map<String, Map<String, MealPlan>> slotsByDay = new LinkedHashMap<>();
+
+    private MealPlanBatch() {
+    }
+
+    static MealPlanBatch of(String userId, List<MealPlan> mealPlans, StoredRecipes storedRecipes) {
+        MealPlanBatch batch = new MealPlanBatch();
+        for (MealPlan mealPlan : mealPlans) {
+            String dateKey = dateKeyFor(mealPlan);
+            mealPlan.setUserId(userId);
+            normalize(mealPlan);
+            mealPlan.setId(slotKey(dateKey, mealPlan.getMealTime(), mealPlan.getRecipeId()));
+
+            Recipe recipe = mealPlan.getRecipe();
+            if (recipe != null && !storedRecipes.contains(mealPlan.getRecipeId(), mealPlan.getRecipeVersion())) {
+                batch.recipeUpdates.put(PlanRecipeCache.pathFor(userId, mealPlan.getRecipeId(),
+                        mealPlan.getRecipeVersion()), RecipeCodec.toMap(recipe));
+            }
+
+            Map<String, MealPlan> daySlots = batch.slotsByDay.get(dateKey);
+            if (daySlots == null) {
+                daySlots = new LinkedHashMap<>();
+                batch.slotsByDay.put(dateKey, daySlots);
+            }
+            daySlots.put(mealPlan.getId(), mealPlan);
+        }
+        return batch;
+    }
+
+    /**
+     * Deterministic key of a meal plan: one recipe per meal time per day
+     */
+    static String slotKey(String dateKey, String mealTime, String recipeId) {
+        return dateKey + "_" + mealTime + "_" + recipeId;
+    }
+
+    // Point the plan at its recipe's id and current version
+    static void normalize(MealPlan mealPlan) {
+        Recipe recipe = mealPlan.getRecipe();
+        if (recipe == null) {
+            return;
+        }
+        long version = RecipeCodec.version(recipe);
+        mealPlan.setRecipeVersion(version);
+        if (mealPlan.getRecipeId() == null || mealPlan.getRecipeId().isEmpty()) {
+            mealPlan.setRecipeId(PlanRecipeCache.recipeIdFor(recipe, version));
+        }
+        if (mealPlan.getRecipeName() == null) {
+            mealPlan.setRecipeName(recipe.getTitle());
+        }
+    }
+
+    // The stored date key wins; older meal plans may only carry a dateTime
+    static String dateKeyFor(MealPlan mealPlan) {
+        if (mealPlan.getDate() != null && !mealPlan.getDate().isEmpty()) {
+            return mealPlan.getDate();
+        }
+        return new SimpleDateFormat("yyyyMMdd", Locale.getDefault()).format(mealPlan.getDateTime());
+    }
+}
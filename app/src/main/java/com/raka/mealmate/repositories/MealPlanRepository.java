@@ -3,86 +3,242 @@ package com.raka.mealmate.repositories;
 import android.util.Log;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.ValueEventListener;
+import com.raka.mealmate.helpers.DateWindow;
+import com.raka.mealmate.helpers.MealPlanCodec;
+import com.raka.mealmate.helpers.RecipeCodec;
 import com.raka.mealmate.models.MealPlan;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Meal plan reads and writes. Plans are stored normalized under
+ * mealPlans/{uid}/{yyyyMMdd}/{id}: they reference their recipe by id and
+ * version (see PlanRecipeCache) instead of embedding a copy of it, under
+ * a slot key made of date, meal time and recipe id.
+ * mealPlanSchema/{uid} records that a user's older plans were migrated.
+ */
 public class MealPlanRepository {
     private static final String TAG = "MealPlanRepository";
+    public static final int NORMALIZED_SCHEMA = 2;
+
+    private final DatabaseReference rootRef;
     private final DatabaseReference mealPlansRef;
+    private final ShoppingListRepository shoppingListRepository;
+    private final CounterRepository counters;
+    private final PlanRecipeCache planRecipes;
 
     public MealPlanRepository() {
-        mealPlansRef = FirebaseDatabase.getInstance().getReference().child("mealPlans");
+        rootRef = FirebaseDatabase.getInstance().getReference();
+        mealPlansRef = rootRef.child("mealPlans");
+        shoppingListRepository = new ShoppingListRepository();
+        counters = CounterRepository.getInstance();
+        planRecipes = PlanRecipeCache.getInstance();
     }
 
+    /**
+     * Adds the meal plan, counts it, and then adds its ingredients to the
+     * materialized shopping list. The recipe version is stored first, so a
+     * written plan always resolves. The plan then goes to its slot key in a
+     * transaction that leaves a plan already in that slot untouched, so a
+     * duplicate is detected without reading the day first and concurrent
+     * adds of the same slot count it once.
+     */
     public Task<Void> addMealPlan(MealPlan mealPlan) {
-        String dateKey = new SimpleDateFormat("yyyyMMdd", Locale.getDefault())
-                .format(mealPlan.getDateTime());
+        String dateKey = MealPlanBatch.dateKeyFor(mealPlan);
+        MealPlanBatch.normalize(mealPlan);
+        mealPlan.setId(MealPlanBatch.slotKey(dateKey, mealPlan.getMealTime(), mealPlan.getRecipeId()));
         
         Log.d(TAG, "Adding meal plan: " + mealPlan.getRecipeName());
-        Log.d(TAG, "Date key: " + dateKey);
-        Log.d(TAG, "Meal time: " + mealPlan.getMealTime());
+        Log.d(TAG, "Slot key: " + mealPlan.getId());
         
-        DatabaseReference dateRef = mealPlansRef
+        DatabaseReference slotRef = mealPlansRef
                 .child(mealPlan.getUserId())
-                .child(dateKey);
+                .child(dateKey)
+                .child(mealPlan.getId());
 
         TaskCompletionSource<Void> taskCompletionSource = new TaskCompletionSource<>();
 
-        // First check if this recipe already exists for this meal time
-        dateRef.get().addOnCompleteListener(task -> {
-            if (task.isSuccessful() && task.getResult() != null) {
-                boolean duplicateFound = false;
-                for (DataSnapshot mealSnapshot : task.getResult().getChildren()) {
-                    MealPlan existingMeal = mealSnapshot.getValue(MealPlan.class);
-                    if (existingMeal != null && 
-                        existingMeal.getRecipeName().equals(mealPlan.getRecipeName()) && 
-                        existingMeal.getMealTime().equals(mealPlan.getMealTime())) {
-                        duplicateFound = true;
+        Task<Void> recipeTask = mealPlan.getRecipe() != null
+                ? planRecipes.store(mealPlan.getUserId(), mealPlan.getRecipeId(),
+                        mealPlan.getRecipeVersion(), mealPlan.getRecipe())
+                : Tasks.forResult(null);
+        recipeTask.onSuccessTask(aVoid -> counters.addCounted(slotRef, MealPlanCodec.toMap(mealPlan),
+                        counters.userCounter(mealPlan.getUserId(), CounterRepository.MEAL_PLANS)))
+                .addOnSuccessListener(created -> {
+                    if (!created) {
                         Log.d(TAG, "Duplicate meal found, skipping add");
                         taskCompletionSource.setResult(null);
-                        break;
+                        return;
+                    }
+                    Log.d(TAG, "Meal plan added successfully");
+                    // The meal plan is saved either way; a failed delta marks the list for a rebuild
+                    shoppingListRepository.applyMealAdded(mealPlan.getUserId(), dateKey, mealPlan)
+                            .addOnCompleteListener(shoppingTask -> taskCompletionSource.setResult(null));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to add meal plan", e);
+                    taskCompletionSource.setException(e);
+                });
+
+        return taskCompletionSource.getTask();
+    }
+
+    /**
+     * Adds several meal plans, e.g. a whole week. The recipe versions not
+     * stored yet go up first in one multi-path update; then every slot is
+     * written with its own counted transaction, so nothing is read up front
+     * and a slot that was already taken is replaced without being counted
+     * again. A plan for the same slot later in the list wins.
+     */
+    public Task<Void> addMealPlans(String userId, List<MealPlan> mealPlans) {
+        if (mealPlans.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+        MealPlanBatch batch = MealPlanBatch.of(userId, mealPlans,
+                (recipeId, version) -> planRecipes.get(recipeId, version) != null);
+        Task<Void> recipesTask = batch.recipeUpdates.isEmpty()
+                ? Tasks.forResult(null) : rootRef.updateChildren(batch.recipeUpdates);
+
+        Log.d(TAG, "Adding " + mealPlans.size() + " meal plans over " + batch.slotsByDay.size() + " days");
+        return recipesTask.onSuccessTask(aVoid -> {
+            for (Map<String, MealPlan> daySlots : batch.slotsByDay.values()) {
+                for (MealPlan mealPlan : daySlots.values()) {
+                    if (mealPlan.getRecipe() != null) {
+                        planRecipes.put(mealPlan.getRecipeId(), mealPlan.getRecipeVersion(), mealPlan.getRecipe());
                     }
                 }
-                
-                if (!duplicateFound) {
-                    dateRef.child(mealPlan.getId())
-                          .setValue(mealPlan)
-                          .addOnSuccessListener(aVoid -> {
-                              Log.d(TAG, "Meal plan added successfully");
-                              taskCompletionSource.setResult(null);
-                          })
-                          .addOnFailureListener(e -> {
-                              Log.e(TAG, "Failed to add meal plan", e);
-                              taskCompletionSource.setException(e);
-                          });
+            }
+            DatabaseReference counterRef = counters.userCounter(userId, CounterRepository.MEAL_PLANS);
+            List<Task<Boolean>> slotWrites = new ArrayList<>();
+            for (Map.Entry<String, Map<String, MealPlan>> day : batch.slotsByDay.entrySet()) {
+                for (MealPlan mealPlan : day.getValue().values()) {
+                    slotWrites.add(counters.setCounted(mealPlansRef.child(userId).child(day.getKey())
+                            .child(mealPlan.getId()), MealPlanCodec.toMap(mealPlan), counterRef));
                 }
-            } else if (task.getException() != null) {
-                taskCompletionSource.setException(task.getException());
-            } else {
-                taskCompletionSource.setResult(null);
             }
+            return Tasks.whenAll(slotWrites);
+        }).onSuccessTask(aVoid -> {
+            List<Task<Void>> deltas = new ArrayList<>();
+            for (Map.Entry<String, Map<String, MealPlan>> day : batch.slotsByDay.entrySet()) {
+                deltas.add(shoppingListRepository.applyMealsPlanned(userId, day.getKey(),
+                        new ArrayList<>(day.getValue().values())));
+            }
+            // The meal plans are saved either way; a failed delta marks the list for a rebuild
+            return Tasks.whenAllComplete(deltas).continueWith(task -> (Void) null);
         });
-
-        return taskCompletionSource.getTask();
     }
 
+    /**
+     * Removes and uncounts the meal plan, then subtracts what it added to the
+     * shopping list
+     */
     public Task<Void> removeMealPlan(MealPlan mealPlan) {
-        String dateKey = new SimpleDateFormat("yyyyMMdd", Locale.getDefault())
-                .format(mealPlan.getDateTime());
+        String dateKey = MealPlanBatch.dateKeyFor(mealPlan);
         
         Log.d(TAG, "Removing meal plan: " + mealPlan.getRecipeName());
         
-        return mealPlansRef
+        DatabaseReference mealRef = mealPlansRef
                 .child(mealPlan.getUserId())
                 .child(dateKey)
-                .child(mealPlan.getId())
-                .removeValue();
+                .child(mealPlan.getId());
+        return counters.removeCounted(mealRef, counters.userCounter(mealPlan.getUserId(), CounterRepository.MEAL_PLANS))
+                .onSuccessTask(removed -> shoppingListRepository.applyMealRemoved(
+                                mealPlan.getUserId(), dateKey, mealPlan.getId())
+                        // The meal plan is removed either way; a failed delta marks the list for a rebuild
+                        .continueWith(shoppingTask -> (Void) null));
+    }
+
+    /**
+     * Observe how many meal plans the user has; counted once from the meal
+     * plans if the counter does not exist yet
+     */
+    public CounterRepository.Registration observeMealPlanCount(String userId,
+                                                               CounterRepository.CounterListener listener) {
+        return counters.observe(counters.userCounter(userId, CounterRepository.MEAL_PLANS),
+                mealPlansRef.child(userId), 2, listener);
+    }
+
+    /**
+     * One-time migration of plans that embed their recipe: every distinct
+     * recipe version is stored once and each plan is rewritten to reference
+     * it, all in one multi-path update together with the schema marker.
+     * The task's result is the number of plans rewritten.
+     */
+    public Task<Integer> migrateToNormalized(String userId) {
+        DatabaseReference schemaRef = rootRef.child("mealPlanSchema").child(userId);
+        return schemaRef.get().continueWithTask(schemaTask -> {
+            Integer schema = schemaTask.getResult() != null ? schemaTask.getResult().getValue(Integer.class) : null;
+            if (schema != null && schema >= NORMALIZED_SCHEMA) {
+                return Tasks.forResult(0);
+            }
+            return mealPlansRef.child(userId).get().continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                Map<String, Object> updates = new HashMap<>();
+                int migrated = 0;
+                for (DataSnapshot dateSnapshot : task.getResult().getChildren()) {
+                    for (DataSnapshot mealSnapshot : dateSnapshot.getChildren()) {
+                        Object value = mealSnapshot.getValue();
+                        if (!MealPlanCodec.isEmbedded(value)) {
+                            continue;
+                        }
+                        MealPlan mealPlan = MealPlanCodec.fromMap(mealSnapshot.getKey(), value);
+                        if (mealPlan == null || mealPlan.getRecipe() == null) {
+                            continue;
+                        }
+                        if (mealPlan.getUserId() == null) {
+                            mealPlan.setUserId(userId);
+                        }
+                        // Let normalize pick the id; the embedded one may be empty
+                        mealPlan.setRecipeId(null);
+                        MealPlanBatch.normalize(mealPlan);
+                        updates.put(PlanRecipeCache.pathFor(userId, mealPlan.getRecipeId(), mealPlan.getRecipeVersion()),
+                                RecipeCodec.toMap(mealPlan.getRecipe()));
+                        updates.put("mealPlans/" + userId + "/" + dateSnapshot.getKey() + "/" + mealSnapshot.getKey(),
+                                MealPlanCodec.toMap(mealPlan));
+                        migrated++;
+                    }
+                }
+                updates.put("mealPlanSchema/" + userId, NORMALIZED_SCHEMA);
+                int rewritten = migrated;
+                Log.d(TAG, "Normalizing " + rewritten + " meal plans for " + userId);
+                return rootRef.updateChildren(updates).continueWith(updateTask -> {
+                    if (!updateTask.isSuccessful()) {
+                        throw updateTask.getException();
+                    }
+                    return rewritten;
+                });
+            });
+        });
+    }
+
+    /**
+     * Meal plans whose date keys fall inside the window. The yyyyMMdd keys sort
+     * chronologically, so only the window's days are downloaded.
+     */
+    public Task<DataSnapshot> getMealPlansInWindow(String userId, DateWindow window) {
+        Log.d(TAG, "Fetching meal plans for " + window);
+        return windowQuery(userId, window).get();
+    }
+
+    /**
+     * The same key-range query, for a live listener on a whole week or month
+     */
+    public Query windowQuery(String userId, DateWindow window) {
+        return mealPlansRef
+                .child(userId)
+                .orderByKey()
+                .startAt(window.getStartKey())
+                .endAt(window.getEndKey());
     }
 }
\ No newline at end of file
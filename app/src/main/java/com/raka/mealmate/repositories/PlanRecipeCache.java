@@ -0,0 +1,157 @@
+package com.raka.mealmate.repositories;
+
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.raka.mealmate.helpers.RecipeCodec;
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.Recipe;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The recipes that normalized meal plans point at, stored once per user and
+ * recipe version instead of once per meal:
+ *
+ * planRecipes/{uid}/{recipeId}/{version in hex} - the recipe as planned
+ *
+ * A version is a content hash, so an entry never changes once written and
+ * the in-memory copies never go stale. The planned recipe may not be in the
+ * shared recipes collection at all, which is why plans do not point there.
+ */
+public class PlanRecipeCache {
+    private static final String TAG = "PlanRecipeCache";
+    private static final String PLAN_RECIPES_NODE = "planRecipes";
+    private static final int MAX_RECIPES = 200;
+
+    private static PlanRecipeCache instance;
+
+    private final DatabaseReference planRecipesRef;
+    private final Map<String, Recipe> recipes = new LinkedHashMap<String, Recipe>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Recipe> eldest) {
+            return size() > MAX_RECIPES;
+        }
+    };
+
+    public static synchronized PlanRecipeCache getInstance() {
+        if (instance == null) {
+            instance = new PlanRecipeCache(FirebaseDatabase.getInstance().getReference());
+        }
+        return instance;
+    }
+
+    public PlanRecipeCache(DatabaseReference rootRef) {
+        this.planRecipesRef = rootRef.child(PLAN_RECIPES_NODE);
+    }
+
+    /**
+     * The id a plan refers to: the recipe's own, or one derived from its
+     * content for recipes that were never saved
+     */
+    public static String recipeIdFor(Recipe recipe, long version) {
+        if (recipe.getId() != null && !recipe.getId().isEmpty()) {
+            return recipe.getId();
+        }
+        return "r" + Long.toHexString(version);
+    }
+
+    /**
+     * Root-relative path of one stored recipe version, for multi-path updates
+     */
+    public static String pathFor(String userId, String recipeId, long version) {
+        return PLAN_RECIPES_NODE + "/" + userId + "/" + recipeId + "/" + Long.toHexString(version);
+    }
+
+    public synchronized Recipe get(String recipeId, long version) {
+        return recipes.get(cacheKey(recipeId, version));
+    }
+
+    public synchronized void put(String recipeId, long version, Recipe recipe) {
+        recipes.put(cacheKey(recipeId, version), recipe);
+    }
+
+    /**
+     * Store the recipe version the plan points at. Nothing is uploaded if
+     * this version was already stored or read in this session. It is only
+     * cached once the upload succeeded, so a cached version is always stored.
+     */
+    public Task<Void> store(String userId, String recipeId, long version, Recipe recipe) {
+        if (get(recipeId, version) != null) {
+            return Tasks.forResult(null);
+        }
+        return planRecipesRef.child(userId).child(recipeId).child(Long.toHexString(version))
+                .setValue(RecipeCodec.toMap(recipe))
+                .addOnSuccessListener(aVoid -> put(recipeId, version, recipe));
+    }
+
+    /**
+     * Set the recipe on every meal that only has a reference. Cached versions
+     * are used as they are; each missing one is read once, however many
+     * meals share it. Completes with the meals that are still unresolved,
+     * because their read failed or their version was never stored.
+     */
+    public Task<List<MealPlan>> resolve(String userId, Collection<MealPlan> meals) {
+        Map<String, List<MealPlan>> missing = new HashMap<>();
+        for (MealPlan meal : meals) {
+            if (meal.getRecipe() != null || meal.getRecipeId() == null) {
+                continue;
+            }
+            Recipe cached = get(meal.getRecipeId(), meal.getRecipeVersion());
+            if (cached != null) {
+                meal.setRecipe(cached);
+                continue;
+            }
+            String key = cacheKey(meal.getRecipeId(), meal.getRecipeVersion());
+            List<MealPlan> waiting = missing.get(key);
+            if (waiting == null) {
+                waiting = new ArrayList<>();
+                missing.put(key, waiting);
+            }
+            waiting.add(meal);
+        }
+        if (missing.isEmpty()) {
+            return Tasks.forResult(new ArrayList<>());
+        }
+
+        List<Task<DataSnapshot>> reads = new ArrayList<>();
+        for (List<MealPlan> waiting : missing.values()) {
+            MealPlan first = waiting.get(0);
+            String recipeId = first.getRecipeId();
+            long version = first.getRecipeVersion();
+            reads.add(planRecipesRef.child(userId).child(recipeId).child(Long.toHexString(version)).get()
+                    .addOnSuccessListener(snapshot -> {
+                        Recipe recipe = RecipeCodec.fromMap(recipeId, snapshot.getValue());
+                        if (recipe == null) {
+                            Log.w(TAG, "No stored recipe " + recipeId + " v" + Long.toHexString(version));
+                            return;
+                        }
+                        put(recipeId, version, recipe);
+                        for (MealPlan meal : waiting) {
+                            meal.setRecipe(recipe);
+                        }
+                    }));
+        }
+        Log.d(TAG, "Resolving " + reads.size() + " recipes for " + meals.size() + " meals");
+        return Tasks.whenAllComplete(reads).continueWith(task -> {
+            List<MealPlan> unresolved = new ArrayList<>();
+            for (List<MealPlan> waiting : missing.values()) {
+                if (waiting.get(0).getRecipe() == null) {
+                    unresolved.addAll(waiting);
+                }
+            }
+            return unresolved;
+        });
+    }
+
+    private static String cacheKey(String recipeId, long version) {
+        return recipeId + "@" + Long.toHexString(version);
+    }
+}
@@ -0,0 +1,67 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.util.List;
+
+/**
+ * Every recipe read and write in the app goes through this interface.
+ * FirebaseRecipeRepository talks to the Realtime Database; InMemoryRecipeRepository
+ * keeps everything in memory so data paths can be benchmarked on the JVM.
+ */
+public interface RecipeRepository {
+
+    // Interface for raw change events on the recipes collection
+    interface RecipeEventListener {
+        // Existing recipes are delivered as additions before onInitialLoadComplete
+        void onRecipeAdded(Recipe recipe);
+        void onRecipeChanged(Recipe recipe);
+        void onRecipeRemoved(String recipeId);
+        void onInitialLoadComplete();
+        void onError(Exception error);
+    }
+
+    // Interface for results of reads and writes
+    interface Callback<T> {
+        void onSuccess(T result);
+        void onFailure(Exception error);
+    }
+
+    // Handle for a live subscription
+    interface Registration {
+        void remove();
+    }
+
+    /**
+     * Subscribe to the recipes collection. Call remove() on the result to stop.
+     */
+    Registration addRecipeEventListener(RecipeEventListener listener);
+
+    /**
+     * Observe the highest rated featured recipes, best first
+     */
+    Registration observeFeaturedRecipes(int limit, Callback<List<Recipe>> callback);
+
+    /**
+     * Observe the number of recipes in the collection
+     */
+    Registration observeRecipeCount(Callback<Integer> callback);
+
+    /**
+     * Save a recipe under its id. A recipe without an id gets a new one,
+     * which is set on the recipe before this returns.
+     */
+    void saveRecipe(Recipe recipe, Callback<Void> callback);
+
+    void deleteRecipe(String recipeId, Callback<Void> callback);
+
+    /**
+     * Version of the default recipes last written by seedDefaultRecipes, or 0
+     */
+    void getDefaultSeedVersion(Callback<Integer> callback);
+
+    /**
+     * Write the default recipes under their ids together with the seed version, atomically
+     */
+    void seedDefaultRecipes(List<Recipe> defaultRecipes, int version, Callback<Void> callback);
+}
@@ -0,0 +1,156 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One recipe as the local recipe stores keep it: the indexed columns plus
+ * a body that decodes back to an equal recipe. Unlike the bundled catalog
+ * format the body keeps nulls, full double amounts and lists of any length.
+ */
+final class RecipeRow {
+    // Bumped whenever the body layout changes
+    static final int BODY_VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+
+    final String id;
+    final String title;
+    final String category;
+    final float rating;
+    final byte[] body;
+
+    private RecipeRow(String id, String title, String category, float rating, byte[] body) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.rating = rating;
+        this.body = body;
+    }
+
+    /**
+     * The row for a recipe, or null when it has no ID to store it under
+     */
+    static RecipeRow of(Recipe recipe) {
+        if (recipe.getId() == null) {
+            return null;
+        }
+        return new RecipeRow(recipe.getId(),
+                recipe.getTitle() != null ? recipe.getTitle() : "",
+                recipe.getCategory() != null ? recipe.getCategory() : "",
+                recipe.getRating(),
+                encode(recipe));
+    }
+
+    static byte[] encode(Recipe recipe) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(BODY_VERSION);
+            writeString(out, recipe.getId());
+            writeString(out, recipe.getTitle());
+            writeString(out, recipe.getImageUrl());
+            writeString(out, recipe.getDuration());
+            writeString(out, recipe.getCategory());
+            out.writeFloat(recipe.getRating());
+
+            List<Ingredient> ingredients = recipe.getIngredients();
+            out.writeInt(ingredients != null ? ingredients.size() : NULL_LENGTH);
+            if (ingredients != null) {
+                for (Ingredient ingredient : ingredients) {
+                    out.writeBoolean(ingredient != null);
+                    if (ingredient != null) {
+                        writeString(out, ingredient.getName());
+                        out.writeDouble(ingredient.getAmount());
+                        writeString(out, ingredient.getUnit());
+                        writeString(out, ingredient.getCategory());
+                    }
+                }
+            }
+
+            List<String> instructions = recipe.getInstructions();
+            out.writeInt(instructions != null ? instructions.size() : NULL_LENGTH);
+            if (instructions != null) {
+                for (String instruction : instructions) {
+                    writeString(out, instruction);
+                }
+            }
+        } catch (IOException e) {
+            // Writing to memory can't fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Recipe decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        int version = in.readUnsignedByte();
+        if (version != BODY_VERSION) {
+            throw new IOException("Unsupported recipe row version " + version);
+        }
+        String id = readString(in);
+        String title = readString(in);
+        String imageUrl = readString(in);
+        String duration = readString(in);
+        String category = readString(in);
+        float rating = in.readFloat();
+
+        List<Ingredient> ingredients = null;
+        int ingredientCount = readLength(in);
+        if (ingredientCount != NULL_LENGTH) {
+            ingredients = new ArrayList<>(ingredientCount);
+            for (int i = 0; i < ingredientCount; i++) {
+                ingredients.add(in.readBoolean()
+                        ? new Ingredient(readString(in), in.readDouble(), readString(in), readString(in))
+                        : null);
+            }
+        }
+
+        List<String> instructions = null;
+        int instructionCount = readLength(in);
+        if (instructionCount != NULL_LENGTH) {
+            instructions = new ArrayList<>(instructionCount);
+            for (int i = 0; i < instructionCount; i++) {
+                instructions.add(readString(in));
+            }
+        }
+
+        return new Recipe(id, title, imageUrl, duration, rating, ingredients, instructions, category);
+    }
+
+    // Length-prefixed UTF-8, so unlike writeUTF there is no 64 KB limit
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < NULL_LENGTH) {
+            throw new IOException("Corrupt recipe row length " + length);
+        }
+        return length;
+    }
+}
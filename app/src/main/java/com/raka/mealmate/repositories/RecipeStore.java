@@ -0,0 +1,38 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local persistent copy of the recipes node. Implementations index title,
+ * category and rating so the browser can read without waiting for Firebase.
+ * Calls may block and belong on a background thread.
+ */
+public interface RecipeStore {
+
+    // Every recipe, ordered by title (case-insensitive)
+    List<Recipe> getAll();
+
+    List<Recipe> getByCategory(String category);
+
+    // Highest rated first
+    List<Recipe> getTopRated(int limit);
+
+    Recipe get(String recipeId);
+
+    int count();
+
+    void upsert(Recipe recipe);
+
+    void upsertAll(Collection<Recipe> recipes);
+
+    void delete(String recipeId);
+
+    /**
+     * Make the store hold exactly these recipes, e.g. after a full sync.
+     * Unchanged rows are rewritten in place; rows missing from the list are deleted.
+     */
+    void replaceAll(Collection<Recipe> recipes);
+}
@@ -0,0 +1,120 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.RecipeClassifier;
+import com.raka.mealmate.models.Recipe;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps an id-keyed copy of the recipes collection in sync using the
+ * repository's child events, so one remote edit costs one deserialization
+ * instead of reloading the whole collection.
+ */
+public class RecipeSyncEngine {
+    private final RecipeRepository repository;
+    private final Map<String, Recipe> recipesById = new LinkedHashMap<>();
+    private RecipeRepository.Registration registration;
+    private RecipeChangeListener listener;
+    private boolean initialLoadComplete;
+
+    // Interface for the change stream delivered to the UI
+    public interface RecipeChangeListener {
+        // Called once with every recipe after the first sync
+        void onInitialLoad(List<Recipe> recipes);
+        void onRecipeAdded(Recipe recipe);
+        void onRecipeChanged(Recipe recipe);
+        void onRecipeRemoved(String recipeId);
+        void onSyncError(Exception error);
+    }
+
+    public RecipeSyncEngine(RecipeRepository repository) {
+        this.repository = repository;
+    }
+
+    public void setRecipeChangeListener(RecipeChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Start listening for recipe events. Restarting replaces the previous subscription.
+     */
+    public void start() {
+        stop();
+        recipesById.clear();
+        initialLoadComplete = false;
+
+        registration = repository.addRecipeEventListener(new RecipeRepository.RecipeEventListener() {
+            @Override
+            public void onRecipeAdded(Recipe recipe) {
+                RecipeClassifier.classifyAndStore(recipe);
+                recipesById.put(recipe.getId(), recipe);
+                if (initialLoadComplete && listener != null) {
+                    listener.onRecipeAdded(recipe);
+                }
+            }
+
+            @Override
+            public void onRecipeChanged(Recipe recipe) {
+                RecipeClassifier.classifyAndStore(recipe);
+                recipesById.put(recipe.getId(), recipe);
+                if (initialLoadComplete && listener != null) {
+                    listener.onRecipeChanged(recipe);
+                }
+            }
+
+            @Override
+            public void onRecipeRemoved(String recipeId) {
+                if (recipesById.remove(recipeId) != null && initialLoadComplete && listener != null) {
+                    listener.onRecipeRemoved(recipeId);
+                }
+            }
+
+            @Override
+            public void onInitialLoadComplete() {
+                if (initialLoadComplete) {
+                    return;
+                }
+                initialLoadComplete = true;
+                if (listener != null) {
+                    listener.onInitialLoad(getRecipes());
+                }
+            }
+
+            @Override
+            public void onError(Exception error) {
+                if (listener != null) {
+                    listener.onSyncError(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop receiving recipe events
+     */
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    public Recipe getRecipe(String recipeId) {
+        return recipesById.get(recipeId);
+    }
+
+    public boolean containsRecipe(String recipeId) {
+        return recipesById.containsKey(recipeId);
+    }
+
+    public List<Recipe> getRecipes() {
+        return new ArrayList<>(recipesById.values());
+    }
+
+    public boolean isInitialLoadComplete() {
+        return initialLoadComplete;
+    }
+}
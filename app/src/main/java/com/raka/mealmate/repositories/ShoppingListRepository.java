@@ -0,0 +1,250 @@
+package com.raka.mealmate.repositories;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+import com.raka.mealmate.helpers.DateWindow;
+import com.raka.mealmate.helpers.MealPlanCodec;
+import com.raka.mealmate.helpers.ShoppingListMaterializer;
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.ShoppingItemState;
+import com.raka.mealmate.models.ShoppingListDay;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The per-user materialized shopping list, kept up to date from meal plan
+ * deltas instead of being rebuilt from every meal plan on open:
+ *
+ * shoppingLists/{uid}/days/{yyyyMMdd}  - ShoppingListDay totals and ledger
+ * shoppingLists/{uid}/state/version    - set once the days were backfilled
+ * shoppingLists/{uid}/state/items/{key} - ShoppingItemState edits
+ *
+ * A delta is applied after its meal plan write. If it fails, the version is
+ * cleared so the list is rebuilt from the meal plans on its next open.
+ */
+public class ShoppingListRepository {
+    private static final String TAG = "ShoppingListRepository";
+    public static final int MATERIALIZED_VERSION = 1;
+
+    private final DatabaseReference shoppingListsRef;
+    private final DatabaseReference mealPlansRef;
+
+    public ShoppingListRepository() {
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        shoppingListsRef = root.child("shoppingLists");
+        mealPlansRef = root.child("mealPlans");
+    }
+
+    public Task<Void> applyMealAdded(String userId, String dateKey, MealPlan mealPlan) {
+        return updateDay(userId, dateKey,
+                day -> ShoppingListMaterializer.applyMealAdded(day, mealPlan.getId(), mealPlan.getRecipe()));
+    }
+
+    public Task<Void> applyMealRemoved(String userId, String dateKey, String mealPlanId) {
+        return updateDay(userId, dateKey, day -> ShoppingListMaterializer.applyMealRemoved(day, mealPlanId));
+    }
+
+    /**
+     * Apply meals written to one day in a batch, in one transaction. A meal
+     * that replaced an earlier one in the same slot takes its contribution over.
+     */
+    public Task<Void> applyMealsPlanned(String userId, String dateKey, List<MealPlan> mealPlans) {
+        return updateDay(userId, dateKey, day -> {
+            boolean changed = false;
+            for (MealPlan mealPlan : mealPlans) {
+                changed |= ShoppingListMaterializer.applyMealReplaced(day, mealPlan.getId(), mealPlan.getRecipe());
+            }
+            return changed;
+        });
+    }
+
+    /**
+     * The materialized days inside the window: one small key-range read
+     */
+    public Task<DataSnapshot> getDaysInWindow(String userId, DateWindow window) {
+        return shoppingListsRef
+                .child(userId)
+                .child("days")
+                .orderByKey()
+                .startAt(window.getStartKey())
+                .endAt(window.getEndKey())
+                .get();
+    }
+
+    /**
+     * The list's version marker and the user's item edits
+     */
+    public Task<DataSnapshot> getState(String userId) {
+        return shoppingListsRef.child(userId).child("state").get();
+    }
+
+    public static boolean isMaterialized(DataSnapshot state) {
+        Integer version = state.child("version").getValue(Integer.class);
+        return version != null && version >= MATERIALIZED_VERSION;
+    }
+
+    public static Map<String, ShoppingItemState> readItemStates(DataSnapshot state) {
+        Map<String, ShoppingItemState> states = new HashMap<>();
+        for (DataSnapshot itemSnapshot : state.child("items").getChildren()) {
+            ShoppingItemState itemState = itemSnapshot.getValue(ShoppingItemState.class);
+            if (itemState != null) {
+                states.put(itemSnapshot.getKey(), itemState);
+            }
+        }
+        return states;
+    }
+
+    public Task<Void> saveItemState(String userId, String itemKey, ShoppingItemState state) {
+        return shoppingListsRef
+                .child(userId)
+                .child("state")
+                .child("items")
+                .child(itemKey)
+                .setValue(state);
+    }
+
+    public Task<Void> savePurchased(String userId, String itemKey, boolean purchased) {
+        return shoppingListsRef
+                .child(userId)
+                .child("state")
+                .child("items")
+                .child(itemKey)
+                .child("purchased")
+                .setValue(purchased);
+    }
+
+    /**
+     * Mark the materialized days as out of date, so the next open rebuilds them
+     */
+    public Task<Void> markStale(String userId) {
+        Log.w(TAG, "Marking shopping list of " + userId + " for a rebuild");
+        return shoppingListsRef.child(userId).child("state").child("version").removeValue();
+    }
+
+    /**
+     * Backfill for lists created before meal plans were materialized, or
+     * marked stale after a failed delta: reads every meal plan once and
+     * rewrites all days with their ledgers. Days without meal plans are
+     * removed. Later deltas for the same meal plans are no-ops thanks to the ledger.
+     * Days with a meal whose recipe can't be resolved are left as they are
+     * and the list stays stale, so the task fails and the next open retries.
+     */
+    public Task<Void> rebuild(String userId) {
+        Log.d(TAG, "Backfilling shopping list for " + userId);
+        Task<DataSnapshot> mealPlansTask = mealPlansRef.child(userId).get();
+        Task<DataSnapshot> daysTask = shoppingListsRef.child(userId).child("days").get();
+        return Tasks.whenAll(mealPlansTask, daysTask).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<String, List<MealPlan>> mealsByDay = new LinkedHashMap<>();
+            List<MealPlan> allMeals = new ArrayList<>();
+            for (DataSnapshot dateSnapshot : mealPlansTask.getResult().getChildren()) {
+                List<MealPlan> meals = new ArrayList<>();
+                for (DataSnapshot mealSnapshot : dateSnapshot.getChildren()) {
+                    MealPlan mealPlan = MealPlanCodec.fromMap(mealSnapshot.getKey(), mealSnapshot.getValue());
+                    if (mealPlan != null) {
+                        meals.add(mealPlan);
+                    } else {
+                        Log.e(TAG, "Skipping unreadable meal plan " + mealSnapshot.getKey());
+                    }
+                }
+                mealsByDay.put(dateSnapshot.getKey(), meals);
+                allMeals.addAll(meals);
+            }
+            // Normalized plans only reference their recipe; each version is read once
+            return PlanRecipeCache.getInstance().resolve(userId, allMeals).continueWithTask(resolved -> {
+                Set<MealPlan> unresolved = Collections.newSetFromMap(new IdentityHashMap<>());
+                unresolved.addAll(resolved.getResult());
+                Map<String, Object> updates = new HashMap<>();
+                // Days left over from meal plans that are gone
+                for (DataSnapshot daySnapshot : daysTask.getResult().getChildren()) {
+                    updates.put("days/" + daySnapshot.getKey(), null);
+                }
+                int skippedDays = 0;
+                for (Map.Entry<String, List<MealPlan>> entry : mealsByDay.entrySet()) {
+                    ShoppingListDay day = new ShoppingListDay();
+                    boolean complete = true;
+                    for (MealPlan mealPlan : entry.getValue()) {
+                        if (unresolved.contains(mealPlan)) {
+                            complete = false;
+                            break;
+                        }
+                        ShoppingListMaterializer.applyMealAdded(day, mealPlan.getId(), mealPlan.getRecipe());
+                    }
+                    if (complete) {
+                        updates.put("days/" + entry.getKey(), day.isEmpty() ? null : day);
+                    } else {
+                        updates.remove("days/" + entry.getKey());
+                        skippedDays++;
+                    }
+                }
+                if (skippedDays == 0) {
+                    updates.put("state/version", MATERIALIZED_VERSION);
+                }
+                Log.d(TAG, "Backfilled " + allMeals.size() + " meal plans, skipped " + skippedDays + " days");
+                Task<Void> write = shoppingListsRef.child(userId).updateChildren(updates);
+                if (skippedDays == 0) {
+                    return write;
+                }
+                int skipped = skippedDays;
+                return write.onSuccessTask(aVoid -> Tasks.forException(new IllegalStateException(
+                        "Recipes of " + unresolved.size() + " meal plans could not be read; "
+                                + skipped + " days left for a later rebuild")));
+            });
+        });
+    }
+
+    // Interface for changes applied to a day inside a transaction
+    private interface DayChange {
+        boolean apply(ShoppingListDay day);
+    }
+
+    private Task<Void> updateDay(String userId, String dateKey, DayChange change) {
+        TaskCompletionSource<Void> taskCompletionSource = new TaskCompletionSource<>();
+        shoppingListsRef.child(userId).child("days").child(dateKey).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                ShoppingListDay day = currentData.getValue(ShoppingListDay.class);
+                if (day == null) {
+                    day = new ShoppingListDay();
+                }
+                // A no-op still commits the unchanged value rather than aborting,
+                // so a stale local cache is checked against the server first
+                if (change.apply(day)) {
+                    currentData.setValue(day.isEmpty() ? null : day);
+                }
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot currentData) {
+                if (error != null) {
+                    Log.e(TAG, "Shopping list update failed for " + dateKey + ": " + error.getMessage());
+                    // The meal plan itself is already written, so the list is rebuilt from it later
+                    markStale(userId);
+                    taskCompletionSource.setException(error.toException());
+                } else {
+                    taskCompletionSource.setResult(null);
+                }
+            }
+        });
+        return taskCompletionSource.getTask();
+    }
+}
@@ -0,0 +1,72 @@
+package com.raka.mealmate.repositories;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import com.raka.mealmate.helpers.PriceCatalog;
+
+/**
+ * Local price list behind PriceCatalog: one row per (store id, item key) with
+ * the price per base unit. The primary key is the lookup index. Calls block
+ * and belong on a background thread.
+ */
+public class SqlitePriceStore extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "mealmate_prices.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE = "prices";
+    private static final String COLUMN_STORE_ID = "store_id";
+    private static final String COLUMN_ITEM_KEY = "item_key";
+    private static final String COLUMN_UNIT_PRICE = "unit_price";
+    private static final String[] PRICE_COLUMNS = {COLUMN_STORE_ID, COLUMN_ITEM_KEY, COLUMN_UNIT_PRICE};
+
+    private static SqlitePriceStore instance;
+
+    public static synchronized SqlitePriceStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new SqlitePriceStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SqlitePriceStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COLUMN_STORE_ID + " TEXT NOT NULL, "
+                + COLUMN_ITEM_KEY + " TEXT NOT NULL, "
+                + COLUMN_UNIT_PRICE + " REAL NOT NULL, "
+                + "PRIMARY KEY (" + COLUMN_STORE_ID + ", " + COLUMN_ITEM_KEY + ")) WITHOUT ROWID");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    /**
+     * Copies every stored price into the catalog
+     */
+    public void loadInto(PriceCatalog catalog) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE, PRICE_COLUMNS, null, null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                catalog.putUnitPrice(cursor.getString(0), cursor.getString(1), cursor.getDouble(2));
+            }
+        }
+    }
+
+    public void putUnitPrice(String storeId, String itemKey, double unitPrice) {
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_STORE_ID, storeId != null ? storeId : PriceCatalog.ANY_STORE);
+        values.put(COLUMN_ITEM_KEY, itemKey);
+        values.put(COLUMN_UNIT_PRICE, unitPrice);
+        getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
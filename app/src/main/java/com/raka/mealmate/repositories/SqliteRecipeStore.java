@@ -0,0 +1,198 @@
+package com.raka.mealmate.repositories;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+
+import com.raka.mealmate.models.Recipe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RecipeStore backed by a local SQLite database. Title, category and rating
+ * are indexed columns; the full recipe is kept as a RecipeRow body.
+ */
+public class SqliteRecipeStore extends SQLiteOpenHelper implements RecipeStore {
+    private static final String TAG = "SqliteRecipeStore";
+    private static final String DATABASE_NAME = "mealmate_recipes.db";
+    // 2: row bodies moved from the catalog format to RecipeRow
+    private static final int DATABASE_VERSION = 2;
+
+    private static final String TABLE = "recipes";
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_TITLE = "title";
+    private static final String COLUMN_CATEGORY = "category";
+    private static final String COLUMN_RATING = "rating";
+    private static final String COLUMN_BODY = "body";
+    private static final String[] BODY_COLUMNS = {COLUMN_ID, COLUMN_BODY};
+    private static final String ORDER_BY_TITLE = COLUMN_TITLE + " COLLATE NOCASE, " + COLUMN_ID;
+
+    private static SqliteRecipeStore instance;
+
+    public static synchronized SqliteRecipeStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new SqliteRecipeStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SqliteRecipeStore(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    // A null name opens a private in-memory database, as the tests do
+    SqliteRecipeStore(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+        // Reads from the UI never wait behind a sync write
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COLUMN_ID + " TEXT PRIMARY KEY NOT NULL, "
+                + COLUMN_TITLE + " TEXT NOT NULL, "
+                + COLUMN_CATEGORY + " TEXT NOT NULL, "
+                + COLUMN_RATING + " REAL NOT NULL, "
+                + COLUMN_BODY + " BLOB NOT NULL)");
+        db.execSQL("CREATE INDEX idx_recipes_title ON " + TABLE + " (" + COLUMN_TITLE + " COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX idx_recipes_category ON " + TABLE + " (" + COLUMN_CATEGORY + ")");
+        db.execSQL("CREATE INDEX idx_recipes_rating ON " + TABLE + " (" + COLUMN_RATING + " DESC)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The table is only a cache of Firebase, so it is simply rebuilt
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    @Override
+    public List<Recipe> getAll() {
+        return query(null, null, ORDER_BY_TITLE, null);
+    }
+
+    @Override
+    public List<Recipe> getByCategory(String category) {
+        return query(COLUMN_CATEGORY + " = ?", new String[]{category}, ORDER_BY_TITLE, null);
+    }
+
+    @Override
+    public List<Recipe> getTopRated(int limit) {
+        return query(null, null, COLUMN_RATING + " DESC, " + ORDER_BY_TITLE, String.valueOf(limit));
+    }
+
+    @Override
+    public Recipe get(String recipeId) {
+        List<Recipe> recipes = query(COLUMN_ID + " = ?", new String[]{recipeId}, null, "1");
+        return recipes.isEmpty() ? null : recipes.get(0);
+    }
+
+    @Override
+    public int count() {
+        try (Cursor cursor = getReadableDatabase().rawQuery("SELECT COUNT(*) FROM " + TABLE, null)) {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    @Override
+    public void upsert(Recipe recipe) {
+        ContentValues values = toValues(recipe);
+        if (values != null) {
+            getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+    }
+
+    @Override
+    public void upsertAll(Collection<Recipe> recipes) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            insertAll(db, recipes);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void delete(String recipeId) {
+        getWritableDatabase().delete(TABLE, COLUMN_ID + " = ?", new String[]{recipeId});
+    }
+
+    @Override
+    public void replaceAll(Collection<Recipe> recipes) {
+        Set<String> keep = new HashSet<>();
+        for (Recipe recipe : recipes) {
+            keep.add(recipe.getId());
+        }
+
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            List<String> stale = new ArrayList<>();
+            try (Cursor cursor = db.query(TABLE, new String[]{COLUMN_ID}, null, null, null, null, null)) {
+                while (cursor.moveToNext()) {
+                    String recipeId = cursor.getString(0);
+                    if (!keep.contains(recipeId)) {
+                        stale.add(recipeId);
+                    }
+                }
+            }
+            for (String recipeId : stale) {
+                db.delete(TABLE, COLUMN_ID + " = ?", new String[]{recipeId});
+            }
+            insertAll(db, recipes);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void insertAll(SQLiteDatabase db, Collection<Recipe> recipes) {
+        for (Recipe recipe : recipes) {
+            ContentValues values = toValues(recipe);
+            if (values != null) {
+                db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+        }
+    }
+
+    private List<Recipe> query(String selection, String[] args, String orderBy, String limit) {
+        List<Recipe> recipes = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE, BODY_COLUMNS, selection, args,
+                null, null, orderBy, limit)) {
+            while (cursor.moveToNext()) {
+                try {
+                    recipes.add(RecipeRow.decode(cursor.getBlob(1)));
+                } catch (IOException e) {
+                    // Skip the broken row; the next sync rewrites it
+                    Log.e(TAG, "Error decoding recipe " + cursor.getString(0), e);
+                }
+            }
+        }
+        return recipes;
+    }
+
+    private static ContentValues toValues(Recipe recipe) {
+        RecipeRow row = RecipeRow.of(recipe);
+        if (row == null) {
+            return null;
+        }
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_ID, row.id);
+        values.put(COLUMN_TITLE, row.title);
+        values.put(COLUMN_CATEGORY, row.category);
+        values.put(COLUMN_RATING, row.rating);
+        values.put(COLUMN_BODY, row.body);
+        return values;
+    }
+}
@@ -0,0 +1,131 @@
+package com.raka.mealmate.repositories;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.text.TextUtils;
+
+import com.raka.mealmate.models.Store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * StoreCache in a local SQLite table, one row per store. Available items are
+ * kept newline-separated in a single column.
+ */
+public class SqliteStoreCache extends SQLiteOpenHelper implements StoreCache {
+    private static final String DATABASE_NAME = "mealmate_stores.db";
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE = "stores";
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_NAME = "name";
+    private static final String COLUMN_ADDRESS = "address";
+    private static final String COLUMN_LATITUDE = "latitude";
+    private static final String COLUMN_LONGITUDE = "longitude";
+    private static final String COLUMN_STORE_TYPE = "store_type";
+    private static final String COLUMN_NOTES = "notes";
+    private static final String COLUMN_AVAILABLE_ITEMS = "available_items";
+    private static final String[] STORE_COLUMNS = {COLUMN_ID, COLUMN_NAME, COLUMN_ADDRESS, COLUMN_LATITUDE,
+            COLUMN_LONGITUDE, COLUMN_STORE_TYPE, COLUMN_NOTES, COLUMN_AVAILABLE_ITEMS};
+
+    private static SqliteStoreCache instance;
+
+    public static synchronized SqliteStoreCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new SqliteStoreCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SqliteStoreCache(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE + " ("
+                + COLUMN_ID + " TEXT PRIMARY KEY NOT NULL, "
+                + COLUMN_NAME + " TEXT, "
+                + COLUMN_ADDRESS + " TEXT, "
+                + COLUMN_LATITUDE + " REAL NOT NULL, "
+                + COLUMN_LONGITUDE + " REAL NOT NULL, "
+                + COLUMN_STORE_TYPE + " TEXT, "
+                + COLUMN_NOTES + " TEXT, "
+                + COLUMN_AVAILABLE_ITEMS + " TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The table is only a cache of Firebase, so it is simply rebuilt
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE);
+        onCreate(db);
+    }
+
+    @Override
+    public List<Store> getAll() {
+        List<Store> stores = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE, STORE_COLUMNS, null, null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                String items = cursor.getString(7);
+                stores.add(new Store(cursor.getString(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getDouble(3), cursor.getDouble(4), cursor.getString(5), cursor.getString(6),
+                        TextUtils.isEmpty(items) ? new ArrayList<>() : new ArrayList<>(Arrays.asList(items.split("\n")))));
+            }
+        }
+        return stores;
+    }
+
+    @Override
+    public void upsert(Store store) {
+        ContentValues values = toValues(store);
+        if (values != null) {
+            getWritableDatabase().insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+    }
+
+    @Override
+    public void delete(String storeId) {
+        getWritableDatabase().delete(TABLE, COLUMN_ID + " = ?", new String[]{storeId});
+    }
+
+    @Override
+    public void replaceAll(Collection<Store> stores) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(TABLE, null, null);
+            for (Store store : stores) {
+                ContentValues values = toValues(store);
+                if (values != null) {
+                    db.insertWithOnConflict(TABLE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static ContentValues toValues(Store store) {
+        if (store.getId() == null) {
+            return null;
+        }
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_ID, store.getId());
+        values.put(COLUMN_NAME, store.getName());
+        values.put(COLUMN_ADDRESS, store.getAddress());
+        values.put(COLUMN_LATITUDE, store.getLatitude());
+        values.put(COLUMN_LONGITUDE, store.getLongitude());
+        values.put(COLUMN_STORE_TYPE, store.getStoreType());
+        values.put(COLUMN_NOTES, store.getNotes());
+        values.put(COLUMN_AVAILABLE_ITEMS, store.getAvailableItems() != null
+                ? TextUtils.join("\n", store.getAvailableItems()) : "");
+        return values;
+    }
+}
@@ -0,0 +1,24 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Store;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local persistent copy of the stores node, so the map has stores to show
+ * before Firebase answers. Calls may block and belong on a background thread.
+ */
+public interface StoreCache {
+
+    List<Store> getAll();
+
+    void upsert(Store store);
+
+    void delete(String storeId);
+
+    /**
+     * Make the cache hold exactly these stores, e.g. after a full sync
+     */
+    void replaceAll(Collection<Store> stores);
+}
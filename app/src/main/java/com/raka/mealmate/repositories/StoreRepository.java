@@ -0,0 +1,30 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Store;
+
+/**
+ * Live access to the stores collection. FirebaseStoreRepository talks to the
+ * Realtime Database; tests provide their own event source.
+ */
+public interface StoreRepository {
+
+    // Interface for raw change events on the stores collection
+    interface StoreEventListener {
+        // Existing stores are delivered as additions before onInitialLoadComplete
+        void onStoreAdded(Store store);
+        void onStoreChanged(Store store);
+        void onStoreRemoved(String storeId);
+        void onInitialLoadComplete();
+        void onError(Exception error);
+    }
+
+    // Handle for a live subscription
+    interface Registration {
+        void remove();
+    }
+
+    /**
+     * Subscribe to the stores collection. Call remove() on the result to stop.
+     */
+    Registration addStoreEventListener(StoreEventListener listener);
+}
@@ -0,0 +1,234 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.StoreSnapshot;
+import com.raka.mealmate.models.Store;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the stores in sync from the repository's child events and publishes
+ * them as StoreSnapshots. The locally cached stores are published first, so
+ * the map can draw before Firebase answers; afterwards every add, change or
+ * remove is applied to the id map and written through to the cache. Events
+ * that arrive together are coalesced into one snapshot.
+ *
+ * There is at most one live subscription: start() while running does nothing.
+ * Events and deliveries are expected on the delivery executor's thread.
+ */
+public class StoreSyncEngine {
+    private final StoreRepository repository;
+    private final StoreCache cache;
+    private final Executor ioExecutor;
+    private final Executor deliveryExecutor;
+    private final Map<String, Store> storesById = new LinkedHashMap<>();
+    private StoreRepository.Registration registration;
+    private StoreSyncListener listener;
+    private StoreSnapshot snapshot = StoreSnapshot.EMPTY;
+    private int subscriptionGeneration;
+    private boolean initialLoadComplete;
+    private boolean publishScheduled;
+
+    // Metrics
+    private long startNanos;
+    private long pendingSinceNanos;
+    private long cachedLoadMs = -1;
+    private long initialSyncMs = -1;
+    private long lastPublishDelayMs = -1;
+    private int storesAdded;
+    private int storesChanged;
+    private int storesRemoved;
+    private int snapshotsPublished;
+
+    // Interface for published snapshots and errors
+    public interface StoreSyncListener {
+        void onStoresChanged(StoreSnapshot snapshot);
+        void onSyncError(Exception error);
+    }
+
+    /**
+     * Counters since the engine was created and timings of the latest start
+     */
+    public static class Metrics {
+        public final int storesAdded;
+        public final int storesChanged;
+        public final int storesRemoved;
+        public final int snapshotsPublished;
+        // -1 until measured
+        public final long cachedLoadMs;
+        public final long initialSyncMs;
+        public final long lastPublishDelayMs;
+
+        Metrics(int storesAdded, int storesChanged, int storesRemoved, int snapshotsPublished,
+                long cachedLoadMs, long initialSyncMs, long lastPublishDelayMs) {
+            this.storesAdded = storesAdded;
+            this.storesChanged = storesChanged;
+            this.storesRemoved = storesRemoved;
+            this.snapshotsPublished = snapshotsPublished;
+            this.cachedLoadMs = cachedLoadMs;
+            this.initialSyncMs = initialSyncMs;
+            this.lastPublishDelayMs = lastPublishDelayMs;
+        }
+
+        @Override
+        public String toString() {
+            return "added=" + storesAdded + ", changed=" + storesChanged + ", removed=" + storesRemoved
+                    + ", snapshots=" + snapshotsPublished + ", cache=" + cachedLoadMs + " ms, initial sync="
+                    + initialSyncMs + " ms, last publish delay=" + lastPublishDelayMs + " ms";
+        }
+    }
+
+    public StoreSyncEngine(StoreRepository repository, StoreCache cache, Executor ioExecutor,
+                           Executor deliveryExecutor) {
+        this.repository = repository;
+        this.cache = cache;
+        this.ioExecutor = ioExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    public void setStoreSyncListener(StoreSyncListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Publish the cached stores, then subscribe to store events. Returns false
+     * if the engine was already running.
+     */
+    public boolean start() {
+        if (registration != null) {
+            return false;
+        }
+        int generation = ++subscriptionGeneration;
+        startNanos = System.nanoTime();
+        storesById.clear();
+        initialLoadComplete = false;
+        cachedLoadMs = -1;
+        initialSyncMs = -1;
+
+        ioExecutor.execute(() -> {
+            List<Store> cached = cache.getAll();
+            deliveryExecutor.execute(() -> onCachedStoresLoaded(cached, generation));
+        });
+        registration = repository.addStoreEventListener(new StoreRepository.StoreEventListener() {
+            @Override
+            public void onStoreAdded(Store store) {
+                storesById.put(store.getId(), store);
+                storesAdded++;
+                onStoreEvent(store, null);
+            }
+
+            @Override
+            public void onStoreChanged(Store store) {
+                storesById.put(store.getId(), store);
+                storesChanged++;
+                onStoreEvent(store, null);
+            }
+
+            @Override
+            public void onStoreRemoved(String storeId) {
+                if (storesById.remove(storeId) != null) {
+                    storesRemoved++;
+                    onStoreEvent(null, storeId);
+                }
+            }
+
+            @Override
+            public void onInitialLoadComplete() {
+                if (initialLoadComplete) {
+                    return;
+                }
+                initialLoadComplete = true;
+                initialSyncMs = elapsedMs(startNanos);
+                List<Store> synced = new ArrayList<>(storesById.values());
+                ioExecutor.execute(() -> cache.replaceAll(synced));
+                publish();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                if (listener != null) {
+                    listener.onSyncError(error);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Remove the subscription; the last snapshot stays available
+     */
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return registration != null;
+    }
+
+    public boolean isInitialLoadComplete() {
+        return initialLoadComplete;
+    }
+
+    public StoreSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(storesAdded, storesChanged, storesRemoved, snapshotsPublished,
+                cachedLoadMs, initialSyncMs, lastPublishDelayMs);
+    }
+
+    private void onCachedStoresLoaded(List<Store> cached, int generation) {
+        // Too late once the remote stores are in, or for an earlier subscription
+        if (generation != subscriptionGeneration || initialLoadComplete) {
+            return;
+        }
+        cachedLoadMs = elapsedMs(startNanos);
+        if (!cached.isEmpty()) {
+            snapshot = StoreSnapshot.of(snapshot.getVersion() + 1, cached);
+            snapshotsPublished++;
+            if (listener != null) {
+                listener.onStoresChanged(snapshot);
+            }
+        }
+    }
+
+    private void onStoreEvent(Store changed, String removedId) {
+        // The initial stores are written and published together once they are all in
+        if (!initialLoadComplete) {
+            return;
+        }
+        if (changed != null) {
+            ioExecutor.execute(() -> cache.upsert(changed));
+        } else {
+            ioExecutor.execute(() -> cache.delete(removedId));
+        }
+        if (!publishScheduled) {
+            publishScheduled = true;
+            pendingSinceNanos = System.nanoTime();
+            deliveryExecutor.execute(this::publish);
+        }
+    }
+
+    private void publish() {
+        if (publishScheduled) {
+            lastPublishDelayMs = elapsedMs(pendingSinceNanos);
+            publishScheduled = false;
+        }
+        snapshot = StoreSnapshot.of(snapshot.getVersion() + 1, new ArrayList<>(storesById.values()));
+        snapshotsPublished++;
+        if (listener != null) {
+            listener.onStoresChanged(snapshot);
+        }
+    }
+
+    private static long elapsedMs(long sinceNanos) {
+        return (System.nanoTime() - sinceNanos) / 1_000_000L;
+    }
+}
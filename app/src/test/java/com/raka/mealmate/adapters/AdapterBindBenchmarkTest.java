@@ -0,0 +1,145 @@
+package com.raka.mealmate.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts the item binds a single remote change causes for a 1,000-item list,
+ * comparing the old notifyDataSetChanged path with diffing.
+ */
+public class AdapterBindBenchmarkTest {
+
+    private static final int LIST_SIZE = 1_000;
+
+    @Test
+    public void recipeAdapter_singleChange_bindsOneItem() {
+        List<Recipe> before = new ArrayList<>();
+        List<Recipe> after = new ArrayList<>();
+        for (int i = 0; i < LIST_SIZE; i++) {
+            // Firebase hands back fresh objects on every onDataChange
+            before.add(recipe(i, 4.0f));
+            after.add(recipe(i, i == 500 ? 4.5f : 4.0f));
+        }
+
+        int baselineBinds = countBinds(before, after, rebindAll());
+        int diffBinds = countBinds(before, after, RecipeAdapter.DIFF_CALLBACK);
+        System.out.println("RecipeAdapter binds per update: before=" + baselineBinds + " after=" + diffBinds);
+        assertEquals(after.size(), baselineBinds);
+        assertEquals(1, diffBinds);
+    }
+
+    @Test
+    public void mealAdapter_singleInsert_bindsOneItem() {
+        List<MealPlan> before = new ArrayList<>();
+        List<MealPlan> after = new ArrayList<>();
+        for (int i = 0; i < LIST_SIZE; i++) {
+            before.add(meal(i));
+            after.add(meal(i));
+        }
+        after.add(250, meal(LIST_SIZE));
+
+        int baselineBinds = countBinds(before, after, rebindAll());
+        int diffBinds = countBinds(before, after, MealAdapter.DIFF_CALLBACK);
+        System.out.println("MealAdapter binds per update: before=" + baselineBinds + " after=" + diffBinds);
+        assertEquals(after.size(), baselineBinds);
+        assertEquals(1, diffBinds);
+    }
+
+    @Test
+    public void mealAdapter_mealsWithoutIds_areNotTheSameItem() {
+        MealPlan first = meal(1);
+        MealPlan second = meal(2);
+        first.setId(null);
+        second.setId(null);
+
+        assertFalse(MealAdapter.DIFF_CALLBACK.areItemsTheSame(first, second));
+        assertTrue(MealAdapter.DIFF_CALLBACK.areItemsTheSame(first, first));
+    }
+
+    // What notifyDataSetChanged did: every item of the new list is rebound
+    private static <T> DiffUtil.ItemCallback<T> rebindAll() {
+        return new DiffUtil.ItemCallback<T>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return false;
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return false;
+            }
+        };
+    }
+
+    private static Recipe recipe(int index, float rating) {
+        return new Recipe("recipe" + index, "Recipe " + index, "https://example.com/" + index + ".jpg",
+                "20 mins", rating, null, null, "");
+    }
+
+    private static MealPlan meal(int index) {
+        MealPlan meal = new MealPlan();
+        meal.setId("meal" + index);
+        meal.setRecipeName("Recipe " + index);
+        meal.setDateTime(1_700_000_000_000L + index);
+        return meal;
+    }
+
+    private static <T> int countBinds(List<T> oldList, List<T> newList, DiffUtil.ItemCallback<T> callback) {
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return callback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return callback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+        });
+
+        // Inserted and changed positions are the ones RecyclerView has to bind
+        int[] binds = new int[1];
+        result.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                binds[0] += count;
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+            }
+
+            @Override
+            public void onChanged(int position, int count, @Nullable Object payload) {
+                binds[0] += count;
+            }
+        });
+        return binds[0];
+    }
+}
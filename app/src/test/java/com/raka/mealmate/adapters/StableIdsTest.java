@@ -0,0 +1,50 @@
+package com.raka.mealmate.adapters;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StableIdsTest {
+
+    @Test
+    public void idFor_keepsKeyedIdsAndSeparatesUnkeyedItems() {
+        StableIds stableIds = new StableIds();
+        Object first = new Object();
+        Object second = new Object();
+
+        long keyed = stableIds.idFor("meal1", first);
+        assertEquals(keyed, stableIds.idFor("meal1", second));
+        long unkeyedFirst = stableIds.idFor(null, first);
+        long unkeyedSecond = stableIds.idFor(null, second);
+
+        assertNotEquals(unkeyedFirst, unkeyedSecond);
+        assertNotEquals(keyed, unkeyedFirst);
+        assertEquals(unkeyedFirst, stableIds.idFor(null, first));
+    }
+
+    @Test
+    public void retain_forgetsItemsNoLongerListed() {
+        StableIds stableIds = new StableIds();
+        String[] gone = {"gone"};
+        String[] kept = {"kept"};
+        String[] unkeyed = {null};
+        long keptId = stableIds.idFor("kept", kept);
+        long goneId = stableIds.idFor("gone", gone);
+        stableIds.idFor(null, unkeyed);
+
+        List<String[]> current = Arrays.asList(kept, unkeyed);
+        stableIds.retain(current, item -> item[0]);
+
+        assertEquals(2, stableIds.size());
+        assertEquals(keptId, stableIds.idFor("kept", kept));
+        // A returning item gets a fresh ID rather than a reused one
+        assertNotEquals(goneId, stableIds.idFor("gone", gone));
+
+        stableIds.retain(Collections.<String[]>emptyList(), item -> item[0]);
+        assertEquals(0, stableIds.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.raka.mealmate.helpers;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DateWindowTest {
+
+    @Test
+    public void thisWeek_startsOnFirstDayOfWeek() {
+        Calendar wednesday = day(2024, Calendar.MARCH, 13);
+        wednesday.setFirstDayOfWeek(Calendar.MONDAY);
+
+        DateWindow window = DateWindow.thisWeek(wednesday);
+
+        assertEquals("20240311", window.getStartKey());
+        assertEquals("20240317", window.getEndKey());
+    }
+
+    @Test
+    public void thisWeek_onFirstDayOfWeek_startsToday() {
+        Calendar sunday = day(2024, Calendar.MARCH, 10);
+        sunday.setFirstDayOfWeek(Calendar.SUNDAY);
+
+        assertEquals(new DateWindow("20240310", "20240316"), DateWindow.thisWeek(sunday));
+    }
+
+    @Test
+    public void nextDays_crossesMonthAndYearBoundaries() {
+        DateWindow window = DateWindow.nextDays(day(2023, Calendar.DECEMBER, 29), 7);
+
+        assertEquals("20231229", window.getStartKey());
+        assertEquals("20240104", window.getEndKey());
+        assertTrue(window.contains("20231231"));
+        assertTrue(window.contains("20240104"));
+        assertFalse(window.contains("20240105"));
+        assertFalse(window.contains("20231228"));
+    }
+
+    @Test
+    public void fromUtcMillis_usesPickerDaysRegardlessOfLocalZone() {
+        Calendar start = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        start.clear();
+        start.set(2024, Calendar.FEBRUARY, 28);
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DAY_OF_YEAR, 2);
+
+        DateWindow window = DateWindow.fromUtcMillis(start.getTimeInMillis(), end.getTimeInMillis());
+
+        assertEquals("20240228", window.getStartKey());
+        assertEquals("20240301", window.getEndKey());
+    }
+
+    @Test
+    public void thisMonth_coversTheWholeMonth() {
+        DateWindow window = DateWindow.thisMonth(day(2024, Calendar.FEBRUARY, 14));
+
+        assertEquals("20240201", window.getStartKey());
+        assertEquals("20240229", window.getEndKey());
+        assertEquals(29, window.getDayKeys().size());
+    }
+
+    @Test
+    public void adjacentWeeks_crossYearBoundaries() {
+        DateWindow window = new DateWindow("20231228", "20240103");
+
+        assertEquals(new DateWindow("20231221", "20231227"), window.weekBefore());
+        assertEquals(new DateWindow("20240104", "20240110"), window.weekAfter());
+        assertEquals("20231231", window.getDayKeys().get(3));
+        assertEquals("20240101", window.getDayKeys().get(4));
+        assertTrue(window.overlaps(new DateWindow("20240103", "20240105")));
+        assertFalse(window.overlaps(window.weekAfter()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reversedWindow_isRejected() {
+        new DateWindow("20240302", "20240301");
+    }
+
+    private static Calendar day(int year, int month, int dayOfMonth) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, dayOfMonth, 15, 30);
+        return calendar;
+    }
+}
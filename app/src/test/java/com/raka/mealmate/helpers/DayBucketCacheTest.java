@@ -0,0 +1,65 @@
+package com.raka.mealmate.helpers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DayBucketCacheTest {
+
+    @Test
+    public void putWindow_answersEveryDayOfTheWindow() {
+        DayBucketCache<String> cache = new DayBucketCache<>(30);
+        Map<String, List<String>> byDay = new HashMap<>();
+        byDay.put("20240312", Arrays.asList("Oatmeal", "Pasta"));
+        DateWindow week = new DateWindow("20240311", "20240317");
+
+        cache.putWindow(week, byDay);
+
+        assertEquals(7, cache.size());
+        assertTrue(cache.containsWindow(week));
+        assertEquals(Arrays.asList("Oatmeal", "Pasta"), cache.get("20240312"));
+        // A day without meals is known to be empty, not missing
+        assertTrue(cache.get("20240313").isEmpty());
+        assertNull(cache.get("20240318"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.countItems(week));
+        assertEquals(-1, cache.countItems(week.weekAfter()));
+    }
+
+    @Test
+    public void leastRecentlyUsedDaysAreEvicted() {
+        DayBucketCache<String> cache = new DayBucketCache<>(10);
+        DateWindow first = new DateWindow("20240301", "20240307");
+        cache.putWindow(first, new HashMap<>());
+        // Touch the first days so the end of the first week is evicted instead
+        cache.get("20240301");
+        cache.get("20240302");
+
+        cache.putWindow(first.weekAfter(), new HashMap<>());
+
+        assertEquals(10, cache.size());
+        assertNotNull(cache.get("20240301"));
+        assertNotNull(cache.get("20240302"));
+        assertNull(cache.get("20240303"));
+        assertFalse(cache.containsWindow(first));
+        assertTrue(cache.containsWindow(first.weekAfter()));
+    }
+
+    @Test
+    public void invalidate_forgetsOneDay() {
+        DayBucketCache<String> cache = new DayBucketCache<>(30);
+        DateWindow week = new DateWindow("20240311", "20240317");
+        cache.putWindow(week, new HashMap<>());
+
+        cache.invalidate("20240314");
+
+        assertFalse(cache.containsWindow(week));
+        assertNull(cache.get("20240314"));
+    }
+}
@@ -0,0 +1,332 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MealPlanCodecTest {
+
+    @Test
+    public void fromMap_readsBothDateTimeForms() {
+        Map<String, Object> legacy = mealMap(0);
+        legacy.put("dateTime", 1710500000000L);
+        Map<String, Object> beanForm = mealMap(0);
+        Map<String, Object> date = new HashMap<>();
+        date.put("time", 1710600000000L);
+        date.put("year", 124L);
+        beanForm.put("dateTime", date);
+
+        assertEquals(1710500000000L, MealPlanCodec.fromMap("a", legacy).getDateTime().getTime());
+        assertEquals(1710600000000L, MealPlanCodec.fromMap("b", beanForm).getDateTime().getTime());
+        assertNull(MealPlanCodec.parseDateTime("tomorrow"));
+    }
+
+    @Test
+    public void fromMap_readsTheEmbeddedRecipe() {
+        MealPlan mealPlan = MealPlanCodec.fromMap("meal1", mealMap(3));
+
+        assertEquals("meal1", mealPlan.getId());
+        assertEquals("Chicken Curry", mealPlan.getRecipeName());
+        assertEquals("Dinner", mealPlan.getMealTime());
+        assertEquals("20240315", mealPlan.getDate());
+        assertEquals(42L, mealPlan.getTimestamp());
+        Recipe recipe = mealPlan.getRecipe();
+        assertEquals("r1", recipe.getId());
+        assertEquals(4.5f, recipe.getRating(), 0);
+        assertEquals(3, recipe.getIngredients().size());
+        assertEquals("Ingredient 2", recipe.getIngredients().get(2).getName());
+        assertEquals(200.0, recipe.getIngredients().get(1).getAmount(), 0);
+        assertEquals(Arrays.asList("Chop", "Cook"), recipe.getInstructions());
+    }
+
+    @Test
+    public void fromMap_toleratesSparseListsAndMistypedFields() {
+        Map<String, Object> recipe = new HashMap<>();
+        recipe.put("title", "Dal");
+        recipe.put("rating", "4");
+        recipe.put("duration", 30L);
+        // A list with a deleted element comes back as a map keyed by index
+        Map<String, Object> ingredients = new HashMap<>();
+        ingredients.put("2", ingredient("Salt", "1"));
+        ingredients.put("0", ingredient("Lentils", 250L));
+        recipe.put("ingredients", ingredients);
+        recipe.put("instructions", Arrays.asList("Boil", null, "Serve"));
+
+        Recipe parsed = RecipeCodec.fromMap("dal", recipe);
+
+        assertEquals("dal", parsed.getId());
+        assertEquals(4f, parsed.getRating(), 0);
+        assertEquals("30", parsed.getDuration());
+        assertEquals("Lentils", parsed.getIngredients().get(0).getName());
+        assertEquals(1.0, parsed.getIngredients().get(1).getAmount(), 0);
+        assertEquals(Arrays.asList("Boil", "Serve"), parsed.getInstructions());
+        assertNull(RecipeCodec.fromMap("x", "not a recipe"));
+        assertNull(MealPlanCodec.fromMap("x", null));
+    }
+
+    @Test
+    public void toMap_roundTripsTheNormalizedPlan() {
+        MealPlan planned = MealPlanCodec.fromMap("meal1", mealMap(3));
+        Recipe recipe = planned.getRecipe();
+        long version = RecipeCodec.version(recipe);
+        planned.setRecipeVersion(version);
+
+        Map<String, Object> stored = MealPlanCodec.toMap(planned);
+        assertFalse(MealPlanCodec.isEmbedded(stored));
+        assertFalse(stored.containsKey("imageUrl"));
+        MealPlan read = MealPlanCodec.fromMap("meal1", stored);
+
+        assertNull(read.getRecipe());
+        assertEquals("r1", read.getRecipeId());
+        assertEquals(version, read.getRecipeVersion());
+        assertEquals("Chicken Curry", read.getRecipeName());
+        assertEquals(planned.getDateTime(), read.getDateTime());
+
+        // The stored recipe reads back to the same version
+        Recipe storedRecipe = RecipeCodec.fromMap("r1", RecipeCodec.toMap(recipe));
+        assertEquals(version, RecipeCodec.version(storedRecipe));
+        read.setRecipe(storedRecipe);
+        assertEquals("https://example.com/curry.jpg", read.getImageUrl());
+        assertEquals("45 mins", read.getCookingTime());
+    }
+
+    @Test
+    public void version_changesWithContentAndFitsInADouble() {
+        Recipe recipe = RecipeCodec.fromMap("r1", mealMap(3).get("recipe"));
+        long version = RecipeCodec.version(recipe);
+        assertEquals(version, (long) (double) version);
+
+        recipe.getIngredients().get(0).setAmount(150);
+        assertNotEquals(version, RecipeCodec.version(recipe));
+        recipe.getIngredients().get(0).setAmount(100);
+        assertEquals(version, RecipeCodec.version(recipe));
+        recipe.setId("copy");
+        assertEquals(version, RecipeCodec.version(recipe));
+    }
+
+    @Test
+    public void weekView_transfersAFractionOfTheEmbeddedBytes() {
+        // 21 meals planned from 5 recipes, as the SDK wrote them before and as stored now
+        List<Map<String, Object>> embeddedWeek = new ArrayList<>();
+        List<Map<String, Object>> normalizedWeek = new ArrayList<>();
+        Map<String, Map<String, Object>> distinctRecipes = new HashMap<>();
+        for (int i = 0; i < 21; i++) {
+            Map<String, Object> meal = mealMap(12);
+            Map<String, Object> recipe = (Map<String, Object>) meal.get("recipe");
+            recipe.put("id", "r" + (i % 5));
+            recipe.put("instructions", Arrays.asList("Chop the onions finely", "Fry until golden",
+                    "Add the spices", "Add the chicken", "Simmer for 30 minutes", "Serve with rice"));
+            Map<String, Object> date = new HashMap<>();
+            for (String field : new String[]{"date", "day", "hours", "minutes", "month", "seconds",
+                    "timezoneOffset", "year"}) {
+                date.put(field, 15L);
+            }
+            date.put("time", 1710500000000L);
+            meal.put("dateTime", date);
+            meal.put("timeInMillis", 1710500000000L);
+            meal.put("id", "user1_20240315_Dinner_" + i);
+            embeddedWeek.add(meal);
+
+            MealPlan mealPlan = MealPlanCodec.fromMap("user1_20240315_Dinner_" + i, meal);
+            mealPlan.setRecipeVersion(RecipeCodec.version(mealPlan.getRecipe()));
+            normalizedWeek.add(MealPlanCodec.toMap(mealPlan));
+            distinctRecipes.put(mealPlan.getRecipeId(), RecipeCodec.toMap(mealPlan.getRecipe()));
+        }
+
+        int embeddedBytes = jsonBytes(embeddedWeek);
+        int coldBytes = jsonBytes(normalizedWeek) + jsonBytes(new ArrayList<>(distinctRecipes.values()));
+        int warmBytes = jsonBytes(normalizedWeek);
+
+        System.out.println(String.format("Week view: %d bytes embedded, %d normalized (cold cache), %d (warm cache)",
+                embeddedBytes, coldBytes, warmBytes));
+        assertTrue(coldBytes * 2 < embeddedBytes);
+        assertTrue(warmBytes * 5 < embeddedBytes);
+    }
+
+    @Test
+    public void fromMap_beatsReflectiveMapping() throws Exception {
+        List<Map<String, Object>> week = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            week.add(mealMap(12));
+        }
+        ReflectiveMapper reflective = new ReflectiveMapper();
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < 2_000; i++) {
+            for (Map<String, Object> meal : week) {
+                MealPlanCodec.fromMap("m", meal);
+                reflective.map(meal, MealPlan.class);
+            }
+        }
+
+        int iterations = 5_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (Map<String, Object> meal : week) {
+                assertNotNull(MealPlanCodec.fromMap("m", meal));
+            }
+        }
+        double codecMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (Map<String, Object> meal : week) {
+                assertNotNull(reflective.map(meal, MealPlan.class));
+            }
+        }
+        double reflectiveMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        System.out.println(String.format("MealPlanCodec: %.1f us/week vs %.1f us/week reflective",
+                codecMicros, reflectiveMicros));
+        assertTrue("Codec took " + codecMicros + " us, reflection " + reflectiveMicros + " us",
+                codecMicros < reflectiveMicros);
+    }
+
+    private static Map<String, Object> mealMap(int ingredientCount) {
+        List<Object> ingredients = new ArrayList<>();
+        for (int i = 0; i < ingredientCount; i++) {
+            ingredients.add(ingredient("Ingredient " + i, (long) (i + 1) * 100));
+        }
+        Map<String, Object> recipe = new HashMap<>();
+        recipe.put("id", "r1");
+        recipe.put("title", "Chicken Curry");
+        recipe.put("imageUrl", "https://example.com/curry.jpg");
+        recipe.put("duration", "45 mins");
+        recipe.put("rating", 4.5);
+        recipe.put("category", "Dinner");
+        recipe.put("ingredients", ingredients);
+        recipe.put("instructions", Arrays.asList("Chop", "Cook"));
+
+        Map<String, Object> meal = new HashMap<>();
+        meal.put("recipeName", "Chicken Curry");
+        meal.put("imageUrl", "https://example.com/curry.jpg");
+        meal.put("cookingTime", "45 mins");
+        meal.put("mealTime", "Dinner");
+        meal.put("date", "20240315");
+        meal.put("userId", "user1");
+        meal.put("timestamp", 42L);
+        meal.put("dateTime", 1710500000000L);
+        meal.put("recipe", recipe);
+        return meal;
+    }
+
+    private static Map<String, Object> ingredient(String name, Object amount) {
+        Map<String, Object> ingredient = new HashMap<>();
+        ingredient.put("name", name);
+        ingredient.put("amount", amount);
+        ingredient.put("unit", "g");
+        ingredient.put("category", "Other");
+        return ingredient;
+    }
+
+    // Size of the value tree as JSON, roughly what the database sends over the wire
+    private static int jsonBytes(Object value) {
+        StringBuilder json = new StringBuilder();
+        writeJson(value, json);
+        return json.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8).length;
+    }
+
+    private static void writeJson(Object value, StringBuilder json) {
+        if (value instanceof Map) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append('"').append(entry.getKey()).append("\":");
+                writeJson(entry.getValue(), json);
+            }
+            json.append('}');
+        } else if (value instanceof List) {
+            json.append('[');
+            List<?> list = (List<?>) value;
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                writeJson(list.get(i), json);
+            }
+            json.append(']');
+        } else if (value instanceof String) {
+            json.append('"').append(value).append('"');
+        } else {
+            json.append(value);
+        }
+    }
+
+    /**
+     * Stands in for the SDK's bean mapper, which needs the Android runtime:
+     * setters looked up once per class, then invoked reflectively with
+     * per-value type conversion, recursing into beans and generic lists.
+     */
+    private static class ReflectiveMapper {
+        private final Map<Class<?>, Map<String, Method>> settersByClass = new HashMap<>();
+
+        <T> T map(Object value, Class<T> type) throws Exception {
+            Map<String, Method> setters = settersFor(type);
+            T bean = type.getDeclaredConstructor().newInstance();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Method setter = setters.get(entry.getKey());
+                if (setter != null) {
+                    setter.invoke(bean, convert(entry.getValue(), setter.getGenericParameterTypes()[0]));
+                }
+            }
+            return bean;
+        }
+
+        private Object convert(Object value, Type type) throws Exception {
+            if (type == String.class) {
+                return value instanceof String ? value : String.valueOf(value);
+            } else if (type == float.class) {
+                return ((Number) value).floatValue();
+            } else if (type == double.class) {
+                return ((Number) value).doubleValue();
+            } else if (type == long.class) {
+                return ((Number) value).longValue();
+            } else if (type instanceof ParameterizedType) {
+                Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+                List<Object> items = new ArrayList<>();
+                for (Object item : (List<?>) value) {
+                    items.add(convert(item, elementType));
+                }
+                return items;
+            } else if (type == Recipe.class || type == Ingredient.class) {
+                return map(value, (Class<?>) type);
+            }
+            return value;
+        }
+
+        private Map<String, Method> settersFor(Class<?> type) {
+            Map<String, Method> setters = settersByClass.get(type);
+            if (setters == null) {
+                setters = new HashMap<>();
+                for (Method method : type.getMethods()) {
+                    String name = method.getName();
+                    if (name.startsWith("set") && name.length() > 3 && method.getParameterTypes().length == 1) {
+                        setters.put(Character.toLowerCase(name.charAt(3)) + name.substring(4), method);
+                    }
+                }
+                settersByClass.put(type, setters);
+            }
+            return setters;
+        }
+    }
+}
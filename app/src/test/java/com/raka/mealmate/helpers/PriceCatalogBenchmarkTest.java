@@ -0,0 +1,71 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.ShoppingItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Prices a 500-item list and keeps its totals. Only the results are asserted;
+ * the timings are printed for comparison and never fail the build.
+ */
+public class PriceCatalogBenchmarkTest {
+
+    private static final int ITEM_COUNT = 500;
+    private static final int RUNS = 1000;
+
+    @Test
+    public void benchmark_fiveHundredItems() {
+        PriceCatalog catalog = new PriceCatalog();
+        String[] categories = {"Vegetables", "Proteins", "Grains", "Dairy", "Spices & Seasonings", "Other"};
+        String[] units = {"g", "ml", "pieces", "clove"};
+        List<ShoppingItem> items = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            String unit = units[i % units.length];
+            String key = "item-" + i + "_" + unit;
+            ShoppingItem item = new ShoppingItem("Item " + i, 1 + i % 7, unit, categories[i % categories.length]);
+            item.setId(key);
+            items.add(item);
+            if (i % 3 == 0) {
+                catalog.putUnitPrice(PriceCatalog.ANY_STORE, key, 0.05 + i * 0.001);
+            }
+        }
+
+        double expectedTotal = 0;
+        for (ShoppingItem item : items) {
+            item.setPrice(catalog.priceOf(item, PriceCatalog.ANY_STORE));
+            expectedTotal += item.getPrice();
+        }
+        ShoppingListTable table = ShoppingListTable.from(items);
+        ShoppingCostTracker tracker = new ShoppingCostTracker();
+
+        long start = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            for (ShoppingItem item : items) {
+                catalog.priceOf(item, PriceCatalog.ANY_STORE);
+            }
+        }
+        double pricingMicros = (System.nanoTime() - start) / 1_000.0 / RUNS;
+
+        start = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            tracker.reset(table);
+        }
+        double resetMicros = (System.nanoTime() - start) / 1_000.0 / RUNS;
+        assertEquals(expectedTotal, tracker.getTotal(), 1e-6);
+
+        start = System.nanoTime();
+        tracker.update(table.getId(42), table.getPrice(42) + 10, false);
+        tracker.update(table.getId(7), table.getPrice(7), true);
+        double updateMicros = (System.nanoTime() - start) / 1_000.0;
+        assertEquals(expectedTotal + 10, tracker.getTotal(), 1e-6);
+        assertEquals(expectedTotal + 10 - table.getPrice(7), tracker.getRemaining(), 1e-6);
+
+        System.out.println(String.format("PriceCatalog: %d items priced in %.1f us; totals reset %.1f us, two updates %.1f us",
+                ITEM_COUNT, pricingMicros, resetMicros, updateMicros));
+    }
+}
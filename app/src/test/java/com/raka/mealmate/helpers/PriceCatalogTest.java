@@ -0,0 +1,81 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.ShoppingItem;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PriceCatalogTest {
+
+    @Test
+    public void estimates_areDeterministicAndScaleWithAmount() {
+        PriceCatalog catalog = new PriceCatalog();
+        ShoppingItem rice = item("rice_g", "Rice", 1.5, "kg", "Grains");
+
+        double first = catalog.priceOf(rice, null);
+        assertEquals(first, new PriceCatalog().priceOf(rice, null), 0);
+        assertEquals(210.0, first, 1e-9);
+
+        rice.setAmount(3);
+        assertEquals(420.0, catalog.priceOf(rice, null), 1e-9);
+    }
+
+    @Test
+    public void storePrice_winsOverAnyStorePrice() {
+        PriceCatalog catalog = new PriceCatalog();
+        catalog.putUnitPrice(PriceCatalog.ANY_STORE, "milk_ml", 0.1);
+        catalog.putUnitPrice("sample1", "milk_ml", 0.08);
+        ShoppingItem milk = item("milk_ml", "Milk", 2, "l", "Dairy");
+
+        assertEquals(200.0, catalog.priceOf(milk, null), 1e-9);
+        assertEquals(200.0, catalog.priceOf(milk, PriceCatalog.ANY_STORE), 1e-9);
+        assertEquals(160.0, catalog.priceOf(milk, "sample1"), 1e-9);
+        assertEquals(200.0, catalog.priceOf(milk, "unknown-store"), 1e-9);
+    }
+
+    @Test
+    public void learnedPrice_replacesEstimateForSameItemKey() {
+        PriceCatalog catalog = new PriceCatalog();
+        ShoppingItem garlic = item("garlic_clove", "Garlic", 3, "clove", "Spices & Seasonings");
+        ShoppingItem unkeyed = item(null, "Garlic", 3, "clove", "Spices & Seasonings");
+        assertEquals(15.0, catalog.priceOf(garlic, null), 1e-9);
+
+        catalog.putUnitPrice(PriceCatalog.ANY_STORE, "garlic_clove", 4);
+        assertEquals(1, catalog.size());
+        assertEquals(12.0, catalog.priceOf(garlic, null), 1e-9);
+        // Items without an id are looked up by the key derived from name and unit
+        assertEquals(12.0, catalog.priceOf(unkeyed, null), 1e-9);
+    }
+
+    @Test
+    public void totalsForStores_pricesTheListAtEachStore() {
+        PriceCatalog catalog = new PriceCatalog();
+        catalog.putUnitPrice(PriceCatalog.ANY_STORE, "milk_ml", 0.1);
+        catalog.putUnitPrice("sample1", "milk_ml", 0.08);
+        catalog.putUnitPrice("sample2", "rice_g", 0.1);
+        ShoppingItem milk = item("milk_ml", "Milk", 2, "l", "Dairy");
+        ShoppingItem rice = item("rice_g", "Rice", 1.5, "kg", "Grains");
+        ShoppingItem gone = item("garlic_clove", "Garlic", 3, "clove", "Spices & Seasonings");
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(milk, rice, gone));
+        table.removeItem(table.indexOf("garlic_clove"));
+
+        List<String> stores = Arrays.asList(PriceCatalog.ANY_STORE, "sample1", "sample2", "unknown-store");
+        double[] totals = catalog.totalsForStores(table, stores);
+
+        // Milk is 200, or 160 at sample1; rice is estimated at 210, or 150 at sample2
+        assertArrayEquals(new double[]{410, 370, 350, 410}, totals, 1e-9);
+        for (int i = 0; i < totals.length; i++) {
+            assertEquals(catalog.priceOf(milk, stores.get(i)) + catalog.priceOf(rice, stores.get(i)), totals[i], 1e-9);
+        }
+    }
+
+    private static ShoppingItem item(String id, String name, double amount, String unit, String category) {
+        ShoppingItem item = new ShoppingItem(name, amount, unit, category);
+        item.setId(id);
+        return item;
+    }
+}
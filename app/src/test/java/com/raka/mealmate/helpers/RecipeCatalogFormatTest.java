@@ -0,0 +1,68 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RecipeCatalogFormatTest {
+
+    // Unit tests run from the app module directory
+    private static final File CATALOG_ASSET = new File("src/main/assets/default_recipes.bin");
+
+    @Test
+    public void encodeThenDecode_roundTrips() throws Exception {
+        List<Ingredient> ingredients = new ArrayList<>();
+        ingredients.add(new Ingredient("Paneer", 250, "g", "Dairy"));
+        ingredients.add(new Ingredient("Milk", 1.5, "cups", "Dairy"));
+        ingredients.add(new Ingredient("Salt", 0.1, "tsp", "Spices"));
+        List<String> instructions = new ArrayList<>();
+        instructions.add("Sauté at 180°C");
+        Recipe recipe = new Recipe("default_paneer", "Paneer", "https://example.com/p.jpg",
+                "30 mins", 4.5f, ingredients, instructions, "Dinner");
+
+        RecipeCatalogFormat.Reader reader = new RecipeCatalogFormat.Reader(ByteBuffer.wrap(
+                RecipeCatalogFormat.encode(Collections.singletonList(recipe), Collections.<Recipe>emptyList())));
+
+        assertEquals(1, reader.getDefaultCount());
+        assertEquals(0, reader.getFeaturedCount());
+        Recipe decoded = reader.readRecipe(0);
+        assertEquals("default_paneer", decoded.getId());
+        assertEquals("Paneer", decoded.getTitle());
+        assertEquals("30 mins", decoded.getDuration());
+        assertEquals("Dinner", decoded.getCategory());
+        assertEquals(4.5f, decoded.getRating(), 0f);
+        assertEquals(3, decoded.getIngredients().size());
+        assertEquals(1.5, decoded.getIngredients().get(1).getAmount(), 0);
+        // Amounts are stored as doubles, so they come back exactly
+        assertEquals(0.1, decoded.getIngredients().get(2).getAmount(), 0);
+        assertEquals("cups", decoded.getIngredients().get(1).getUnit());
+        assertEquals("Sauté at 180°C", decoded.getInstructions().get(0));
+    }
+
+    @Test
+    public void bundledCatalog_decodes() throws Exception {
+        RecipeCatalogFormat.Reader reader = new RecipeCatalogFormat.Reader(
+                ByteBuffer.wrap(Files.readAllBytes(CATALOG_ASSET.toPath())));
+
+        List<Recipe> defaults = reader.readDefaultRecipes();
+        assertEquals(30, defaults.size());
+        assertEquals("Chicken Stir-Fry", defaults.get(0).getTitle());
+        assertEquals("default_chicken_stir_fry", defaults.get(0).getId());
+        assertEquals("Chicken breast", defaults.get(0).getIngredients().get(0).getName());
+        assertEquals(500, defaults.get(0).getIngredients().get(0).getAmount(), 0);
+
+        List<Recipe> featured = reader.readFeaturedRecipes();
+        assertEquals(5, featured.size());
+        assertEquals("Truffle Mushroom Risotto", featured.get(0).getTitle());
+    }
+}
@@ -0,0 +1,52 @@
+package com.raka.mealmate.helpers;
+
+import com.google.gson.Gson;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Generator for the bundled recipe catalog. The asset is checked to match
+ * its JSON source; after editing catalog/default_recipes.json, regenerate it with
+ *
+ *   ./gradlew :app:testDebugUnitTest --tests "*RecipeCatalogSourceTest" -PregenerateRecipeCatalog
+ */
+public class RecipeCatalogSourceTest {
+
+    // Unit tests run from the app module directory
+    private static final File CATALOG_SOURCE = new File("catalog/default_recipes.json");
+    private static final File CATALOG_ASSET = new File("src/main/assets/default_recipes.bin");
+
+    // Shape of catalog/default_recipes.json
+    private static final class CatalogSource {
+        Recipe[] defaults;
+        Recipe[] featured;
+    }
+
+    @Test
+    public void bundledCatalog_matchesSource() throws Exception {
+        CatalogSource source;
+        try (Reader reader = Files.newBufferedReader(CATALOG_SOURCE.toPath(), StandardCharsets.UTF_8)) {
+            source = new Gson().fromJson(reader, CatalogSource.class);
+        }
+        List<Recipe> defaults = Arrays.asList(source.defaults);
+        List<Recipe> featured = Arrays.asList(source.featured);
+        byte[] encoded = RecipeCatalogFormat.encode(defaults, featured);
+
+        if (Boolean.getBoolean("regenerateRecipeCatalog")) {
+            Files.write(CATALOG_ASSET.toPath(), encoded);
+        }
+        assertArrayEquals("default_recipes.bin is out of date with " + CATALOG_SOURCE
+                        + "; run with -PregenerateRecipeCatalog",
+                encoded, Files.readAllBytes(CATALOG_ASSET.toPath()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RecipeClassifierTest {
+
+    @Test
+    public void parseMinutes_readsMinutesAndHours() {
+        assertEquals(25, RecipeClassifier.parseMinutes("25 mins"));
+        assertEquals(80, RecipeClassifier.parseMinutes("1 hr 20 min"));
+        assertEquals(90, RecipeClassifier.parseMinutes("1.5h"));
+        assertEquals(120, RecipeClassifier.parseMinutes("2 Hours"));
+        assertEquals(15, RecipeClassifier.parseMinutes("15"));
+    }
+
+    @Test
+    public void parseMinutes_withoutANumber_isUnknown() {
+        assertEquals(-1, RecipeClassifier.parseMinutes(null));
+        assertEquals(-1, RecipeClassifier.parseMinutes(""));
+        assertEquals(-1, RecipeClassifier.parseMinutes("   "));
+        assertEquals(-1, RecipeClassifier.parseMinutes("about half an hour"));
+    }
+
+    @Test
+    public void classify_meatProteinExcludesVegetarian() {
+        Recipe tofuSalad = recipe("Tofu Salad", "15 mins",
+                new Ingredient("Tofu", 200, "g", "Protein"));
+        Recipe chickenSalad = recipe("Chicken Salad", "15 mins",
+                new Ingredient("Chicken breast", 200, "g", "Protein"));
+        // Only protein ingredients are checked for meat
+        Recipe stockSalad = recipe("Quinoa Salad", "15 mins",
+                new Ingredient("Chicken stock", 100, "ml", "Pantry"));
+
+        assertTrue(RecipeClassifier.matches(tofuSalad, RecipeClassifier.VEGETARIAN));
+        assertFalse(RecipeClassifier.matches(chickenSalad, RecipeClassifier.VEGETARIAN));
+        assertTrue(RecipeClassifier.matches(chickenSalad, RecipeClassifier.LUNCH));
+        assertTrue(RecipeClassifier.matches(stockSalad, RecipeClassifier.VEGETARIAN));
+    }
+
+    @Test
+    public void classify_quickMealsUseTheParsedDuration() {
+        assertTrue(RecipeClassifier.matches(recipe("Toast", "20 mins"), RecipeClassifier.QUICK));
+        assertFalse(RecipeClassifier.matches(recipe("Biryani", "1 hr 5 mins"), RecipeClassifier.QUICK));
+        assertFalse(RecipeClassifier.matches(recipe("Stew", "slow cooked"), RecipeClassifier.QUICK));
+    }
+
+    @Test
+    public void matches_storesTheFlagsOnce() {
+        Recipe recipe = recipe("Chocolate Brownie", "40 mins",
+                new Ingredient("Chocolate", 100, "g", "Sweets"));
+
+        assertTrue(RecipeClassifier.matches(recipe, RecipeClassifier.DESSERT));
+        assertTrue((recipe.getCategoryFlags() & RecipeClassifier.CLASSIFIED) != 0);
+        assertTrue(RecipeClassifier.matches(recipe, RecipeClassifier.NONE));
+        assertEquals(RecipeClassifier.DESSERT, RecipeClassifier.flagForLabel("Desserts"));
+        assertEquals(RecipeClassifier.NONE, RecipeClassifier.flagForLabel("All"));
+    }
+
+    private static Recipe recipe(String title, String duration, Ingredient... ingredients) {
+        List<Ingredient> list = new ArrayList<>(Arrays.asList(ingredients));
+        return new Recipe(title, title, "", duration, 4f, list, null, "");
+    }
+}
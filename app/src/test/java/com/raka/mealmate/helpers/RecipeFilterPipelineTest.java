@@ -0,0 +1,138 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RecipeFilterPipelineTest {
+
+    @Test
+    public void submit_debouncesAndPublishesOnlyLatestQuery() {
+        ManualScheduler scheduler = new ManualScheduler();
+        List<String> queries = new ArrayList<>();
+        List<String> published = new ArrayList<>();
+
+        RecipeFilterPipeline[] pipeline = new RecipeFilterPipeline[1];
+        pipeline[0] = new RecipeFilterPipeline(scheduler, scheduler, Runnable::run, 50,
+                (query, categoryFlag) -> {
+                    queries.add(query);
+                    return results(query);
+                },
+                (results, generation) -> {
+                    published.add(results.get(0).getTitle());
+                    // The frame is drawn 16 ms after the results arrive
+                    scheduler.advance(16);
+                    pipeline[0].onFrameRendered(generation);
+                });
+
+        // A fast typist: one keystroke every 10 ms, each within the debounce delay
+        assertFalse(pipeline[0].hasPendingResults());
+        for (String query : new String[]{"c", "ch", "chi", "chic", "chick"}) {
+            pipeline[0].submit(query, RecipeClassifier.NONE);
+            scheduler.advance(10);
+        }
+        assertTrue(published.isEmpty());
+        assertTrue(pipeline[0].hasPendingResults());
+        scheduler.advance(40);
+        assertFalse(pipeline[0].hasPendingResults());
+
+        assertEquals(Collections.singletonList("chick"), queries);
+        assertEquals(Collections.singletonList("chick"), published);
+        RecipeFilterPipeline.LatencyStats stats = pipeline[0].getLatencyStats();
+        assertEquals(1, stats.getCount());
+        assertEquals(66, stats.getLastMs(), 1e-9);
+
+        scheduler.advance(1_000);
+        assertEquals(1, queries.size());
+        pipeline[0].shutdown();
+    }
+
+    @Test
+    public void staleResult_isNotPublished() {
+        ManualScheduler scheduler = new ManualScheduler();
+        List<String> published = new ArrayList<>();
+
+        RecipeFilterPipeline[] pipeline = new RecipeFilterPipeline[1];
+        pipeline[0] = new RecipeFilterPipeline(scheduler, scheduler, Runnable::run, 0,
+                (query, categoryFlag) -> {
+                    if (query.equals("slow")) {
+                        // A newer query arrives while this one is still filtering
+                        pipeline[0].submitNow("fresh", RecipeClassifier.NONE);
+                    }
+                    return results(query);
+                },
+                (results, generation) -> published.add(results.get(0).getTitle()));
+
+        pipeline[0].submitNow("slow", RecipeClassifier.NONE);
+        scheduler.advance(0);
+
+        // The slow result was dropped; only the newer query reached the listener
+        assertEquals(Collections.singletonList("fresh"), published);
+        pipeline[0].shutdown();
+    }
+
+    private static List<Recipe> results(String query) {
+        List<Recipe> results = new ArrayList<>();
+        results.add(new Recipe(query, query, "", "10 mins", 4f, null, null, ""));
+        return results;
+    }
+
+    /**
+     * Runs scheduled work on the test thread when time is advanced by hand
+     */
+    private static class ManualScheduler implements RecipeFilterPipeline.Scheduler, RecipeFilterPipeline.Clock {
+        private final List<FutureTask<?>> tasks = new ArrayList<>();
+        private final List<Long> dueTimes = new ArrayList<>();
+        private long nowMs;
+
+        @Override
+        public Future<?> schedule(Runnable task, long delayMs) {
+            FutureTask<Void> future = new FutureTask<>(task, null);
+            tasks.add(future);
+            dueTimes.add(nowMs + delayMs);
+            return future;
+        }
+
+        @Override
+        public void shutdown() {
+            tasks.clear();
+            dueTimes.clear();
+        }
+
+        @Override
+        public long nanoTime() {
+            return TimeUnit.MILLISECONDS.toNanos(nowMs);
+        }
+
+        // Move the clock forward, running each task that falls due on the way
+        void advance(long ms) {
+            long target = nowMs + ms;
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (dueTimes.get(i) <= target && (next < 0 || dueTimes.get(i) < dueTimes.get(next))) {
+                        next = i;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                nowMs = Math.max(nowMs, dueTimes.remove(next));
+                FutureTask<?> task = tasks.remove(next);
+                if (!task.isCancelled()) {
+                    task.run();
+                }
+            }
+            nowMs = Math.max(nowMs, target);
+        }
+    }
+}
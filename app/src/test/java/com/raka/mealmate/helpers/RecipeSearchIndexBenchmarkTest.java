@@ -0,0 +1,192 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks {@link RecipeSearchIndex} against a linear scan at 10k and 100k
+ * recipes and reports the query time; the timing is not asserted.
+ */
+public class RecipeSearchIndexBenchmarkTest {
+
+    private static final String[] WORDS = {
+            "chicken", "curry", "salad", "pasta", "soup", "momo", "dal", "tofu", "quinoa",
+            "salmon", "smoothie", "brownie", "pizza", "risotto", "biryani", "shakshuka",
+            "toast", "garlic", "ginger", "spinach", "tomato", "paneer", "lentil", "mushroom"
+    };
+    private static final String[] CATEGORIES = {"Breakfast", "Lunch", "Dinner", "Dessert"};
+    private static final String[] QUERIES = {"chick", "curry", "dal", "garlic tom", "sal", "mushroom soup"};
+
+    @Test
+    public void search_ranksTitleMatchesFirst() {
+        List<Ingredient> ingredients = new ArrayList<>();
+        ingredients.add(new Ingredient("Chicken breast", 500, "g", "Protein"));
+        Recipe byIngredient = new Recipe("1", "Fried Rice", "", "20 mins", 4.9f, ingredients, null, "Dinner");
+        Recipe byTitle = new Recipe("2", "Chicken Curry", "", "45 mins", 4.1f, null, null, "Dinner");
+
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        List<Recipe> recipes = new ArrayList<>();
+        recipes.add(byIngredient);
+        recipes.add(byTitle);
+        index.rebuild(recipes);
+
+        List<Recipe> results = index.search("chick");
+        assertEquals(2, results.size());
+        assertSame(byTitle, results.get(0));
+        assertSame(byIngredient, results.get(1));
+
+        assertTrue(RecipeSearchIndex.matches(byIngredient, "chick"));
+        assertTrue(RecipeSearchIndex.matches(byTitle, "dinner cur"));
+        assertFalse(RecipeSearchIndex.matches(byTitle, "chicken rice"));
+        assertTrue(RecipeSearchIndex.matches(byTitle, "  "));
+
+        index.remove("2");
+        assertEquals(1, index.search("chicken").size());
+        assertTrue(index.search("curry").isEmpty());
+    }
+
+    @Test
+    public void search_partialMatchesDoNotCarryScoreIntoLaterQueries() {
+        Recipe soup = new Recipe("1", "Chicken Soup", "", "30 mins", 1f, null, null, "Dinner");
+        Recipe curry = new Recipe("2", "Curry Chicken", "", "45 mins", 5f, null, null, "Dinner");
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        List<Recipe> recipes = new ArrayList<>();
+        recipes.add(soup);
+        recipes.add(curry);
+        index.rebuild(recipes);
+
+        // Equal title matches, so the rating decides
+        List<Recipe> before = index.search("chicken");
+        assertSame(curry, before.get(0));
+        assertSame(soup, before.get(1));
+
+        // The soup matches the first word only
+        for (int i = 0; i < 5; i++) {
+            assertTrue(index.search("soup zzz").isEmpty());
+        }
+
+        List<Recipe> after = index.search("chicken");
+        assertSame(curry, after.get(0));
+        assertSame(soup, after.get(1));
+    }
+
+    @Test
+    public void put_compactsReplacedVersions() {
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.rebuild(generateRecipes(10));
+        for (int i = 0; i < 1_000; i++) {
+            index.put(new Recipe("3", "Edited Curry " + i, "", "30 mins", 4f, null, null, "Dinner"));
+        }
+
+        assertEquals(10, index.size());
+        assertTrue("Index kept " + index.slotCount() + " slots", index.slotCount() <= 64);
+        assertEquals(1, index.search("edited").size());
+        assertEquals("Edited Curry 999", index.search("edited").get(0).getTitle());
+    }
+
+    @Test
+    public void search_10kRecipes_matchesLinearScan() {
+        checkAgainstLinearScan(10_000);
+    }
+
+    @Test
+    public void search_100kRecipes_matchesLinearScan() {
+        checkAgainstLinearScan(100_000);
+    }
+
+    // Results must equal a plain scan; the timing is only reported, never asserted
+    private void checkAgainstLinearScan(int recipeCount) {
+        List<Recipe> recipes = generateRecipes(recipeCount);
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        index.rebuild(recipes);
+
+        for (String query : QUERIES) {
+            Set<String> expected = new HashSet<>();
+            for (Recipe recipe : recipes) {
+                if (matchesEveryTerm(recipe, RecipeSearchIndex.tokenize(query))) {
+                    expected.add(recipe.getId());
+                }
+            }
+            Set<String> found = new HashSet<>();
+            for (Recipe recipe : index.search(query)) {
+                found.add(recipe.getId());
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(query, expected, found);
+            assertEquals(Math.min(50, expected.size()), index.search(query, 50).size());
+        }
+
+        // Warm up the JIT before measuring
+        for (int i = 0; i < 200; i++) {
+            index.search(QUERIES[i % QUERIES.length], 50);
+        }
+        int iterations = 500;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            index.search(QUERIES[i % QUERIES.length], 50);
+        }
+        double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+        System.out.println(String.format("RecipeSearchIndex: %d recipes, %.3f ms/query",
+                recipeCount, averageMillis));
+    }
+
+    private static boolean matchesEveryTerm(Recipe recipe, List<String> terms) {
+        List<String> tokens = new ArrayList<>();
+        tokens.addAll(RecipeSearchIndex.tokenize(recipe.getTitle()));
+        tokens.addAll(RecipeSearchIndex.tokenize(recipe.getCategory()));
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            tokens.addAll(RecipeSearchIndex.tokenize(ingredient.getName()));
+        }
+        for (String term : terms) {
+            boolean matched = false;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Recipe> generateRecipes(int count) {
+        Random random = new Random(42);
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = capitalize(WORDS[random.nextInt(WORDS.length)]) + " "
+                    + capitalize(randomWord(random)) + " " + i;
+            List<Ingredient> ingredients = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                ingredients.add(new Ingredient(randomWord(random), 1, "cup", "Vegetables"));
+            }
+            recipes.add(new Recipe(String.valueOf(i), title, "", (10 + random.nextInt(50)) + " mins",
+                    random.nextFloat() * 5, ingredients, null, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        return recipes;
+    }
+
+    // Mixes the common words with a long tail of filler vocabulary, like a real catalog
+    private static String randomWord(Random random) {
+        if (random.nextInt(5) == 0) {
+            return WORDS[random.nextInt(WORDS.length)];
+        }
+        return "item" + random.nextInt(2_000);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,40 @@
+package com.raka.mealmate.helpers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ShoppingCostTrackerTest {
+
+    @Test
+    public void editsChecksAndRemovals_adjustTotalsIncrementally() {
+        ShoppingCostTracker tracker = new ShoppingCostTracker();
+        tracker.update("rice_g", 120.10, false);
+        tracker.update("milk_ml", 80.25, false);
+        tracker.update("eggs_pieces", 45.00, false);
+        assertEquals(245.35, tracker.getTotal(), 1e-9);
+        assertEquals(245.35, tracker.getRemaining(), 1e-9);
+
+        tracker.update("milk_ml", 80.25, true);
+        assertEquals(245.35, tracker.getTotal(), 1e-9);
+        assertEquals(165.10, tracker.getRemaining(), 1e-9);
+
+        tracker.update("rice_g", 100, false);
+        assertEquals(225.25, tracker.getTotal(), 1e-9);
+        assertEquals(145.00, tracker.getRemaining(), 1e-9);
+
+        tracker.remove("milk_ml");
+        tracker.remove("milk_ml");
+        assertEquals(145.00, tracker.getTotal(), 1e-9);
+        assertEquals(145.00, tracker.getRemaining(), 1e-9);
+    }
+
+    @Test
+    public void repeatedUpdates_doNotDrift() {
+        ShoppingCostTracker tracker = new ShoppingCostTracker();
+        for (int i = 0; i < 10_000; i++) {
+            tracker.update("item_pieces", i % 2 == 0 ? 0.2 : 0.1, false);
+        }
+        assertEquals(0.1, tracker.getTotal(), 0);
+    }
+}
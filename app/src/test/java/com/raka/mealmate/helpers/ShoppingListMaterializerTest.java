@@ -0,0 +1,146 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+import com.raka.mealmate.models.ShoppingItem;
+import com.raka.mealmate.models.ShoppingItemState;
+import com.raka.mealmate.models.ShoppingListDay;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ShoppingListMaterializerTest {
+
+    @Test
+    public void itemKey_isStableAcrossSpellingsOfTheSameDimension() {
+        assertEquals("olive-oil_ml", ShoppingListMaterializer.itemKey(" Olive  Oil", "tbsp"));
+        assertEquals("olive-oil_ml", ShoppingListMaterializer.itemKey("olive oil", "L"));
+        assertEquals("flour_g", ShoppingListMaterializer.itemKey("Flour", "kg"));
+        assertEquals("garlic_clove", ShoppingListMaterializer.itemKey("Garlic", "cloves"));
+        assertEquals("eggs_pieces", ShoppingListMaterializer.itemKey("Eggs", "large"));
+    }
+
+    @Test
+    public void standardizeCategory_mergesSpellingsOfOneSection() {
+        assertEquals("Grains", ShoppingListMaterializer.standardizeCategory(" grain "));
+        assertEquals("Vegetables", ShoppingListMaterializer.standardizeCategory("Veg"));
+        assertEquals("Spices & Seasonings", ShoppingListMaterializer.standardizeCategory("spices"));
+        assertEquals("Bakery", ShoppingListMaterializer.standardizeCategory("bakery"));
+        assertEquals("Other", ShoppingListMaterializer.standardizeCategory(null));
+    }
+
+    @Test
+    public void addThenRemove_leavesOtherMealsUntouched() {
+        ShoppingListDay day = new ShoppingListDay();
+        assertTrue(ShoppingListMaterializer.applyMealAdded(day, "lunch", recipe(
+                new Ingredient("Flour", 200, "g", "Grains"),
+                new Ingredient("Milk", 1, "cup", "Dairy"))));
+        assertTrue(ShoppingListMaterializer.applyMealAdded(day, "dinner", recipe(
+                new Ingredient("Flour", 1, "kg", "Grains"))));
+
+        assertEquals(1200, day.getItems().get("flour_g").getAmount(), 1e-9);
+        assertEquals(2, day.getItems().get("flour_g").getMeals());
+
+        assertTrue(ShoppingListMaterializer.applyMealRemoved(day, "lunch"));
+        assertEquals(1000, day.getItems().get("flour_g").getAmount(), 1e-9);
+        assertFalse(day.getItems().containsKey("milk_ml"));
+
+        assertTrue(ShoppingListMaterializer.applyMealRemoved(day, "dinner"));
+        assertTrue(day.isEmpty());
+    }
+
+    @Test
+    public void replacedMeal_swapsItsContribution() {
+        ShoppingListDay day = new ShoppingListDay();
+        assertTrue(ShoppingListMaterializer.applyMealReplaced(day, "slot", recipe(
+                new Ingredient("Rice", 300, "g", "Grains"),
+                new Ingredient("Milk", 1, "cup", "Dairy"))));
+        assertTrue(ShoppingListMaterializer.applyMealAdded(day, "other", recipe(
+                new Ingredient("Rice", 100, "g", "Grains"))));
+
+        // The same slot planned again with an edited recipe
+        assertTrue(ShoppingListMaterializer.applyMealReplaced(day, "slot", recipe(
+                new Ingredient("Rice", 500, "g", "Grains"))));
+
+        assertEquals(600, day.getItems().get("rice_g").getAmount(), 1e-9);
+        assertEquals(2, day.getItems().get("rice_g").getMeals());
+        assertFalse(day.getItems().containsKey("milk_ml"));
+    }
+
+    @Test
+    public void replayedDeltas_areNoOps() {
+        ShoppingListDay day = new ShoppingListDay();
+        Recipe recipe = recipe(new Ingredient("Rice", 300, "g", "Grains"));
+
+        assertTrue(ShoppingListMaterializer.applyMealAdded(day, "m1", recipe));
+        assertFalse(ShoppingListMaterializer.applyMealAdded(day, "m1", recipe));
+        assertEquals(300, day.getItems().get("rice_g").getAmount(), 1e-9);
+
+        assertTrue(ShoppingListMaterializer.applyMealRemoved(day, "m1"));
+        assertFalse(ShoppingListMaterializer.applyMealRemoved(day, "m1"));
+        assertFalse(ShoppingListMaterializer.applyMealRemoved(day, "never-added"));
+        assertTrue(day.isEmpty());
+    }
+
+    @Test
+    public void remove_subtractsWhatWasAddedEvenIfTheRecipeChanged() {
+        ShoppingListDay day = new ShoppingListDay();
+        Recipe recipe = recipe(new Ingredient("Butter", 50, "g", "Dairy"));
+        ShoppingListMaterializer.applyMealAdded(day, "m1", recipe);
+        ShoppingListMaterializer.applyMealAdded(day, "m2", recipe);
+
+        recipe.getIngredients().get(0).setAmount(500);
+        ShoppingListMaterializer.applyMealRemoved(day, "m1");
+
+        assertEquals(50, day.getItems().get("butter_g").getAmount(), 1e-9);
+    }
+
+    @Test
+    public void mergeDays_sumsAcrossDaysAndAppliesSavedEdits() {
+        ShoppingListDay monday = new ShoppingListDay();
+        ShoppingListMaterializer.applyMealAdded(monday, "m1", recipe(
+                new Ingredient("Flour", 600, "g", "Grains"),
+                new Ingredient("Garlic", 2, "cloves", "Spices")));
+        ShoppingListDay tuesday = new ShoppingListDay();
+        ShoppingListMaterializer.applyMealAdded(tuesday, "m2", recipe(
+                new Ingredient("flour", 600, "grams", "Grains")));
+
+        Map<String, ShoppingItemState> states = new HashMap<>();
+        states.put("flour_g", new ShoppingItemState(120.5, true));
+
+        Map<String, ShoppingItem> byId = new HashMap<>();
+        for (ShoppingItem item : ShoppingListMaterializer.mergeDays(Arrays.asList(monday, tuesday), states)) {
+            byId.put(item.getId(), item);
+        }
+
+        ShoppingItem flour = byId.get("flour_g");
+        assertEquals(1.2, flour.getAmount(), 1e-9);
+        assertEquals("kg", flour.getUnit());
+        assertEquals(120.5, flour.getPrice(), 1e-9);
+        assertTrue(flour.isPurchased());
+
+        ShoppingItem garlic = byId.get("garlic_clove");
+        assertEquals(2, garlic.getAmount(), 1e-9);
+        assertEquals("clove", garlic.getUnit());
+        assertEquals("Spices & Seasonings", garlic.getCategory());
+        assertFalse(garlic.isPurchased());
+    }
+
+    @Test
+    public void mergeDays_withNoDays_isEmpty() {
+        assertTrue(ShoppingListMaterializer.mergeDays(Collections.<ShoppingListDay>emptyList(), null).isEmpty());
+    }
+
+    private static Recipe recipe(Ingredient... ingredients) {
+        List<Ingredient> list = new ArrayList<>(Arrays.asList(ingredients));
+        return new Recipe("r", "Recipe", "", "20 mins", 4f, list, Arrays.asList("Cook"), "Dinner");
+    }
+}
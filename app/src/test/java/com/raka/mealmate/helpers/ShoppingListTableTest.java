@@ -0,0 +1,312 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.ShoppingItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ShoppingListTableTest {
+
+    private static final String[] CATEGORIES = {"Vegetables", "Proteins", "Grains", "Dairy",
+            "Spices & Seasonings", "Condiments", "Fruits", "Other"};
+    private static final String[] UNITS = {"g", "kg", "ml", "l", "pieces", "clove", "tbsp"};
+
+    @Test
+    public void rows_areCategoryHeadersFollowedByItemsSortedByName() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(
+                item("tomato_pieces", "tomato", "Vegetables"),
+                item("rice_g", "Rice", "Grains"),
+                item("onion_pieces", "Onion", "Vegetables"),
+                item("basmati_g", "basmati", "Grains"),
+                item("garlic_clove", "Garlic", "Vegetables")));
+
+        assertEquals(7, table.rowCount());
+        assertEquals("Grains", table.headerAt(0));
+        assertEquals("basmati", table.getName(table.itemAt(1)));
+        assertEquals("Rice", table.getName(table.itemAt(2)));
+        assertEquals("Vegetables", table.headerAt(3));
+        assertEquals("Garlic", table.getName(table.itemAt(4)));
+        assertEquals("Onion", table.getName(table.itemAt(5)));
+        assertEquals("tomato", table.getName(table.itemAt(6)));
+        for (int row = 0; row < table.rowCount(); row++) {
+            if (!table.isHeader(row)) {
+                assertEquals(row, table.rowOf(table.itemAt(row)));
+            }
+        }
+    }
+
+    @Test
+    public void removeItem_dropsEmptyCategoryHeaderAndKeepsIndices() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(
+                item("milk_ml", "Milk", "Dairy"),
+                item("rice_g", "Rice", "Grains"),
+                item("pasta_g", "Pasta", "Grains")));
+
+        table.removeItem(0);
+
+        assertEquals(2, table.size());
+        assertEquals(3, table.rowCount());
+        assertEquals("Grains", table.headerAt(0));
+        assertEquals(1, table.sectionCount());
+        assertTrue(table.isRemoved(0));
+        assertEquals(-1, table.rowOf(0));
+        assertEquals("Pasta", table.getName(2));
+        assertEquals(1, table.rowOf(2));
+        assertEquals(2, table.rowOf(1));
+    }
+
+    @Test
+    public void insertItem_placesItemAndNewSectionInSortedOrder() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(
+                item("rice_g", "Rice", "Grains"),
+                item("basmati_g", "basmati", "Grains"),
+                item("garlic_clove", "Garlic", "Vegetables")));
+
+        int oats = table.insertItem(item("oats_g", "oats", "Grains"));
+        int milk = table.insertItem(item("milk_ml", "Milk", "Dairy"));
+
+        assertEquals(5, table.size());
+        assertEquals(8, table.rowCount());
+        assertEquals("Dairy", table.headerAt(0));
+        assertEquals(1, table.rowOf(milk));
+        assertEquals("Grains", table.headerAt(2));
+        assertEquals("basmati", table.getName(table.itemAt(3)));
+        assertEquals(4, table.rowOf(oats));
+        assertEquals("Rice", table.getName(table.itemAt(5)));
+        assertEquals("Vegetables", table.headerAt(6));
+    }
+
+    @Test
+    public void sectionIndex_mapsRowsToCategories() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(
+                item("milk_ml", "Milk", "Dairy"),
+                item("rice_g", "Rice", "Grains"),
+                item("pasta_g", "Pasta", "Grains"),
+                item("garlic_clove", "Garlic", "Vegetables")));
+
+        assertEquals(3, table.sectionCount());
+        assertEquals("Grains", table.sectionTitle(1));
+        assertEquals(2, table.sectionStartRow(1));
+        assertEquals(2, table.sectionSize(1));
+        assertEquals(0, table.sectionForRow(1));
+        assertEquals(1, table.sectionForRow(2));
+        assertEquals(1, table.sectionForRow(4));
+        assertEquals(2, table.sectionForRow(6));
+    }
+
+    @Test
+    public void incrementalEdits_matchAFullRebuild() {
+        Random random = new Random(11);
+        List<ShoppingItem> items = sampleItems(2_000, random);
+        ShoppingListTable table = ShoppingListTable.from(items.subList(0, 1_000));
+        List<ShoppingItem> expected = new ArrayList<>(items.subList(0, 1_000));
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            indices.add(i);
+        }
+
+        for (int step = 0; step < 2_000; step++) {
+            if (random.nextBoolean() && !indices.isEmpty()) {
+                int pick = random.nextInt(indices.size());
+                table.removeItem(indices.remove(pick));
+                expected.remove(pick);
+            } else {
+                ShoppingItem item = items.get(1_000 + random.nextInt(1_000));
+                indices.add(table.insertItem(item));
+                expected.add(item);
+            }
+        }
+
+        ShoppingListTable rebuilt = ShoppingListTable.from(expected);
+        assertEquals(rebuilt.size(), table.size());
+        assertEquals(rebuilt.rowCount(), table.rowCount());
+        assertEquals(rebuilt.sectionCount(), table.sectionCount());
+        for (int row = 0; row < table.rowCount(); row++) {
+            assertEquals(rebuilt.isHeader(row), table.isHeader(row));
+            if (table.isHeader(row)) {
+                assertEquals(rebuilt.headerAt(row), table.headerAt(row));
+            } else {
+                assertEquals(0, rebuilt.getName(rebuilt.itemAt(row))
+                        .compareToIgnoreCase(table.getName(table.itemAt(row))));
+                assertEquals(row, table.rowOf(table.itemAt(row)));
+            }
+        }
+    }
+
+    @Test
+    public void copy_isUnaffectedByLaterEdits() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(
+                item("milk_ml", "Milk", "Dairy"),
+                item("rice_g", "Rice", "Grains")));
+        ShoppingListTable copy = table.copy();
+
+        copy.removeItem(0);
+        copy.setPrice(1, 42);
+        copy.setPurchased(1, true);
+        copy.insertItem(item("eggs_pieces", "Eggs", "Proteins"));
+
+        assertEquals(4, table.rowCount());
+        assertEquals("Milk", table.getName(table.itemAt(1)));
+        assertEquals(0, table.getPrice(1), 0);
+        assertFalse(table.isPurchased(1));
+        assertEquals(2, table.indexCount());
+        assertEquals(4, copy.rowCount());
+        assertEquals(42, copy.getPrice(1), 0);
+    }
+
+    @Test
+    public void indexOf_findsLiveItemsOnly() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(
+                item("milk_ml", "Milk", "Dairy"),
+                item("rice_g", "Rice", "Grains")));
+        assertEquals(1, table.indexOf("rice_g"));
+        assertEquals(-1, table.indexOf("eggs_pieces"));
+
+        table.removeItem(0);
+        assertEquals(-1, table.indexOf("milk_ml"));
+        int restored = table.insertItem(item("milk_ml", "Milk", "Dairy"));
+        assertEquals(restored, table.indexOf("milk_ml"));
+    }
+
+    @Test
+    public void inPlaceEdits_andConversionBack() {
+        ShoppingListTable table = ShoppingListTable.from(Arrays.asList(item("rice_g", "Rice", "Grains")));
+        table.setAmount(0, 2.5);
+        table.setPrice(0, 99.5);
+        table.setPurchased(0, true);
+
+        ShoppingItem item = table.toShoppingItem(0);
+        assertEquals("rice_g", item.getId());
+        assertEquals(2.5, item.getAmount(), 0);
+        assertEquals(99.5, item.getPrice(), 0);
+        assertTrue(item.isPurchased());
+        assertEquals("g", item.getUnit());
+    }
+
+    @Test
+    public void largeList_sortsEveryCategory() {
+        ShoppingListTable table = ShoppingListTable.from(sampleItems(10_000, new Random(3)));
+
+        assertEquals(10_000 + CATEGORIES.length, table.rowCount());
+        assertSortedSections(table);
+    }
+
+    @Test
+    public void benchmark_singleEditVersusRebuildAtTenThousandItems() {
+        List<ShoppingItem> items = sampleItems(10_000, new Random(5));
+        ShoppingListTable table = ShoppingListTable.from(items);
+        ShoppingItem extra = items.get(0);
+
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            table.removeItem(table.insertItem(extra));
+        }
+        long incrementalNanos = (System.nanoTime() - start) / runs;
+
+        start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            ShoppingListTable.from(items);
+        }
+        long rebuildNanos = (System.nanoTime() - start) / runs;
+
+        // Wall-clock times vary between machines, so they are only reported
+        System.out.println("Shopping list edit at 10000 items: insert+remove=" + incrementalNanos / 1000
+                + " us, rebuild=" + rebuildNanos / 1000 + " us");
+        assertEquals(10_000, table.size());
+        assertSortedSections(table);
+    }
+
+    @Test
+    public void benchmark_heapFootprintAtTenThousandItems() {
+        int count = 10_000;
+        // Build the ids and names up front: both layouts keep them
+        List<ShoppingItem> template = sampleItems(count, new Random(7));
+
+        long baseline = usedHeap();
+        List<ShoppingItem> objects = copyLikeFirebase(template);
+        long objectBytes = usedHeap() - baseline;
+
+        baseline = usedHeap();
+        ShoppingListTable table = ShoppingListTable.from(copyLikeFirebase(template));
+        long tableBytes = usedHeap() - baseline;
+
+        // Heap readings depend on the collector, so they are only reported
+        System.out.println("Shopping list heap at " + count + " items: objects=" + objectBytes / 1024
+                + " KB, table=" + tableBytes / 1024 + " KB (" + table.rowCount() + " rows)");
+        assertEquals(count, objects.size());
+        assertEquals(count, table.size());
+    }
+
+    // Each section is a header followed by its items sorted by name, in category order
+    private static void assertSortedSections(ShoppingListTable table) {
+        int items = 0;
+        for (int section = 0; section < table.sectionCount(); section++) {
+            int header = table.sectionStartRow(section);
+            assertTrue(table.isHeader(header));
+            assertEquals(table.sectionTitle(section), table.headerAt(header));
+            if (section > 0) {
+                assertTrue(table.sectionTitle(section - 1).compareTo(table.sectionTitle(section)) < 0);
+            }
+            String previous = null;
+            for (int row = header + 1; row <= header + table.sectionSize(section); row++) {
+                assertFalse(table.isHeader(row));
+                int index = table.itemAt(row);
+                assertEquals(table.sectionTitle(section), table.getCategory(index));
+                String name = table.getName(index);
+                assertTrue(previous == null || previous.compareToIgnoreCase(name) <= 0);
+                previous = name;
+                items++;
+            }
+        }
+        assertEquals(table.size(), items);
+        assertEquals(table.size() + table.sectionCount(), table.rowCount());
+    }
+
+    // Firebase hands every item its own category and unit strings
+    private static List<ShoppingItem> copyLikeFirebase(List<ShoppingItem> template) {
+        List<ShoppingItem> copies = new ArrayList<>(template.size());
+        for (ShoppingItem source : template) {
+            ShoppingItem copy = new ShoppingItem(source.getName(), source.getAmount(),
+                    new String(source.getUnit()), new String(source.getCategory()));
+            copy.setId(source.getId());
+            copy.setPrice(source.getPrice());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static List<ShoppingItem> sampleItems(int count, Random random) {
+        List<ShoppingItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String unit = UNITS[random.nextInt(UNITS.length)];
+            ShoppingItem item = new ShoppingItem("Item " + random.nextInt(1_000_000), 1 + random.nextInt(500),
+                    unit, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            item.setId("item-" + i + "_" + unit);
+            item.setPrice(10 + random.nextInt(490));
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static ShoppingItem item(String id, String name, String category) {
+        String unit = id.substring(id.indexOf('_') + 1);
+        ShoppingItem item = new ShoppingItem(name, 1, unit, category);
+        item.setId(id);
+        return item;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,45 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Store;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class StoreChangeTrackerTest {
+
+    @Test
+    public void update_reportsOnlyAddedMovedAndRemovedStores() {
+        StoreChangeTracker tracker = new StoreChangeTracker();
+        StoreChangeTracker.Changes first = tracker.update(Arrays.asList(
+                store("a", "Central", 27.71), store("b", "Corner", 27.72), store("c", "Market", 27.73)));
+        assertEquals(3, first.added.size());
+
+        // Fresh objects from the next snapshot: only b moved, c is gone and d is new
+        StoreChangeTracker.Changes second = tracker.update(Arrays.asList(
+                store("a", "Central", 27.71), store("b", "Corner", 27.75), store("d", "Depot", 27.74)));
+
+        assertEquals(1, second.added.size());
+        assertEquals("d", second.added.get(0).getId());
+        assertEquals(1, second.updated.size());
+        assertEquals("b", second.updated.get(0).getId());
+        assertEquals(Arrays.asList("c"), second.removed);
+        assertTrue(tracker.update(Arrays.asList(
+                store("a", "Central", 27.71), store("b", "Corner", 27.75), store("d", "Depot", 27.74))).isEmpty());
+    }
+
+    @Test
+    public void clear_makesEveryStoreNewAgain() {
+        StoreChangeTracker tracker = new StoreChangeTracker();
+        tracker.update(Arrays.asList(store("a", "Central", 27.71)));
+        tracker.clear();
+
+        assertEquals(1, tracker.update(Arrays.asList(store("a", "Central", 27.71))).added.size());
+    }
+
+    private static Store store(String id, String name, double latitude) {
+        return new Store(id, name, name + " Road", latitude, 85.32, "Supermarket", "", null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Store;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StoreSnapshotTest {
+
+    @Test
+    public void indexes_answerByIdTypeAndLocation() {
+        StoreSnapshot snapshot = StoreSnapshot.of(3, new ArrayList<>(Arrays.asList(
+                store("sample1", "Supermarket", 27.7172, 85.3240),
+                store("sample2", "Convenience Store", 27.7102, 85.3156),
+                store("sample3", "Supermarket", 27.7242, 85.3320),
+                store("untyped", null, 27.7000, 85.3000))));
+
+        assertEquals(3, snapshot.getVersion());
+        assertEquals(4, snapshot.size());
+        assertEquals("sample2", snapshot.getStoreById("sample2").getId());
+        assertNull(snapshot.getStoreById("missing"));
+        assertNull(snapshot.getStoreById(null));
+        assertEquals(2, snapshot.getStoresOfType("Supermarket").size());
+        assertEquals(1, snapshot.getStoresOfType(null).size());
+        assertTrue(snapshot.getStoresOfType("Farmers Market").isEmpty());
+        assertEquals("sample1", snapshot.getSpatialIndex().nearest(27.7173, 85.3241, 1).get(0).getId());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void stores_areReadOnly() {
+        List<Store> stores = StoreSnapshot.of(1, new ArrayList<>()).getStores();
+        stores.add(new Store());
+    }
+
+    @Test
+    public void empty_isVersionZero() {
+        assertEquals(0, StoreSnapshot.EMPTY.getVersion());
+        assertTrue(StoreSnapshot.EMPTY.getStores().isEmpty());
+        assertEquals(0, StoreSnapshot.EMPTY.getSpatialIndex().size());
+    }
+
+    private static Store store(String id, String type, double latitude, double longitude) {
+        return new Store(id, id, "", latitude, longitude, type, "", null);
+    }
+}
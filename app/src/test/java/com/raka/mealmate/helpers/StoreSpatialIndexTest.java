@@ -0,0 +1,150 @@
+package com.raka.mealmate.helpers;
+
+import com.raka.mealmate.models.Store;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StoreSpatialIndexTest {
+
+    private static final double KATHMANDU_LAT = 27.7172;
+    private static final double KATHMANDU_LON = 85.3240;
+
+    @Test
+    public void nearest_returnsClosestFirstAndSkipsStoresWithoutCoordinates() {
+        StoreSpatialIndex index = StoreSpatialIndex.build(Arrays.asList(
+                store("far", 27.7242, 85.3320),
+                store("near", 27.7175, 85.3242),
+                store("unset", 0, 0),
+                store("middle", 27.7102, 85.3156)));
+
+        assertEquals(3, index.size());
+        List<Store> nearest = index.nearest(KATHMANDU_LAT, KATHMANDU_LON, 2);
+        assertEquals(2, nearest.size());
+        assertEquals("near", nearest.get(0).getId());
+        assertEquals("far", nearest.get(1).getId());
+        assertEquals(3, index.nearest(KATHMANDU_LAT, KATHMANDU_LON, 10).size());
+    }
+
+    @Test
+    public void withinRadius_usesGreatCircleMeters() {
+        StoreSpatialIndex index = StoreSpatialIndex.build(Arrays.asList(
+                store("a", 27.7172, 85.3240),
+                store("b", 27.7262, 85.3240),
+                store("c", 27.8072, 85.3240)));
+
+        // One hundredth of a degree of latitude is about 1.1 km
+        double toB = StoreSpatialIndex.distanceMeters(27.7172, 85.3240, 27.7262, 85.3240);
+        assertEquals(1000.8, toB, 1.0);
+        List<Store> inside = index.withinRadius(KATHMANDU_LAT, KATHMANDU_LON, 1500);
+        assertEquals(2, inside.size());
+        assertEquals("a", inside.get(0).getId());
+        assertEquals("b", inside.get(1).getId());
+        assertTrue(index.withinRadius(KATHMANDU_LAT, KATHMANDU_LON, -1).isEmpty());
+    }
+
+    @Test
+    public void queries_matchBruteForceAcrossTheDateLine() {
+        Random random = new Random(21);
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            stores.add(store("s" + i, -10 + random.nextDouble() * 20, 175 + random.nextDouble() * 10 - 180 * (i % 2) * 2));
+        }
+        StoreSpatialIndex index = StoreSpatialIndex.build(stores);
+
+        for (int q = 0; q < 50; q++) {
+            double lat = -10 + random.nextDouble() * 20;
+            double lon = random.nextBoolean() ? 179.9 : -179.9;
+            List<Store> expected = sortedByDistance(stores, lat, lon);
+            List<Store> nearest = index.nearest(lat, lon, 5);
+            for (int i = 0; i < 5; i++) {
+                assertEquals(expected.get(i).getId(), nearest.get(i).getId());
+            }
+
+            double radius = 200_000;
+            int inside = 0;
+            for (Store store : expected) {
+                if (distance(store, lat, lon) <= radius) {
+                    inside++;
+                }
+            }
+            assertEquals(inside, index.withinRadius(lat, lon, radius).size());
+        }
+    }
+
+    @Test
+    public void benchmark_fiftyThousandStores() {
+        Random random = new Random(4);
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            // Spread across the Kathmandu valley and a wider region
+            double spread = i % 10 == 0 ? 5 : 0.2;
+            stores.add(store("s" + i, KATHMANDU_LAT + (random.nextDouble() - 0.5) * spread,
+                    KATHMANDU_LON + (random.nextDouble() - 0.5) * spread));
+        }
+
+        long start = System.nanoTime();
+        StoreSpatialIndex index = StoreSpatialIndex.build(stores);
+        long buildNanos = System.nanoTime() - start;
+
+        int queries = 1_000;
+        double[][] points = new double[queries][];
+        for (int q = 0; q < queries; q++) {
+            points[q] = new double[]{KATHMANDU_LAT + (random.nextDouble() - 0.5) * 0.3,
+                    KATHMANDU_LON + (random.nextDouble() - 0.5) * 0.3};
+        }
+        start = System.nanoTime();
+        int found = 0;
+        for (double[] point : points) {
+            found += index.nearest(point[0], point[1], 10).size();
+        }
+        long nearestNanos = (System.nanoTime() - start) / queries;
+
+        start = System.nanoTime();
+        for (double[] point : points) {
+            found += index.withinRadius(point[0], point[1], 500).size();
+        }
+        long radiusNanos = (System.nanoTime() - start) / queries;
+
+        // The old approach: sort every store by distance to find the closest
+        int sorts = 5;
+        start = System.nanoTime();
+        for (int q = 0; q < sorts; q++) {
+            assertEquals(sortedByDistance(stores, points[q][0], points[q][1]).get(0).getId(),
+                    index.nearest(points[q][0], points[q][1], 1).get(0).getId());
+        }
+        long sortNanos = (System.nanoTime() - start) / sorts;
+
+        System.out.println("Store index at 50000 stores: build " + buildNanos / 1_000_000 + " ms, nearest-10 "
+                + nearestNanos / 1000 + " us, 500 m radius " + radiusNanos / 1000 + " us, full sort "
+                + sortNanos / 1_000_000 + " ms");
+        assertTrue(found > 0);
+        assertTrue(nearestNanos * 100 < sortNanos);
+    }
+
+    private static List<Store> sortedByDistance(List<Store> stores, double lat, double lon) {
+        List<Store> sorted = new ArrayList<>(stores);
+        Collections.sort(sorted, Comparator.comparingDouble(store -> distance(store, lat, lon)));
+        return sorted;
+    }
+
+    private static double distance(Store store, double lat, double lon) {
+        return StoreSpatialIndex.distanceMeters(lat, lon, store.getLatitude(), store.getLongitude());
+    }
+
+    private static Store store(String id, double latitude, double longitude) {
+        Store store = new Store();
+        store.setId(id);
+        store.setLatitude(latitude);
+        store.setLongitude(longitude);
+        return store;
+    }
+}
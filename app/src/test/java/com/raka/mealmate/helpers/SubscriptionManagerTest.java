@@ -0,0 +1,88 @@
+package com.raka.mealmate.helpers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SubscriptionManagerTest {
+
+    private SubscriptionManager manager;
+    private List<String> attached;
+
+    @Before
+    public void setUp() {
+        manager = new SubscriptionManager();
+        attached = new ArrayList<>();
+    }
+
+    @Test
+    public void set_swapsTheListenerInsteadOfStackingOne() {
+        manager.start();
+        manager.set("day", "20240315", source("20240315"));
+        manager.set("day", "20240316", source("20240316"));
+        manager.set("day", "20240317", source("20240317"));
+
+        assertEquals(1, manager.getActiveCount());
+        assertEquals(1, attached.size());
+        assertEquals("20240317", attached.get(0));
+    }
+
+    @Test
+    public void set_sameKeyKeepsTheAttachedListener() {
+        manager.start();
+        assertTrue(manager.set("day", "20240315", source("first")));
+        assertFalse(manager.set("day", "20240315", source("second")));
+
+        assertEquals(1, manager.getActiveCount());
+        assertEquals("first", attached.get(0));
+    }
+
+    @Test
+    public void stopAndStart_followTheLifecycle() {
+        // Set before onStart: nothing is attached until the manager starts
+        manager.set("day", "20240315", source("day"));
+        manager.set("week", "2024-W11", source("week"));
+        assertEquals(0, manager.getActiveCount());
+
+        manager.start();
+        assertEquals(2, manager.getActiveCount());
+
+        manager.stop();
+        assertEquals(0, manager.getActiveCount());
+        assertTrue(attached.isEmpty());
+
+        manager.start();
+        manager.start();
+        assertEquals(2, manager.getActiveCount());
+
+        manager.clear();
+        assertEquals(0, manager.getActiveCount());
+        assertNull(manager.getKey("day"));
+        manager.start();
+        assertEquals(0, manager.getActiveCount());
+    }
+
+    @Test
+    public void remove_detachesOneSlot() {
+        manager.start();
+        manager.set("day", "20240315", source("day"));
+        manager.set("week", "2024-W11", source("week"));
+
+        manager.remove("day");
+
+        assertEquals(1, manager.getActiveCount());
+        assertEquals("week", attached.get(0));
+        assertEquals("2024-W11", manager.getKey("week"));
+    }
+
+    private SubscriptionManager.Source source(String name) {
+        return () -> {
+            attached.add(name);
+            return () -> attached.remove(name);
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.raka.mealmate.repositories;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CounterRepositoryTest {
+
+    @Test
+    public void addCounted_keepsAnExistingItem() {
+        boolean keepExisting = true;
+
+        assertFalse(CounterRepository.writes(true, keepExisting));
+        assertTrue(CounterRepository.writes(false, keepExisting));
+        assertEquals(1, CounterRepository.countChange(false, false));
+    }
+
+    @Test
+    public void setCounted_countsOnlyNewItems() {
+        assertTrue(CounterRepository.writes(true, false));
+        assertEquals(0, CounterRepository.countChange(true, false));
+        assertEquals(1, CounterRepository.countChange(false, false));
+    }
+
+    @Test
+    public void removeCounted_uncountsOnlyExistingItems() {
+        assertEquals(-1, CounterRepository.countChange(true, true));
+        assertEquals(0, CounterRepository.countChange(false, true));
+    }
+}
@@ -0,0 +1,117 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.RecipeClassifier;
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class LocalRecipeRepositoryTest {
+
+    private InMemoryRecipeStore store;
+    private LocalRecipeRepository repository;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryRecipeStore();
+        repository = new LocalRecipeRepository(store, Runnable::run, Runnable::run);
+    }
+
+    @Test
+    public void reconcile_replacesStaleRowsAndKeepsTitleOrder() {
+        store.upsert(recipe("old", "Old Soup", "Lunch", 3f));
+        repository.reconcile(Arrays.asList(
+                recipe("b", "banana Pancakes", "Breakfast", 4.5f),
+                recipe("a", "Apple Crumble", "Dessert", 4.8f)));
+
+        List<String> titles = new ArrayList<>();
+        for (Recipe recipe : store.getAll()) {
+            titles.add(recipe.getTitle());
+        }
+        assertEquals(Arrays.asList("Apple Crumble", "banana Pancakes"), titles);
+        assertNull(store.get("old"));
+    }
+
+    @Test
+    public void saveAndRemove_updateIndexes() {
+        repository.save(recipe("1", "Omelette", "Breakfast", 4.1f));
+        repository.save(recipe("2", "Granola", "Breakfast", 4.6f));
+        repository.save(recipe("3", "Steak", "Dinner", 4.9f));
+        repository.save(recipe("2", "Granola Bowl", "Breakfast", 3.0f));
+        repository.remove("1");
+
+        assertEquals(2, store.count());
+        assertEquals(1, store.getByCategory("Breakfast").size());
+        assertEquals("Granola Bowl", store.getByCategory("Breakfast").get(0).getTitle());
+        assertEquals("Steak", store.getTopRated(1).get(0).getTitle());
+        assertTrue(store.getByCategory("Lunch").isEmpty());
+    }
+
+    @Test
+    public void loadCached_returnsDecodedClassifiedCopies() {
+        Recipe stored = recipe("1", "Quick Breakfast Oats", "Breakfast", 4.2f);
+        repository.save(stored);
+        stored.setTitle("Changed after saving");
+
+        AtomicReference<List<Recipe>> loaded = new AtomicReference<>();
+        repository.loadCached((recipes, elapsedMs) -> loaded.set(recipes));
+
+        Recipe cached = loaded.get().get(0);
+        assertEquals("Quick Breakfast Oats", cached.getTitle());
+        assertEquals(2, cached.getIngredients().size());
+        assertEquals("Oats", cached.getIngredients().get(0).getName());
+        assertTrue(RecipeClassifier.matches(cached, RecipeClassifier.BREAKFAST));
+    }
+
+    @Test
+    public void loadCached_firstContentUnder100ms() throws Exception {
+        ExecutorService io = Executors.newSingleThreadExecutor();
+        LocalRecipeRepository timed = new LocalRecipeRepository(store, io, Runnable::run);
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            recipes.add(recipe("r" + i, "Recipe " + i, i % 2 == 0 ? "Dinner" : "Lunch", (i % 50) / 10f));
+        }
+        timed.reconcile(recipes);
+
+        // Warm up once, as a device that has opened the browser before would be
+        loadAndWait(timed);
+        long elapsedMs = loadAndWait(timed);
+        io.shutdown();
+
+        System.out.println("Local store: first content for 1000 recipes in " + elapsedMs + " ms");
+        assertTrue("Time to first content was " + elapsedMs + " ms", elapsedMs < 100);
+    }
+
+    private static long loadAndWait(LocalRecipeRepository repository) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicLong elapsed = new AtomicLong();
+        repository.loadCached((recipes, elapsedMs) -> {
+            assertEquals(1000, recipes.size());
+            elapsed.set(elapsedMs);
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return elapsed.get();
+    }
+
+    private static Recipe recipe(String id, String title, String category, float rating) {
+        List<Ingredient> ingredients = Arrays.asList(
+                new Ingredient("Oats", 1, "cup", "Grains"),
+                new Ingredient("Milk", 250, "ml", "Dairy"));
+        List<String> instructions = Arrays.asList("Mix everything", "Cook for 10 minutes");
+        return new Recipe(id, title, "", "10 mins", rating, ingredients, instructions, category);
+    }
+}
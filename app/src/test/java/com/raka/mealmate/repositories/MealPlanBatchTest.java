@@ -0,0 +1,97 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.RecipeCodec;
+import com.raka.mealmate.models.MealPlan;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MealPlanBatchTest {
+
+    @Test
+    public void slotKey_isDateMealTimeAndRecipe() {
+        assertEquals("20240315_Dinner_r1", MealPlanBatch.slotKey("20240315", "Dinner", "r1"));
+        assertNotEquals(MealPlanBatch.slotKey("20240315", "Dinner", "r1"),
+                MealPlanBatch.slotKey("20240316", "Dinner", "r1"));
+    }
+
+    @Test
+    public void of_keysEachPlanBySlotAndStoresItsRecipeVersion() {
+        Recipe curry = recipe("r1", "Curry");
+        MealPlan dinner = meal(curry, "20240315", "Dinner");
+        MealPlan lunch = meal(curry, "20240316", "Lunch");
+
+        MealPlanBatch batch = MealPlanBatch.of("u1", Arrays.asList(dinner, lunch), (recipeId, version) -> false);
+
+        long version = RecipeCodec.version(curry);
+        assertEquals("20240315_Dinner_r1", dinner.getId());
+        assertEquals("u1", dinner.getUserId());
+        assertEquals(version, dinner.getRecipeVersion());
+        assertEquals(Arrays.asList("20240315", "20240316"), new ArrayList<>(batch.slotsByDay.keySet()));
+        assertSame(dinner, batch.slotsByDay.get("20240315").get("20240315_Dinner_r1"));
+        assertSame(lunch, batch.slotsByDay.get("20240316").get("20240316_Lunch_r1"));
+        // Both plans share one recipe version
+        assertEquals(Collections.singleton("planRecipes/u1/r1/" + Long.toHexString(version)),
+                batch.recipeUpdates.keySet());
+        Map<?, ?> stored = (Map<?, ?>) batch.recipeUpdates.get("planRecipes/u1/r1/" + Long.toHexString(version));
+        assertEquals("Curry", stored.get("title"));
+    }
+
+    @Test
+    public void of_skipsRecipeVersionsAlreadyStored() {
+        MealPlanBatch batch = MealPlanBatch.of("u1",
+                Collections.singletonList(meal(recipe("r1", "Curry"), "20240315", "Dinner")),
+                (recipeId, version) -> true);
+
+        assertTrue(batch.recipeUpdates.isEmpty());
+        assertEquals(1, batch.slotsByDay.get("20240315").size());
+    }
+
+    @Test
+    public void of_keepsTheLastPlanForASlot() {
+        Recipe curry = recipe("r1", "Curry");
+        MealPlan first = meal(curry, "20240316", "Dinner");
+        MealPlan second = meal(curry, "20240316", "Dinner");
+        List<MealPlan> plans = Arrays.asList(meal(curry, "20240316", "Lunch"), first, second);
+
+        MealPlanBatch batch = MealPlanBatch.of("u1", plans, (recipeId, version) -> true);
+
+        Map<String, MealPlan> day = batch.slotsByDay.get("20240316");
+        assertEquals(Arrays.asList("20240316_Lunch_r1", "20240316_Dinner_r1"), new ArrayList<>(day.keySet()));
+        assertSame(second, day.get("20240316_Dinner_r1"));
+    }
+
+    @Test
+    public void of_derivesAnIdForUnsavedRecipes() {
+        Recipe unsaved = recipe(null, "Soup");
+        MealPlan meal = meal(unsaved, "20240315", "Dinner");
+
+        MealPlanBatch.of("u1", Collections.singletonList(meal), (recipeId, version) -> false);
+
+        assertEquals("r" + Long.toHexString(RecipeCodec.version(unsaved)), meal.getRecipeId());
+        assertEquals("20240315_Dinner_" + meal.getRecipeId(), meal.getId());
+    }
+
+    private static Recipe recipe(String id, String title) {
+        Recipe recipe = new Recipe(title, "", "30 min");
+        recipe.setId(id);
+        return recipe;
+    }
+
+    private static MealPlan meal(Recipe recipe, String dateKey, String mealTime) {
+        MealPlan meal = new MealPlan();
+        meal.setRecipe(recipe);
+        meal.setRecipeId(recipe.getId());
+        meal.setDate(dateKey);
+        meal.setMealTime(mealTime);
+        return meal;
+    }
+}
@@ -0,0 +1,212 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.RecipeClassifier;
+import com.raka.mealmate.helpers.RecipeSearchIndex;
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Throughput of the recipe data paths against the in-memory repository at 100k recipes
+ */
+public class RecipeRepositoryBenchmarkTest {
+
+    private static final int RECIPE_COUNT = 100_000;
+    private static final String[] WORDS = {"chicken", "pasta", "salad", "curry", "soup", "quinoa",
+            "pancakes", "salmon", "tofu", "stir-fry", "omelette", "risotto", "tacos", "smoothie"};
+    private static final String[] CATEGORIES = {"Breakfast", "Lunch", "Dinner", "Dessert", "Vegetarian"};
+
+    @Test
+    public void syncEngine_tracksEventsFromRepository() {
+        InMemoryRecipeRepository repository = new InMemoryRecipeRepository();
+        repository.putRecipe(recipe("a", "Chicken Curry", "Dinner", 4.5f));
+
+        List<String> events = new ArrayList<>();
+        RecipeSyncEngine engine = new RecipeSyncEngine(repository);
+        engine.setRecipeChangeListener(new RecordingListener(events));
+        engine.start();
+
+        repository.putRecipe(recipe("b", "Berry Smoothie", "Breakfast", 4.0f));
+        repository.putRecipe(recipe("a", "Chicken Curry Deluxe", "Dinner", 4.7f));
+        repository.deleteRecipe("b", new NoOpCallback<>());
+        engine.stop();
+        repository.putRecipe(recipe("c", "Ignored After Stop", "Lunch", 3f));
+
+        assertEquals(Arrays.asList("initial:1", "added:b", "changed:a", "removed:b"), events);
+        assertEquals("Chicken Curry Deluxe", engine.getRecipe("a").getTitle());
+        assertTrue(RecipeClassifier.matches(engine.getRecipe("a"), RecipeClassifier.DINNER));
+    }
+
+    @Test
+    public void featuredAndCount_observersSeeUpdates() {
+        InMemoryRecipeRepository repository = new InMemoryRecipeRepository();
+        AtomicReference<List<Recipe>> featured = new AtomicReference<>();
+        AtomicInteger count = new AtomicInteger(-1);
+
+        RecipeRepository.Registration featuredRegistration = repository.observeFeaturedRecipes(2,
+                new ValueCallback<>(featured::set));
+        repository.observeRecipeCount(new ValueCallback<>(count::set));
+        assertEquals(0, count.get());
+
+        repository.setFeaturedRecipes(Arrays.asList(
+                recipe("1", "Good", "Dinner", 4.6f),
+                recipe("2", "Best", "Dinner", 4.9f),
+                recipe("3", "Fine", "Dinner", 4.1f)));
+        assertEquals("Best", featured.get().get(0).getTitle());
+        assertEquals(2, featured.get().size());
+
+        Recipe unsaved = recipe(null, "New Recipe", "Lunch", 4f);
+        repository.saveRecipe(unsaved, new NoOpCallback<>());
+        assertNotNull(unsaved.getId());
+        assertEquals(1, count.get());
+
+        featuredRegistration.remove();
+        repository.setFeaturedRecipes(new ArrayList<>());
+        assertEquals(2, featured.get().size());
+    }
+
+    @Test
+    public void benchmark_syncAndFilterAt100k() {
+        InMemoryRecipeRepository repository = new InMemoryRecipeRepository();
+        List<Recipe> recipes = generate(RECIPE_COUNT, new Random(42));
+
+        long start = System.nanoTime();
+        repository.putRecipes(recipes);
+        long loadMs = (System.nanoTime() - start) / 1_000_000L;
+
+        List<String> events = new ArrayList<>();
+        RecipeSyncEngine engine = new RecipeSyncEngine(repository);
+        engine.setRecipeChangeListener(new RecordingListener(events));
+        start = System.nanoTime();
+        engine.start();
+        long initialSyncMs = (System.nanoTime() - start) / 1_000_000L;
+        assertEquals("initial:" + RECIPE_COUNT, events.get(0));
+
+        // 10k remote edits arrive as individual change events
+        Random random = new Random(7);
+        start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            Recipe edited = recipe("r" + random.nextInt(RECIPE_COUNT), "Edited soup " + i, "Lunch", 4f);
+            repository.putRecipe(edited);
+        }
+        long deltaMs = (System.nanoTime() - start) / 1_000_000L;
+        assertEquals(10_001, events.size());
+
+        RecipeSearchIndex index = new RecipeSearchIndex();
+        start = System.nanoTime();
+        index.rebuild(engine.getRecipes());
+        long indexMs = (System.nanoTime() - start) / 1_000_000L;
+
+        start = System.nanoTime();
+        int matches = 0;
+        for (int i = 0; i < 100; i++) {
+            for (Recipe recipe : index.search(WORDS[i % WORDS.length], 200)) {
+                if (RecipeClassifier.matches(recipe, RecipeClassifier.DINNER)) {
+                    matches++;
+                }
+            }
+        }
+        double filterMs = (System.nanoTime() - start) / 1_000_000.0 / 100;
+        assertTrue(matches > 0);
+
+        System.out.println("In-memory repository, " + RECIPE_COUNT + " recipes: load " + loadMs
+                + " ms, initial sync " + initialSyncMs + " ms, 10k deltas " + deltaMs
+                + " ms, index " + indexMs + " ms, filter " + String.format("%.2f", filterMs) + " ms/query");
+        assertTrue("Initial sync took " + initialSyncMs + " ms", initialSyncMs < 5000);
+        assertTrue("10k deltas took " + deltaMs + " ms", deltaMs < 2000);
+        assertTrue("Filtering took " + filterMs + " ms per query", filterMs < 50);
+    }
+
+    private static List<Recipe> generate(int count, Random random) {
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            recipes.add(recipe("r" + i, title, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    3f + random.nextInt(20) / 10f));
+        }
+        return recipes;
+    }
+
+    private static Recipe recipe(String id, String title, String category, float rating) {
+        List<Ingredient> ingredients = Arrays.asList(
+                new Ingredient("Onion", 1, "piece", "Produce"),
+                new Ingredient("Olive oil", 2, "tbsp", "Pantry"));
+        return new Recipe(id, title, "", "25 mins", rating, ingredients, new ArrayList<>(), category);
+    }
+
+    private static final class RecordingListener implements RecipeSyncEngine.RecipeChangeListener {
+        private final List<String> events;
+
+        RecordingListener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onInitialLoad(List<Recipe> recipes) {
+            events.add("initial:" + recipes.size());
+        }
+
+        @Override
+        public void onRecipeAdded(Recipe recipe) {
+            events.add("added:" + recipe.getId());
+        }
+
+        @Override
+        public void onRecipeChanged(Recipe recipe) {
+            events.add("changed:" + recipe.getId());
+        }
+
+        @Override
+        public void onRecipeRemoved(String recipeId) {
+            events.add("removed:" + recipeId);
+        }
+
+        @Override
+        public void onSyncError(Exception error) {
+            events.add("error");
+        }
+    }
+
+    private interface ValueSink<T> {
+        void accept(T value);
+    }
+
+    private static final class ValueCallback<T> implements RecipeRepository.Callback<T> {
+        private final ValueSink<T> sink;
+
+        ValueCallback(ValueSink<T> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            sink.accept(result);
+        }
+
+        @Override
+        public void onFailure(Exception error) {
+            fail(error.getMessage());
+        }
+    }
+
+    private static final class NoOpCallback<T> implements RecipeRepository.Callback<T> {
+        @Override
+        public void onSuccess(T result) {
+        }
+
+        @Override
+        public void onFailure(Exception error) {
+            fail(error.getMessage());
+        }
+    }
+}
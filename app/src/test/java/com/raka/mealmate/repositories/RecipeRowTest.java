@@ -0,0 +1,73 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RecipeRowTest {
+
+    @Test
+    public void body_roundTripsNullsAmountsAndLongLists() throws Exception {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ingredients.add(new Ingredient("Spice " + i, 0.1 * i, i % 2 == 0 ? null : "g", "Spices"));
+        }
+        ingredients.add(new Ingredient("", 1e-9, "", null));
+        List<String> instructions = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            instructions.add("Step " + i);
+        }
+        instructions.add(null);
+        Recipe recipe = new Recipe("r1", "Long Curry", null, "2 hours", 4.7f, ingredients, instructions, null);
+
+        Recipe decoded = RecipeRow.decode(RecipeRow.encode(recipe));
+
+        assertEquals("r1", decoded.getId());
+        assertEquals("Long Curry", decoded.getTitle());
+        assertNull(decoded.getImageUrl());
+        assertNull(decoded.getCategory());
+        assertEquals(4.7f, decoded.getRating(), 0f);
+        assertEquals(301, decoded.getIngredients().size());
+        assertEquals(0.1 * 7, decoded.getIngredients().get(7).getAmount(), 0);
+        assertNull(decoded.getIngredients().get(8).getUnit());
+        assertEquals("g", decoded.getIngredients().get(9).getUnit());
+        assertEquals("", decoded.getIngredients().get(300).getName());
+        assertEquals(1e-9, decoded.getIngredients().get(300).getAmount(), 0);
+        assertNull(decoded.getIngredients().get(300).getCategory());
+        assertEquals(301, decoded.getInstructions().size());
+        assertEquals("Step 299", decoded.getInstructions().get(299));
+        assertNull(decoded.getInstructions().get(300));
+    }
+
+    @Test
+    public void of_fillsIndexedColumnsAndSkipsRecipesWithoutId() {
+        Recipe recipe = new Recipe(null, null, null, null, 3f, null, null, null);
+        assertNull(RecipeRow.of(recipe));
+
+        recipe.setId("r2");
+        RecipeRow row = RecipeRow.of(recipe);
+        assertEquals("r2", row.id);
+        assertEquals("", row.title);
+        assertEquals("", row.category);
+        assertEquals(3f, row.rating, 0f);
+    }
+
+    @Test
+    public void decode_rejectsCorruptBody() {
+        byte[] body = RecipeRow.encode(new Recipe("r3", "Soup", "", "10 mins", 4f, null, null, "Lunch"));
+        body[0] = 99;
+        try {
+            RecipeRow.decode(body);
+            fail("Expected an IOException");
+        } catch (IOException expected) {
+            // Rows from another body version are rejected rather than misread
+        }
+    }
+}
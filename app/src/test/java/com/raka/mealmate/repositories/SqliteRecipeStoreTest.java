@@ -0,0 +1,109 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.models.Ingredient;
+import com.raka.mealmate.models.Recipe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the real SQLite store on Robolectric's SQLite, so the queries,
+ * indexes and row bodies are what the app uses.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SqliteRecipeStoreTest {
+
+    private SqliteRecipeStore store;
+
+    @Before
+    public void setUp() {
+        store = new SqliteRecipeStore(RuntimeEnvironment.getApplication(), null);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void queries_useTitleCategoryAndRatingOrder() {
+        store.upsertAll(Arrays.asList(
+                recipe("1", "omelette", "Breakfast", 4.1f),
+                recipe("2", "Granola", "Breakfast", 4.6f),
+                recipe("3", "Steak", "Dinner", 4.9f)));
+
+        assertEquals(Arrays.asList("Granola", "omelette", "Steak"), titles(store.getAll()));
+        assertEquals(Arrays.asList("Granola", "omelette"), titles(store.getByCategory("Breakfast")));
+        assertEquals(Arrays.asList("Steak", "Granola"), titles(store.getTopRated(2)));
+        assertEquals(3, store.count());
+    }
+
+    @Test
+    public void upsertDeleteAndReplaceAll_keepOneRowPerId() {
+        store.upsert(recipe("1", "Soup", "Lunch", 3f));
+        store.upsert(recipe("1", "Tomato Soup", "Lunch", 3.5f));
+        store.upsert(recipe("2", "Salad", "Lunch", 4f));
+        store.delete("2");
+        assertEquals(1, store.count());
+        assertEquals("Tomato Soup", store.get("1").getTitle());
+
+        store.replaceAll(Arrays.asList(recipe("3", "Curry", "Dinner", 4.4f), recipe("1", "Soup", "Lunch", 3f)));
+        assertEquals(Arrays.asList("Curry", "Soup"), titles(store.getAll()));
+        assertNull(store.get("2"));
+
+        store.replaceAll(Collections.<Recipe>emptyList());
+        assertEquals(0, store.count());
+    }
+
+    @Test
+    public void rows_keepNullsExactAmountsAndLongLists() {
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            ingredients.add(new Ingredient("Spice " + i, 0.1 * i, null, "Spices"));
+        }
+        Recipe recipe = new Recipe("r1", "Long Curry", null, "2 hours", 4.7f,
+                ingredients, Collections.singletonList("Simmer"), null);
+        store.upsert(recipe);
+
+        Recipe stored = store.get("r1");
+        assertNull(stored.getImageUrl());
+        assertNull(stored.getCategory());
+        assertEquals(300, stored.getIngredients().size());
+        assertEquals(0.1 * 7, stored.getIngredients().get(7).getAmount(), 0);
+        assertNull(stored.getIngredients().get(7).getUnit());
+        // A null category is indexed as empty, so it stays findable
+        assertEquals(1, store.getByCategory("").size());
+    }
+
+    @Test
+    public void upsert_skipsRecipesWithoutId() {
+        Recipe recipe = recipe("1", "Soup", "Lunch", 3f);
+        recipe.setId(null);
+        store.upsert(recipe);
+        assertEquals(0, store.count());
+    }
+
+    private static List<String> titles(List<Recipe> recipes) {
+        List<String> titles = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            titles.add(recipe.getTitle());
+        }
+        return titles;
+    }
+
+    private static Recipe recipe(String id, String title, String category, float rating) {
+        List<Ingredient> ingredients = Collections.singletonList(new Ingredient("Salt", 1, "tsp", "Spices"));
+        return new Recipe(id, title, "", "10 mins", rating, ingredients, Collections.singletonList("Cook"), category);
+    }
+}
@@ -0,0 +1,146 @@
+package com.raka.mealmate.repositories;
+
+import com.raka.mealmate.helpers.StoreSnapshot;
+import com.raka.mealmate.models.Store;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class StoreSyncEngineTest {
+
+    private FakeStoreRepository repository;
+    private InMemoryStoreCache cache;
+    private List<Runnable> pendingDeliveries;
+    private List<StoreSnapshot> published;
+    private StoreSyncEngine engine;
+
+    @Before
+    public void setUp() {
+        repository = new FakeStoreRepository();
+        cache = new InMemoryStoreCache();
+        pendingDeliveries = new ArrayList<>();
+        published = new ArrayList<>();
+        // IO runs inline; deliveries queue up like posts to the main thread
+        Executor delivery = pendingDeliveries::add;
+        engine = new StoreSyncEngine(repository, cache, Runnable::run, delivery);
+        engine.setStoreSyncListener(new StoreSyncEngine.StoreSyncListener() {
+            @Override
+            public void onStoresChanged(StoreSnapshot snapshot) {
+                published.add(snapshot);
+            }
+
+            @Override
+            public void onSyncError(Exception error) {
+                fail(error.getMessage());
+            }
+        });
+    }
+
+    @Test
+    public void start_publishesCachedStoresBeforeTheRemoteLoad() {
+        cache.replaceAll(Arrays.asList(store("cached", 27.71)));
+
+        engine.start();
+        runDeliveries();
+
+        assertEquals(1, published.size());
+        assertEquals("cached", published.get(0).getStores().get(0).getId());
+        assertTrue(engine.getMetrics().cachedLoadMs >= 0);
+
+        repository.listener.onStoreAdded(store("remote", 27.72));
+        repository.listener.onInitialLoadComplete();
+
+        assertEquals(2, published.size());
+        assertEquals(2, published.get(1).getVersion());
+        assertNull(published.get(1).getStoreById("cached"));
+        assertEquals(1, cache.getAll().size());
+        assertEquals("remote", cache.getAll().get(0).getId());
+    }
+
+    @Test
+    public void childEvents_areCoalescedAndWrittenThrough() {
+        engine.start();
+        repository.listener.onStoreAdded(store("a", 27.71));
+        repository.listener.onInitialLoadComplete();
+        runDeliveries();
+        int before = published.size();
+
+        repository.listener.onStoreAdded(store("b", 27.72));
+        repository.listener.onStoreChanged(store("a", 27.75));
+        repository.listener.onStoreRemoved("missing");
+        runDeliveries();
+
+        assertEquals(before + 1, published.size());
+        StoreSnapshot latest = engine.getSnapshot();
+        assertEquals(2, latest.size());
+        assertEquals(27.75, latest.getStoreById("a").getLatitude(), 0);
+
+        repository.listener.onStoreRemoved("b");
+        runDeliveries();
+        assertEquals(1, engine.getSnapshot().size());
+        assertEquals(1, cache.getAll().size());
+
+        StoreSyncEngine.Metrics metrics = engine.getMetrics();
+        assertEquals(2, metrics.storesAdded);
+        assertEquals(1, metrics.storesChanged);
+        assertEquals(1, metrics.storesRemoved);
+        assertTrue(metrics.initialSyncMs >= 0);
+        assertTrue(metrics.lastPublishDelayMs >= 0);
+    }
+
+    @Test
+    public void start_keepsExactlyOneSubscription() {
+        assertTrue(engine.start());
+        assertFalse(engine.start());
+        assertFalse(engine.start());
+        assertEquals(1, repository.activeRegistrations);
+
+        engine.stop();
+        assertEquals(0, repository.activeRegistrations);
+        assertTrue(engine.start());
+        assertEquals(1, repository.activeRegistrations);
+    }
+
+    @Test
+    public void lateCacheRead_doesNotReplaceRemoteStores() {
+        cache.replaceAll(Arrays.asList(store("stale", 27.71)));
+        engine.start();
+        repository.listener.onStoreAdded(store("fresh", 27.72));
+        repository.listener.onInitialLoadComplete();
+
+        // The cache read was queued before the remote load finished
+        runDeliveries();
+
+        assertEquals(1, published.size());
+        assertEquals("fresh", engine.getSnapshot().getStores().get(0).getId());
+    }
+
+    private void runDeliveries() {
+        while (!pendingDeliveries.isEmpty()) {
+            pendingDeliveries.remove(0).run();
+        }
+    }
+
+    private static Store store(String id, double latitude) {
+        return new Store(id, id, "", latitude, 85.32, "Supermarket", "", null);
+    }
+
+    private static class FakeStoreRepository implements StoreRepository {
+        StoreEventListener listener;
+        int activeRegistrations;
+
+        @Override
+        public Registration addStoreEventListener(StoreEventListener listener) {
+            this.listener = listener;
+            activeRegistrations++;
+            return () -> activeRegistrations--;
+        }
+    }
+}